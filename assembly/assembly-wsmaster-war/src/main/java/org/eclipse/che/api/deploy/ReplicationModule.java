@@ -22,6 +22,8 @@ import org.eclipse.che.api.workspace.server.WorkspaceStatusCache;
 import org.eclipse.che.multiuser.api.distributed.JGroupsServiceTermination;
 import org.eclipse.che.multiuser.api.distributed.WorkspaceStopPropagator;
 import org.eclipse.che.multiuser.api.distributed.subscription.DistributedRemoteSubscriptionStorage;
+import org.eclipse.che.multiuser.machine.authentication.server.signature.SignatureKeyInvalidationChannel;
+import org.eclipse.che.multiuser.organization.spi.jpa.MemberCacheInvalidationChannel;
 import org.eclipse.persistence.config.CacheCoordinationProtocol;
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 
@@ -51,6 +53,14 @@ public class ReplicationModule extends AbstractModule {
         .to(org.eclipse.che.multiuser.api.distributed.lock.JGroupsWorkspaceLockService.class);
     bind(WorkspaceStatusCache.class)
         .to(org.eclipse.che.multiuser.api.distributed.cache.JGroupsWorkspaceStatusCache.class);
+    bind(MemberCacheInvalidationChannel.class)
+        .to(
+            org.eclipse.che.multiuser.api.distributed.cache.JGroupsMemberCacheInvalidationChannel
+                .class);
+    bind(SignatureKeyInvalidationChannel.class)
+        .to(
+            org.eclipse.che.multiuser.api.distributed.cache.JGroupsSignatureKeyInvalidationChannel
+                .class);
 
     Multibinder.newSetBinder(binder(), ServiceTermination.class)
         .addBinding()
@@ -69,6 +69,7 @@ import org.eclipse.che.api.workspace.server.token.MachineTokenProvider;
 import org.eclipse.che.api.workspace.server.wsplugins.ChePluginsApplier;
 import org.eclipse.che.commons.observability.deploy.ExecutorWrapperModule;
 import org.eclipse.che.core.db.DBTermination;
+import org.eclipse.che.core.db.PersistenceProfile;
 import org.eclipse.che.core.db.schema.SchemaInitializer;
 import org.eclipse.che.core.tracing.metrics.TracingMetricsModule;
 import org.eclipse.che.inject.DynaModule;
@@ -250,6 +251,9 @@ public class WsMasterModule extends AbstractModule {
     persistenceProperties.put(PersistenceUnitProperties.LOGGING_LEVEL, "SEVERE");
     persistenceProperties.put(
         PersistenceUnitProperties.NON_JTA_DATASOURCE, "java:/comp/env/jdbc/che");
+    final PersistenceProfile persistenceProfile = PersistenceProfile.fromEnv();
+    persistenceProperties.putAll(persistenceProfile.toPersistenceProperties());
+    bind(PersistenceProfile.class).toInstance(persistenceProfile);
     bindConstant().annotatedWith(Names.named("jndi.datasource.name")).to("java:/comp/env/jdbc/che");
 
     String infrastructure = System.getenv("CHE_INFRASTRUCTURE_ACTIVE");
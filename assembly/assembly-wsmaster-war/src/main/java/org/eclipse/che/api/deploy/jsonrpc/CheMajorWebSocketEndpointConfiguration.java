@@ -15,6 +15,7 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessorConfigurationProvider;
@@ -60,12 +61,15 @@ public class CheMajorWebSocketEndpointConfiguration
                         .setDaemon(true)
                         .build())
                 .rejectedExecutionHandler(
-                    (r, executor) ->
-                        LOG.error(
-                            "Executor on major websocket endpoint rejected to handle the payload {}. Some important messages may be lost. Consider increasing `{}`. Now it's configured to {}",
-                            r,
-                            JSON_RPC_MAJOR_QUEUE_CAPACITY_PARAMETER_NAME,
-                            queueCapacity))
+                    (r, executor) -> {
+                      LOG.error(
+                          "Executor on major websocket endpoint rejected to handle the payload {}. Some important messages may be lost. Consider increasing `{}`. Now it's configured to {}",
+                          r,
+                          JSON_RPC_MAJOR_QUEUE_CAPACITY_PARAMETER_NAME,
+                          queueCapacity);
+                      // let the request processor respond with an error
+                      throw new RejectedExecutionException("Queue of JSON RPC requests is full");
+                    })
                 .build(),
             CheMajorWebSocketEndpoint.ENDPOINT_ID);
   }
@@ -71,9 +71,7 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
     List<String> messages = jsonRpcUnmarshaller.unmarshalArray(message);
     for (String innerMessage : messages) {
       if (jsonRpcQualifier.isJsonRpcRequest(innerMessage)) {
-        String endpointId = combinedEndpointId.split(SEPARATOR)[1];
-        ProcessRequestTask task = new ProcessRequestTask(combinedEndpointId, innerMessage);
-        requestProcessor.process(endpointId, task);
+        processRequest(combinedEndpointId, innerMessage);
       } else if (jsonRpcQualifier.isJsonRpcResponse(innerMessage)) {
         processResponse(combinedEndpointId, innerMessage);
       } else {
@@ -89,6 +87,33 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
     throw exception;
   }
 
+  private void processRequest(String combinedEndpointId, String innerMessage) {
+    JsonRpcRequest request;
+    try {
+      request = jsonRpcUnmarshaller.unmarshalRequest(innerMessage);
+    } catch (JsonRpcException e) {
+      errorTransmitter.transmit(combinedEndpointId, e);
+      return;
+    }
+
+    String endpointId = combinedEndpointId.split(SEPARATOR)[1];
+    ProcessRequestTask task = new ProcessRequestTask(combinedEndpointId, request);
+    try {
+      requestProcessor.process(endpointId, combinedEndpointId, request.getMethod(), task);
+    } catch (JsonRpcException e) {
+      LOGGER.warn(
+          "Request of method '{}' from endpoint {} is rejected: {}",
+          request.getMethod(),
+          combinedEndpointId,
+          e.getMessage());
+      // there is no one to respond to for notifications
+      if (request.hasId()) {
+        errorTransmitter.transmit(
+            combinedEndpointId, new JsonRpcException(e.getCode(), e.getMessage(), request.getId()));
+      }
+    }
+  }
+
   private void processResponse(String endpointId, String innerMessage) {
     JsonRpcResponse response = jsonRpcUnmarshaller.unmarshalResponse(innerMessage);
     responseDispatcher.dispatch(endpointId, response);
@@ -97,21 +122,19 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
   private class ProcessRequestTask implements Runnable {
 
     private final String endpointId;
-    private final String innerMessage;
+    private final JsonRpcRequest request;
 
-    public ProcessRequestTask(String endpointId, String innerMessage) {
+    public ProcessRequestTask(String endpointId, JsonRpcRequest request) {
       this.endpointId = endpointId;
-      this.innerMessage = innerMessage;
+      this.request = request;
     }
 
     @Override
     public void run() {
-      JsonRpcRequest request = null;
       try {
-        request = jsonRpcUnmarshaller.unmarshalRequest(innerMessage);
         requestDispatcher.dispatch(endpointId, request);
       } catch (JsonRpcException e) {
-        if (request == null || request.getId() == null) {
+        if (request.getId() == null) {
           errorTransmitter.transmit(endpointId, e);
         } else {
           errorTransmitter.transmit(
@@ -122,7 +145,7 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
 
     @Override
     public String toString() {
-      return "JsonRPC request `" + innerMessage + "` for " + endpointId;
+      return "JsonRPC request `" + request.getMethod() + "` for " + endpointId;
     }
   }
 }
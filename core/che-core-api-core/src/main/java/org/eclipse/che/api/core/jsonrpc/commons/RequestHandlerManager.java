@@ -13,13 +13,14 @@ package org.eclipse.che.api.core.jsonrpc.commons;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -28,45 +29,46 @@ import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
 import org.slf4j.Logger;
 
 /**
- * Manages request handlers. There are nine types of such handlers that differs by the type and
+ * Manages request handlers. There are ten types of such handlers that differs by the type and
  * number of incoming parameters and outgoing results:
  *
  * <ul>
- *   <li>{@link NoneToNoneHandler} - to receive a notification w/o parameters
- *   <li>{@link NoneToOneHandler} - to receive a request w/o parameters and a single result
- *   <li>{@link NoneToManyHandler} - to receive a request w/o parameters and multiple results
- *   <li>{@link OneToNoneHandler} - to receive a notification with a single parameter
- *   <li>{@link OneToOneHandler} - to receive a request with a single parameter and a single result
- *   <li>{@link OneToManyHandler}- to receive a request with a single parameter and multiple results
- *   <li>{@link ManyToNoneHandler} - to receive a notification with multiple parameters
- *   <li>{@link ManyToOneHandler} - to receive request with multiple parameters and a single result
- *   <li>{@link ManyToManyHandler} - to receive request with multiple parameters and multiple
+ *   <li>{@link Category#NONE_TO_NONE} - to receive a notification w/o parameters
+ *   <li>{@link Category#NONE_TO_ONE} - to receive a request w/o parameters and a single result
+ *   <li>{@link Category#NONE_TO_MANY} - to receive a request w/o parameters and multiple results
+ *   <li>{@link Category#ONE_TO_NONE} - to receive a notification with a single parameter
+ *   <li>{@link Category#ONE_TO_ONE} - to receive a request with a single parameter and a single
+ *       result
+ *   <li>{@link Category#ONE_TO_PROMISE_ONE} - to receive a request with a single parameter and a
+ *       single result which is transmitted when the returned promise is resolved
+ *   <li>{@link Category#ONE_TO_MANY} - to receive a request with a single parameter and multiple
+ *       results
+ *   <li>{@link Category#MANY_TO_NONE} - to receive a notification with multiple parameters
+ *   <li>{@link Category#MANY_TO_ONE} - to receive request with multiple parameters and a single
+ *       result
+ *   <li>{@link Category#MANY_TO_MANY} - to receive request with multiple parameters and multiple
  *       results
  * </ul>
+ *
+ * <p>Handlers are kept in an immutable table of invokers which is copied on each registration, so
+ * handling of a request takes a single lookup without locking. Invoker is composed at registration
+ * time of the parameters decoder, method filters and the handler with its results encoder.
  */
 @Singleton
 public class RequestHandlerManager {
   private static final Logger LOGGER = getLogger(RequestHandlerManager.class);
 
-  private final Multimap<String, JsonRpcMethodInvokerFilter> filters = ArrayListMultimap.create();
-
-  private final Map<String, Category> methodToCategory = new ConcurrentHashMap<>();
-  private final Map<String, OneToOneHandler> oneToOneHandlers = new ConcurrentHashMap<>();
-  private final Map<String, OneToPromiseOneHandler> oneToPromiseOneHandlers =
-      new ConcurrentHashMap<>();
-  private final Map<String, OneToManyHandler> oneToManyHandlers = new ConcurrentHashMap<>();
-  private final Map<String, OneToNoneHandler> oneToNoneHandlers = new ConcurrentHashMap<>();
-  private final Map<String, ManyToOneHandler> manyToOneHandlers = new ConcurrentHashMap<>();
-  private final Map<String, ManyToManyHandler> manyToManyHandlers = new ConcurrentHashMap<>();
-  private final Map<String, ManyToNoneHandler> manyToNoneHandlers = new ConcurrentHashMap<>();
-  private final Map<String, NoneToOneHandler> noneToOneHandlers = new ConcurrentHashMap<>();
-  private final Map<String, NoneToManyHandler> noneToManyHandlers = new ConcurrentHashMap<>();
-  private final Map<String, NoneToNoneHandler> noneToNoneHandlers = new ConcurrentHashMap<>();
+  /** Filters by method, including the ones of methods which are not registered yet. */
+  private final Map<String, List<JsonRpcMethodInvokerFilter>> filters = new HashMap<>();
+
+  private volatile Map<String, Invoker<?>> invokers = ImmutableMap.of();
 
   private final WebSocketMessageTransmitter transmitter;
   private final JsonRpcComposer dtoComposer;
   private final JsonRpcMarshaller marshaller;
 
+  private RequestHandlingListener handlingListener = RequestHandlingListener.NOOP;
+
   @Inject
   public RequestHandlerManager(
       WebSocketMessageTransmitter transmitter,
@@ -77,19 +79,33 @@ public class RequestHandlerManager {
     this.marshaller = marshaller;
   }
 
+  @Inject(optional = true)
+  public void setHandlingListener(RequestHandlingListener handlingListener) {
+    this.handlingListener = handlingListener;
+  }
+
   public synchronized <P, R> void registerOneToOne(
       String method, Class<P> pClass, Class<R> rClass, BiFunction<String, P, R> biFunction) {
-    mustNotBeRegistered(method);
-
-    methodToCategory.put(method, Category.ONE_TO_ONE);
-    oneToOneHandlers.put(method, new OneToOneHandler<>(pClass, rClass, biFunction));
+    register(
+        method,
+        Category.ONE_TO_ONE,
+        params -> dtoComposer.composeOne(params, pClass),
+        (endpointId, requestId, param) ->
+            transmitOne(endpointId, requestId, biFunction.apply(endpointId, param)),
+        null);
   }
 
   public synchronized void registerMethodInvokerFilter(
       JsonRpcMethodInvokerFilter filter, String... methods) {
+    Map<String, Invoker<?>> copy = new HashMap<>(invokers);
     for (String method : methods) {
-      filters.put(method, filter);
+      filters.computeIfAbsent(method, m -> new ArrayList<>()).add(filter);
+      Invoker<?> invoker = copy.get(method);
+      if (invoker != null) {
+        copy.put(method, invoker.withFilters(filtersOf(method)));
+      }
     }
+    invokers = ImmutableMap.copyOf(copy);
   }
 
   public synchronized <P, R> void registerOneToPromiseOne(
@@ -97,33 +113,45 @@ public class RequestHandlerManager {
       Class<P> pClass,
       Class<R> rClass,
       BiFunction<String, P, JsonRpcPromise<R>> function) {
-    mustNotBeRegistered(method);
-    methodToCategory.put(method, Category.ONE_TO_PROMISE_ONE);
-    oneToPromiseOneHandlers.put(method, new OneToPromiseOneHandler<>(pClass, rClass, function));
+    register(
+        method,
+        Category.ONE_TO_PROMISE_ONE,
+        params -> dtoComposer.composeOne(params, pClass),
+        (endpointId, requestId, param) ->
+            transmitPromiseOne(endpointId, requestId, function.apply(endpointId, param)),
+        null);
   }
 
   public synchronized <P, R> void registerOneToMany(
       String method, Class<P> pClass, Class<R> rClass, BiFunction<String, P, List<R>> biFunction) {
-    mustNotBeRegistered(method);
-
-    methodToCategory.put(method, Category.ONE_TO_MANY);
-    oneToManyHandlers.put(method, new OneToManyHandler<>(pClass, rClass, biFunction));
+    register(
+        method,
+        Category.ONE_TO_MANY,
+        params -> dtoComposer.composeOne(params, pClass),
+        (endpointId, requestId, param) ->
+            transmitMany(endpointId, requestId, biFunction.apply(endpointId, param)),
+        null);
   }
 
   public synchronized <P> void registerOneToNone(
       String method, Class<P> pClass, BiConsumer<String, P> biConsumer) {
-    mustNotBeRegistered(method);
-
-    methodToCategory.put(method, Category.ONE_TO_NONE);
-    oneToNoneHandlers.put(method, new OneToNoneHandler<>(pClass, biConsumer));
+    register(
+        method,
+        Category.ONE_TO_NONE,
+        params -> dtoComposer.composeOne(params, pClass),
+        null,
+        biConsumer);
   }
 
   public synchronized <P, R> void registerManyToOne(
       String method, Class<P> pClass, Class<R> rClass, BiFunction<String, List<P>, R> biFunction) {
-    mustNotBeRegistered(method);
-
-    methodToCategory.put(method, Category.MANY_TO_ONE);
-    manyToOneHandlers.put(method, new ManyToOneHandler<>(pClass, rClass, biFunction));
+    register(
+        method,
+        Category.MANY_TO_ONE,
+        params -> dtoComposer.composeMany(params, pClass),
+        (endpointId, requestId, param) ->
+            transmitOne(endpointId, requestId, biFunction.apply(endpointId, param)),
+        null);
   }
 
   public synchronized <P, R> void registerManyToMany(
@@ -131,145 +159,130 @@ public class RequestHandlerManager {
       Class<P> pClass,
       Class<R> rClass,
       BiFunction<String, List<P>, List<R>> function) {
-    mustNotBeRegistered(method);
-
-    methodToCategory.put(method, Category.MANY_TO_MANY);
-    manyToManyHandlers.put(method, new ManyToManyHandler<>(pClass, rClass, function));
+    register(
+        method,
+        Category.MANY_TO_MANY,
+        params -> dtoComposer.composeMany(params, pClass),
+        (endpointId, requestId, param) ->
+            transmitMany(endpointId, requestId, function.apply(endpointId, param)),
+        null);
   }
 
   public synchronized <P> void registerManyToNone(
       String method, Class<P> pClass, BiConsumer<String, List<P>> biConsumer) {
-    mustNotBeRegistered(method);
-
-    methodToCategory.put(method, Category.MANY_TO_NONE);
-    manyToNoneHandlers.put(method, new ManyToNoneHandler<>(pClass, biConsumer));
+    register(
+        method,
+        Category.MANY_TO_NONE,
+        params -> dtoComposer.composeMany(params, pClass),
+        null,
+        biConsumer);
   }
 
   public synchronized <R> void registerNoneToOne(
       String method, Class<R> rClass, Function<String, R> function) {
-    mustNotBeRegistered(method);
-
-    methodToCategory.put(method, Category.NONE_TO_ONE);
-    noneToOneHandlers.put(method, new NoneToOneHandler<>(rClass, function));
+    this.<Void>register(
+        method,
+        Category.NONE_TO_ONE,
+        null,
+        (endpointId, requestId, ignored) ->
+            transmitOne(endpointId, requestId, function.apply(endpointId)),
+        null);
   }
 
   public synchronized <R> void registerNoneToMany(
       String method, Class<R> rClass, Function<String, List<R>> function) {
-    mustNotBeRegistered(method);
-
-    methodToCategory.put(method, Category.NONE_TO_MANY);
-    noneToManyHandlers.put(method, new NoneToManyHandler<>(rClass, function));
+    this.<Void>register(
+        method,
+        Category.NONE_TO_MANY,
+        null,
+        (endpointId, requestId, ignored) ->
+            transmitMany(endpointId, requestId, function.apply(endpointId)),
+        null);
   }
 
   public synchronized void registerNoneToNone(String method, Consumer<String> consumer) {
-    mustNotBeRegistered(method);
-
-    methodToCategory.put(method, Category.NONE_TO_NONE);
-    noneToNoneHandlers.put(method, new NoneToNoneHandler(consumer));
+    this.<Void>register(
+        method,
+        Category.NONE_TO_NONE,
+        null,
+        null,
+        (endpointId, ignored) -> consumer.accept(endpointId));
   }
 
   public boolean isRegistered(String method) {
-    return methodToCategory.containsKey(method);
+    return invokers.containsKey(method);
   }
 
   public synchronized boolean deregister(String method) {
-    Category category = methodToCategory.remove(method);
-
-    if (category == null) {
+    if (!invokers.containsKey(method)) {
       return false;
     }
-
-    switch (category) {
-      case ONE_TO_ONE:
-        oneToOneHandlers.remove(method);
-        break;
-      case ONE_TO_MANY:
-        oneToManyHandlers.remove(method);
-        break;
-      case ONE_TO_NONE:
-        oneToNoneHandlers.remove(method);
-        break;
-      case MANY_TO_ONE:
-        manyToOneHandlers.remove(method);
-        break;
-      case MANY_TO_MANY:
-        manyToManyHandlers.remove(method);
-        break;
-      case MANY_TO_NONE:
-        manyToNoneHandlers.remove(method);
-        break;
-      case NONE_TO_ONE:
-        noneToOneHandlers.remove(method);
-        break;
-      case NONE_TO_MANY:
-        noneToManyHandlers.remove(method);
-        break;
-      case NONE_TO_NONE:
-        noneToNoneHandlers.remove(method);
-        break;
-      case ONE_TO_PROMISE_ONE:
-        oneToPromiseOneHandlers.remove(method);
-        break;
-    }
-
+    Map<String, Invoker<?>> copy = new HashMap<>(invokers);
+    copy.remove(method);
+    invokers = ImmutableMap.copyOf(copy);
     return true;
   }
 
   public <P, R> void handle(
       String endpointId, String requestId, String method, JsonRpcParams params) {
-    mustBeRegistered(method);
-
-    switch (methodToCategory.get(method)) {
-      case ONE_TO_ONE:
-        oneToOneHandlers.get(method).handle(endpointId, requestId, method, params);
-        break;
-      case ONE_TO_MANY:
-        oneToManyHandlers.get(method).handle(endpointId, requestId, method, params);
-        break;
-      case MANY_TO_ONE:
-        manyToOneHandlers.get(method).handle(endpointId, requestId, method, params);
-        break;
-      case MANY_TO_MANY:
-        manyToManyHandlers.get(method).handle(endpointId, requestId, method, params);
-        break;
-      case NONE_TO_ONE:
-        noneToOneHandlers.get(method).handle(endpointId, requestId, method, params);
-        break;
-      case NONE_TO_MANY:
-        noneToManyHandlers.get(method).handle(endpointId, requestId, method, params);
-        break;
-      case ONE_TO_PROMISE_ONE:
-        oneToPromiseOneHandlers.get(method).handle(endpointId, requestId, method, params);
-        break;
-      default:
-        LOGGER.error("Something went wrong trying to find out handler category");
+    Invoker<?> invoker = mustBeRegistered(method);
+
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      invoker.handleRequest(endpointId, requestId, params);
+      failed = false;
+    } finally {
+      handlingListener.onHandled(method, System.nanoTime() - start, failed);
     }
   }
 
   public void handle(String endpointId, String method, JsonRpcParams params) {
-    mustBeRegistered(method);
-
-    switch (methodToCategory.get(method)) {
-      case ONE_TO_NONE:
-        oneToNoneHandlers.get(method).handle(endpointId, method, params);
-        break;
-      case MANY_TO_NONE:
-        manyToNoneHandlers.get(method).handle(endpointId, method, params);
-        break;
-      case NONE_TO_NONE:
-        noneToNoneHandlers.get(method).handle(method, endpointId);
-        break;
-      default:
-        LOGGER.error("Something went wrong trying to find out handler category");
+    Invoker<?> invoker = mustBeRegistered(method);
+
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      invoker.handleNotification(endpointId, params);
+      failed = false;
+    } finally {
+      handlingListener.onHandled(method, System.nanoTime() - start, failed);
     }
   }
 
-  private void mustBeRegistered(String method) {
-    if (!isRegistered(method)) {
+  private <T> void register(
+      String method,
+      Category category,
+      Function<JsonRpcParams, T> decoder,
+      RequestInvocation<T> requestInvocation,
+      BiConsumer<String, T> notificationInvocation) {
+    mustNotBeRegistered(method);
+
+    Invoker<T> invoker =
+        new Invoker<>(
+            method,
+            category,
+            decoder,
+            requestInvocation,
+            notificationInvocation,
+            filtersOf(method));
+    invokers =
+        ImmutableMap.<String, Invoker<?>>builder().putAll(invokers).put(method, invoker).build();
+  }
+
+  private List<JsonRpcMethodInvokerFilter> filtersOf(String method) {
+    List<JsonRpcMethodInvokerFilter> methodFilters = filters.get(method);
+    return methodFilters == null ? ImmutableList.of() : ImmutableList.copyOf(methodFilters);
+  }
+
+  private Invoker<?> mustBeRegistered(String method) {
+    Invoker<?> invoker = invokers.get(method);
+    if (invoker == null) {
       String message = "Method '" + method + "' is not registered";
       LOGGER.error(message);
       throw new IllegalStateException(message);
     }
+    return invoker;
   }
 
   private void mustNotBeRegistered(String method) {
@@ -280,21 +293,7 @@ public class RequestHandlerManager {
     }
   }
 
-  private <P> List<P> composeMany(JsonRpcParams params, Class<P> pClass) {
-    return dtoComposer.composeMany(params, pClass);
-  }
-
-  private <P> P composeOne(JsonRpcParams params, Class<P> pClass) {
-    return dtoComposer.composeOne(params, pClass);
-  }
-
-  private void filter(String method, Object... param) {
-    for (JsonRpcMethodInvokerFilter filter : filters.get(method)) {
-      filter.accept(method, param);
-    }
-  }
-
-  private <R> void transmitOne(String endpointId, String id, R result) {
+  private void transmitOne(String endpointId, String id, Object result) {
     JsonRpcResult jsonRpcResult = new JsonRpcResult(result);
     JsonRpcResponse jsonRpcResponse = new JsonRpcResponse(id, jsonRpcResult, null);
     String message = marshaller.marshall(jsonRpcResponse);
@@ -332,180 +331,73 @@ public class RequestHandlerManager {
     ONE_TO_PROMISE_ONE
   }
 
-  private class OneToOneHandler<P, R> {
-    private final Class<P> pClass;
-    private final Class<R> rClass;
-    private final BiFunction<String, P, R> biFunction;
-
-    private OneToOneHandler(Class<P> pClass, Class<R> rClass, BiFunction<String, P, R> biFunction) {
-      this.pClass = pClass;
-      this.rClass = rClass;
-      this.biFunction = biFunction;
-    }
-
-    private void handle(String endpointId, String requestId, String method, JsonRpcParams params) {
-      P param = composeOne(params, pClass);
-      for (JsonRpcMethodInvokerFilter filter : filters.get(method)) {
-        filter.accept(method, param);
-      }
-      transmitOne(endpointId, requestId, biFunction.apply(endpointId, param));
-    }
-  }
-
-  private class OneToPromiseOneHandler<P, R> {
-    private final Class<P> pClass;
-    private final Class<R> rClass;
-    private BiFunction<String, P, JsonRpcPromise<R>> function;
-
-    private OneToPromiseOneHandler(
-        Class<P> pClass, Class<R> rClass, BiFunction<String, P, JsonRpcPromise<R>> function) {
-      this.pClass = pClass;
-      this.rClass = rClass;
-      this.function = function;
-    }
-
-    private void handle(String endpointId, String requestId, String method, JsonRpcParams params) {
-      P param = dtoComposer.composeOne(params, pClass);
-      filter(method, param);
-      transmitPromiseOne(endpointId, requestId, function.apply(endpointId, param));
-    }
-  }
-
-  private class OneToManyHandler<P, R> {
-    private final Class<P> pClass;
-    private final Class<R> rClass;
-    private final BiFunction<String, P, List<R>> biFunction;
-
-    private OneToManyHandler(
-        Class<P> pClass, Class<R> rClass, BiFunction<String, P, List<R>> biFunction) {
-      this.pClass = pClass;
-      this.rClass = rClass;
-      this.biFunction = biFunction;
-    }
-
-    private void handle(String endpointId, String requestId, String method, JsonRpcParams params) {
-      P param = dtoComposer.composeOne(params, pClass);
-      filter(method, param);
-      transmitMany(endpointId, requestId, biFunction.apply(endpointId, param));
-    }
-  }
-
-  private class OneToNoneHandler<P> {
-    private final Class<P> pClass;
-    private final BiConsumer<String, P> biConsumer;
-
-    private OneToNoneHandler(Class<P> pClass, BiConsumer<String, P> biConsumer) {
-      this.pClass = pClass;
-      this.biConsumer = biConsumer;
+  /** Invokes the handler with the decoded parameters and transmits its results. */
+  @FunctionalInterface
+  private interface RequestInvocation<T> {
+    void invoke(String endpointId, String requestId, T params);
+  }
+
+  /**
+   * Precompiled invoker of a method.
+   *
+   * @param <T> type of the decoded parameters, {@link Void} for methods w/o parameters
+   */
+  private static class Invoker<T> {
+    private final String method;
+    private final Category category;
+    private final Function<JsonRpcParams, T> decoder;
+    private final RequestInvocation<T> requestInvocation;
+    private final BiConsumer<String, T> notificationInvocation;
+    private final List<JsonRpcMethodInvokerFilter> filters;
+
+    private Invoker(
+        String method,
+        Category category,
+        Function<JsonRpcParams, T> decoder,
+        RequestInvocation<T> requestInvocation,
+        BiConsumer<String, T> notificationInvocation,
+        List<JsonRpcMethodInvokerFilter> filters) {
+      this.method = method;
+      this.category = category;
+      this.decoder = decoder;
+      this.requestInvocation = requestInvocation;
+      this.notificationInvocation = notificationInvocation;
+      this.filters = filters;
     }
 
-    private void handle(String endpointId, String method, JsonRpcParams params) {
-      P param = composeOne(params, pClass);
-      filter(method, param);
-      biConsumer.accept(endpointId, param);
+    private Invoker<T> withFilters(List<JsonRpcMethodInvokerFilter> filters) {
+      return new Invoker<>(
+          method, category, decoder, requestInvocation, notificationInvocation, filters);
     }
-  }
 
-  private class ManyToOneHandler<P, R> {
-    private final Class<P> pClass;
-    private final Class<R> rClass;
-    private final BiFunction<String, List<P>, R> biFunction;
-
-    private ManyToOneHandler(
-        Class<P> pClass, Class<R> rClass, BiFunction<String, List<P>, R> biFunction) {
-      this.pClass = pClass;
-      this.rClass = rClass;
-      this.biFunction = biFunction;
-    }
-
-    private void handle(
-        String endpointId, String requestId, String method, JsonRpcParams jsonParam) {
-      List<P> param = dtoComposer.composeMany(jsonParam, pClass);
-      filter(method, param);
-      transmitOne(endpointId, requestId, biFunction.apply(endpointId, param));
-    }
-  }
-
-  private class ManyToManyHandler<P, R> {
-    private final Class<P> pClass;
-    private final Class<R> rClass;
-    private final BiFunction<String, List<P>, List<R>> biFunction;
-
-    private ManyToManyHandler(
-        Class<P> pClass, Class<R> rClass, BiFunction<String, List<P>, List<R>> biFunction) {
-      this.pClass = pClass;
-      this.rClass = rClass;
-      this.biFunction = biFunction;
-    }
-
-    private void handle(
-        String endpointId, String requestId, String method, JsonRpcParams jsonParams) {
-      List<P> params = dtoComposer.composeMany(jsonParams, pClass);
-      filter(method, params);
-      transmitMany(endpointId, requestId, biFunction.apply(endpointId, params));
-    }
-  }
-
-  private class ManyToNoneHandler<P> {
-    private final Class<P> pClass;
-    private final BiConsumer<String, List<P>> biConsumer;
-
-    private ManyToNoneHandler(Class<P> pClass, BiConsumer<String, List<P>> biConsumer) {
-      this.pClass = pClass;
-      this.biConsumer = biConsumer;
-    }
-
-    private void handle(String endpointId, String method, JsonRpcParams params) {
-      List<P> listDto = composeMany(params, pClass);
-      filter(method, listDto);
-      biConsumer.accept(endpointId, listDto);
-    }
-
-    public List<P> compose(JsonRpcParams params) {
-      return dtoComposer.composeMany(params, pClass);
-    }
-  }
-
-  private class NoneToOneHandler<R> {
-    private final Class<R> rClass;
-    private final Function<String, R> function;
-
-    private NoneToOneHandler(Class<R> rClass, Function<String, R> function) {
-      this.rClass = rClass;
-      this.function = function;
-    }
-
-    private void handle(String endpointId, String requestId, String method, JsonRpcParams params) {
-      filter(method);
-      transmitOne(endpointId, requestId, function.apply(endpointId));
-    }
-  }
-
-  private class NoneToManyHandler<R> {
-    private final Class<R> rClass;
-    private final Function<String, List<R>> function;
-
-    private NoneToManyHandler(Class<R> rClass, Function<String, List<R>> function) {
-      this.rClass = rClass;
-      this.function = function;
-    }
-
-    private void handle(String endpointId, String requestId, String method, JsonRpcParams params) {
-      filter(method);
-      transmitMany(endpointId, requestId, function.apply(endpointId));
+    private void handleRequest(String endpointId, String requestId, JsonRpcParams params) {
+      if (requestInvocation == null) {
+        LOGGER.error("Method '{}' of category {} can't handle requests", method, category);
+        return;
+      }
+      requestInvocation.invoke(endpointId, requestId, decodeAndFilter(params));
     }
-  }
-
-  private class NoneToNoneHandler {
-    private final Consumer<String> consumer;
 
-    private NoneToNoneHandler(Consumer<String> consumer) {
-      this.consumer = consumer;
+    private void handleNotification(String endpointId, JsonRpcParams params) {
+      if (notificationInvocation == null) {
+        LOGGER.error("Method '{}' of category {} can't handle notifications", method, category);
+        return;
+      }
+      notificationInvocation.accept(endpointId, decodeAndFilter(params));
     }
 
-    private void handle(String method, String endpointId) {
-      filter(method);
-      consumer.accept(endpointId);
+    private T decodeAndFilter(JsonRpcParams params) {
+      if (decoder == null) {
+        for (JsonRpcMethodInvokerFilter filter : filters) {
+          filter.accept(method);
+        }
+        return null;
+      }
+      T param = decoder.apply(params);
+      for (JsonRpcMethodInvokerFilter filter : filters) {
+        filter.accept(method, param);
+      }
+      return param;
     }
   }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.commons;
+
+/**
+ * Is notified about JSON RPC requests and notifications handled by {@link RequestHandlerManager}
+ * and admitted by {@link RequestProcessor}. For example, can be used to measure latency of JSON RPC
+ * methods.
+ */
+public interface RequestHandlingListener {
+
+  /** Listener which does nothing. */
+  RequestHandlingListener NOOP = (method, durationNanos, failed) -> {};
+
+  /**
+   * Is called after the request or notification is handled.
+   *
+   * @param method name of the invoked method
+   * @param durationNanos time spent on handling in nanoseconds, including composing of parameters
+   *     and transmitting of the result, excluding completion of promised results
+   * @param failed whether handling failed with an exception
+   */
+  void onHandled(String method, long durationNanos, boolean failed);
+
+  /**
+   * Is called when the admitted request is taken from the queue for processing.
+   *
+   * @param method name of the requested method
+   * @param waitNanos time the request waited in the queue in nanoseconds
+   */
+  default void onDequeued(String method, long waitNanos) {}
+
+  /**
+   * Is called when the request is rejected because too many requests are being processed.
+   *
+   * @param method name of the requested method
+   */
+  default void onRejected(String method) {}
+}
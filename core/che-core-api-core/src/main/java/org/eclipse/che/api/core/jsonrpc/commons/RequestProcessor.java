@@ -20,4 +20,21 @@ public interface RequestProcessor {
    * @param runnable runnable to be called for processing of a request
    */
   void process(String endpointId, Runnable runnable);
+
+  /**
+   * Process a runnable interface which handles the request of the given method.
+   *
+   * <p>Implementation may reject the request when too many requests are being processed, by default
+   * the request is always processed.
+   *
+   * @param endpointId an endpoint that requested the processing
+   * @param connectionId id of the connection which sent the request
+   * @param method method of the request
+   * @param runnable runnable to be called for processing of a request
+   * @throws JsonRpcException when the request is rejected
+   */
+  default void process(String endpointId, String connectionId, String method, Runnable runnable)
+      throws JsonRpcException {
+    process(endpointId, runnable);
+  }
 }
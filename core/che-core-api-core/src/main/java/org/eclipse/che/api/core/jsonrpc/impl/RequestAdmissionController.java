@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.commons.annotation.Nullable;
+
+/**
+ * Limits the number of JSON RPC requests which are concurrently processed or wait for processing.
+ *
+ * <p>Requests are limited in total per endpoint, per websocket connection and per method, when any
+ * of the limits is reached the request is rejected immediately instead of being queued. Limits
+ * which are not positive are not applied.
+ */
+@Singleton
+public class RequestAdmissionController {
+
+  /** JSON RPC error code of requests rejected because of the exceeded limits. */
+  public static final int SERVER_BUSY_ERROR_CODE = -32000;
+
+  private final int maxRequests;
+  private final int maxConnectionRequests;
+  private final Map<String, Integer> methodMaxRequests;
+
+  private final ConcurrentMap<String, AtomicInteger> endpointRequests = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, AtomicInteger> methodRequests = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Integer> connectionRequests = new ConcurrentHashMap<>();
+
+  @Inject
+  public RequestAdmissionController(
+      @Named("che.core.jsonrpc.admission.max_requests") int maxRequests,
+      @Named("che.core.jsonrpc.admission.max_connection_requests") int maxConnectionRequests,
+      @Nullable @Named("che.core.jsonrpc.admission.method_max_requests") String methodMaxRequests) {
+    this.maxRequests = maxRequests;
+    this.maxConnectionRequests = maxConnectionRequests;
+    this.methodMaxRequests = parseMethodLimits(methodMaxRequests);
+  }
+
+  /**
+   * Admits the request for processing.
+   *
+   * @param endpointId id of the endpoint which received the request
+   * @param connectionId id of the websocket connection which sent the request
+   * @param method method of the request
+   * @return admission which must be released once the request is processed or is not going to be
+   * @throws JsonRpcException with {@link #SERVER_BUSY_ERROR_CODE} code when any of the limits is
+   *     reached
+   */
+  public Admission admit(String endpointId, String connectionId, String method)
+      throws JsonRpcException {
+    AtomicInteger endpointCounter =
+        endpointRequests.computeIfAbsent(endpointId, id -> new AtomicInteger());
+    if (!tryIncrement(endpointCounter, maxRequests)) {
+      throw new JsonRpcException(
+          SERVER_BUSY_ERROR_CODE, "Server is busy, too many requests are being processed");
+    }
+    if (!tryIncrementConnection(connectionId)) {
+      endpointCounter.decrementAndGet();
+      throw new JsonRpcException(
+          SERVER_BUSY_ERROR_CODE, "Too many requests of the connection are being processed");
+    }
+    AtomicInteger methodCounter = null;
+    Integer methodLimit = methodMaxRequests.get(method);
+    if (methodLimit != null) {
+      methodCounter = methodRequests.computeIfAbsent(method, m -> new AtomicInteger());
+      if (!tryIncrement(methodCounter, methodLimit)) {
+        decrementConnection(connectionId);
+        endpointCounter.decrementAndGet();
+        throw new JsonRpcException(
+            SERVER_BUSY_ERROR_CODE,
+            "Too many requests of method '" + method + "' are being processed");
+      }
+    }
+    return new Admission(endpointCounter, connectionId, methodCounter);
+  }
+
+  /** Returns the number of admitted and not yet released requests of the endpoint. */
+  int getRequests(String endpointId) {
+    AtomicInteger counter = endpointRequests.get(endpointId);
+    return counter == null ? 0 : counter.get();
+  }
+
+  /** Returns the number of admitted and not yet released requests of the connection. */
+  int getConnectionRequests(String connectionId) {
+    return connectionRequests.getOrDefault(connectionId, 0);
+  }
+
+  private boolean tryIncrementConnection(String connectionId) {
+    if (maxConnectionRequests <= 0) {
+      return true;
+    }
+    boolean[] admitted = new boolean[1];
+    // counters of connections are removed once they reach zero, so closed connections don't leak
+    connectionRequests.compute(
+        connectionId,
+        (id, count) -> {
+          int current = count == null ? 0 : count;
+          if (current >= maxConnectionRequests) {
+            return count;
+          }
+          admitted[0] = true;
+          return current + 1;
+        });
+    return admitted[0];
+  }
+
+  private void decrementConnection(String connectionId) {
+    if (maxConnectionRequests > 0) {
+      connectionRequests.computeIfPresent(
+          connectionId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+  }
+
+  private static boolean tryIncrement(AtomicInteger counter, int limit) {
+    if (limit <= 0) {
+      counter.incrementAndGet();
+      return true;
+    }
+    int current;
+    do {
+      current = counter.get();
+      if (current >= limit) {
+        return false;
+      }
+    } while (!counter.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private static Map<String, Integer> parseMethodLimits(String methodMaxRequests) {
+    if (isNullOrEmpty(methodMaxRequests)) {
+      return ImmutableMap.of();
+    }
+    ImmutableMap.Builder<String, Integer> limits = ImmutableMap.builder();
+    Splitter.on(',')
+        .trimResults()
+        .omitEmptyStrings()
+        .withKeyValueSeparator(Splitter.on('=').trimResults())
+        .split(methodMaxRequests)
+        .forEach((method, limit) -> limits.put(method, Integer.parseInt(limit)));
+    return limits.build();
+  }
+
+  /** Admission of a single request, releases the taken limits once. */
+  public class Admission {
+
+    private final AtomicInteger endpointCounter;
+    private final String connectionId;
+    private final AtomicInteger methodCounter;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Admission(
+        AtomicInteger endpointCounter, String connectionId, AtomicInteger methodCounter) {
+      this.endpointCounter = endpointCounter;
+      this.connectionId = connectionId;
+      this.methodCounter = methodCounter;
+    }
+
+    /** Releases the admission, subsequent calls have no effect. */
+    public void release() {
+      if (!released.compareAndSet(false, true)) {
+        return;
+      }
+      if (methodCounter != null) {
+        methodCounter.decrementAndGet();
+      }
+      decrementConnection(connectionId);
+      endpointCounter.decrementAndGet();
+    }
+  }
+}
@@ -14,19 +14,33 @@ package org.eclipse.che.api.core.jsonrpc.impl;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlingListener;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessor;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessorConfigurationProvider;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessorConfigurationProvider.Configuration;
+import org.eclipse.che.api.core.jsonrpc.impl.RequestAdmissionController.Admission;
 import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
 
 @Singleton
 public class ServerSideRequestProcessor implements RequestProcessor {
   private final RequestProcessorConfigurationProvider requestProcessorConfigurator;
+  private final RequestAdmissionController admissionController;
+
+  private RequestHandlingListener handlingListener = RequestHandlingListener.NOOP;
 
   @Inject
   public ServerSideRequestProcessor(
-      RequestProcessorConfigurationProvider requestProcessorConfigurator) {
+      RequestProcessorConfigurationProvider requestProcessorConfigurator,
+      RequestAdmissionController admissionController) {
     this.requestProcessorConfigurator = requestProcessorConfigurator;
+    this.admissionController = admissionController;
+  }
+
+  @Inject(optional = true)
+  public void setHandlingListener(RequestHandlingListener handlingListener) {
+    this.handlingListener = handlingListener;
   }
 
   @Override
@@ -35,4 +49,36 @@ public class ServerSideRequestProcessor implements RequestProcessor {
     ExecutorService executionService = configuration.getExecutorService();
     executionService.execute(ThreadLocalPropagateContext.wrap(runnable));
   }
+
+  @Override
+  public void process(String endpointId, String connectionId, String method, Runnable runnable)
+      throws JsonRpcException {
+    Admission admission;
+    try {
+      admission = admissionController.admit(endpointId, connectionId, method);
+    } catch (JsonRpcException e) {
+      handlingListener.onRejected(method);
+      throw e;
+    }
+
+    long queuedAt = System.nanoTime();
+    Runnable admitted =
+        () -> {
+          try {
+            handlingListener.onDequeued(method, System.nanoTime() - queuedAt);
+            runnable.run();
+          } finally {
+            admission.release();
+          }
+        };
+    try {
+      process(endpointId, admitted);
+    } catch (RejectedExecutionException e) {
+      admission.release();
+      handlingListener.onRejected(method);
+      throw new JsonRpcException(
+          RequestAdmissionController.SERVER_BUSY_ERROR_CODE,
+          "Server is busy, the request can't be queued for processing");
+    }
+  }
 }
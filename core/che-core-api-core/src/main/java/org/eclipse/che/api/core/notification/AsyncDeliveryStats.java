@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of events delivery to the subscribers registered with {@link
+ * EventService#subscribeAsync}, aggregated over all of them.
+ */
+public class AsyncDeliveryStats {
+
+  private final AtomicLong queued = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder deliveryLatencyNanos = new LongAdder();
+
+  /** Returns the number of events which are waiting for delivery. */
+  public long getQueuedEvents() {
+    return queued.get();
+  }
+
+  /** Returns the number of events which were dropped because subscribers queues were full. */
+  public long getDroppedEvents() {
+    return dropped.sum();
+  }
+
+  /** Returns the number of events which were delivered to subscribers. */
+  public long getDeliveredEvents() {
+    return delivered.sum();
+  }
+
+  /**
+   * Returns the total time spent by the delivered events between publishing and passing them to the
+   * subscribers.
+   */
+  public double getTotalDeliveryLatency(TimeUnit unit) {
+    return (double) deliveryLatencyNanos.sum() / unit.toNanos(1);
+  }
+
+  void onQueued() {
+    queued.incrementAndGet();
+  }
+
+  void onDropped(int count) {
+    dropped.add(count);
+  }
+
+  void onDequeued(int count) {
+    queued.addAndGet(-count);
+  }
+
+  void onDelivered(long latencyNanos) {
+    delivered.increment();
+    deliveryLatencyNanos.add(latencyNanos);
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subscriber which passes events to the delegate asynchronously.
+ *
+ * <p>Events are put into bounded queues, one per ordering key, and each queue is drained by a
+ * single task of the given executor at a time, so events with the same key are delivered in the
+ * order of publishing while events with different keys may be delivered concurrently. When the
+ * queue of a key is full, newly published events with this key are dropped.
+ *
+ * @see EventService#subscribeAsync(EventSubscriber, Class, Executor, Function, int)
+ */
+class AsyncEventSubscriber<T> implements EventSubscriber<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncEventSubscriber.class);
+
+  /** Max number of events delivered by a single task, to let other keys use the executor. */
+  private static final int DELIVERY_BATCH_SIZE = 64;
+
+  /** Min interval between warnings about dropped events, drops are counted in between. */
+  private static final long DROP_WARNING_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private static final Object NULL_KEY = new Object();
+
+  private final EventSubscriber<? super T> delegate;
+  private final Executor executor;
+  private final Function<? super T, ?> orderingKey;
+  private final int queueCapacity;
+  private final AsyncDeliveryStats stats;
+  private final ConcurrentMap<Object, KeyQueue> queues = new ConcurrentHashMap<>();
+  private final AtomicLong droppedSinceWarning = new AtomicLong();
+  private final AtomicLong lastDropWarningNanos =
+      new AtomicLong(System.nanoTime() - DROP_WARNING_INTERVAL_NANOS);
+
+  AsyncEventSubscriber(
+      EventSubscriber<? super T> delegate,
+      Executor executor,
+      Function<? super T, ?> orderingKey,
+      int queueCapacity,
+      AsyncDeliveryStats stats) {
+    if (queueCapacity <= 0) {
+      throw new IllegalArgumentException("Queue capacity must be positive");
+    }
+    this.delegate = delegate;
+    this.executor = executor;
+    this.orderingKey = orderingKey;
+    this.queueCapacity = queueCapacity;
+    this.stats = stats;
+  }
+
+  @Override
+  public void onEvent(T event) {
+    Object key = orderingKey.apply(event);
+    if (key == null) {
+      key = NULL_KEY;
+    }
+    Entry<T> entry = new Entry<>(event, System.nanoTime());
+    boolean[] schedule = new boolean[1];
+    // queue is created or removed under the lock of the map bin, so it can't be removed while
+    // an event is offered to it
+    KeyQueue queue =
+        queues.compute(
+            key,
+            (k, q) -> {
+              if (q == null) {
+                q = new KeyQueue(k);
+              }
+              schedule[0] = q.offer(entry);
+              return q;
+            });
+    if (schedule[0]) {
+      queue.schedule();
+    }
+  }
+
+  /** Returns the number of keys which currently have queued or being delivered events. */
+  int getActiveKeys() {
+    return queues.size();
+  }
+
+  /** Counts the dropped event and warns about the dropped events at most once per interval. */
+  private void onDropped() {
+    stats.onDropped(1);
+    final long dropped = droppedSinceWarning.incrementAndGet();
+    final long now = System.nanoTime();
+    final long lastWarning = lastDropWarningNanos.get();
+    if (now - lastWarning >= DROP_WARNING_INTERVAL_NANOS
+        && lastDropWarningNanos.compareAndSet(lastWarning, now)) {
+      droppedSinceWarning.addAndGet(-dropped);
+      LOG.warn(
+          "Queues of events for {} are full, {} events are dropped since the last warning",
+          delegate,
+          dropped);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "AsyncEventSubscriber{delegate=" + delegate + '}';
+  }
+
+  private static class Entry<T> {
+    final T event;
+    final long publishedNanos;
+
+    Entry(T event, long publishedNanos) {
+      this.event = event;
+      this.publishedNanos = publishedNanos;
+    }
+  }
+
+  private class KeyQueue implements Runnable {
+
+    private final Object key;
+    private final Queue<Entry<T>> events = new ArrayDeque<>();
+    private boolean scheduled;
+
+    KeyQueue(Object key) {
+      this.key = key;
+    }
+
+    /**
+     * Adds the event to the queue.
+     *
+     * @return true when the queue drain should be scheduled
+     */
+    synchronized boolean offer(Entry<T> entry) {
+      if (events.size() >= queueCapacity) {
+        onDropped();
+        return false;
+      }
+      events.add(entry);
+      stats.onQueued();
+      if (scheduled) {
+        return false;
+      }
+      scheduled = true;
+      return true;
+    }
+
+    void schedule() {
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        int droppedCount;
+        synchronized (this) {
+          droppedCount = events.size();
+          events.clear();
+          scheduled = false;
+        }
+        stats.onDequeued(droppedCount);
+        stats.onDropped(droppedCount);
+        LOG.error(
+            "Failed to schedule delivery of events to {}, {} events are dropped. Cause: {}",
+            delegate,
+            droppedCount,
+            e.getMessage());
+        removeIfIdle();
+      }
+    }
+
+    @Override
+    public void run() {
+      for (int i = 0; i < DELIVERY_BATCH_SIZE; i++) {
+        Entry<T> entry;
+        synchronized (this) {
+          entry = events.poll();
+          if (entry == null) {
+            scheduled = false;
+          }
+        }
+        if (entry == null) {
+          removeIfIdle();
+          return;
+        }
+        stats.onDequeued(1);
+        stats.onDelivered(System.nanoTime() - entry.publishedNanos);
+        try {
+          LOG.debug("Publish event {} for {}", entry.event, delegate);
+          delegate.onEvent(entry.event);
+        } catch (RuntimeException e) {
+          LOG.error(e.getMessage(), e);
+        }
+      }
+
+      // the batch is over, the queue is still owned by this task since it is scheduled
+      boolean hasMore;
+      synchronized (this) {
+        hasMore = !events.isEmpty();
+        if (!hasMore) {
+          scheduled = false;
+        }
+      }
+      if (hasMore) {
+        schedule();
+      } else {
+        removeIfIdle();
+      }
+    }
+
+    private synchronized boolean isIdle() {
+      return !scheduled && events.isEmpty();
+    }
+
+    private void removeIfIdle() {
+      queues.computeIfPresent(key, (k, q) -> q == this && isIdle() ? null : q);
+    }
+  }
+}
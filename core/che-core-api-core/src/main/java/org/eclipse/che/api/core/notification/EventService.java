@@ -23,6 +23,8 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,8 +53,12 @@ public class EventService {
   private static final int CACHE_MASK = CACHE_NUM - 1;
   private static final int SEG_SIZE = 32;
 
+  /** Default capacity of the queue of the events with the same ordering key. */
+  public static final int DEFAULT_ASYNC_QUEUE_CAPACITY = 1000;
+
   private final LoadingCache<Class<?>, Set<Class<?>>>[] typeCache;
   private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+  private final AsyncDeliveryStats asyncDeliveryStats = new AsyncDeliveryStats();
 
   @SuppressWarnings("unchecked")
   public EventService() {
@@ -137,6 +143,57 @@ public class EventService {
     doSubscribe(subscriber, eventType);
   }
 
+  /**
+   * Subscribe to an event, the events are passed to the subscriber asynchronously in the order of
+   * publishing.
+   *
+   * @param subscriber the subscriber to call when an event is published
+   * @param eventType the event to subscribe to
+   * @param executor executor which is used to call the subscriber
+   * @return subscriber which is actually subscribed, must be used for unsubscribing
+   * @see #subscribeAsync(EventSubscriber, Class, Executor, Function, int)
+   */
+  public <T> EventSubscriber<T> subscribeAsync(
+      EventSubscriber<? super T> subscriber, Class<T> eventType, Executor executor) {
+    return subscribeAsync(
+        subscriber, eventType, executor, event -> null, DEFAULT_ASYNC_QUEUE_CAPACITY);
+  }
+
+  /**
+   * Subscribe to an event, the events are passed to the subscriber asynchronously so a slow
+   * subscriber doesn't slow down the publisher.
+   *
+   * <p>Events with the same ordering key (e.g. workspace id) are passed to the subscriber one by
+   * one in the order of publishing, events with different keys may be passed concurrently. Events
+   * waiting for delivery are kept in a queue per ordering key, when the queue is full, newly
+   * published events with the key are dropped. Delivery statistics are available with {@link
+   * #getAsyncDeliveryStats()}.
+   *
+   * @param subscriber the subscriber to call when an event is published
+   * @param eventType the event to subscribe to
+   * @param executor executor which is used to call the subscriber
+   * @param orderingKey function which returns the ordering key of the event, null key is allowed
+   * @param queueCapacity max number of not delivered events with the same ordering key
+   * @return subscriber which is actually subscribed, must be used for unsubscribing
+   */
+  public <T> EventSubscriber<T> subscribeAsync(
+      EventSubscriber<? super T> subscriber,
+      Class<T> eventType,
+      Executor executor,
+      Function<? super T, ?> orderingKey,
+      int queueCapacity) {
+    AsyncEventSubscriber<T> asyncSubscriber =
+        new AsyncEventSubscriber<>(
+            subscriber, executor, orderingKey, queueCapacity, asyncDeliveryStats);
+    doSubscribe(asyncSubscriber, eventType);
+    return asyncSubscriber;
+  }
+
+  /** Returns statistics of events delivery to the subscribers registered asynchronously. */
+  public AsyncDeliveryStats getAsyncDeliveryStats() {
+    return asyncDeliveryStats;
+  }
+
   private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
     Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
     if (entries == null) {
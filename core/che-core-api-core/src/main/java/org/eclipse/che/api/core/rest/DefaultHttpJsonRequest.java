@@ -199,19 +199,7 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
       throws IOException, ServerException, ForbiddenException, NotFoundException,
           UnauthorizedException, ConflictException, BadRequestException {
     final String authToken = EnvironmentContext.getCurrent().getSubject().getToken();
-    final boolean hasQueryParams = parameters != null && !parameters.isEmpty();
-    if (hasQueryParams || authToken != null) {
-      final UriBuilder ub = UriBuilder.fromUri(url);
-      // remove sensitive information from url.
-      ub.replaceQueryParam("token", EMPTY_ARRAY);
-
-      if (hasQueryParams) {
-        for (Pair<String, ?> parameter : parameters) {
-          ub.queryParam(parameter.first, parameter.second);
-        }
-      }
-      url = ub.build().toString();
-    }
+    url = toRequestUrl(url, parameters, authToken != null);
     final HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
     conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
     conn.setReadTimeout(timeout > 0 ? timeout : 60000);
@@ -257,40 +245,12 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
         try (Reader reader = new InputStreamReader(in)) {
           str = CharStreams.toString(reader);
         }
-        final String contentType = conn.getContentType();
-        if (contentType != null
-            && (contentType.startsWith(MediaType.APPLICATION_JSON)
-                || contentType.startsWith("application/vnd.api+json"))) {
-          final ServiceError serviceError =
-              DtoFactory.getInstance().createDtoFromJson(str, ServiceError.class);
-          if (serviceError.getMessage() != null) {
-            if (responseCode == Response.Status.FORBIDDEN.getStatusCode()) {
-              throw new ForbiddenException(serviceError);
-            } else if (responseCode == Response.Status.NOT_FOUND.getStatusCode()) {
-              throw new NotFoundException(serviceError);
-            } else if (responseCode == Response.Status.UNAUTHORIZED.getStatusCode()) {
-              throw new UnauthorizedException(serviceError);
-            } else if (responseCode == Response.Status.CONFLICT.getStatusCode()) {
-              throw new ConflictException(serviceError);
-            } else if (responseCode == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
-              throw new ServerException(serviceError);
-            } else if (responseCode == Response.Status.BAD_REQUEST.getStatusCode()) {
-              throw new BadRequestException(serviceError);
-            }
-            throw new ServerException(serviceError);
-          }
-        }
-        // Can't parse content as json or content has format other we expect for error.
-        throw new IOException(
-            String.format(
-                "Failed access: %s, method: %s, response code: %d, message: %s",
-                UriBuilder.fromUri(url).replaceQuery("token").build(), method, responseCode, str));
+        throwErrorResponse(url, method, responseCode, conn.getContentType(), str);
       }
       final String contentType = conn.getContentType();
       if (responseCode != HttpURLConnection.HTTP_NO_CONTENT
           && contentType != null
-          && !(contentType.startsWith(MediaType.APPLICATION_JSON)
-              || contentType.startsWith("application/vnd.api+json"))) {
+          && !isJson(contentType)) {
         throw new IOException(conn.getResponseMessage());
       }
 
@@ -303,6 +263,82 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
     }
   }
 
+  /**
+   * Returns url of the request with the given query parameters. The token query parameter is
+   * removed from the url when the request is authorized with the token from {@link
+   * EnvironmentContext}.
+   */
+  static String toRequestUrl(String url, List<Pair<String, ?>> parameters, boolean hasAuthToken) {
+    final boolean hasQueryParams = parameters != null && !parameters.isEmpty();
+    if (!hasQueryParams && !hasAuthToken) {
+      return url;
+    }
+    final UriBuilder ub = UriBuilder.fromUri(url);
+    // remove sensitive information from url.
+    ub.replaceQueryParam("token", EMPTY_ARRAY);
+
+    if (hasQueryParams) {
+      for (Pair<String, ?> parameter : parameters) {
+        ub.queryParam(parameter.first, parameter.second);
+      }
+    }
+    return ub.build().toString();
+  }
+
+  /** Checks whether the content type is one of the json types expected in responses. */
+  static boolean isJson(String contentType) {
+    return contentType.startsWith(MediaType.APPLICATION_JSON)
+        || contentType.startsWith("application/vnd.api+json");
+  }
+
+  /**
+   * Throws the exception which corresponds to the error response.
+   *
+   * @param url request url
+   * @param method request method
+   * @param responseCode response code, not 2xx
+   * @param contentType content type of the response, may be null
+   * @param body response body
+   * @throws IOException when response body is not a {@link ServiceError}
+   * @throws ServerException when response code is 500 or it is different from 400, 401, 403, 404,
+   *     409
+   * @throws ForbiddenException when response code is 403
+   * @throws NotFoundException when response code is 404
+   * @throws UnauthorizedException when response code is 401
+   * @throws ConflictException when response code is 409
+   * @throws BadRequestException when response code is 400
+   */
+  static void throwErrorResponse(
+      String url, String method, int responseCode, String contentType, String body)
+      throws IOException, ServerException, ForbiddenException, NotFoundException,
+          UnauthorizedException, ConflictException, BadRequestException {
+    if (contentType != null && isJson(contentType)) {
+      final ServiceError serviceError =
+          DtoFactory.getInstance().createDtoFromJson(body, ServiceError.class);
+      if (serviceError.getMessage() != null) {
+        if (responseCode == Response.Status.FORBIDDEN.getStatusCode()) {
+          throw new ForbiddenException(serviceError);
+        } else if (responseCode == Response.Status.NOT_FOUND.getStatusCode()) {
+          throw new NotFoundException(serviceError);
+        } else if (responseCode == Response.Status.UNAUTHORIZED.getStatusCode()) {
+          throw new UnauthorizedException(serviceError);
+        } else if (responseCode == Response.Status.CONFLICT.getStatusCode()) {
+          throw new ConflictException(serviceError);
+        } else if (responseCode == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
+          throw new ServerException(serviceError);
+        } else if (responseCode == Response.Status.BAD_REQUEST.getStatusCode()) {
+          throw new BadRequestException(serviceError);
+        }
+        throw new ServerException(serviceError);
+      }
+    }
+    // Can't parse content as json or content has format other we expect for error.
+    throw new IOException(
+        String.format(
+            "Failed access: %s, method: %s, response code: %d, message: %s",
+            UriBuilder.fromUri(url).replaceQuery("token").build(), method, responseCode, body));
+  }
+
   @Override
   public String toString() {
     return "DefaultHttpJsonRequest{"
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.rest;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriBuilder;
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.UnauthorizedException;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.lang.Pair;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of {@link HttpJsonRequest} which is performed by the {@link
+ * java.net.http.HttpClient} of {@link PooledHttpJsonRequestFactory}, so the connections are reused
+ * between requests.
+ *
+ * <p>Response body is read once into a byte array limited by the factory, DTOs are parsed directly
+ * from it without building an intermediate string.
+ *
+ * <p>The implementation is not thread-safe, instance of this class must be created each time when
+ * it's needed.
+ *
+ * @see PooledHttpJsonRequestFactory
+ */
+public class PooledHttpJsonRequest extends DefaultHttpJsonRequest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PooledHttpJsonRequest.class);
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final PooledHttpJsonRequestFactory factory;
+
+  protected PooledHttpJsonRequest(PooledHttpJsonRequestFactory factory, String url) {
+    super(url);
+    this.factory = factory;
+  }
+
+  protected PooledHttpJsonRequest(PooledHttpJsonRequestFactory factory, Link link) {
+    super(link);
+    this.factory = factory;
+  }
+
+  @Override
+  protected DefaultHttpJsonResponse doRequest(
+      int timeout,
+      String url,
+      String method,
+      Object body,
+      List<Pair<String, ?>> parameters,
+      String authorizationHeaderValue,
+      List<Pair<String, String>> headers)
+      throws IOException, ServerException, ForbiddenException, NotFoundException,
+          UnauthorizedException, ConflictException, BadRequestException {
+    final String authToken = EnvironmentContext.getCurrent().getSubject().getToken();
+    url = toRequestUrl(url, parameters, authToken != null);
+    final URI uri = URI.create(url);
+    final int timeoutMillis = timeout > 0 ? timeout : factory.getRequestTimeoutMillis();
+
+    final HttpRequest.Builder builder =
+        HttpRequest.newBuilder(uri).timeout(Duration.ofMillis(timeoutMillis));
+    if (headers != null) {
+      for (Pair<String, String> header : headers) {
+        try {
+          builder.header(header.first, header.second);
+        } catch (IllegalArgumentException e) {
+          // connection related headers are managed by the client
+          LOG.debug("Header '{}' is not sent to {}: {}", header.first, url, e.getMessage());
+        }
+      }
+    }
+    // drop a hint for server side that we want to receive application/json
+    builder.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+    if (!isNullOrEmpty(authorizationHeaderValue)) {
+      builder.setHeader(HttpHeaders.AUTHORIZATION, authorizationHeaderValue);
+    } else if (authToken != null) {
+      builder.setHeader(HttpHeaders.AUTHORIZATION, authToken);
+    }
+    if (body != null) {
+      builder.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+      builder.method(
+          method,
+          HttpRequest.BodyPublishers.ofByteArray(
+              DtoFactory.getInstance().toJson(body).getBytes(UTF_8)));
+    } else {
+      builder.method(method, HttpRequest.BodyPublishers.noBody());
+    }
+
+    factory.acquire(uri, timeoutMillis);
+    try {
+      final HttpResponse<InputStream> response =
+          factory.getHttpClient().send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+      final int responseCode = response.statusCode();
+      final String contentType =
+          response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null);
+      final byte[] responseBody;
+      try (InputStream in = response.body()) {
+        responseBody =
+            readBody(in, response.headers().firstValueAsLong(HttpHeaders.CONTENT_LENGTH), url);
+      }
+
+      if ((responseCode / 100) != 2) {
+        throwErrorResponse(url, method, responseCode, contentType, new String(responseBody, UTF_8));
+      }
+      if (responseCode != HttpURLConnection.HTTP_NO_CONTENT
+          && contentType != null
+          && !isJson(contentType)) {
+        throw new IOException(
+            String.format(
+                "Unexpected content type '%s' of the response to %s", contentType, method));
+      }
+      return new PooledHttpJsonResponse(responseBody, responseCode, response.headers().map());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the response of " + method, e);
+    } finally {
+      factory.release(uri);
+    }
+  }
+
+  private byte[] readBody(InputStream in, OptionalLong contentLength, String url)
+      throws IOException {
+    final long maxSize = factory.getMaxResponseSizeBytes();
+    if (contentLength.isPresent() && contentLength.getAsLong() > maxSize) {
+      throw responseTooLarge(url, maxSize);
+    }
+    final ByteArrayOutputStream out =
+        new ByteArrayOutputStream(
+            contentLength.isPresent() ? (int) contentLength.getAsLong() : BUFFER_SIZE);
+    final byte[] buffer = new byte[BUFFER_SIZE];
+    long size = 0;
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      size += read;
+      if (size > maxSize) {
+        throw responseTooLarge(url, maxSize);
+      }
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static IOException responseTooLarge(String url, long maxSize) {
+    return new IOException(
+        String.format(
+            "Response of %s exceeds the limit of %d bytes",
+            UriBuilder.fromUri(url).replaceQuery("token").build(), maxSize));
+  }
+}
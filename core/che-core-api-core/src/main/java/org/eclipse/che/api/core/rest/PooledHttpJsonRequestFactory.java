@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.rest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.validation.constraints.NotNull;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+
+/**
+ * Creates {@link PooledHttpJsonRequest} instances which share a single {@link HttpClient}, so
+ * connections to the same host are kept alive and reused by subsequent requests.
+ *
+ * <p>Number of concurrent requests, and so the number of connections, per host is limited. Request
+ * waits for a free connection as long as its timeout allows and fails otherwise.
+ *
+ * <p>The factory is an alternative to {@link DefaultHttpJsonRequestFactory} and is used when it is
+ * bound as the implementation of {@link HttpJsonRequestFactory}.
+ */
+@Singleton
+public class PooledHttpJsonRequestFactory implements HttpJsonRequestFactory {
+
+  private final HttpClient httpClient;
+  private final int maxConnectionsPerHost;
+  private final int requestTimeoutMillis;
+  private final long maxResponseSizeBytes;
+  private final ConcurrentMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+  @Inject
+  public PooledHttpJsonRequestFactory(
+      @Named("che.core.http.max_connections_per_host") int maxConnectionsPerHost,
+      @Named("che.core.http.connect_timeout_ms") int connectTimeoutMillis,
+      @Named("che.core.http.request_timeout_ms") int requestTimeoutMillis,
+      @Named("che.core.http.max_response_size_bytes") long maxResponseSizeBytes) {
+    this.httpClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+            .build();
+    this.maxConnectionsPerHost = maxConnectionsPerHost;
+    this.requestTimeoutMillis = requestTimeoutMillis;
+    this.maxResponseSizeBytes = maxResponseSizeBytes;
+  }
+
+  @Override
+  public HttpJsonRequest fromUrl(@NotNull String url) {
+    return new PooledHttpJsonRequest(this, url);
+  }
+
+  @Override
+  public HttpJsonRequest fromLink(@NotNull Link link) {
+    return new PooledHttpJsonRequest(this, link);
+  }
+
+  HttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /** Returns timeout of requests which don't set their own one. */
+  int getRequestTimeoutMillis() {
+    return requestTimeoutMillis;
+  }
+
+  long getMaxResponseSizeBytes() {
+    return maxResponseSizeBytes;
+  }
+
+  /**
+   * Acquires a connection permit of the host of the given uri, the permit must be released with
+   * {@link #release(URI)} once the response is read.
+   *
+   * @param uri request uri
+   * @param timeoutMillis max time to wait for the permit
+   * @throws IOException when the permit is not acquired in time or the thread is interrupted
+   */
+  void acquire(URI uri, long timeoutMillis) throws IOException {
+    Semaphore permits =
+        hostPermits.computeIfAbsent(
+            toHostKey(uri), host -> new Semaphore(maxConnectionsPerHost, true));
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a connection to " + uri.getHost(), e);
+    }
+    if (!acquired) {
+      throw new IOException(
+          String.format(
+              "Timed out waiting for a connection to %s, all %d connections are in use",
+              uri.getHost(), maxConnectionsPerHost));
+    }
+  }
+
+  /** Releases the connection permit acquired by {@link #acquire(URI, long)}. */
+  void release(URI uri) {
+    hostPermits.get(toHostKey(uri)).release();
+  }
+
+  private static String toHostKey(URI uri) {
+    return uri.getScheme() + "://" + uri.getHost() + ':' + uri.getPort();
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.rest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.che.commons.json.JsonHelper;
+import org.eclipse.che.commons.json.JsonParseException;
+import org.eclipse.che.dto.server.DtoFactory;
+
+/**
+ * Response of {@link PooledHttpJsonRequest} which keeps the body as UTF-8 bytes and parses it
+ * without converting to a string first.
+ */
+public class PooledHttpJsonResponse extends DefaultHttpJsonResponse {
+
+  private final byte[] responseBody;
+
+  protected PooledHttpJsonResponse(
+      byte[] responseBody, int responseCode, Map<String, List<String>> headers) {
+    super(null, responseCode, headers);
+    this.responseBody = responseBody;
+  }
+
+  @Override
+  public String asString() {
+    return new String(responseBody, UTF_8);
+  }
+
+  @Override
+  public <T> T asDto(Class<T> dtoInterface) {
+    requireNonNull(dtoInterface, "Required non-null dto interface");
+    try (Reader reader = reader()) {
+      return DtoFactory.getInstance().createDtoFromJson(reader, dtoInterface);
+    } catch (IOException e) {
+      throw new RuntimeException(e); // won't happen
+    }
+  }
+
+  @Override
+  public <T> List<T> asList(Class<T> dtoInterface) {
+    requireNonNull(dtoInterface, "Required non-null dto interface");
+    try (Reader reader = reader()) {
+      return DtoFactory.getInstance().createListDtoFromJson(reader, dtoInterface);
+    } catch (IOException e) {
+      throw new RuntimeException(e); // won't happen
+    }
+  }
+
+  @Override
+  public <T> T as(Class<T> clazz, Type genericType) throws IOException {
+    requireNonNull(clazz, "Required non-null class");
+    try (Reader reader = reader()) {
+      return JsonHelper.fromJson(reader, clazz, genericType);
+    } catch (JsonParseException jsonEx) {
+      throw new IOException(jsonEx.getLocalizedMessage(), jsonEx);
+    }
+  }
+
+  private Reader reader() {
+    return new InputStreamReader(new ByteArrayInputStream(responseBody), UTF_8);
+  }
+}
@@ -34,12 +34,16 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
 
   private final WebSocketSessionRegistry registry;
   private final MessagesReSender reSender;
+  private final WebSocketCompression compression;
 
   @Inject
   public BasicWebSocketMessageTransmitter(
-      WebSocketSessionRegistry registry, MessagesReSender reSender) {
+      WebSocketSessionRegistry registry,
+      MessagesReSender reSender,
+      WebSocketCompression compression) {
     this.registry = registry;
     this.reSender = reSender;
+    this.compression = compression;
   }
 
   @Override
@@ -47,7 +51,8 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
     Optional<Session> sessionOptional = registry.get(endpointId);
 
     if (!sessionOptional.isPresent()) {
-      sessionOptional = registry.getByPartialMatch(endpointId).stream().findFirst();
+      // endpoint id may be a client id, try any session of the client
+      sessionOptional = registry.getByClientId(endpointId).stream().findFirst();
     }
 
     if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
@@ -59,6 +64,7 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
 
       try {
         sessionOptional.get().getBasicRemote().sendText(message);
+        compression.onSent(sessionOptional.get(), message);
       } catch (IOException e) {
         LOG.error("Error while trying to send a message to a basic websocket remote endpoint", e);
       }
@@ -12,14 +12,17 @@
 package org.eclipse.che.api.core.websocket.impl;
 
 import com.google.inject.Injector;
+import java.util.List;
 import javax.inject.Inject;
 import javax.servlet.http.HttpSession;
+import javax.websocket.Extension;
 import javax.websocket.HandshakeResponse;
 import javax.websocket.server.HandshakeRequest;
 import javax.websocket.server.ServerEndpointConfig;
 
 /**
- * Allows inject Guice instances on WEB SOCKET endpoint creation.
+ * Allows inject Guice instances on WEB SOCKET endpoint creation. Negotiation of permessage-deflate
+ * extension is controlled by {@link WebSocketCompression}.
  *
  * @author Dmitry Kuleshov
  */
@@ -41,4 +44,12 @@ public class GuiceInjectorEndpointConfigurator extends ServerEndpointConfig.Conf
       }
     }
   }
+
+  @Override
+  public List<Extension> getNegotiatedExtensions(
+      List<Extension> installed, List<Extension> requested) {
+    return injector
+        .getInstance(WebSocketCompression.class)
+        .filterNegotiated(super.getNegotiatedExtensions(installed, requested));
+  }
 }
@@ -11,96 +11,303 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
-import com.google.common.collect.EvictingQueue;
-import java.util.Map;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Optional;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.websocket.Session;
 import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.slf4j.Logger;
 
 /**
  * Instance is responsible for re-sending messages that were not sent during the period when WEB
  * SOCKET session was closed. If session is closed during re-send process it stops and left messages
  * will be re-sent as WEB SOCKET session becomes open again.
  *
+ * <p>Size of the kept messages is limited per endpoint and in total. When the endpoint limit is
+ * exceeded the oldest messages of the endpoint are dropped, when the total limit is exceeded the
+ * oldest messages of the least recently used endpoints are dropped. Messages which are not re-sent
+ * within the configured time are dropped as well.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class MessagesReSender {
 
-  private static final int MAX_MESSAGES = 100;
+  private static final Logger LOG = getLogger(MessagesReSender.class);
+
+  /** Approximate heap size of a kept message excluding its payload. */
+  static final int MESSAGE_OVERHEAD_BYTES = 64;
 
   private final WebSocketSessionRegistry registry;
+  private final long maxBufferedBytes;
+  private final long maxEndpointBufferedBytes;
+  private final long messageTtlMillis;
+  private final int compressionThresholdBytes;
+  private final LongSupplier currentTimeMillis;
+
+  /** Kept messages by endpoint, iterated from the least recently used endpoint. */
+  private final LinkedHashMap<String, EndpointMessages> delayedMessageRegistry =
+      new LinkedHashMap<>(16, 0.75f, true);
 
-  private final Map<String, Queue<DelayedMessage>> delayedMessageRegistry =
-      new ConcurrentHashMap<>();
+  /**
+   * All the kept messages in the order of adding, which is also the order of their expiration.
+   * Messages which are already sent or dropped are skipped when they reach the head of the queue.
+   */
+  private final Deque<DelayedMessage> expirationQueue = new ArrayDeque<>();
+
+  private long bufferedBytes;
 
   @Inject
-  public MessagesReSender(WebSocketSessionRegistry registry) {
-    this.registry = registry;
+  public MessagesReSender(
+      WebSocketSessionRegistry registry,
+      @Named("che.core.websocket.resend.buffer_size_bytes") long maxBufferedBytes,
+      @Named("che.core.websocket.resend.endpoint_buffer_size_bytes") long maxEndpointBufferedBytes,
+      @Named("che.core.websocket.resend.message_ttl_sec") long messageTtlSec,
+      @Named("che.core.websocket.resend.compression_threshold_bytes")
+          int compressionThresholdBytes) {
+    this(
+        registry,
+        maxBufferedBytes,
+        maxEndpointBufferedBytes,
+        TimeUnit.SECONDS.toMillis(messageTtlSec),
+        compressionThresholdBytes,
+        System::currentTimeMillis);
   }
 
-  @ScheduleDelay(initialDelay = 60, delay = 60)
-  void cleanStaleMessages() {
-    long currentTimeMillis = System.currentTimeMillis();
-
-    delayedMessageRegistry
-        .values()
-        .forEach(it -> it.removeIf(m -> currentTimeMillis - m.timeMillis > 60_000));
+  MessagesReSender(
+      WebSocketSessionRegistry registry,
+      long maxBufferedBytes,
+      long maxEndpointBufferedBytes,
+      long messageTtlMillis,
+      int compressionThresholdBytes,
+      LongSupplier currentTimeMillis) {
+    this.registry = registry;
+    this.maxBufferedBytes = maxBufferedBytes;
+    this.maxEndpointBufferedBytes = Math.min(maxEndpointBufferedBytes, maxBufferedBytes);
+    this.messageTtlMillis = messageTtlMillis;
+    this.compressionThresholdBytes = compressionThresholdBytes;
+    this.currentTimeMillis = currentTimeMillis;
+  }
 
-    delayedMessageRegistry.values().removeIf(Queue::isEmpty);
+  @ScheduleDelay(initialDelay = 5, delay = 5)
+  synchronized void cleanStaleMessages() {
+    long now = currentTimeMillis.getAsLong();
+    DelayedMessage head;
+    while ((head = expirationQueue.peekFirst()) != null && head.expiresAtMillis <= now) {
+      expirationQueue.pollFirst();
+      if (head.owner != null) {
+        EndpointMessages owner = head.owner;
+        // messages of an endpoint expire in the same order they were added, so it is the head
+        owner.messages.removeFirstOccurrence(head);
+        release(owner, head);
+        if (owner.messages.isEmpty()) {
+          delayedMessageRegistry.remove(owner.endpointId, owner);
+        }
+      }
+    }
   }
 
   public void add(String endpointId, String message) {
+    byte[] bytes = message.getBytes(UTF_8);
+    boolean compress = compressionThresholdBytes > 0 && bytes.length >= compressionThresholdBytes;
+    DelayedMessage delayedMessage =
+        new DelayedMessage(
+            compress ? compress(bytes) : bytes,
+            currentTimeMillis.getAsLong() + messageTtlMillis,
+            compress);
+    if (delayedMessage.size() > maxEndpointBufferedBytes) {
+      LOG.warn(
+          "Message of {} bytes for endpoint {} exceeds the re-send buffer limit and is dropped",
+          delayedMessage.size(),
+          endpointId);
+      return;
+    }
 
-    delayedMessageRegistry
-        .computeIfAbsent(endpointId, k -> EvictingQueue.create(MAX_MESSAGES))
-        .offer(new DelayedMessage(message));
+    synchronized (this) {
+      EndpointMessages endpointMessages =
+          delayedMessageRegistry.computeIfAbsent(endpointId, EndpointMessages::new);
+      while (endpointMessages.bytes + delayedMessage.size() > maxEndpointBufferedBytes) {
+        release(endpointMessages, endpointMessages.messages.pollFirst());
+      }
+      endpointMessages.messages.addLast(delayedMessage);
+      delayedMessage.owner = endpointMessages;
+      endpointMessages.bytes += delayedMessage.size();
+      bufferedBytes += delayedMessage.size();
+      expirationQueue.addLast(delayedMessage);
+
+      evictLeastRecentlyUsed();
+    }
   }
 
   public void resend(String endpointId) {
-    Queue<DelayedMessage> delayedMessages = delayedMessageRegistry.remove(endpointId);
+    List<DelayedMessage> delayedMessages;
+    synchronized (this) {
+      EndpointMessages endpointMessages = delayedMessageRegistry.remove(endpointId);
+      if (endpointMessages == null) {
+        return;
+      }
+      long now = currentTimeMillis.getAsLong();
+      delayedMessages = new ArrayList<>(endpointMessages.messages.size());
+      // payloads are kept by the list until they are sent or put back
+      for (DelayedMessage delayedMessage : endpointMessages.messages) {
+        bufferedBytes -= delayedMessage.size();
+        delayedMessage.owner = null;
+        if (delayedMessage.expiresAtMillis > now) {
+          delayedMessages.add(delayedMessage);
+        } else {
+          delayedMessage.drop();
+        }
+      }
+    }
 
-    if (delayedMessages == null || delayedMessages.isEmpty()) {
+    if (delayedMessages.isEmpty()) {
       return;
     }
 
     Optional<Session> sessionOptional = registry.get(endpointId);
 
     if (!sessionOptional.isPresent()) {
+      delayedMessages.forEach(DelayedMessage::drop);
       return;
     }
 
-    Queue<DelayedMessage> backingQueue = EvictingQueue.create(delayedMessages.size());
-    while (!delayedMessages.isEmpty()) {
-      backingQueue.offer(delayedMessages.poll());
+    Session session = sessionOptional.get();
+    int sent = 0;
+    while (sent < delayedMessages.size() && session.isOpen()) {
+      DelayedMessage delayedMessage = delayedMessages.get(sent++);
+      session.getAsyncRemote().sendText(decode(delayedMessage));
+      delayedMessage.drop();
     }
 
-    Session session = sessionOptional.get();
-    for (DelayedMessage delayedMessage : backingQueue) {
-      if (session.isOpen()) {
-        session.getAsyncRemote().sendText(delayedMessage.message);
-      } else {
-        delayedMessages.add(delayedMessage);
+    if (sent < delayedMessages.size()) {
+      putBack(endpointId, delayedMessages.subList(sent, delayedMessages.size()));
+    }
+  }
+
+  /** Returns the size of all the kept messages in bytes. */
+  synchronized long getBufferedBytes() {
+    return bufferedBytes;
+  }
+
+  /** Puts not sent messages back in front of the messages added while they were being sent. */
+  private synchronized void putBack(String endpointId, List<DelayedMessage> delayedMessages) {
+    EndpointMessages endpointMessages =
+        delayedMessageRegistry.computeIfAbsent(endpointId, EndpointMessages::new);
+    long now = currentTimeMillis.getAsLong();
+    for (int i = delayedMessages.size() - 1; i >= 0; i--) {
+      DelayedMessage delayedMessage = delayedMessages.get(i);
+      // expired messages might be already removed from the expiration queue, so they can't be kept
+      if (delayedMessage.expiresAtMillis <= now
+          || endpointMessages.bytes + delayedMessage.size() > maxEndpointBufferedBytes) {
+        delayedMessage.drop();
+        continue;
+      }
+      endpointMessages.messages.addFirst(delayedMessage);
+      delayedMessage.owner = endpointMessages;
+      endpointMessages.bytes += delayedMessage.size();
+      bufferedBytes += delayedMessage.size();
+    }
+    if (endpointMessages.messages.isEmpty()) {
+      delayedMessageRegistry.remove(endpointId);
+    }
+    evictLeastRecentlyUsed();
+  }
+
+  private void evictLeastRecentlyUsed() {
+    Iterator<EndpointMessages> it = delayedMessageRegistry.values().iterator();
+    while (bufferedBytes > maxBufferedBytes && it.hasNext()) {
+      EndpointMessages endpointMessages = it.next();
+      while (bufferedBytes > maxBufferedBytes && !endpointMessages.messages.isEmpty()) {
+        release(endpointMessages, endpointMessages.messages.pollFirst());
       }
+      if (endpointMessages.messages.isEmpty()) {
+        it.remove();
+      }
+    }
+  }
+
+  private void release(EndpointMessages owner, DelayedMessage delayedMessage) {
+    owner.bytes -= delayedMessage.size();
+    bufferedBytes -= delayedMessage.size();
+    delayedMessage.owner = null;
+    delayedMessage.drop();
+  }
+
+  private static byte[] compress(byte[] bytes) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
+    return out.toByteArray();
+  }
+
+  private static String decode(DelayedMessage delayedMessage) {
+    if (!delayedMessage.compressed) {
+      return new String(delayedMessage.payload, UTF_8);
+    }
+    try (GZIPInputStream gzip =
+        new GZIPInputStream(new ByteArrayInputStream(delayedMessage.payload))) {
+      return new String(gzip.readAllBytes(), UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static class EndpointMessages {
 
-    if (!delayedMessages.isEmpty()) {
-      delayedMessageRegistry.put(endpointId, delayedMessages);
+    private final String endpointId;
+    private final Deque<DelayedMessage> messages = new ArrayDeque<>();
+    private long bytes;
+
+    private EndpointMessages(String endpointId) {
+      this.endpointId = endpointId;
     }
   }
 
   private static class DelayedMessage {
 
-    private final long timeMillis;
-    private final String message;
+    private final long expiresAtMillis;
+    private final boolean compressed;
+    private final int size;
+    private byte[] payload;
+
+    /** Endpoint messages which currently keep this message, null if the message is not kept. */
+    private EndpointMessages owner;
+
+    private DelayedMessage(byte[] payload, long expiresAtMillis, boolean compressed) {
+      this.payload = payload;
+      this.expiresAtMillis = expiresAtMillis;
+      this.compressed = compressed;
+      this.size = payload.length + MESSAGE_OVERHEAD_BYTES;
+    }
+
+    private int size() {
+      return size;
+    }
 
-    private DelayedMessage(String message) {
-      this.message = message;
-      this.timeMillis = System.currentTimeMillis();
+    /** Releases the payload, the message may still be referenced by the expiration queue. */
+    private void drop() {
+      payload = null;
     }
   }
 }
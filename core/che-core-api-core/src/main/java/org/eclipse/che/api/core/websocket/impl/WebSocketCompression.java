@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.websocket.Extension;
+import javax.websocket.Session;
+
+/**
+ * Controls negotiation of the permessage-deflate extension (RFC 7692) on the websocket endpoints
+ * configured with {@link GuiceInjectorEndpointConfigurator} and collects statistics of the
+ * compression.
+ *
+ * <p>The extension is implemented by the websocket container, which compresses every data message
+ * of the connection once the extension is negotiated with the client, and its output is not visible
+ * to the application. So the compression ratio and CPU cost are estimated by compressing every n-th
+ * message sent over such connections with the same algorithm. Samples are compressed w/o the
+ * context of the previous messages, so the estimated ratio is a pessimistic one.
+ */
+@Singleton
+public class WebSocketCompression {
+
+  public static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final boolean enabled;
+  private final int sampleInterval;
+
+  private final LongAdder sentMessages = new LongAdder();
+  private final AtomicLong deflatedMessages = new AtomicLong();
+  private final LongAdder sampledMessages = new LongAdder();
+  private final LongAdder sampledBytes = new LongAdder();
+  private final LongAdder sampledCompressedBytes = new LongAdder();
+  private final LongAdder sampledCompressionNanos = new LongAdder();
+
+  @Inject
+  public WebSocketCompression(
+      @Named("che.core.websocket.permessage_deflate.enabled") boolean enabled,
+      @Named("che.core.websocket.permessage_deflate.sample_interval") int sampleInterval) {
+    this.enabled = enabled;
+    this.sampleInterval = sampleInterval;
+  }
+
+  /** Returns true if permessage-deflate may be negotiated with the clients. */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Removes permessage-deflate from the extensions negotiated by the container if the compression
+   * is disabled.
+   */
+  public List<Extension> filterNegotiated(List<Extension> negotiated) {
+    if (enabled) {
+      return negotiated;
+    }
+    return negotiated
+        .stream()
+        .filter(extension -> !PERMESSAGE_DEFLATE.equals(extension.getName()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Records the message sent over the given session.
+   *
+   * @param session session the message is sent over
+   * @param message sent message
+   */
+  public void onSent(Session session, String message) {
+    sentMessages.increment();
+    if (!isDeflateNegotiated(session)) {
+      return;
+    }
+    long deflated = deflatedMessages.incrementAndGet();
+    if (sampleInterval > 0 && deflated % sampleInterval == 0) {
+      sample(message);
+    }
+  }
+
+  /** Returns the number of messages sent over websocket connections. */
+  public long getSentMessages() {
+    return sentMessages.sum();
+  }
+
+  /** Returns the number of messages sent over connections with negotiated permessage-deflate. */
+  public long getDeflatedMessages() {
+    return deflatedMessages.get();
+  }
+
+  /** Returns the number of messages used to estimate the compression. */
+  public long getSampledMessages() {
+    return sampledMessages.sum();
+  }
+
+  /** Returns the size in bytes of the sampled messages before compression. */
+  public long getSampledBytes() {
+    return sampledBytes.sum();
+  }
+
+  /** Returns the size in bytes of the sampled messages after compression. */
+  public long getSampledCompressedBytes() {
+    return sampledCompressedBytes.sum();
+  }
+
+  /** Returns the estimated ratio of compressed to uncompressed size, or NaN w/o samples. */
+  public double getCompressionRatio() {
+    long bytes = sampledBytes.sum();
+    return bytes == 0 ? Double.NaN : (double) sampledCompressedBytes.sum() / bytes;
+  }
+
+  /** Returns the total time spent on compression of the sampled messages. */
+  public double getTotalSampledCompressionTime(TimeUnit unit) {
+    return (double) sampledCompressionNanos.sum() / unit.toNanos(1);
+  }
+
+  private static boolean isDeflateNegotiated(Session session) {
+    for (Extension extension : session.getNegotiatedExtensions()) {
+      if (PERMESSAGE_DEFLATE.equals(extension.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void sample(String message) {
+    long start = System.nanoTime();
+    byte[] bytes = message.getBytes(UTF_8);
+    long compressed = 0;
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      byte[] buffer = new byte[Math.min(BUFFER_SIZE, bytes.length + 64)];
+      while (!deflater.finished()) {
+        compressed += deflater.deflate(buffer);
+      }
+    } finally {
+      deflater.end();
+    }
+    sampledCompressionNanos.add(System.nanoTime() - start);
+    sampledMessages.increment();
+    sampledBytes.add(bytes.length);
+    sampledCompressedBytes.add(compressed);
+  }
+}
@@ -11,14 +11,15 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
-import static java.util.stream.Collectors.toSet;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.util.HashSet;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import javax.inject.Singleton;
 import javax.websocket.Session;
 import org.slf4j.Logger;
@@ -26,50 +27,86 @@ import org.slf4j.Logger;
 /**
  * Binds WEB SOCKET session to a specific endpoint form which it was opened.
  *
+ * <p>Sessions are kept in a sorted map, so sessions which endpoint identifiers start with a given
+ * prefix (e.g. all sessions of a client, see {@link WebsocketIdService}) are found without scanning
+ * all the registered sessions. Endpoint identifier of a session is found with a reverse index, each
+ * session is bound to a single endpoint. Both of them are updated together with the sessions map,
+ * while reads are not blocked.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class WebSocketSessionRegistry {
   private static final Logger LOG = getLogger(WebSocketSessionRegistry.class);
 
-  private final Map<String, Session> sessionsMap = new ConcurrentHashMap<>();
+  private final NavigableMap<String, Session> sessionsMap = new ConcurrentSkipListMap<>();
+  private final Map<Session, String> endpointIds = new ConcurrentHashMap<>();
 
-  public void add(String endpointId, Session session) {
-    LOG.debug("Registering session with endpoint {}", session.getId(), endpointId);
+  public synchronized void add(String endpointId, Session session) {
+    LOG.debug("Registering session {} with endpoint {}", session.getId(), endpointId);
 
-    sessionsMap.put(endpointId, session);
+    Session previous = sessionsMap.put(endpointId, session);
+    if (previous != null && previous != session) {
+      endpointIds.remove(previous, endpointId);
+    }
+    String previousEndpointId = endpointIds.put(session, endpointId);
+    if (previousEndpointId != null && !previousEndpointId.equals(endpointId)) {
+      sessionsMap.remove(previousEndpointId, session);
+    }
   }
 
-  public Optional<Session> remove(String endpointId) {
+  public synchronized Optional<Session> remove(String endpointId) {
     LOG.debug("Cancelling registration for session with endpoint {}", endpointId);
 
-    return Optional.ofNullable(sessionsMap.remove(endpointId));
+    Session removed = sessionsMap.remove(endpointId);
+    if (removed != null) {
+      endpointIds.remove(removed, endpointId);
+    }
+    return Optional.ofNullable(removed);
   }
 
-  public Optional<Session> remove(Session session) {
-    return get(session).flatMap(id -> Optional.ofNullable(sessionsMap.remove(id)));
+  public synchronized Optional<Session> remove(Session session) {
+    String endpointId = endpointIds.remove(session);
+    if (endpointId == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(sessionsMap.remove(endpointId));
   }
 
   public Optional<Session> get(String endpointId) {
     return Optional.ofNullable(sessionsMap.get(endpointId));
   }
 
-  public Set<Session> getByPartialMatch(String partialEndpointId) {
-    return sessionsMap
-        .entrySet()
-        .stream()
-        .filter(it -> it.getKey().contains(partialEndpointId))
-        .map(Map.Entry::getValue)
-        .collect(toSet());
+  /**
+   * Returns sessions which endpoint identifiers start with the given prefix.
+   *
+   * @param endpointIdPrefix prefix of the endpoint identifier, e.g. client id followed by {@link
+   *     WebsocketIdService#SEPARATOR}
+   * @return set of matching sessions, or empty set if there are none
+   */
+  public Set<Session> getByPrefix(String endpointIdPrefix) {
+    Set<Session> sessions = new HashSet<>();
+    for (Map.Entry<String, Session> entry : sessionsMap.tailMap(endpointIdPrefix).entrySet()) {
+      if (!entry.getKey().startsWith(endpointIdPrefix)) {
+        break;
+      }
+      sessions.add(entry.getValue());
+    }
+    return sessions;
+  }
+
+  /**
+   * Returns sessions opened by the client with the given identifier through any endpoint.
+   *
+   * @param clientId identifier of the client
+   * @return set of client sessions, or empty set if there are none
+   */
+  public Set<Session> getByClientId(String clientId) {
+    return getByPrefix(clientId + WebsocketIdService.SEPARATOR);
   }
 
   public Optional<String> get(Session session) {
-    return sessionsMap
-        .entrySet()
-        .stream()
-        .filter(entry -> entry.getValue().equals(session))
-        .map(Map.Entry::getKey)
-        .findAny();
+    return Optional.ofNullable(endpointIds.get(session));
   }
 
   public Set<Session> getSessions() {
@@ -15,14 +15,19 @@ import static org.eclipse.che.everrest.ETagResponseFilter.EntityType.JSON_SERIAL
 import static org.eclipse.che.everrest.ETagResponseFilter.EntityType.STRING;
 import static org.eclipse.che.everrest.ETagResponseFilter.EntityType.UNKNOWN;
 
-import com.google.common.hash.HashCode;
-import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
@@ -37,6 +42,11 @@ import org.everrest.core.ResponseFilter;
  * clients that want to use conditional requests. It is applying on GET method and JSON content type
  * only.
  *
+ * <p>JSON of the entity is hashed with MD5. Entities which serialize themselves are serialized only
+ * once, the response entity is replaced with the already serialized JSON. If resource sets ETag of
+ * the response itself, e.g. a version based one from {@link VersionETags}, it is used as is and the
+ * entity is not serialized by this filter at all.
+ *
  * @author Florent Benoit
  */
 @Filter
@@ -77,70 +87,91 @@ public class ETagResponseFilter implements ResponseFilter {
       return;
     }
 
-    // calculate hash with MD5
-    HashFunction hashFunction = Hashing.md5();
-    Hasher hasher = hashFunction.newHasher();
-    boolean hashingSuccess = true;
+    // ETag supplied by the resource
+    Object existingTag = containerResponse.getHttpHeaders().getFirst(HttpHeaders.ETAG);
+    if (existingTag != null) {
+      EntityTag entityTag =
+          existingTag instanceof EntityTag
+              ? (EntityTag) existingTag
+              : EntityTag.valueOf(existingTag.toString());
+      Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
+      if (builder != null) {
+        containerResponse.setResponse(builder.tag(entityTag).build());
+      }
+      return;
+    }
 
-    // Manage a list
+    // serialize entity, each element of a list is serialized separately
+    List<String> jsons = new ArrayList<>();
+    boolean selfSerialized;
     if (entity instanceof List) {
       List<?> entities = (List) entity;
+      selfSerialized = !entities.isEmpty();
       for (Object simpleEntity : entities) {
-        hashingSuccess = addHash(simpleEntity, hasher);
-        if (!hashingSuccess) {
-          break;
+        EntityType entityType = getElementType(simpleEntity);
+        String json = toJson(simpleEntity, entityType);
+        if (json == null) {
+          return;
         }
+        jsons.add(json);
+        selfSerialized &= entityType == JSON_SERIALIZABLE;
       }
     } else {
-      hashingSuccess = addHash(entity, hasher);
+      EntityType entityType = getElementType(entity);
+      String json = toJson(entity, entityType);
+      if (json == null) {
+        return;
+      }
+      jsons.add(json);
+      selfSerialized = entityType == JSON_SERIALIZABLE;
     }
 
-    // if we're able to handle the hash
-    if (hashingSuccess) {
-
-      // get result of the hash
-      HashCode hashCode = hasher.hash();
+    // calculate hash with MD5
+    Hasher hasher = Hashing.md5().newHasher();
+    for (String json : jsons) {
+      hasher.putString(json, Charset.defaultCharset());
+    }
 
-      // Create the entity tag
-      EntityTag entityTag = new EntityTag(hashCode.toString());
+    // Create the entity tag
+    EntityTag entityTag = new EntityTag(hasher.hash().toString());
 
-      // Check the etag
-      Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
+    // Check the etag
+    Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
 
-      // not modified ?
-      if (builder != null) {
-        containerResponse.setResponse(builder.tag(entityTag).build());
-      } else {
-        // it has been changed, so send response with new ETag and entity
-        Response.ResponseBuilder responseBuilder =
-            Response.fromResponse(containerResponse.getResponse()).tag(entityTag);
-        containerResponse.setResponse(responseBuilder.build());
+    // not modified ?
+    if (builder != null) {
+      containerResponse.setResponse(builder.tag(entityTag).build());
+    } else {
+      // it has been changed, so send response with new ETag and entity
+      Response.ResponseBuilder responseBuilder =
+          Response.fromResponse(containerResponse.getResponse()).tag(entityTag);
+      if (selfSerialized) {
+        // reuse JSON instead of serializing entity again while writing the response
+        String json = entity instanceof List ? '[' + String.join(",", jsons) + ']' : jsons.get(0);
+        responseBuilder.entity(new SerializedJson(json));
       }
+      containerResponse.setResponse(responseBuilder.build());
     }
   }
 
   /**
-   * Helper method to add entity to hash. If there is an invalid entity type it will return false
+   * Helper method to serialize entity for hashing.
    *
-   * @param entity the entity object to analyze and extract JSON for hashing it
-   * @param hasher the hasher used to add the hashes
+   * @param entity the entity object to serialize
+   * @param entityType type of the entity
+   * @return the JSON string or null if entity can't be serialized
    */
-  protected boolean addHash(Object entity, Hasher hasher) {
-    // get entity type
-    EntityType entityType = getElementType(entity);
-
+  private String toJson(Object entity, EntityType entityType) {
     // check
     if (entityType == UNKNOWN) {
       // unknown entity type, cannot perform hash
-      return false;
+      return null;
     }
-    // add hash if all is OK
     try {
-      hasher.putString(getJson(entity, entityType), Charset.defaultCharset());
+      return getJson(entity, entityType);
     } catch (RuntimeException e) {
-      return false;
+      return null;
     }
-    return true;
   }
 
   /**
@@ -177,4 +208,38 @@ public class ETagResponseFilter implements ResponseFilter {
 
     return UNKNOWN;
   }
+
+  /** JSON of the response entity which is already serialized. */
+  static class SerializedJson implements JsonSerializable {
+
+    private final String json;
+
+    SerializedJson(String json) {
+      this.json = json;
+    }
+
+    @Override
+    public String toJson() {
+      return json;
+    }
+
+    @Override
+    public void toJson(Writer w) {
+      try {
+        w.write(json);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public JsonElement toJsonElement() {
+      return new JsonParser().parse(json);
+    }
+
+    @Override
+    public String toString() {
+      return json;
+    }
+  }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.everrest;
+
+import java.util.Optional;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+/**
+ * Helps resources to use version based ETags, e.g. built from modification counter or time of the
+ * entity, instead of the ones {@link ETagResponseFilter} calculates from the serialized entity.
+ *
+ * <p>Resource checks the version before loading the entity and returns the response built by {@link
+ * #evaluate(Request, String)} if the client already has this version. Otherwise the entity is
+ * loaded and returned with the tag of the version, {@link ETagResponseFilter} keeps the tag set by
+ * the resource:
+ *
+ * <pre>{@code
+ * String version = dao.getVersion(id);
+ * Optional<Response> notModified = VersionETags.evaluate(request, version);
+ * if (notModified.isPresent()) {
+ *   return notModified.get();
+ * }
+ * return Response.ok(asDto(dao.get(id))).tag(VersionETags.toEntityTag(version)).build();
+ * }</pre>
+ */
+public final class VersionETags {
+
+  /** Prefix which distinguishes version based tags from the hash based ones. */
+  static final String VERSION_PREFIX = "v-";
+
+  /**
+   * Returns entity tag of the given entity version.
+   *
+   * @param version version of the entity
+   * @return entity tag
+   */
+  public static EntityTag toEntityTag(String version) {
+    return new EntityTag(VERSION_PREFIX + version);
+  }
+
+  /**
+   * Evaluates preconditions of the request against the given entity version.
+   *
+   * @param request the request
+   * @param version current version of the entity
+   * @return 304 (not modified) response with the version tag if the client has the current version
+   *     of the entity, or empty optional if the entity should be returned
+   */
+  public static Optional<Response> evaluate(Request request, String version) {
+    EntityTag entityTag = toEntityTag(version);
+    Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
+    return builder == null ? Optional.empty() : Optional.of(builder.tag(entityTag).build());
+  }
+
+  private VersionETags() {}
+}
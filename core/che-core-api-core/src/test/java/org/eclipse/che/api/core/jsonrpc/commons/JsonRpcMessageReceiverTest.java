@@ -14,11 +14,14 @@ package org.eclipse.che.api.core.jsonrpc.commons;
 import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
 import org.eclipse.che.api.core.websocket.impl.WebsocketIdService;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -90,9 +93,46 @@ public class JsonRpcMessageReceiverTest {
   public void shouldDispatchRequestIfRequestReceived() throws Exception {
     when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(true);
     when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
+    when(jsonRpcUnmarshaller.unmarshalRequest(MESSAGE))
+        .thenReturn(new JsonRpcRequest("1", "method", null));
 
     jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
 
-    verify(requestProcessor).process(any(), any());
+    verify(requestProcessor).process(eq("endpoint-id"), eq(ENDPOINT_ID), eq("method"), any());
+  }
+
+  @Test
+  public void shouldTransmitErrorWhenRequestIsRejected() throws Exception {
+    when(jsonRpcQualifier.isValidJson(MESSAGE)).thenReturn(true);
+    when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(true);
+    when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
+    when(jsonRpcUnmarshaller.unmarshalRequest(MESSAGE))
+        .thenReturn(new JsonRpcRequest("1", "method", null));
+    doThrow(new JsonRpcException(-32000, "busy"))
+        .when(requestProcessor)
+        .process(any(), any(), any(), any());
+
+    jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
+
+    ArgumentCaptor<JsonRpcException> captor = ArgumentCaptor.forClass(JsonRpcException.class);
+    verify(errorTransmitter).transmit(eq(ENDPOINT_ID), captor.capture());
+    assertEquals(captor.getValue().getCode(), -32000);
+    assertEquals(captor.getValue().getId(), "1");
+  }
+
+  @Test
+  public void shouldNotTransmitErrorWhenNotificationIsRejected() throws Exception {
+    when(jsonRpcQualifier.isValidJson(MESSAGE)).thenReturn(true);
+    when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(true);
+    when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
+    when(jsonRpcUnmarshaller.unmarshalRequest(MESSAGE))
+        .thenReturn(new JsonRpcRequest(null, "method", null));
+    doThrow(new JsonRpcException(-32000, "busy"))
+        .when(requestProcessor)
+        .process(any(), any(), any(), any());
+
+    jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
+
+    verify(errorTransmitter, never()).transmit(eq(ENDPOINT_ID), any(JsonRpcException.class));
   }
 }
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.commons;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link RequestHandlerManager} */
+@Listeners(MockitoTestNGListener.class)
+public class RequestHandlerManagerTest {
+  static final String ENDPOINT_ID = "endpoint-id";
+  static final String REQUEST_ID = "request-id";
+  static final String METHOD = "method";
+  static final String MESSAGE = "message";
+
+  @Mock WebSocketMessageTransmitter transmitter;
+  @Mock JsonRpcComposer composer;
+  @Mock JsonRpcMarshaller marshaller;
+  @Mock JsonRpcParams params;
+  @Mock JsonRpcMethodInvokerFilter filter;
+
+  RequestHandlerManager manager;
+
+  @BeforeMethod
+  public void setUp() {
+    manager = new RequestHandlerManager(transmitter, composer, marshaller);
+  }
+
+  @Test
+  public void shouldHandleOneToOne() {
+    when(composer.composeOne(params, String.class)).thenReturn("param");
+    when(marshaller.marshall(any(JsonRpcResponse.class))).thenReturn(MESSAGE);
+    manager.registerOneToOne(
+        METHOD, String.class, String.class, (endpointId, param) -> endpointId + ":" + param);
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+
+    JsonRpcResponse response = captureResponse();
+    assertEquals(response.getId(), REQUEST_ID);
+    assertEquals(response.getResult().getOne(), ENDPOINT_ID + ":param");
+    verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
+  }
+
+  @Test
+  public void shouldHandleOneToMany() {
+    when(composer.composeOne(params, String.class)).thenReturn("param");
+    when(marshaller.marshall(any(JsonRpcResponse.class))).thenReturn(MESSAGE);
+    manager.registerOneToMany(
+        METHOD, String.class, String.class, (endpointId, param) -> asList(endpointId, param));
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+
+    JsonRpcResponse response = captureResponse();
+    assertEquals(response.getResult().getMany(), asList(ENDPOINT_ID, "param"));
+    verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
+  }
+
+  @Test
+  public void shouldHandleOneToPromiseOneSuccess() {
+    JsonRpcPromise<String> promise = new JsonRpcPromise<>();
+    when(composer.composeOne(params, String.class)).thenReturn("param");
+    when(marshaller.marshall(any(JsonRpcResponse.class))).thenReturn(MESSAGE);
+    manager.registerOneToPromiseOne(
+        METHOD, String.class, String.class, (endpointId, param) -> promise);
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+    verify(transmitter, never()).transmit(anyString(), anyString());
+    promise.getSuccessConsumer().get().accept(ENDPOINT_ID, "result");
+
+    JsonRpcResponse response = captureResponse();
+    assertEquals(response.getResult().getOne(), "result");
+    verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
+  }
+
+  @Test
+  public void shouldHandleOneToPromiseOneFailure() {
+    JsonRpcPromise<String> promise = new JsonRpcPromise<>();
+    JsonRpcError error = new JsonRpcError(-1, "failed");
+    when(composer.composeOne(params, String.class)).thenReturn("param");
+    when(marshaller.marshall(any(JsonRpcResponse.class))).thenReturn(MESSAGE);
+    manager.registerOneToPromiseOne(
+        METHOD, String.class, String.class, (endpointId, param) -> promise);
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+    promise.getFailureConsumer().get().accept(ENDPOINT_ID, error);
+
+    JsonRpcResponse response = captureResponse();
+    assertEquals(response.getId(), REQUEST_ID);
+    assertEquals(response.getError(), error);
+    verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldHandleOneToNone() {
+    BiConsumer<String, String> consumer = mock(BiConsumer.class);
+    when(composer.composeOne(params, String.class)).thenReturn("param");
+    manager.registerOneToNone(METHOD, String.class, consumer);
+
+    manager.handle(ENDPOINT_ID, METHOD, params);
+
+    verify(consumer).accept(ENDPOINT_ID, "param");
+    verifyNoMoreInteractions(transmitter);
+  }
+
+  @Test
+  public void shouldHandleManyToOne() {
+    when(composer.composeMany(params, String.class)).thenReturn(asList("a", "b"));
+    when(marshaller.marshall(any(JsonRpcResponse.class))).thenReturn(MESSAGE);
+    manager.registerManyToOne(
+        METHOD, String.class, Integer.class, (endpointId, param) -> param.size());
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+
+    assertEquals(captureResponse().getResult().getOne(), 2);
+    verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
+  }
+
+  @Test
+  public void shouldHandleManyToMany() {
+    when(composer.composeMany(params, String.class)).thenReturn(asList("a", "b"));
+    when(marshaller.marshall(any(JsonRpcResponse.class))).thenReturn(MESSAGE);
+    manager.registerManyToMany(METHOD, String.class, String.class, (endpointId, param) -> param);
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+
+    assertEquals(captureResponse().getResult().getMany(), asList("a", "b"));
+    verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldHandleManyToNone() {
+    BiConsumer<String, List<String>> consumer = mock(BiConsumer.class);
+    when(composer.composeMany(params, String.class)).thenReturn(asList("a", "b"));
+    manager.registerManyToNone(METHOD, String.class, consumer);
+
+    manager.handle(ENDPOINT_ID, METHOD, params);
+
+    verify(consumer).accept(ENDPOINT_ID, asList("a", "b"));
+    verifyNoMoreInteractions(transmitter);
+  }
+
+  @Test
+  public void shouldHandleNoneToOne() {
+    when(marshaller.marshall(any(JsonRpcResponse.class))).thenReturn(MESSAGE);
+    manager.registerNoneToOne(METHOD, String.class, endpointId -> "result");
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+
+    assertEquals(captureResponse().getResult().getOne(), "result");
+    verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
+    verifyNoMoreInteractions(composer);
+  }
+
+  @Test
+  public void shouldHandleNoneToMany() {
+    when(marshaller.marshall(any(JsonRpcResponse.class))).thenReturn(MESSAGE);
+    manager.registerNoneToMany(METHOD, String.class, endpointId -> singletonList("result"));
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+
+    assertEquals(captureResponse().getResult().getMany(), singletonList("result"));
+    verify(transmitter).transmit(ENDPOINT_ID, MESSAGE);
+    verifyNoMoreInteractions(composer);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldHandleNoneToNone() {
+    Consumer<String> consumer = mock(Consumer.class);
+    manager.registerNoneToNone(METHOD, consumer);
+
+    manager.handle(ENDPOINT_ID, METHOD, params);
+
+    verify(consumer).accept(ENDPOINT_ID);
+    verifyNoMoreInteractions(composer, transmitter);
+  }
+
+  @Test
+  public void shouldPassDecodedParamsToFilters() {
+    when(composer.composeOne(params, String.class)).thenReturn("param");
+    manager.registerMethodInvokerFilter(filter, METHOD);
+    manager.registerOneToNone(METHOD, String.class, (endpointId, param) -> {});
+
+    manager.handle(ENDPOINT_ID, METHOD, params);
+
+    verify(filter).accept(METHOD, "param");
+  }
+
+  @Test
+  public void shouldPassDecodedListToFilters() {
+    List<String> decoded = asList("a", "b");
+    when(composer.composeMany(params, String.class)).thenReturn(decoded);
+    manager.registerManyToNone(METHOD, String.class, (endpointId, param) -> {});
+    manager.registerMethodInvokerFilter(filter, METHOD);
+
+    manager.handle(ENDPOINT_ID, METHOD, params);
+
+    verify(filter).accept(METHOD, decoded);
+  }
+
+  @Test
+  public void shouldApplyFiltersRegisteredAfterMethod() {
+    manager.registerNoneToNone(METHOD, endpointId -> {});
+    manager.registerMethodInvokerFilter(filter, METHOD);
+
+    manager.handle(ENDPOINT_ID, METHOD, params);
+
+    verify(filter).accept(METHOD);
+  }
+
+  @Test
+  public void shouldNotInvokeHandlerWhenFilterRejectsRequest() {
+    AtomicReference<String> invoked = new AtomicReference<>();
+    doThrow(new JsonRpcException(-1, "denied")).when(filter).accept(METHOD);
+    manager.registerMethodInvokerFilter(filter, METHOD);
+    manager.registerNoneToOne(METHOD, String.class, endpointId -> invoked.getAndSet(endpointId));
+
+    try {
+      manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+    } catch (JsonRpcException ignored) {
+    }
+
+    assertNull(invoked.get());
+    verifyNoMoreInteractions(transmitter);
+  }
+
+  @Test
+  public void shouldNotApplyFiltersOfOtherMethods() {
+    manager.registerMethodInvokerFilter(filter, "other");
+    manager.registerNoneToNone(METHOD, endpointId -> {});
+
+    manager.handle(ENDPOINT_ID, METHOD, params);
+
+    verifyNoMoreInteractions(filter);
+  }
+
+  @Test
+  public void shouldDeregisterMethod() {
+    manager.registerNoneToNone(METHOD, endpointId -> {});
+
+    assertTrue(manager.isRegistered(METHOD));
+    assertTrue(manager.deregister(METHOD));
+    assertFalse(manager.isRegistered(METHOD));
+    assertFalse(manager.deregister(METHOD));
+  }
+
+  @Test
+  public void shouldRegisterMethodAgainAfterDeregistration() {
+    manager.registerNoneToNone(METHOD, endpointId -> {});
+    manager.deregister(METHOD);
+
+    manager.registerNoneToOne(METHOD, String.class, endpointId -> "result");
+
+    assertTrue(manager.isRegistered(METHOD));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void shouldNotRegisterMethodTwice() {
+    manager.registerNoneToNone(METHOD, endpointId -> {});
+
+    manager.registerNoneToOne(METHOD, String.class, endpointId -> "result");
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void shouldThrowExceptionOnHandlingNotRegisteredMethod() {
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldNotInvokeNotificationHandlerOnRequest() {
+    Consumer<String> consumer = mock(Consumer.class);
+    manager.registerNoneToNone(METHOD, consumer);
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD, params);
+
+    verifyNoMoreInteractions(consumer, transmitter);
+  }
+
+  @Test
+  public void shouldHandleManyRegisteredMethods() {
+    when(marshaller.marshall(any(JsonRpcResponse.class))).thenReturn(MESSAGE);
+    for (int i = 0; i < 200; i++) {
+      String result = "result-" + i;
+      manager.registerNoneToOne(METHOD + i, String.class, endpointId -> result);
+    }
+
+    manager.handle(ENDPOINT_ID, REQUEST_ID, METHOD + 123, params);
+
+    assertEquals(captureResponse().getResult().getOne(), "result-123");
+  }
+
+  private JsonRpcResponse captureResponse() {
+    ArgumentCaptor<JsonRpcResponse> captor = ArgumentCaptor.forClass(JsonRpcResponse.class);
+    verify(marshaller).marshall(captor.capture());
+    return captor.getValue();
+  }
+}
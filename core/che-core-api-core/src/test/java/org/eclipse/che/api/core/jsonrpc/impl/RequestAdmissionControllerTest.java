@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.impl.RequestAdmissionController.Admission;
+import org.testng.annotations.Test;
+
+/** Tests for {@link RequestAdmissionController} */
+public class RequestAdmissionControllerTest {
+
+  private static final String ENDPOINT = "endpoint";
+
+  @Test
+  public void shouldRejectRequestsOverEndpointLimit() {
+    RequestAdmissionController controller = new RequestAdmissionController(2, 0, null);
+
+    controller.admit(ENDPOINT, "connection-1", "method");
+    Admission admission = controller.admit(ENDPOINT, "connection-2", "method");
+    assertRejected(controller, "connection-3", "method");
+
+    admission.release();
+    controller.admit(ENDPOINT, "connection-3", "method");
+    assertEquals(controller.getRequests(ENDPOINT), 2);
+  }
+
+  @Test
+  public void shouldRejectRequestsOverConnectionLimit() {
+    RequestAdmissionController controller = new RequestAdmissionController(0, 1, null);
+
+    Admission admission = controller.admit(ENDPOINT, "connection-1", "method");
+    assertRejected(controller, "connection-1", "method");
+    controller.admit(ENDPOINT, "connection-2", "method");
+
+    admission.release();
+    assertEquals(controller.getConnectionRequests("connection-1"), 0);
+    controller.admit(ENDPOINT, "connection-1", "method");
+  }
+
+  @Test
+  public void shouldRejectRequestsOverMethodLimit() {
+    RequestAdmissionController controller =
+        new RequestAdmissionController(0, 0, " limited = 1, other=5");
+
+    controller.admit(ENDPOINT, "connection-1", "limited");
+    assertRejected(controller, "connection-2", "limited");
+    controller.admit(ENDPOINT, "connection-2", "unlimited");
+    controller.admit(ENDPOINT, "connection-2", "unlimited");
+  }
+
+  @Test
+  public void shouldNotKeepLimitsTakenByRejectedRequest() {
+    RequestAdmissionController controller = new RequestAdmissionController(10, 10, "limited=1");
+
+    controller.admit(ENDPOINT, "connection-1", "limited");
+    assertRejected(controller, "connection-2", "limited");
+
+    assertEquals(controller.getRequests(ENDPOINT), 1);
+    assertEquals(controller.getConnectionRequests("connection-2"), 0);
+  }
+
+  @Test
+  public void shouldReleaseAdmissionOnce() {
+    RequestAdmissionController controller = new RequestAdmissionController(10, 10, null);
+    controller.admit(ENDPOINT, "connection-1", "method");
+    Admission admission = controller.admit(ENDPOINT, "connection-1", "method");
+
+    admission.release();
+    admission.release();
+
+    assertEquals(controller.getRequests(ENDPOINT), 1);
+    assertEquals(controller.getConnectionRequests("connection-1"), 1);
+  }
+
+  private static void assertRejected(
+      RequestAdmissionController controller, String connectionId, String method) {
+    try {
+      controller.admit(ENDPOINT, connectionId, method);
+      fail("Request is expected to be rejected");
+    } catch (JsonRpcException e) {
+      assertEquals(e.getCode(), RequestAdmissionController.SERVER_BUSY_ERROR_CODE);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlingListener;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessorConfigurationProvider;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessorConfigurationProvider.Configuration;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link ServerSideRequestProcessor} */
+@Listeners(MockitoTestNGListener.class)
+public class ServerSideRequestProcessorTest {
+
+  private static final String ENDPOINT = "endpoint";
+
+  @Mock private RequestProcessorConfigurationProvider configurationProvider;
+  @Mock private Configuration configuration;
+  @Mock private RequestHandlingListener handlingListener;
+
+  private ThreadPoolExecutor executor;
+  private RequestAdmissionController admissionController;
+  private ServerSideRequestProcessor processor;
+
+  @BeforeMethod
+  public void setUp() {
+    executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1000));
+    when(configurationProvider.get(ENDPOINT)).thenReturn(configuration);
+    when(configuration.getExecutorService()).thenReturn(executor);
+    admissionController = new RequestAdmissionController(100, 2, null);
+    processor = new ServerSideRequestProcessor(configurationProvider, admissionController);
+    processor.setHandlingListener(handlingListener);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldProcessRequestsOfOtherConnectionsWhenOneFloodsRequests() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger rejected = new AtomicInteger();
+    for (int i = 0; i < 1000; i++) {
+      try {
+        processor.process(ENDPOINT, "flooding", "method", () -> await(release));
+      } catch (JsonRpcException e) {
+        rejected.incrementAndGet();
+      }
+    }
+
+    CountDownLatch processed = new CountDownLatch(1);
+    long start = System.nanoTime();
+    processor.process(ENDPOINT, "other", "method", processed::countDown);
+
+    assertTrue(processed.await(5, TimeUnit.SECONDS), "Request of other connection is processed");
+    assertTrue(
+        System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1),
+        "Request of other connection waited for the flooding ones");
+    assertEquals(rejected.get(), 998);
+    verify(handlingListener, times(998)).onRejected("method");
+
+    release.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    assertEquals(admissionController.getRequests(ENDPOINT), 0);
+    assertEquals(admissionController.getConnectionRequests("flooding"), 0);
+    verify(handlingListener, times(3)).onDequeued(eq("method"), anyLong());
+  }
+
+  @Test
+  public void shouldReleaseAdmissionWhenExecutorRejectsRequest() throws Exception {
+    executor.shutdown();
+
+    try {
+      processor.process(ENDPOINT, "connection", "method", () -> {});
+      fail("Request is expected to be rejected");
+    } catch (JsonRpcException e) {
+      assertEquals(e.getCode(), RequestAdmissionController.SERVER_BUSY_ERROR_CODE);
+    }
+
+    assertEquals(admissionController.getRequests(ENDPOINT), 0);
+    assertEquals(admissionController.getConnectionRequests("connection"), 0);
+    verify(handlingListener).onRejected("method");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -12,8 +12,15 @@
 package org.eclipse.che.api.core.notification;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -193,6 +200,109 @@ public class EventServiceTest {
     bus.unsubscribe(sb, CustomEventImpl.class);
   }
 
+  @Test
+  public void shouldDeliverEventsWithSameKeyAsynchronouslyInOrder() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+      CountDownLatch allReceived = new CountDownLatch(10 * 1000);
+      bus.subscribeAsync(
+          event -> {
+            received.computeIfAbsent(event.key, k -> new ArrayList<>()).add(event.seq);
+            allReceived.countDown();
+          },
+          KeyedEvent.class,
+          executor,
+          event -> event.key,
+          1000);
+
+      for (int seq = 0; seq < 1000; seq++) {
+        for (int key = 0; key < 10; key++) {
+          bus.publish(new KeyedEvent("key" + key, seq));
+        }
+      }
+
+      Assert.assertTrue(allReceived.await(10, TimeUnit.SECONDS));
+      Assert.assertEquals(received.size(), 10);
+      for (List<Integer> sequence : received.values()) {
+        Assert.assertEquals(sequence.size(), 1000);
+        for (int i = 0; i < sequence.size(); i++) {
+          Assert.assertEquals(sequence.get(i).intValue(), i);
+        }
+      }
+      Assert.assertEquals(bus.getAsyncDeliveryStats().getDeliveredEvents(), 10 * 1000);
+      Assert.assertEquals(bus.getAsyncDeliveryStats().getDroppedEvents(), 0);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldNotBlockPublisherBySlowAsyncSubscriber() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      List<String> syncEvents = new ArrayList<>();
+      bus.subscribeAsync(
+          event -> {
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          },
+          String.class,
+          executor);
+      bus.subscribe(syncEvents::add, String.class);
+
+      long start = System.nanoTime();
+      for (int i = 0; i < 100; i++) {
+        bus.publish("event" + i);
+      }
+      long publishMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      Assert.assertEquals(syncEvents.size(), 100);
+      Assert.assertTrue(publishMillis < 5000, "Publishing took " + publishMillis + "ms");
+      // the first event is being delivered, the others are waiting in the queue
+      Assert.assertTrue(bus.getAsyncDeliveryStats().getQueuedEvents() >= 99);
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldDropEventsWhenQueueOfKeyIsFull() throws Exception {
+    List<Runnable> tasks = new ArrayList<>();
+    List<String> received = new ArrayList<>();
+    EventSubscriber<String> subscriber =
+        bus.subscribeAsync(received::add, String.class, tasks::add, event -> "key", 2);
+
+    bus.publish("first");
+    bus.publish("second");
+    bus.publish("third");
+    tasks.forEach(Runnable::run);
+
+    Assert.assertEquals(received, Arrays.asList("first", "second"));
+    Assert.assertEquals(bus.getAsyncDeliveryStats().getDroppedEvents(), 1);
+    Assert.assertEquals(bus.getAsyncDeliveryStats().getQueuedEvents(), 0);
+    Assert.assertEquals(((AsyncEventSubscriber<String>) subscriber).getActiveKeys(), 0);
+
+    bus.unsubscribe(subscriber, String.class);
+    bus.publish("fourth");
+    Assert.assertEquals(tasks.size(), 1);
+  }
+
+  static class KeyedEvent {
+    final String key;
+    final int seq;
+
+    KeyedEvent(String key, int seq) {
+      this.key = key;
+      this.seq = seq;
+    }
+  }
+
   static class CustomEventSubscriber<T extends CustomEvent> implements EventSubscriber<T> {
     final List<String> events = new ArrayList<>();
 
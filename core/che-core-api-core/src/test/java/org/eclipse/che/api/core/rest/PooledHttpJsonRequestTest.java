@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.rest;
+
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.core.util.LinksHelper;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.subject.Subject;
+import org.eclipse.che.commons.subject.SubjectImpl;
+import org.everrest.assured.EverrestJetty;
+import org.everrest.core.Filter;
+import org.everrest.core.GenericContainerRequest;
+import org.everrest.core.RequestFilter;
+import org.testng.ITestContext;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests of {@link PooledHttpJsonRequest}. */
+@Listeners(EverrestJetty.class)
+public class PooledHttpJsonRequestTest {
+
+  @SuppressWarnings("unused") // used by EverrestJetty
+  private static final EnvironmentFilter FILTER = new EnvironmentFilter();
+
+  @SuppressWarnings("unused") // used by EverrestJetty
+  private static final ApiExceptionMapper EXCEPTION_MAPPER = new ApiExceptionMapper();
+
+  @SuppressWarnings("unused") // used by EverrestJetty
+  private static final TestService TEST_SERVICE = new TestService();
+
+  private static final Subject TEST_SUBJECT = new SubjectImpl("name", "id", "token", false);
+
+  private PooledHttpJsonRequestFactory requestFactory;
+
+  @BeforeMethod
+  public void setUp() {
+    requestFactory = new PooledHttpJsonRequestFactory(4, 10_000, 10_000, 1024 * 1024);
+    EnvironmentContext.reset();
+  }
+
+  @Test
+  public void shouldReadJsonObjectBodyAsString(ITestContext ctx) throws Exception {
+    HttpJsonResponse response =
+        requestFactory.fromUrl(getUrl(ctx) + "/application-json").useGetMethod().request();
+
+    assertEquals(response.asString(), TestService.JSON_OBJECT);
+  }
+
+  @Test
+  public void shouldSendJsonObjectBody(ITestContext ctx) throws Exception {
+    final Link link = LinksHelper.createLink("GET", "localhost:8080/application-json", "rel");
+
+    final List<Link> links =
+        requestFactory
+            .fromUrl(getUrl(ctx) + "/application-json")
+            .usePostMethod()
+            .setBody(singletonList(link))
+            .request()
+            .asList(Link.class);
+
+    assertEquals(links, singletonList(link));
+  }
+
+  @Test
+  public void shouldSendQueryParameters(ITestContext ctx) throws Exception {
+    final HttpJsonResponse response =
+        requestFactory
+            .fromUrl(getUrl(ctx) + "/query-parameters")
+            .usePutMethod()
+            .addQueryParam("param1", "value1")
+            .addQueryParam("param2", "value2")
+            .request();
+
+    assertEquals(response.asProperties(), ImmutableMap.of("param1", "value1", "param2", "value2"));
+  }
+
+  @Test
+  public void shouldUseTokenFromCurrentContextForAuthorization(ITestContext ctx) throws Exception {
+    final EnvironmentContext context = new EnvironmentContext();
+    context.setSubject(TEST_SUBJECT);
+    EnvironmentContext.setCurrent(context);
+
+    requestFactory.fromUrl(getUrl(ctx) + "/token").usePostMethod().request();
+  }
+
+  @Test
+  public void shouldIgnoreConnectionHeaders(ITestContext ctx) throws Exception {
+    requestFactory
+        .fromUrl(getUrl(ctx) + "/application-json")
+        .useGetMethod()
+        .addHeader("Connection", "close")
+        .request();
+  }
+
+  @Test
+  public void shouldAcceptNoContentResponse(ITestContext ctx) throws Exception {
+    HttpJsonResponse response =
+        requestFactory.fromUrl(getUrl(ctx) + "/no-content").useDeleteMethod().request();
+
+    assertEquals(response.getResponseCode(), 204);
+  }
+
+  @Test(expectedExceptions = BadRequestException.class)
+  public void shouldThrowBadRequestExceptionWhenResponseCodeIs400(ITestContext ctx)
+      throws Exception {
+    requestFactory.fromUrl(getUrl(ctx) + "/400/response-code-test").useGetMethod().request();
+  }
+
+  @Test(expectedExceptions = NotFoundException.class)
+  public void shouldThrowNotFoundExceptionWhenResponseCodeIs404(ITestContext ctx) throws Exception {
+    requestFactory.fromUrl(getUrl(ctx) + "/404/response-code-test").useGetMethod().request();
+  }
+
+  @Test(expectedExceptions = ServerException.class)
+  public void shouldThrowServerExceptionWhenResponseCodeIs500(ITestContext ctx) throws Exception {
+    requestFactory.fromUrl(getUrl(ctx) + "/500/response-code-test").useGetMethod().request();
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void shouldThrowIOExceptionIfServerReturnsTypeDifferentFromApplicationJson(
+      ITestContext ctx) throws Exception {
+    requestFactory.fromUrl(getUrl(ctx) + "/text-plain").useGetMethod().request();
+  }
+
+  @Test
+  public void shouldParseLargeListResponse(ITestContext ctx) throws Exception {
+    final List<Link> links =
+        requestFactory
+            .fromUrl(getUrl(ctx) + "/links/5000")
+            .useGetMethod()
+            .request()
+            .asList(Link.class);
+
+    assertEquals(links.size(), 5000);
+    assertEquals(links.get(4999).getRel(), "rel-4999");
+  }
+
+  @Test(
+      expectedExceptions = IOException.class,
+      expectedExceptionsMessageRegExp = "Response of .* exceeds the limit of 1024 bytes")
+  public void shouldFailWhenResponseExceedsLimit(ITestContext ctx) throws Exception {
+    new PooledHttpJsonRequestFactory(4, 10_000, 10_000, 1024)
+        .fromUrl(getUrl(ctx) + "/links/5000")
+        .useGetMethod()
+        .request();
+  }
+
+  @Test
+  public void shouldReuseConnections(ITestContext ctx) throws Exception {
+    final Set<String> ports = new HashSet<>();
+    for (int i = 0; i < 20; i++) {
+      ports.add(requestRemotePort(requestFactory, ctx));
+    }
+
+    // connection may be returned to the pool slightly after the response is read
+    assertTrue(ports.size() <= 2, "Connections are not reused, client ports: " + ports);
+  }
+
+  @Test
+  public void shouldLimitConnectionsPerHost(ITestContext ctx) throws Exception {
+    final PooledHttpJsonRequestFactory factory =
+        new PooledHttpJsonRequestFactory(2, 10_000, 10_000, 1024 * 1024);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 80; i++) {
+        futures.add(executor.submit(() -> requestRemotePort(factory, ctx)));
+      }
+      final Set<String> ports = new HashSet<>();
+      for (Future<String> future : futures) {
+        ports.add(future.get());
+      }
+
+      // two connections plus the ones opened before the previous were returned to the pool
+      assertTrue(ports.size() < 10, "Too many connections are opened, client ports: " + ports);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static String requestRemotePort(PooledHttpJsonRequestFactory factory, ITestContext ctx)
+      throws Exception {
+    return factory
+        .fromUrl(getUrl(ctx) + "/remote-port")
+        .useGetMethod()
+        .request()
+        .asProperties()
+        .get("port");
+  }
+
+  @Filter
+  public static class EnvironmentFilter implements RequestFilter {
+
+    public void doFilter(GenericContainerRequest request) {
+      EnvironmentContext.getCurrent().setSubject(TEST_SUBJECT);
+    }
+  }
+
+  private static String getUrl(ITestContext ctx) {
+    return "http://localhost:" + ctx.getAttribute(EverrestJetty.JETTY_PORT) + "/rest/test";
+  }
+}
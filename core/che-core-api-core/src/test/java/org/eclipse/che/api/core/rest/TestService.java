@@ -18,9 +18,11 @@ import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
 
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.HeaderParam;
@@ -38,12 +40,14 @@ import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.api.core.rest.shared.dto.Link;
 import org.eclipse.che.api.core.rest.shared.dto.ServiceError;
+import org.eclipse.che.api.core.util.LinksHelper;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.dto.server.JsonArrayImpl;
 
 /**
- * Test service class, used in {@link DefaultHttpJsonRequestTest}.
+ * Test service class, used in {@link DefaultHttpJsonRequestTest} and {@link
+ * PooledHttpJsonRequestTest}.
  *
  * @author Yevhenii Voevodin
  */
@@ -133,6 +137,24 @@ public class TestService extends Service {
         .build();
   }
 
+  @GET
+  @Path("/remote-port")
+  @Produces(APPLICATION_JSON)
+  public Map<String, String> getRemotePort(@Context HttpServletRequest request) {
+    return singletonMap("port", String.valueOf(request.getRemotePort()));
+  }
+
+  @GET
+  @Path("/links/{count}")
+  @Produces(APPLICATION_JSON)
+  public List<Link> getLinks(@PathParam("count") int count) {
+    final List<Link> links = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      links.add(LinksHelper.createLink("GET", "http://localhost:8080/link/" + i, "rel-" + i));
+    }
+    return links;
+  }
+
   @DELETE
   @Path("no-content")
   public Response noContent() {
@@ -42,6 +42,7 @@ public class BasicWebSocketMessageTransmitterTest {
 
   @Mock private WebSocketSessionRegistry registry;
   @Mock private MessagesReSender reSender;
+  @Mock private WebSocketCompression compression;
   @InjectMocks private BasicWebSocketMessageTransmitter transmitter;
 
   @Mock private Session session;
@@ -62,6 +63,7 @@ public class BasicWebSocketMessageTransmitterTest {
 
     verify(session).getBasicRemote();
     verify(remote).sendText(MESSAGE);
+    verify(compression).onSent(session, MESSAGE);
     verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
   }
 
@@ -74,5 +76,6 @@ public class BasicWebSocketMessageTransmitterTest {
     verify(session, never()).getBasicRemote();
     verify(remote, never()).sendText(MESSAGE);
     verify(reSender).add(ENDPOINT_ID, MESSAGE);
+    verify(compression, never()).onSent(session, MESSAGE);
   }
 }
@@ -11,16 +11,26 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.util.Collections.nCopies;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.websocket.RemoteEndpoint;
 import javax.websocket.Session;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -36,9 +46,13 @@ import org.testng.annotations.Test;
 public class MessagesReSenderTest {
   private static final String MESSAGE = "message";
   private static final String ENDPOINT_ID = "id";
+  private static final long BUFFER_SIZE = 64 * 1024;
+  private static final long ENDPOINT_BUFFER_SIZE = 4 * 1024;
+  private static final long TTL_MILLIS = 60_000;
 
   @Mock private WebSocketSessionRegistry sessionRegistry;
-  @InjectMocks private MessagesReSender reSender;
+  private MessagesReSender reSender;
+  private AtomicLong currentTime;
 
   @Mock private Session session;
   @Mock private RemoteEndpoint.Async endpoint;
@@ -52,7 +66,10 @@ public class MessagesReSenderTest {
 
   @BeforeMethod
   public void before() {
-    reSender = new MessagesReSender(sessionRegistry);
+    currentTime = new AtomicLong(1_000_000);
+    reSender =
+        new MessagesReSender(
+            sessionRegistry, BUFFER_SIZE, ENDPOINT_BUFFER_SIZE, TTL_MILLIS, 0, currentTime::get);
   }
 
   @Test
@@ -146,4 +163,137 @@ public class MessagesReSenderTest {
     verify(session, times(2)).getAsyncRemote();
     verify(endpoint, times(2)).sendText(MESSAGE);
   }
+
+  @Test
+  public void shouldResendMessagesInOrderOfAdding() {
+    reSender.add(ENDPOINT_ID, "first");
+    reSender.add(ENDPOINT_ID, "second");
+    reSender.add(ENDPOINT_ID, "third");
+
+    reSender.resend(ENDPOINT_ID);
+
+    InOrder inOrder = inOrder(endpoint);
+    inOrder.verify(endpoint).sendText("first");
+    inOrder.verify(endpoint).sendText("second");
+    inOrder.verify(endpoint).sendText("third");
+  }
+
+  @Test
+  public void shouldDropOldestMessagesOfEndpointWhenEndpointBufferIsFull() {
+    String message = message(1024);
+    for (int i = 0; i < 10; i++) {
+      reSender.add(ENDPOINT_ID, i + message);
+    }
+
+    assertTrue(reSender.getBufferedBytes() <= ENDPOINT_BUFFER_SIZE);
+
+    reSender.resend(ENDPOINT_ID);
+
+    // only 3 messages with the overhead fit into the endpoint buffer
+    verify(endpoint, times(3)).sendText(anyString());
+    verify(endpoint).sendText(7 + message);
+    verify(endpoint).sendText(8 + message);
+    verify(endpoint).sendText(9 + message);
+  }
+
+  @Test
+  public void shouldDropMessagesOfLeastRecentlyUsedEndpointsWhenBufferIsFull() {
+    String message = message(3 * 1024);
+    // 20 messages with the overhead fill the whole buffer
+    for (int i = 0; i < 20; i++) {
+      reSender.add("endpoint" + i, message);
+    }
+    // endpoint0 is used again, so endpoint1 becomes the least recently used one
+    reSender.add("endpoint0", "recent");
+
+    reSender.add("endpoint20", message);
+
+    assertTrue(reSender.getBufferedBytes() <= BUFFER_SIZE);
+    reSender.resend("endpoint1");
+    verify(sessionRegistry, never()).get("endpoint1");
+    reSender.resend("endpoint0");
+    verify(endpoint).sendText("recent");
+  }
+
+  @Test
+  public void shouldNotResendExpiredMessages() {
+    reSender.add(ENDPOINT_ID, "expired");
+    currentTime.addAndGet(TTL_MILLIS / 2);
+    reSender.add(ENDPOINT_ID, MESSAGE);
+    currentTime.addAndGet(TTL_MILLIS / 2);
+
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint, never()).sendText("expired");
+    verify(endpoint).sendText(MESSAGE);
+  }
+
+  @Test
+  public void shouldReleaseExpiredMessagesOnCleanup() {
+    reSender.add(ENDPOINT_ID, "expired");
+    reSender.add("1", "expired");
+    currentTime.addAndGet(TTL_MILLIS);
+    reSender.add("2", MESSAGE);
+
+    reSender.cleanStaleMessages();
+
+    assertEquals(
+        reSender.getBufferedBytes(), MESSAGE.length() + MessagesReSender.MESSAGE_OVERHEAD_BYTES);
+    reSender.resend(ENDPOINT_ID);
+    reSender.resend("1");
+    reSender.resend("2");
+    verify(sessionRegistry, never()).get(ENDPOINT_ID);
+    verify(sessionRegistry, never()).get("1");
+    verify(endpoint).sendText(MESSAGE);
+  }
+
+  @Test
+  public void shouldKeepLargeMessagesCompressed() {
+    reSender =
+        new MessagesReSender(
+            sessionRegistry, BUFFER_SIZE, ENDPOINT_BUFFER_SIZE, TTL_MILLIS, 1024, currentTime::get);
+    String message = message(16 * 1024);
+
+    reSender.add(ENDPOINT_ID, message);
+
+    assertTrue(reSender.getBufferedBytes() < 1024);
+    reSender.resend(ENDPOINT_ID);
+    verify(endpoint).sendText(message);
+  }
+
+  @Test
+  public void shouldKeepBufferWithinLimitsDuringReconnectStorm() {
+    Random random = new Random(42);
+
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < 1000; i++) {
+        String endpointId = "endpoint" + random.nextInt(2000);
+        String payload = message(random.nextInt(512));
+        reSender.add(endpointId, endpointId + ':' + (round * 1000 + i) + payload);
+        assertTrue(reSender.getBufferedBytes() <= BUFFER_SIZE);
+      }
+      for (int i = 0; i < 200; i++) {
+        reSender.resend("endpoint" + random.nextInt(2000));
+      }
+      currentTime.addAndGet(TTL_MILLIS / 10);
+      reSender.cleanStaleMessages();
+      assertTrue(reSender.getBufferedBytes() <= BUFFER_SIZE);
+    }
+
+    ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+    verify(endpoint, atLeastOnce()).sendText(captor.capture());
+    // messages of each endpoint are re-sent in the order of adding
+    Map<String, Integer> lastSent = new HashMap<>();
+    for (String message : captor.getAllValues()) {
+      int colon = message.indexOf(':');
+      String endpointId = message.substring(0, colon);
+      int number = Integer.parseInt(message.substring(colon + 1).replaceAll("x*$", ""));
+      Integer previous = lastSent.put(endpointId, number);
+      assertTrue(previous == null || previous < number);
+    }
+  }
+
+  private static String message(int size) {
+    return String.join("", nCopies(size, "x"));
+  }
 }
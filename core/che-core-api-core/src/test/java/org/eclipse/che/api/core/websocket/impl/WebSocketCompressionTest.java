@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.core.websocket.impl.WebSocketCompression.PERMESSAGE_DEFLATE;
+import static org.mockito.Mockito.lenient;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.websocket.Extension;
+import javax.websocket.Session;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link WebSocketCompression} */
+@Listeners(MockitoTestNGListener.class)
+public class WebSocketCompressionTest {
+  private static final String MESSAGE =
+      "{\"jsonrpc\":\"2.0\",\"method\":\"runtime/log\",\"params\":{\"runtimeId\":"
+          + "{\"workspaceId\":\"workspace123\"},\"text\":\"Pulling image\",\"time\":\"now\"}}";
+
+  @Mock private Session deflateSession;
+  @Mock private Session plainSession;
+  @Mock private Extension deflate;
+  @Mock private Extension other;
+
+  @BeforeMethod
+  public void setUp() {
+    lenient().when(deflate.getName()).thenReturn(PERMESSAGE_DEFLATE);
+    lenient().when(other.getName()).thenReturn("other");
+    lenient().when(deflateSession.getNegotiatedExtensions()).thenReturn(singletonList(deflate));
+    lenient().when(plainSession.getNegotiatedExtensions()).thenReturn(emptyList());
+  }
+
+  @Test
+  public void shouldKeepNegotiatedExtensionsWhenEnabled() {
+    WebSocketCompression compression = new WebSocketCompression(true, 1);
+
+    List<Extension> negotiated = compression.filterNegotiated(asList(deflate, other));
+
+    assertEquals(negotiated, asList(deflate, other));
+  }
+
+  @Test
+  public void shouldRemovePermessageDeflateWhenDisabled() {
+    WebSocketCompression compression = new WebSocketCompression(false, 1);
+
+    List<Extension> negotiated = compression.filterNegotiated(asList(deflate, other));
+
+    assertEquals(negotiated, singletonList(other));
+  }
+
+  @Test
+  public void shouldSampleEveryNthDeflatedMessage() {
+    WebSocketCompression compression = new WebSocketCompression(true, 2);
+
+    for (int i = 0; i < 5; i++) {
+      compression.onSent(deflateSession, MESSAGE);
+      compression.onSent(plainSession, MESSAGE);
+    }
+
+    assertEquals(compression.getSentMessages(), 10);
+    assertEquals(compression.getDeflatedMessages(), 5);
+    assertEquals(compression.getSampledMessages(), 2);
+    assertEquals(compression.getSampledBytes(), 2 * MESSAGE.length());
+    assertTrue(compression.getTotalSampledCompressionTime(TimeUnit.NANOSECONDS) > 0);
+  }
+
+  @Test
+  public void shouldEstimateCompressionRatioOfVerboseMessages() {
+    WebSocketCompression compression = new WebSocketCompression(true, 1);
+    StringBuilder logs = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      logs.append(MESSAGE);
+    }
+
+    compression.onSent(deflateSession, logs.toString());
+
+    assertTrue(compression.getSampledCompressedBytes() < compression.getSampledBytes() / 10);
+    assertTrue(compression.getCompressionRatio() < 0.1);
+  }
+
+  @Test
+  public void shouldNotSampleWhenSamplingIsDisabled() {
+    WebSocketCompression compression = new WebSocketCompression(true, 0);
+
+    compression.onSent(deflateSession, MESSAGE);
+
+    assertEquals(compression.getDeflatedMessages(), 1);
+    assertEquals(compression.getSampledMessages(), 0);
+    assertTrue(Double.isNaN(compression.getCompressionRatio()));
+  }
+}
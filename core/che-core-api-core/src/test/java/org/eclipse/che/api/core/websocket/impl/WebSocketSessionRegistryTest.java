@@ -11,10 +11,17 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.websocket.Session;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
@@ -83,4 +90,121 @@ public class WebSocketSessionRegistryTest {
     assertFalse(registry.getSessions().isEmpty());
     assertEquals(2, registry.getSessions().size());
   }
+
+  @Test
+  public void shouldGetEndpointIdOfSession() {
+    registry.add("0", session);
+
+    assertEquals(registry.get(session), Optional.of("0"));
+  }
+
+  @Test
+  public void shouldRemoveSessionBySession() {
+    registry.add("0", session);
+
+    assertEquals(registry.remove(session), Optional.of(session));
+
+    assertFalse(registry.get("0").isPresent());
+    assertFalse(registry.get(session).isPresent());
+  }
+
+  @Test
+  public void shouldRemoveReverseBindingWhenSessionIsRemovedByEndpointId() {
+    registry.add("0", session);
+
+    registry.remove("0");
+
+    assertFalse(registry.get(session).isPresent());
+  }
+
+  @Test
+  public void shouldRebindEndpointToNewSession() {
+    Session newSession = mock(Session.class);
+    registry.add("0", session);
+
+    registry.add("0", newSession);
+
+    assertEquals(registry.get("0"), Optional.of(newSession));
+    assertEquals(registry.get(newSession), Optional.of("0"));
+    assertFalse(registry.get(session).isPresent());
+  }
+
+  @Test
+  public void shouldRebindSessionToNewEndpoint() {
+    registry.add("0", session);
+
+    registry.add("1", session);
+
+    assertEquals(registry.get(session), Optional.of("1"));
+    assertFalse(registry.get("0").isPresent());
+    assertEquals(registry.getSessions().size(), 1);
+  }
+
+  @Test
+  public void shouldGetSessionsByPrefix() {
+    Session otherSession = mock(Session.class);
+    registry.add("client1<-:->endpoint", session);
+    registry.add("client10<-:->endpoint", otherSession);
+    registry.add("other", mock(Session.class));
+
+    assertEquals(registry.getByPrefix("client1").size(), 2);
+    assertEquals(registry.getByPrefix("client1<-:->"), singleton(session));
+    assertTrue(registry.getByPrefix("client2").isEmpty());
+  }
+
+  @Test
+  public void shouldGetSessionsByClientId() {
+    WebsocketIdService idService = new WebsocketIdService();
+    registry.add(idService.getCombinedId("endpoint", "1"), session);
+    registry.add(idService.getCombinedId("endpoint", "12"), mock(Session.class));
+
+    assertEquals(registry.getByClientId("1"), singleton(session));
+  }
+
+  @Test(timeOut = 30_000)
+  public void shouldKeepIndexesConsistentUnderConcurrentChurn() throws Exception {
+    int threads = 8;
+    int sessionsPerThread = 2_500;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<List<Session>>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        String clientId = "client" + t;
+        futures.add(
+            executor.submit(
+                () -> {
+                  List<Session> kept = new ArrayList<>();
+                  for (int i = 0; i < sessionsPerThread; i++) {
+                    Session s = mock(Session.class);
+                    String endpointId = clientId + WebsocketIdService.SEPARATOR + i;
+                    registry.add(endpointId, s);
+                    assertEquals(registry.get(s), Optional.of(endpointId));
+                    if (i % 2 == 0) {
+                      kept.add(s);
+                    } else if (i % 4 == 1) {
+                      registry.remove(endpointId);
+                    } else {
+                      registry.remove(s);
+                    }
+                  }
+                  return kept;
+                }));
+      }
+
+      int expectedSize = 0;
+      for (int t = 0; t < threads; t++) {
+        List<Session> kept = futures.get(t).get();
+        expectedSize += kept.size();
+        assertEquals(registry.getByClientId("client" + t).size(), kept.size());
+        for (Session s : kept) {
+          String endpointId = registry.get(s).orElseThrow(AssertionError::new);
+          assertEquals(registry.get(endpointId), Optional.of(s));
+        }
+      }
+      assertEquals(registry.getSessions().size(), expectedSize);
+    } finally {
+      executor.shutdownNow();
+      executor.awaitTermination(5, SECONDS);
+    }
+  }
 }
@@ -17,20 +17,30 @@ import static javax.ws.rs.core.Response.Status.OK;
 import static org.everrest.core.ApplicationContext.anApplicationContext;
 import static org.testng.Assert.assertEquals;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.ws.rs.GET;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import org.eclipse.che.api.core.rest.ApiExceptionMapper;
+import org.eclipse.che.dto.server.JsonSerializable;
 import org.everrest.core.ApplicationContext;
 import org.everrest.core.impl.ApplicationProviderBinder;
 import org.everrest.core.impl.ContainerRequest;
@@ -59,6 +69,42 @@ public class ETagResponseFilterTest {
   /** Base Service */
   private static final String SERVICE_PATH = BASE_URI + "/myservice";
 
+  /** Counts serializations of the entities returned by {@link MyJaxRSService} */
+  private static final AtomicInteger SERIALIZATIONS = new AtomicInteger();
+
+  /** Counts loadings of the entity with version based ETag */
+  private static final AtomicInteger VERSIONED_LOADINGS = new AtomicInteger();
+
+  /** Entity which serializes itself and counts serializations */
+  public static class MyJsonEntity implements JsonSerializable {
+
+    private final String json;
+
+    public MyJsonEntity(String name) {
+      this.json = "{\"name\":\"" + name + "\"}";
+    }
+
+    @Override
+    public String toJson() {
+      SERIALIZATIONS.incrementAndGet();
+      return json;
+    }
+
+    @Override
+    public void toJson(Writer w) {
+      try {
+        w.write(toJson());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public JsonElement toJsonElement() {
+      return new JsonParser().parse(toJson());
+    }
+  }
+
   /** Dummy JAX-RS POJO */
   @Path("/myservice")
   public static class MyJaxRSService {
@@ -85,6 +131,39 @@ public class ETagResponseFilterTest {
           .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=my.json")
           .build();
     }
+
+    @GET
+    @Path("/json")
+    @Produces(APPLICATION_JSON)
+    public MyJsonEntity getJson() {
+      return new MyJsonEntity("che");
+    }
+
+    @GET
+    @Path("/jsonlist")
+    @Produces(APPLICATION_JSON)
+    public List<MyJsonEntity> getJsonList() {
+      return Arrays.asList(new MyJsonEntity("che"), new MyJsonEntity("eclipse"));
+    }
+
+    @GET
+    @Path("/versioned")
+    @Produces(APPLICATION_JSON)
+    public Response getVersioned(@Context Request request) {
+      Optional<Response> notModified = VersionETags.evaluate(request, "42");
+      if (notModified.isPresent()) {
+        return notModified.get();
+      }
+      VERSIONED_LOADINGS.incrementAndGet();
+      return Response.ok(new MyJsonEntity("che")).tag(VersionETags.toEntityTag("42")).build();
+    }
+
+    @GET
+    @Path("/tagged")
+    @Produces(APPLICATION_JSON)
+    public Response getTagged() {
+      return Response.ok(new MyJsonEntity("che")).tag(VersionETags.toEntityTag("7")).build();
+    }
   }
 
   /** Resource Launcher */
@@ -97,6 +176,8 @@ public class ETagResponseFilterTest {
    */
   @BeforeMethod
   public void before() throws Exception {
+    SERIALIZATIONS.set(0);
+    VERSIONED_LOADINGS.set(0);
     // set up launcher
     final ResourceBinderImpl resources = new ResourceBinderImpl();
     resources.addResource(MyJaxRSService.class, null);
@@ -212,4 +293,107 @@ public class ETagResponseFilterTest {
     // check null body
     Assert.assertNull(response.getEntity());
   }
+
+  /** Check that entity serializing itself is serialized once for ETag and response body */
+  @Test
+  public void filterSelfSerializedEntityTest() throws Exception {
+
+    final ContainerResponse response =
+        resourceLauncher.service(
+            HttpMethod.GET, SERVICE_PATH + "/json", BASE_URI, null, null, null);
+    assertEquals(response.getStatus(), OK.getStatusCode());
+    // check entity is replaced with serialized JSON
+    assertEquals(((JsonSerializable) response.getEntity()).toJson(), "{\"name\":\"che\"}");
+    assertEquals(SERIALIZATIONS.get(), 1);
+    // Check etag
+    List<Object> headerTags = response.getHttpHeaders().get("ETag");
+    Assert.assertNotNull(headerTags);
+    Assert.assertEquals(headerTags.size(), 1);
+    Assert.assertEquals(headerTags.get(0), new EntityTag("8826bf674e82203c0084180305ede468"));
+  }
+
+  /** Check that ETag of a list of entities serializing themselves is hashed from their JSONs */
+  @Test
+  public void filterSelfSerializedListTest() throws Exception {
+
+    final ContainerResponse response =
+        resourceLauncher.service(
+            HttpMethod.GET, SERVICE_PATH + "/jsonlist", BASE_URI, null, null, null);
+    assertEquals(response.getStatus(), OK.getStatusCode());
+    // check entity is replaced with serialized JSON array
+    assertEquals(
+        ((JsonSerializable) response.getEntity()).toJson(),
+        "[{\"name\":\"che\"},{\"name\":\"eclipse\"}]");
+    assertEquals(SERIALIZATIONS.get(), 2);
+    // Check etag
+    List<Object> headerTags = response.getHttpHeaders().get("ETag");
+    Assert.assertNotNull(headerTags);
+    Assert.assertEquals(headerTags.get(0), new EntityTag("1c6965558bcdeff33a30230697ebe821"));
+  }
+
+  /** Check that ETag sent with header is redirecting to NOT_MODIFIED for serialized entity */
+  @Test
+  public void filterSelfSerializedEntityTestWithEtag() throws Exception {
+
+    Map<String, List<String>> headers = new HashMap<>();
+    headers.put(
+        "If-None-Match",
+        Collections.singletonList(new EntityTag("8826bf674e82203c0084180305ede468").toString()));
+
+    final ContainerResponse response =
+        resourceLauncher.service(
+            HttpMethod.GET, SERVICE_PATH + "/json", BASE_URI, headers, null, null);
+    assertEquals(response.getStatus(), NOT_MODIFIED.getStatusCode());
+    Assert.assertNull(response.getEntity());
+    assertEquals(SERIALIZATIONS.get(), 1);
+  }
+
+  /** Check that version based ETag is used as is */
+  @Test
+  public void useVersionETag() throws Exception {
+
+    final ContainerResponse response =
+        resourceLauncher.service(
+            HttpMethod.GET, SERVICE_PATH + "/versioned", BASE_URI, null, null, null);
+    assertEquals(response.getStatus(), OK.getStatusCode());
+    assertEquals(VERSIONED_LOADINGS.get(), 1);
+    // Check etag
+    List<Object> headerTags = response.getHttpHeaders().get("ETag");
+    Assert.assertNotNull(headerTags);
+    Assert.assertEquals(headerTags.size(), 1);
+    Assert.assertEquals(headerTags.get(0), VersionETags.toEntityTag("42"));
+  }
+
+  /** Check that matching version based ETag is redirecting to NOT_MODIFIED without loading */
+  @Test
+  public void useVersionETagWithEtag() throws Exception {
+
+    Map<String, List<String>> headers = new HashMap<>();
+    headers.put(
+        "If-None-Match", Collections.singletonList(VersionETags.toEntityTag("42").toString()));
+
+    final ContainerResponse response =
+        resourceLauncher.service(
+            HttpMethod.GET, SERVICE_PATH + "/versioned", BASE_URI, headers, null, null);
+    assertEquals(response.getStatus(), NOT_MODIFIED.getStatusCode());
+    Assert.assertNull(response.getEntity());
+    assertEquals(VERSIONED_LOADINGS.get(), 0);
+    Assert.assertEquals(response.getHttpHeaders().getFirst("ETag"), VersionETags.toEntityTag("42"));
+  }
+
+  /** Check that ETag set by resource is evaluated by the filter */
+  @Test
+  public void evaluateETagSetByResource() throws Exception {
+
+    Map<String, List<String>> headers = new HashMap<>();
+    headers.put(
+        "If-None-Match", Collections.singletonList(VersionETags.toEntityTag("7").toString()));
+
+    final ContainerResponse response =
+        resourceLauncher.service(
+            HttpMethod.GET, SERVICE_PATH + "/tagged", BASE_URI, headers, null, null);
+    assertEquals(response.getStatus(), NOT_MODIFIED.getStatusCode());
+    Assert.assertNull(response.getEntity());
+    assertEquals(SERIALIZATIONS.get(), 0);
+  }
 }
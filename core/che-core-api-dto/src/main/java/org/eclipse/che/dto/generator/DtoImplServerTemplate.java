@@ -377,16 +377,6 @@ public class DtoImplServerTemplate extends DtoImpl {
     builder.append("    }\n\n");
   }
 
-  private static StringBuilder appendNaiveCopyJsonExpression(
-      String inValue, StringBuilder builder) {
-    builder.append("((");
-    builder.append(inValue);
-    builder.append(") != null ? new JsonParser().parse((");
-    builder.append(inValue);
-    builder.append(").toString()) : null)");
-    return builder;
-  }
-
   private void emitPreamble(Class<?> dtoInterface, StringBuilder builder) {
     builder.append(SERVER_DTO_MARKER);
     builder.append("  public static class ");
@@ -603,8 +593,15 @@ public class DtoImplServerTemplate extends DtoImpl {
           .append(";\n");
       builder.append(i).append("}\n");
     } else if (isAny(rawClass)) {
-      builder.append(i).append("this.").append(fieldName).append(" = ");
-      appendNaiveCopyJsonExpression(origin + "." + getterName + "()", builder).append(";\n");
+      builder
+          .append(i)
+          .append("this.")
+          .append(fieldName)
+          .append(" = org.eclipse.che.dto.server.DtoFactory.copyAny(")
+          .append(origin)
+          .append(".")
+          .append(getterName)
+          .append("());\n");
     } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
       builder
           .append(i)
@@ -707,6 +704,8 @@ public class DtoImplServerTemplate extends DtoImpl {
       }
       if (getEnclosingTemplate().isDtoInterface(childRawType)) {
         emitCheckNullAndCopyDto(childRawType, childVarIn, builder);
+      } else if (isAny(childRawType)) {
+        emitCopyJsonElement(childVarIn, builder);
       } else {
         builder.append(childVarIn);
       }
@@ -727,6 +726,16 @@ public class DtoImplServerTemplate extends DtoImpl {
         .append(")");
   }
 
+  /** Emits deep copy of the 'any' collection element if it is a json element. */
+  private void emitCopyJsonElement(String fieldName, StringBuilder builder) {
+    builder
+        .append(fieldName)
+        .append(" instanceof JsonElement ? ((JsonElement) ")
+        .append(fieldName)
+        .append(").deepCopy() : ")
+        .append(fieldName);
+  }
+
   /** Emit a method that ensures a collection is initialized. */
   private void emitEnsureCollection(Method method, String fieldName, StringBuilder builder) {
     builder.append("    protected void ");
@@ -19,6 +19,7 @@ import com.google.common.cache.LoadingCache;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
@@ -141,6 +142,8 @@ public final class DtoFactory {
 
       if (dtoInterface != null) {
         provider = getDtoProvider(dtoInterface);
+        // not generated implementations are copied the same way, so avoid the lookup next time
+        dtoImpl2Providers.putIfAbsent(implClass, provider);
       }
     }
 
@@ -151,6 +154,21 @@ public final class DtoFactory {
     return (T) provider.clone(origin);
   }
 
+  /**
+   * Creates deep copy of the value of DTO property declared as {@link Object}, it is used by the
+   * generated copy constructors. Json elements are copied structurally, other values are converted
+   * to json elements.
+   *
+   * @param value value to copy, may be null
+   * @return copy of the value or null if the value is null
+   */
+  public static Object copyAny(Object value) {
+    if (value instanceof JsonElement) {
+      return ((JsonElement) value).deepCopy();
+    }
+    return value == null ? null : new JsonParser().parse(value.toString());
+  }
+
   /**
    * Shortcut for {@code DtoFactory.getInstance().clone(T dtoObject)}
    *
@@ -414,7 +432,7 @@ public final class DtoFactory {
   public DtoProvider<?> unregisterProvider(Class<?> dtoInterface) {
     final DtoProvider<?> dtoProvider = dtoInterface2Providers.remove(dtoInterface);
     if (dtoProvider != null) {
-      dtoImpl2Providers.remove(dtoProvider.getImplClass());
+      dtoImpl2Providers.values().removeIf(provider -> provider == dtoProvider);
     }
     return dtoProvider;
   }
@@ -468,4 +468,71 @@ public class ServerDtoTest {
     assertEquals(dto.getObjectMap().get("fooString"), fooString);
     assertEquals(dto.getObjectMap().get("fooRoundingDouble"), Math.round(fooRoundingDouble));
   }
+
+  @Test
+  public void shouldCloneComplicatedDtoIndependentlyFromOrigin() {
+    SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("simple").withId(1);
+    List<ComplicatedDto.SimpleEnum> enums = new ArrayList<>(asList(ComplicatedDto.SimpleEnum.ONE));
+    Map<String, SimpleDto> map = new HashMap<>();
+    map.put("key", dtoFactory.createDto(SimpleDto.class).withName("mapped").withId(2));
+    ComplicatedDto origin =
+        dtoFactory
+            .createDto(ComplicatedDto.class)
+            .withStrings(new ArrayList<>(asList("a", "b")))
+            .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+            .withSimpleDtos(new ArrayList<>(asList(simpleDto)))
+            .withMap(map)
+            .withArrayOfArrayOfEnum(new ArrayList<>(asList(enums)));
+
+    ComplicatedDto copy = dtoFactory.clone(origin);
+
+    assertEquals(copy, origin);
+    assertTrue(copy != origin);
+    origin.getStrings().add("c");
+    origin.getSimpleDtos().get(0).withName("changed");
+    origin.getMap().get("key").withName("changed");
+    origin.getArrayOfArrayOfEnum().get(0).add(ComplicatedDto.SimpleEnum.THREE);
+    assertEquals(copy.getStrings(), asList("a", "b"));
+    assertEquals(copy.getSimpleDtos().get(0).getName(), "simple");
+    assertEquals(copy.getMap().get("key").getName(), "mapped");
+    assertEquals(copy.getArrayOfArrayOfEnum().get(0), asList(ComplicatedDto.SimpleEnum.ONE));
+  }
+
+  @Test
+  public void shouldCloneAnyPropertiesIndependentlyFromOrigin() {
+    DtoWithAny origin =
+        dtoFactory
+            .createDto(DtoWithAny.class)
+            .withStuff(createTestValueForAny())
+            .withObjects(createListTestValueForAny());
+
+    DtoWithAny copy = dtoFactory.clone(origin);
+
+    assertEquals(copy.getStuff(), createTestValueForAny());
+    assertEquals(copy.getObjects(), createListTestValueForAny());
+    ((JsonObject) origin.getStuff()).addProperty("a", 200);
+    ((JsonObject) origin.getObjects().get(0)).addProperty("x", 2);
+    assertEquals(copy.getStuff(), createTestValueForAny());
+    assertEquals(copy.getObjects(), createListTestValueForAny());
+  }
+
+  @Test
+  public void shouldCloneNestedDtoIndependentlyFromOrigin() {
+    DTOHierarchy.ChildDto nested =
+        dtoFactory.createDto(DTOHierarchy.ChildDto.class).withDtoField("nested");
+    DTOHierarchy.ChildDto origin =
+        dtoFactory
+            .createDto(DTOHierarchy.ChildDto.class)
+            .withDtoField("dto-field")
+            .withChildField("child-field")
+            .withParentField("parent-field");
+    origin.setShadowedField(nested);
+
+    DTOHierarchy.ChildDto copy = dtoFactory.clone(origin);
+
+    assertEquals(copy, origin);
+    assertTrue(copy.getShadowedField() != nested);
+    nested.setDtoField("changed");
+    assertEquals(copy.getShadowedField().getDtoField(), "nested");
+  }
 }
@@ -27,7 +27,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Abstract JNDI factory that constructs {@link BasicDataSource} objects from the given params.
  * Should not be used directly and must be subclassed to provide instantiation params from needful
- * source.
+ * source. Caching of prepared statements is configured by {@link PersistenceProfile}.
  *
  * @author Sergii Kabashniuk
  */
@@ -54,6 +54,7 @@ public abstract class JNDIDataSourceFactory implements ObjectFactory {
     poolConfigurationProperties.setProperty("maxTotal", maxTotal);
     poolConfigurationProperties.setProperty("maxIdle", maxIdle);
     poolConfigurationProperties.setProperty("maxWaitMillis", maxWaitMillis);
+    poolConfigurationProperties.putAll(PersistenceProfile.fromEnv().toPoolProperties());
     dataSource = wrapWithTracingIfEnabled(createDataSource(poolConfigurationProperties));
   }
 
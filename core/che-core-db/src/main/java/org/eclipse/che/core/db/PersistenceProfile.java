@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.db;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.eclipse.persistence.config.BatchWriting;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+
+/**
+ * Tuning of the statements the persistence unit sends to the database.
+ *
+ * <p>Inserts, updates and deletes of the same SQL are sent in JDBC batches of the configured size,
+ * statement parameters are always bound, so the same prepared statement is reused for the different
+ * values. Prepared statements are cached by the connection pool, see {@link JNDIDataSourceFactory},
+ * as EclipseLink caches statements only for its internal connection pool which is not used by Che.
+ *
+ * <p>The profile is configured with the environment variables, as the other settings of the
+ * connection pool, because it is needed before the injector is created:
+ *
+ * <ul>
+ *   <li>{@code CHE_JDBC_BATCH__WRITING__SIZE} - max number of statements in a single batch, batch
+ *       writing is disabled when the value is less than 2, defaults to {@value
+ *       #DEFAULT_BATCH_WRITING_SIZE}
+ *   <li>{@code CHE_JDBC_STATEMENT__CACHE__SIZE} - max number of cached prepared statements per
+ *       connection, caching is disabled when the value is 0, defaults to {@value
+ *       #DEFAULT_STATEMENT_CACHE_SIZE}
+ * </ul>
+ */
+public final class PersistenceProfile {
+
+  static final String BATCH_WRITING_SIZE_ENV = "CHE_JDBC_BATCH__WRITING__SIZE";
+  static final String STATEMENT_CACHE_SIZE_ENV = "CHE_JDBC_STATEMENT__CACHE__SIZE";
+
+  static final int DEFAULT_BATCH_WRITING_SIZE = 100;
+  static final int DEFAULT_STATEMENT_CACHE_SIZE = 50;
+
+  private final int batchWritingSize;
+  private final int statementCacheSize;
+
+  /** Returns the profile configured with the environment variables. */
+  public static PersistenceProfile fromEnv() {
+    return fromEnv(System::getenv);
+  }
+
+  static PersistenceProfile fromEnv(Function<String, String> env) {
+    return new PersistenceProfile(
+        getInt(env, BATCH_WRITING_SIZE_ENV, DEFAULT_BATCH_WRITING_SIZE),
+        getInt(env, STATEMENT_CACHE_SIZE_ENV, DEFAULT_STATEMENT_CACHE_SIZE));
+  }
+
+  public PersistenceProfile(int batchWritingSize, int statementCacheSize) {
+    checkArgument(batchWritingSize >= 0, "Batch writing size must not be negative");
+    checkArgument(statementCacheSize >= 0, "Statement cache size must not be negative");
+    this.batchWritingSize = batchWritingSize;
+    this.statementCacheSize = statementCacheSize;
+  }
+
+  /** Returns true if the statements are sent in batches. */
+  public boolean isBatchWritingEnabled() {
+    return batchWritingSize > 1;
+  }
+
+  /** Returns max number of statements in a batch, or 0 if batch writing is disabled. */
+  public int getBatchWritingSize() {
+    return isBatchWritingEnabled() ? batchWritingSize : 0;
+  }
+
+  /** Returns max number of cached prepared statements per connection, 0 if caching is disabled. */
+  public int getStatementCacheSize() {
+    return statementCacheSize;
+  }
+
+  /** Returns EclipseLink persistence unit properties of this profile. */
+  public Map<String, String> toPersistenceProperties() {
+    ImmutableMap.Builder<String, String> properties = ImmutableMap.builder();
+    properties.put(PersistenceUnitProperties.JDBC_BIND_PARAMETERS, "true");
+    if (isBatchWritingEnabled()) {
+      properties.put(PersistenceUnitProperties.BATCH_WRITING, BatchWriting.JDBC);
+      properties.put(
+          PersistenceUnitProperties.BATCH_WRITING_SIZE, Integer.toString(batchWritingSize));
+    } else {
+      properties.put(PersistenceUnitProperties.BATCH_WRITING, BatchWriting.None);
+    }
+    return properties.build();
+  }
+
+  /** Returns connection pool properties of this profile. */
+  public Map<String, String> toPoolProperties() {
+    if (statementCacheSize == 0) {
+      return ImmutableMap.of("poolPreparedStatements", "false");
+    }
+    return ImmutableMap.of(
+        "poolPreparedStatements",
+        "true",
+        "maxOpenPreparedStatements",
+        Integer.toString(statementCacheSize));
+  }
+
+  private static int getInt(Function<String, String> env, String name, int defaultValue) {
+    String value = env.apply(name);
+    if (value == null || value.trim().isEmpty() || "NULL".equals(value)) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException x) {
+      throw new IllegalArgumentException(
+          String.format("Value '%s' of '%s' is not a number", value, name), x);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.db.jpa.eclipselink;
+
+import javax.persistence.EntityManager;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs actions once the changes made by the current transaction are committed.
+ *
+ * <p>Caches of the changed data must be invalidated after the commit, otherwise concurrent readers
+ * may load and cache the state which is about to be replaced.
+ */
+public final class AfterCommit {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AfterCommit.class);
+
+  /**
+   * Runs the action after the transaction of the given entity manager is committed, or right away
+   * when there is no active transaction. The action is not run when the transaction is rolled back.
+   */
+  public static void run(EntityManager manager, Runnable action) {
+    if (!manager.getTransaction().isActive()) {
+      action.run();
+      return;
+    }
+    // the unit of work is bound to the active transaction and released on its completion
+    manager.unwrap(UnitOfWork.class).getEventManager().addListener(new Listener(action));
+  }
+
+  private static class Listener extends SessionEventAdapter {
+
+    private final Runnable action;
+    private boolean done;
+
+    Listener(Runnable action) {
+      this.action = action;
+    }
+
+    @Override
+    public void postCommitUnitOfWork(SessionEvent event) {
+      if (done) {
+        return;
+      }
+      done = true;
+      try {
+        action.run();
+      } catch (RuntimeException e) {
+        // the transaction is already committed, so the failure must not be reported as its one
+        LOG.error("Failed to run action after transaction commit. Cause: {}", e.getMessage(), e);
+      }
+    }
+  }
+
+  private AfterCommit() {}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.db;
+
+import static org.eclipse.che.core.db.PersistenceProfile.BATCH_WRITING_SIZE_ENV;
+import static org.eclipse.che.core.db.PersistenceProfile.DEFAULT_BATCH_WRITING_SIZE;
+import static org.eclipse.che.core.db.PersistenceProfile.DEFAULT_STATEMENT_CACHE_SIZE;
+import static org.eclipse.che.core.db.PersistenceProfile.STATEMENT_CACHE_SIZE_ENV;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.eclipse.persistence.config.BatchWriting;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.testng.annotations.Test;
+
+public class PersistenceProfileTest {
+
+  @Test
+  public void shouldUseDefaultsWhenEnvIsNotSet() {
+    PersistenceProfile profile = PersistenceProfile.fromEnv(name -> null);
+
+    assertEquals(profile.getBatchWritingSize(), DEFAULT_BATCH_WRITING_SIZE);
+    assertEquals(profile.getStatementCacheSize(), DEFAULT_STATEMENT_CACHE_SIZE);
+  }
+
+  @Test
+  public void shouldReadSettingsFromEnv() {
+    Map<String, String> env =
+        ImmutableMap.of(BATCH_WRITING_SIZE_ENV, "25", STATEMENT_CACHE_SIZE_ENV, "NULL");
+
+    PersistenceProfile profile = PersistenceProfile.fromEnv(env::get);
+
+    assertEquals(profile.getBatchWritingSize(), 25);
+    assertEquals(profile.getStatementCacheSize(), DEFAULT_STATEMENT_CACHE_SIZE);
+  }
+
+  @Test(
+      expectedExceptions = IllegalArgumentException.class,
+      expectedExceptionsMessageRegExp =
+          "Value 'many' of 'CHE_JDBC_BATCH__WRITING__SIZE' is not a number")
+  public void shouldFailWhenEnvValueIsNotANumber() {
+    PersistenceProfile.fromEnv(ImmutableMap.of(BATCH_WRITING_SIZE_ENV, "many")::get);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void shouldFailWhenSizeIsNegative() {
+    new PersistenceProfile(-1, 0);
+  }
+
+  @Test
+  public void shouldProvideBatchWritingPersistenceProperties() {
+    Map<String, String> properties = new PersistenceProfile(100, 50).toPersistenceProperties();
+
+    assertEquals(properties.get(PersistenceUnitProperties.BATCH_WRITING), BatchWriting.JDBC);
+    assertEquals(properties.get(PersistenceUnitProperties.BATCH_WRITING_SIZE), "100");
+    assertEquals(properties.get(PersistenceUnitProperties.JDBC_BIND_PARAMETERS), "true");
+  }
+
+  @Test
+  public void shouldDisableBatchWritingWhenSizeIsLessThanTwo() {
+    PersistenceProfile profile = new PersistenceProfile(1, 50);
+    Map<String, String> properties = profile.toPersistenceProperties();
+
+    assertFalse(profile.isBatchWritingEnabled());
+    assertEquals(profile.getBatchWritingSize(), 0);
+    assertEquals(properties.get(PersistenceUnitProperties.BATCH_WRITING), BatchWriting.None);
+    assertFalse(properties.containsKey(PersistenceUnitProperties.BATCH_WRITING_SIZE));
+    assertEquals(properties.get(PersistenceUnitProperties.JDBC_BIND_PARAMETERS), "true");
+  }
+
+  @Test
+  public void shouldProvidePoolPropertiesCachingPreparedStatements() {
+    Map<String, String> properties = new PersistenceProfile(100, 50).toPoolProperties();
+
+    assertEquals(properties.get("poolPreparedStatements"), "true");
+    assertEquals(properties.get("maxOpenPreparedStatements"), "50");
+  }
+
+  @Test
+  public void shouldDisableStatementCachingWhenCacheSizeIsZero() {
+    PersistenceProfile profile = new PersistenceProfile(100, 0);
+
+    assertTrue(profile.isBatchWritingEnabled());
+    assertEquals(profile.toPoolProperties(), ImmutableMap.of("poolPreparedStatements", "false"));
+  }
+}
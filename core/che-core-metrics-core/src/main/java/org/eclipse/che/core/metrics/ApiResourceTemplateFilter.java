@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.Path;
+import javax.ws.rs.WebApplicationException;
+import org.everrest.core.Filter;
+import org.everrest.core.impl.resource.PathValue;
+import org.everrest.core.method.MethodInvokerFilter;
+import org.everrest.core.resource.GenericResourceMethod;
+
+/**
+ * Passes path template of the invoked resource method, e.g. {@code /workspace/{key}}, to {@link
+ * ApiResponseTimer}, so requests latency is grouped by resources rather than by raw request paths.
+ */
+@Filter
+@Singleton
+public class ApiResourceTemplateFilter implements MethodInvokerFilter {
+
+  private final ApiResponseTimer apiResponseTimer;
+  private final Map<Method, String> templates = new ConcurrentHashMap<>();
+
+  @Inject
+  public ApiResourceTemplateFilter(ApiResponseTimer apiResponseTimer) {
+    this.apiResponseTimer = apiResponseTimer;
+  }
+
+  @Override
+  public void accept(GenericResourceMethod genericResourceMethod, Object[] params)
+      throws WebApplicationException {
+    String template =
+        templates.computeIfAbsent(
+            genericResourceMethod.getMethod(), m -> getTemplate(genericResourceMethod));
+    apiResponseTimer.setResourceTemplate(template);
+  }
+
+  private static String getTemplate(GenericResourceMethod genericResourceMethod) {
+    PathValue resourcePathValue = genericResourceMethod.getParentResource().getPathValue();
+    String resourcePath = resourcePathValue == null ? "" : resourcePathValue.getPath();
+    Path methodPath = genericResourceMethod.getMethod().getAnnotation(Path.class);
+    if (methodPath == null) {
+      return resourcePath;
+    }
+    return trimTrailingSlash(resourcePath) + '/' + trimLeadingSlash(methodPath.value());
+  }
+
+  private static String trimTrailingSlash(String path) {
+    return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+  }
+
+  private static String trimLeadingSlash(String path) {
+    return path.startsWith("/") ? path.substring(1) : path;
+  }
+}
@@ -20,10 +20,12 @@ import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 /**
- * Filter for tracking all HTTP requests through {@link ApiResponseCounter}
+ * Filter for tracking all HTTP requests through {@link ApiResponseCounter} and {@link
+ * ApiResponseTimer}
  *
  * @author Mykhailo Kuznietsov
  */
@@ -31,21 +33,35 @@ import javax.servlet.http.HttpServletResponse;
 public class ApiResponseMetricFilter implements Filter {
 
   private ApiResponseCounter apiResponseCounter;
+  private ApiResponseTimer apiResponseTimer;
 
   @Inject
   public void setApiResponseCounter(ApiResponseCounter counter) {
     this.apiResponseCounter = counter;
   }
 
+  @Inject
+  public void setApiResponseTimer(ApiResponseTimer timer) {
+    this.apiResponseTimer = timer;
+  }
+
   @Override
   public void init(FilterConfig filterConfig) throws ServletException {}
 
   @Override
   public void doFilter(ServletRequest request, ServletResponse response, FilterChain filterChain)
       throws IOException, ServletException {
+    long start = System.nanoTime();
+    // template might be left by the previous request which failed with an exception
+    apiResponseTimer.setResourceTemplate(null);
     filterChain.doFilter(request, response);
     if (response instanceof HttpServletResponse) {
-      apiResponseCounter.handleStatus(((HttpServletResponse) response).getStatus());
+      int status = ((HttpServletResponse) response).getStatus();
+      apiResponseCounter.handleStatus(status);
+      if (request instanceof HttpServletRequest) {
+        apiResponseTimer.handleRequest(
+            ((HttpServletRequest) request).getMethod(), status, System.nanoTime() - start);
+      }
     }
   }
 
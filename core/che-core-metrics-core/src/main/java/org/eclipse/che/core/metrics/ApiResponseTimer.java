@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+/**
+ * Metric binding for latency of Che API requests, that are grouped by http method, template of the
+ * matched resource and http status codes.
+ *
+ * <p>Template of the resource is provided by {@link ApiResourceTemplateFilter} while the request is
+ * handled, requests which are not matched to any resource have {@link #UNMATCHED} resource.
+ */
+@Singleton
+public class ApiResponseTimer implements MeterBinder {
+
+  static final String UNMATCHED = "UNMATCHED";
+
+  private final String[] slosMillis;
+  private final int maxTimers;
+  private final ThreadLocal<String> resourceTemplate = new ThreadLocal<>();
+
+  private volatile RequestTimers timers;
+
+  @Inject
+  public ApiResponseTimer(
+      @Named("che.metrics.request_timer.slo_ms") String[] slosMillis,
+      @Named("che.metrics.request_timer.max_timers") int maxTimers) {
+    this.slosMillis = slosMillis;
+    this.maxTimers = maxTimers;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    timers =
+        new RequestTimers(
+            registry,
+            "che.server.api.request",
+            "Che Server API requests latency",
+            slosMillis,
+            maxTimers);
+  }
+
+  /** Sets template of the resource which handles the current request. */
+  public void setResourceTemplate(String template) {
+    resourceTemplate.set(template);
+  }
+
+  /**
+   * Records duration of the request handled by the current thread.
+   *
+   * @param method http method of the request
+   * @param status http status of the response
+   * @param durationNanos duration of the request handling in nanoseconds
+   */
+  public void handleRequest(String method, int status, long durationNanos) {
+    String template = resourceTemplate.get();
+    resourceTemplate.remove();
+    if (timers == null) {
+      return;
+    }
+    timers.record(
+        Tags.of(
+            "method",
+            method,
+            "resource",
+            template == null ? UNMATCHED : template,
+            "code",
+            status / 100 + "xx",
+            "area",
+            "http"),
+        durationNanos,
+        TimeUnit.NANOSECONDS);
+  }
+}
@@ -54,9 +54,12 @@ public class MetricsModule extends AbstractModule {
     meterMultibinder.addBinding().to(UptimeMetrics.class);
     meterMultibinder.addBinding().to(FileStoresMeterBinder.class);
     meterMultibinder.addBinding().to(ApiResponseCounter.class);
+    meterMultibinder.addBinding().to(ApiResponseTimer.class);
     meterMultibinder.addBinding().to(ProcessMemoryMetrics.class);
     meterMultibinder.addBinding().to(ProcessThreadMetrics.class);
 
+    bind(ApiResourceTemplateFilter.class);
+
     bind(EventListener.class).toProvider(OkHttpMetricsEventListenerProvider.class);
   }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timers of requests with the same name and SLO buckets which differ by tags, e.g. by the handled
+ * resource or method.
+ *
+ * <p>Number of timers is limited to guard the registry from tags with unbounded number of values.
+ * When the limit is reached, durations of requests with not yet seen tags are recorded to a single
+ * timer which tags have {@link #OTHER} values.
+ */
+public class RequestTimers {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RequestTimers.class);
+
+  /** Value of tags of the timer used when the number of timers exceeds the limit. */
+  public static final String OTHER = "OTHER";
+
+  private final MeterRegistry registry;
+  private final String name;
+  private final String description;
+  private final Duration[] slos;
+  private final int maxTimers;
+  private final ConcurrentMap<Tags, Timer> timers = new ConcurrentHashMap<>();
+
+  /**
+   * Creates timers.
+   *
+   * @param registry registry to register timers in
+   * @param name name of the timers
+   * @param description description of the timers
+   * @param slosMillis SLO boundaries in milliseconds, published as histogram buckets
+   * @param maxTimers max number of distinct timers, including the one for other tags
+   */
+  public RequestTimers(
+      MeterRegistry registry, String name, String description, String[] slosMillis, int maxTimers) {
+    this.registry = registry;
+    this.name = name;
+    this.description = description;
+    this.slos = toSlos(slosMillis);
+    this.maxTimers = maxTimers;
+  }
+
+  /**
+   * Records the duration of request with the given tags.
+   *
+   * @param tags tags of the request
+   * @param duration duration of the request
+   * @param unit time unit of the duration
+   */
+  public void record(Tags tags, long duration, TimeUnit unit) {
+    get(tags).record(duration, unit);
+  }
+
+  /** Returns the timer of requests with the given tags. */
+  public Timer get(Tags tags) {
+    Timer timer = timers.get(tags);
+    if (timer != null) {
+      return timer;
+    }
+    if (timers.size() >= maxTimers - 1) {
+      Tags otherTags = Tags.empty();
+      for (Tag tag : tags) {
+        otherTags = otherTags.and(tag.getKey(), OTHER);
+      }
+      if (!timers.containsKey(otherTags)) {
+        LOG.warn(
+            "Max number {} of '{}' timers is reached, {} are recorded as other",
+            maxTimers,
+            name,
+            tags);
+      }
+      return timers.computeIfAbsent(otherTags, this::register);
+    }
+    return timers.computeIfAbsent(tags, this::register);
+  }
+
+  /**
+   * Converts SLO boundaries in milliseconds to durations.
+   *
+   * @param slosMillis SLO boundaries in milliseconds, blank values are ignored
+   * @return SLO boundaries which can be passed to timers
+   */
+  public static Duration[] toSlos(String[] slosMillis) {
+    return Stream.of(slosMillis)
+        .map(String::trim)
+        .filter(s -> !s.isEmpty())
+        .map(s -> Duration.ofMillis(Long.parseLong(s)))
+        .toArray(Duration[]::new);
+  }
+
+  private Timer register(Tags tags) {
+    return Timer.builder(name).description(description).tags(tags).sla(slos).register(registry);
+  }
+}
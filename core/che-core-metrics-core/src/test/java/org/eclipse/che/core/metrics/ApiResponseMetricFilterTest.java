@@ -15,6 +15,7 @@ import static com.jayway.restassured.RestAssured.given;
 import static org.everrest.assured.JettyHttpServer.ADMIN_USER_NAME;
 import static org.everrest.assured.JettyHttpServer.ADMIN_USER_PASSWORD;
 import static org.everrest.assured.JettyHttpServer.SECURE_PATH;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
@@ -37,6 +38,7 @@ import org.testng.annotations.Test;
 public class ApiResponseMetricFilterTest {
 
   @Mock private ApiResponseCounter apiResponseCounter;
+  @Mock private ApiResponseTimer apiResponseTimer;
 
   private ApiResponseMetricFilter filter;
 
@@ -44,6 +46,7 @@ public class ApiResponseMetricFilterTest {
   public void setUp() {
     filter = new ApiResponseMetricFilter();
     filter.setApiResponseCounter(apiResponseCounter);
+    filter.setApiResponseTimer(apiResponseTimer);
   }
 
   @Test
@@ -60,5 +63,6 @@ public class ApiResponseMetricFilterTest {
         .statusCode(status);
 
     verify(apiResponseCounter).handleStatus(eq(status));
+    verify(apiResponseTimer).handleRequest(eq("GET"), eq(status), anyLong());
   }
 }
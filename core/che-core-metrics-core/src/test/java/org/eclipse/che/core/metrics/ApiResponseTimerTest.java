@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.metrics;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.everrest.assured.JettyHttpServer.ADMIN_USER_NAME;
+import static org.everrest.assured.JettyHttpServer.ADMIN_USER_PASSWORD;
+import static org.everrest.assured.JettyHttpServer.SECURE_PATH;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.Search;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.UUID;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import org.everrest.assured.EverrestJetty;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Test for {@link ApiResponseTimer} and {@link ApiResourceTemplateFilter} */
+@Listeners(EverrestJetty.class)
+public class ApiResponseTimerTest {
+
+  private static final int MAX_TIMERS = 10;
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+  private final ApiResponseTimer apiResponseTimer = createTimer();
+
+  @SuppressWarnings("unused")
+  private final ApiResponseMetricFilter filter = createFilter();
+
+  @SuppressWarnings("unused")
+  private final ApiResourceTemplateFilter templateFilter =
+      new ApiResourceTemplateFilter(apiResponseTimer);
+
+  @SuppressWarnings("unused")
+  private final ItemsService service = new ItemsService();
+
+  @Path("/items")
+  public static class ItemsService {
+
+    @GET
+    @Path("/{id}")
+    public String get(@PathParam("id") String id) {
+      return id;
+    }
+  }
+
+  @Test
+  public void shouldRecordRequestsByResourceTemplate() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      given()
+          .auth()
+          .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+          .when()
+          .get(SECURE_PATH + "/items/" + UUID.randomUUID())
+          .then()
+          .statusCode(200);
+    }
+
+    Timer timer =
+        awaitTimer(
+            registry
+                .find("che.server.api.request")
+                .tag("method", "GET")
+                .tag("resource", "/items/{id}")
+                .tag("code", "2xx"),
+            50);
+    assertNotNull(timer);
+    assertEquals(timer.count(), 50);
+    assertEquals(registry.find("che.server.api.request").timers().size(), 1);
+  }
+
+  @Test
+  public void shouldRecordUnmatchedRequests() throws Exception {
+    given()
+        .auth()
+        .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+        .when()
+        .get(SECURE_PATH + "/unknown/" + UUID.randomUUID())
+        .then()
+        .statusCode(404);
+
+    Timer timer =
+        awaitTimer(
+            registry
+                .find("che.server.api.request")
+                .tag("resource", ApiResponseTimer.UNMATCHED)
+                .tag("code", "4xx"),
+            1);
+    assertNotNull(timer);
+  }
+
+  @Test
+  public void shouldLimitNumberOfTimers() {
+    MeterRegistry limitedRegistry = new SimpleMeterRegistry();
+    ApiResponseTimer timer = new ApiResponseTimer(new String[] {"10"}, MAX_TIMERS);
+    timer.bindTo(limitedRegistry);
+
+    for (int i = 0; i < 100; i++) {
+      timer.setResourceTemplate("/random/" + UUID.randomUUID());
+      timer.handleRequest("GET", 200, 1_000_000);
+    }
+
+    assertEquals(
+        limitedRegistry.find("che.server.api.request").timers().size(),
+        MAX_TIMERS,
+        "number of timers");
+    Timer other =
+        limitedRegistry.find("che.server.api.request").tag("resource", RequestTimers.OTHER).timer();
+    assertNotNull(other);
+    assertEquals(other.count(), 100 - (MAX_TIMERS - 1));
+  }
+
+  /** Waits for the requests to be recorded, as it happens after the response is sent. */
+  private static Timer awaitTimer(Search search, long count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    Timer timer = search.timer();
+    while ((timer == null || timer.count() < count) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+      timer = search.timer();
+    }
+    return timer;
+  }
+
+  private ApiResponseTimer createTimer() {
+    ApiResponseTimer timer = new ApiResponseTimer(new String[] {"10", "100", "1000"}, MAX_TIMERS);
+    timer.bindTo(registry);
+    return timer;
+  }
+
+  private ApiResponseMetricFilter createFilter() {
+    ApiResponseCounter counter = new ApiResponseCounter();
+    counter.bindTo(new SimpleMeterRegistry());
+    ApiResponseMetricFilter filter = new ApiResponseMetricFilter();
+    filter.setApiResponseCounter(counter);
+    filter.setApiResponseTimer(apiResponseTimer);
+    return filter;
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.commons.test.db;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.persistence.config.SessionCustomizer;
+import org.eclipse.persistence.sessions.Connector;
+import org.eclipse.persistence.sessions.DatasourceLogin;
+import org.eclipse.persistence.sessions.Session;
+
+/**
+ * Counts statements sent to the database over JDBC connections of the session, rows read from their
+ * results and committed transactions. A batch of statements is counted once.
+ *
+ * <p>Enabled by setting {@code eclipselink.session.customizer} property of the persistence unit to
+ * the name of this class, counters are shared by all the sessions customized this way.
+ */
+public class StatementCountingCustomizer implements SessionCustomizer {
+
+  private static final AtomicInteger EXECUTED_STATEMENTS = new AtomicInteger();
+  private static final AtomicInteger READ_ROWS = new AtomicInteger();
+  private static final AtomicInteger COMMITTED_TRANSACTIONS = new AtomicInteger();
+
+  private static final Set<String> EXECUTE_METHODS =
+      Set.of(
+          "execute",
+          "executeQuery",
+          "executeUpdate",
+          "executeLargeUpdate",
+          "executeBatch",
+          "executeLargeBatch");
+
+  /** Returns the number of statements sent since the previous reset. */
+  public static int getStatements() {
+    return EXECUTED_STATEMENTS.get();
+  }
+
+  /** Returns the number of rows read from the results of statements since the previous reset. */
+  public static int getRows() {
+    return READ_ROWS.get();
+  }
+
+  /** Returns the number of transactions committed since the previous reset. */
+  public static int getCommits() {
+    return COMMITTED_TRANSACTIONS.get();
+  }
+
+  /** Resets all the counters. */
+  public static void reset() {
+    EXECUTED_STATEMENTS.set(0);
+    READ_ROWS.set(0);
+    COMMITTED_TRANSACTIONS.set(0);
+  }
+
+  @Override
+  public void customize(Session session) {
+    DatasourceLogin login = (DatasourceLogin) session.getDatasourceLogin();
+    login.setConnector(new CountingConnector(login.getConnector()));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException x) {
+      throw x.getCause();
+    }
+  }
+
+  private static Connection countingConnection(Connection connection) {
+    InvocationHandler handler =
+        (proxy, method, args) -> {
+          Object result = invoke(connection, method, args);
+          if ("commit".equals(method.getName())) {
+            COMMITTED_TRANSACTIONS.incrementAndGet();
+          } else if (result instanceof Statement && method.getReturnType().isInterface()) {
+            return countingProxy(result, method.getReturnType());
+          }
+          return result;
+        };
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, handler);
+  }
+
+  private static Object countingProxy(Object target, Class<?> type) {
+    InvocationHandler handler =
+        (proxy, method, args) -> {
+          if (EXECUTE_METHODS.contains(method.getName())) {
+            EXECUTED_STATEMENTS.incrementAndGet();
+          }
+          Object result = invoke(target, method, args);
+          if (target instanceof ResultSet && "next".equals(method.getName())) {
+            if ((Boolean) result) {
+              READ_ROWS.incrementAndGet();
+            }
+          } else if (result instanceof ResultSet) {
+            return countingProxy(result, ResultSet.class);
+          }
+          return result;
+        };
+    return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  private static class CountingConnector implements Connector {
+
+    private final Connector delegate;
+
+    private CountingConnector(Connector delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Connection connect(Properties properties, Session session) {
+      return countingConnection(delegate.connect(properties, session));
+    }
+
+    @Override
+    public Object clone() {
+      return new CountingConnector((Connector) delegate.clone());
+    }
+
+    @Override
+    public String getConnectionDetails() {
+      return delegate.getConnectionDetails();
+    }
+
+    @Override
+    public void toString(PrintWriter writer) {
+      delegate.toString(writer);
+    }
+  }
+}
@@ -17,6 +17,8 @@ import com.google.inject.Singleton;
 import java.util.Set;
 import org.eclipse.che.api.system.server.ServiceTermination;
 import org.eclipse.che.api.workspace.server.WorkspaceServiceTermination;
+import org.eclipse.che.multiuser.api.distributed.cache.JGroupsMemberCacheInvalidationChannel;
+import org.eclipse.che.multiuser.api.distributed.cache.JGroupsSignatureKeyInvalidationChannel;
 import org.eclipse.che.multiuser.api.distributed.cache.JGroupsWorkspaceStatusCache;
 import org.eclipse.che.multiuser.api.distributed.lock.JGroupsWorkspaceLockService;
 import org.eclipse.che.multiuser.api.distributed.subscription.DistributedRemoteSubscriptionStorage;
@@ -32,15 +34,21 @@ public class JGroupsServiceTermination implements ServiceTermination {
   private final JGroupsWorkspaceLockService workspaceLockService;
   private final JGroupsWorkspaceStatusCache workspaceStatusCache;
   private final DistributedRemoteSubscriptionStorage remoteSubscriptionStorage;
+  private final JGroupsMemberCacheInvalidationChannel memberCacheInvalidationChannel;
+  private final JGroupsSignatureKeyInvalidationChannel signatureKeyInvalidationChannel;
 
   @Inject
   public JGroupsServiceTermination(
       JGroupsWorkspaceLockService workspaceLockService,
       JGroupsWorkspaceStatusCache workspaceStatusCache,
-      DistributedRemoteSubscriptionStorage remoteSubscriptionStorage) {
+      DistributedRemoteSubscriptionStorage remoteSubscriptionStorage,
+      JGroupsMemberCacheInvalidationChannel memberCacheInvalidationChannel,
+      JGroupsSignatureKeyInvalidationChannel signatureKeyInvalidationChannel) {
     this.workspaceLockService = workspaceLockService;
     this.workspaceStatusCache = workspaceStatusCache;
     this.remoteSubscriptionStorage = remoteSubscriptionStorage;
+    this.memberCacheInvalidationChannel = memberCacheInvalidationChannel;
+    this.signatureKeyInvalidationChannel = signatureKeyInvalidationChannel;
   }
 
   @Override
@@ -53,6 +61,8 @@ public class JGroupsServiceTermination implements ServiceTermination {
     workspaceLockService.shutdown();
     workspaceStatusCache.shutdown();
     remoteSubscriptionStorage.shutdown();
+    memberCacheInvalidationChannel.shutdown();
+    signatureKeyInvalidationChannel.shutdown();
   }
 
   @Override
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.multiuser.organization.spi.jpa.MemberCacheInvalidationChannel;
+import org.jgroups.JChannel;
+import org.jgroups.Message;
+import org.jgroups.ReceiverAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JGroups based implementation of {@link MemberCacheInvalidationChannel}.
+ *
+ * <p>Invalidations are sent to all the members of the channel as pairs of organization and user
+ * ids. Messages sent by this instance are not delivered back to it, since it invalidates its own
+ * cache before publishing.
+ */
+@Singleton
+public class JGroupsMemberCacheInvalidationChannel implements MemberCacheInvalidationChannel {
+
+  private static final String CHANNEL_NAME = "MemberCacheInvalidation";
+  private static final Logger LOG =
+      LoggerFactory.getLogger(JGroupsMemberCacheInvalidationChannel.class);
+
+  private final List<BiConsumer<String, String>> listeners = new CopyOnWriteArrayList<>();
+  private final JChannel channel;
+
+  @Inject
+  public JGroupsMemberCacheInvalidationChannel(@Named("jgroups.config.file") String confFile) {
+    try {
+      channel = new JChannel(confFile);
+      channel.setDiscardOwnMessages(true);
+      channel.setReceiver(
+          new ReceiverAdapter() {
+            @Override
+            public void receive(Message msg) {
+              final String[] invalidation = msg.getObject();
+              for (BiConsumer<String, String> listener : listeners) {
+                listener.accept(invalidation[0], invalidation[1]);
+              }
+            }
+          });
+      channel.connect(CHANNEL_NAME);
+    } catch (Exception ex) {
+      throw new RuntimeException(
+          "Jgroups member cache invalidation channel creation failed. Cause: " + ex.getMessage());
+    }
+  }
+
+  @Override
+  public void publish(String organizationId, String userId) {
+    try {
+      channel.send(null, new String[] {organizationId, userId});
+    } catch (Exception ex) {
+      // other instances keep the membership until it expires
+      LOG.warn(
+          "Failed to propagate invalidation of membership of user '{}' in organization '{}'. "
+              + "Cause: {}",
+          userId,
+          organizationId,
+          ex.getMessage());
+    }
+  }
+
+  @Override
+  public void subscribe(BiConsumer<String, String> listener) {
+    listeners.add(listener);
+  }
+
+  /** Stops the member cache invalidation channel. */
+  public void shutdown() {
+    try {
+      channel.close();
+    } catch (RuntimeException ex) {
+      LOG.error("Failed to stop member cache invalidation channel. Cause: " + ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.multiuser.machine.authentication.server.signature.SignatureKeyInvalidationChannel;
+import org.jgroups.JChannel;
+import org.jgroups.Message;
+import org.jgroups.ReceiverAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JGroups based implementation of {@link SignatureKeyInvalidationChannel}.
+ *
+ * <p>Invalidations are sent to all the members of the channel as workspace ids. Messages sent by
+ * this instance are not delivered back to it, since it invalidates its own cache before publishing.
+ */
+@Singleton
+public class JGroupsSignatureKeyInvalidationChannel implements SignatureKeyInvalidationChannel {
+
+  private static final String CHANNEL_NAME = "SignatureKeyInvalidation";
+  private static final Logger LOG =
+      LoggerFactory.getLogger(JGroupsSignatureKeyInvalidationChannel.class);
+
+  private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+  private final JChannel channel;
+
+  @Inject
+  public JGroupsSignatureKeyInvalidationChannel(@Named("jgroups.config.file") String confFile) {
+    try {
+      channel = new JChannel(confFile);
+      channel.setDiscardOwnMessages(true);
+      channel.setReceiver(
+          new ReceiverAdapter() {
+            @Override
+            public void receive(Message msg) {
+              final String workspaceId = msg.getObject();
+              for (Consumer<String> listener : listeners) {
+                listener.accept(workspaceId);
+              }
+            }
+          });
+      channel.connect(CHANNEL_NAME);
+    } catch (Exception ex) {
+      throw new RuntimeException(
+          "Jgroups signature key invalidation channel creation failed. Cause: " + ex.getMessage());
+    }
+  }
+
+  @Override
+  public void publish(String workspaceId) {
+    try {
+      channel.send(null, workspaceId);
+    } catch (Exception ex) {
+      // other instances keep the key pair until it expires
+      LOG.warn(
+          "Failed to propagate invalidation of signature key pair of workspace '{}'. Cause: {}",
+          workspaceId,
+          ex.getMessage());
+    }
+  }
+
+  @Override
+  public void subscribe(Consumer<String> listener) {
+    listeners.add(listener);
+  }
+
+  /** Stops the signature key invalidation channel. */
+  public void shutdown() {
+    try {
+      channel.close();
+    } catch (RuntimeException ex) {
+      LOG.error("Failed to stop signature key invalidation channel. Cause: " + ex.getMessage());
+    }
+  }
+}
@@ -14,6 +14,7 @@ package org.eclipse.che.workspace.infrastructure.metrics;
 import com.google.inject.AbstractModule;
 import com.google.inject.multibindings.Multibinder;
 import io.micrometer.core.instrument.binder.MeterBinder;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProvisioningPreparer;
 
 /**
  * A Guice module to bind infrastructure specific metric binders to a single multi-binder. The set
@@ -27,5 +28,6 @@ public class InfrastructureMetricsModule extends AbstractModule {
         Multibinder.newSetBinder(binder(), MeterBinder.class);
 
     meterMultibinder.addBinding().to(CurrentLogwatchersMeterBinder.class);
+    meterMultibinder.addBinding().to(ProvisioningPreparer.class);
   }
 }
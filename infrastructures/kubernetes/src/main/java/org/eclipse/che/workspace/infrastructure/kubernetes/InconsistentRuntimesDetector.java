@@ -13,11 +13,24 @@ package org.eclipse.che.workspace.infrastructure.kubernetes;
 
 import static java.lang.String.format;
 import static java.util.Collections.emptyMap;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_WORKSPACE_ID_LABEL;
 
 import com.google.common.annotations.VisibleForTesting;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
@@ -26,12 +39,20 @@ import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.api.workspace.server.spi.InternalRuntime;
 import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.eclipse.che.workspace.infrastructure.kubernetes.util.KubernetesSharedPool;
 import org.eclipse.che.workspace.infrastructure.kubernetes.util.RuntimeEventsPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Periodically checks runtimes consistency and forcibly stop ones which has inconsistent state.
+ * Checks runtimes consistency and forcibly stop ones which has inconsistent state.
+ *
+ * <p>Deletions and failures of workspaces pods are tracked with a single watch of pods labeled with
+ * {@link Constants#CHE_WORKSPACE_ID_LABEL} in all namespaces, and only runtimes of the affected
+ * workspaces are checked. All the running runtimes are periodically checked as well, but while the
+ * pods watch is active it is done only once per
+ * "che.infra.kubernetes.runtimes_consistency_check.full_sweep_period_min", and right after the
+ * watch is (re)opened, as events which happened while pods were not watched are lost.
  *
  * @author Sergii Leshchenko
  */
@@ -40,14 +61,52 @@ public class InconsistentRuntimesDetector {
 
   private static final Logger LOG = LoggerFactory.getLogger(InconsistentRuntimesDetector.class);
 
+  private static final String POD_FAILED_PHASE = "Failed";
+
   private final RuntimeEventsPublisher eventPublisher;
   private final WorkspaceRuntimes workspaceRuntimes;
+  private final CheServerKubernetesClientFactory clientFactory;
+  private final ExecutorService executor;
+  private final boolean checksEnabled;
+  private final long fullSweepPeriodMillis;
+  private final Set<String> pendingChecks = ConcurrentHashMap.newKeySet();
+  private final Set<String> postponedChecks = ConcurrentHashMap.newKeySet();
+
+  private volatile Watch podsWatch;
+  private volatile long lastFullSweep;
+  private volatile boolean fullSweepRequired;
 
   @Inject
   public InconsistentRuntimesDetector(
-      RuntimeEventsPublisher eventPublisher, WorkspaceRuntimes workspaceRuntimes) {
+      RuntimeEventsPublisher eventPublisher,
+      WorkspaceRuntimes workspaceRuntimes,
+      CheServerKubernetesClientFactory clientFactory,
+      KubernetesSharedPool sharedPool,
+      @Named("che.infra.kubernetes.runtimes_consistency_check_period_min") long checkPeriodMin,
+      @Named("che.infra.kubernetes.runtimes_consistency_check.full_sweep_period_min")
+          long fullSweepPeriodMin) {
     this.eventPublisher = eventPublisher;
     this.workspaceRuntimes = workspaceRuntimes;
+    this.clientFactory = clientFactory;
+    this.executor = sharedPool.getExecutor();
+    this.checksEnabled = checkPeriodMin > 0;
+    this.fullSweepPeriodMillis = TimeUnit.MINUTES.toMillis(fullSweepPeriodMin);
+  }
+
+  @PostConstruct
+  public void start() {
+    if (checksEnabled) {
+      watchPods();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    Watch watch = podsWatch;
+    podsWatch = null;
+    if (watch != null) {
+      watch.close();
+    }
   }
 
   @ScheduleDelay(
@@ -55,17 +114,145 @@ public class InconsistentRuntimesDetector {
       initialDelayParameterName = "che.infra.kubernetes.runtimes_consistency_check_period_min",
       unit = TimeUnit.MINUTES)
   public void check() {
+    // the watch may be lost, so it is restored before deciding whether full check is needed
+    boolean watching = checksEnabled && watchPods() != PodsWatchState.NOT_WATCHING;
+    long now = System.currentTimeMillis();
+    if (watching && !fullSweepRequired && now - lastFullSweep < fullSweepPeriodMillis) {
+      checkPostponed();
+      LOG.debug("Runtimes consistency check is skipped since workspaces pods are watched");
+      return;
+    }
+    fullSweepRequired = false;
+    lastFullSweep = now;
+    postponedChecks.clear();
+
     Set<String> runningWorkspaces = workspaceRuntimes.getRunning();
     LOG.info(
         "Runtimes consistency check is running. Checking {} workspaces", runningWorkspaces.size());
     for (String runningWorkspaceId : runningWorkspaces) {
+      checkOneLogging(runningWorkspaceId);
+    }
+  }
+
+  /** State of the workspaces pods watch returned by {@link #watchPods()}. */
+  @VisibleForTesting
+  enum PodsWatchState {
+    /** The watch was already open. */
+    WATCHING,
+    /** The watch is opened by this call, so events which happened before may be missed. */
+    OPENED,
+    /** The watch can't be opened. */
+    NOT_WATCHING
+  }
+
+  /**
+   * Starts watching of workspaces pods if it is not started yet. When the watch is opened, the next
+   * {@link #check()} checks all the running runtimes.
+   */
+  @VisibleForTesting
+  synchronized PodsWatchState watchPods() {
+    if (podsWatch != null) {
+      return PodsWatchState.WATCHING;
+    }
+    try {
+      podsWatch =
+          clientFactory
+              .create()
+              .pods()
+              .inAnyNamespace()
+              .withLabel(CHE_WORKSPACE_ID_LABEL)
+              .watch(new PodsWatcher());
+      fullSweepRequired = true;
+      return PodsWatchState.OPENED;
+    } catch (InfrastructureException | KubernetesClientException e) {
+      LOG.warn(
+          "Unable to watch workspaces pods, consistency of all runtimes will be checked "
+              + "periodically. Cause: {}",
+          e.getMessage());
+      return PodsWatchState.NOT_WATCHING;
+    }
+  }
+
+  @VisibleForTesting
+  boolean isWatchingPods() {
+    return podsWatch != null;
+  }
+
+  /** Checks runtimes which checks were rejected by the saturated pool. */
+  private void checkPostponed() {
+    for (String workspaceId : postponedChecks) {
+      postponedChecks.remove(workspaceId);
+      if (workspaceRuntimes.getStatus(workspaceId) == WorkspaceStatus.RUNNING) {
+        checkOneLogging(workspaceId);
+      }
+    }
+  }
+
+  private void checkOneLogging(String workspaceId) {
+    try {
+      checkOne(workspaceId);
+    } catch (InfrastructureException e) {
+      LOG.error(
+          "Checking consistency of runtime for workspace `{}` is failed. Cause: {}",
+          workspaceId,
+          e.getMessage(),
+          e);
+    }
+  }
+
+  private void onPodEvent(Action action, Pod pod) {
+    boolean failed = pod.getStatus() != null && POD_FAILED_PHASE.equals(pod.getStatus().getPhase());
+    if (action != Action.DELETED && !(action == Action.MODIFIED && failed)) {
+      return;
+    }
+    Map<String, String> labels = pod.getMetadata().getLabels();
+    String workspaceId = labels == null ? null : labels.get(CHE_WORKSPACE_ID_LABEL);
+    // pods are deleted on regular stop as well, such runtimes are not RUNNING
+    if (workspaceId == null
+        || workspaceRuntimes.getStatus(workspaceId) != WorkspaceStatus.RUNNING) {
+      return;
+    }
+    // several pods of the same workspace are checked at once
+    if (pendingChecks.add(workspaceId)) {
+      try {
+        executor.execute(
+            () -> {
+              pendingChecks.remove(workspaceId);
+              checkOneLogging(workspaceId);
+            });
+      } catch (RejectedExecutionException e) {
+        // the watcher thread must not be blocked, the runtime is checked by the next check()
+        pendingChecks.remove(workspaceId);
+        postponedChecks.add(workspaceId);
+        LOG.warn(
+            "Consistency check of runtime for workspace `{}` is postponed to the next scheduled "
+                + "consistency check, the pool is saturated",
+            workspaceId);
+      }
+    }
+  }
+
+  private class PodsWatcher implements Watcher<Pod> {
+
+    @Override
+    public void eventReceived(Action action, Pod pod) {
       try {
-        checkOne(runningWorkspaceId);
-      } catch (InfrastructureException e) {
-        LOG.error(
-            "Checking consistency of runtime for workspace `{}` is failed. Cause: ",
-            e.getMessage(),
-            e);
+        onPodEvent(action, pod);
+      } catch (RuntimeException e) {
+        LOG.error("Failed to handle event of pod '{}'", pod.getMetadata().getName(), e);
+      }
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+      synchronized (InconsistentRuntimesDetector.this) {
+        podsWatch = null;
+      }
+      if (cause != null) {
+        LOG.warn(
+            "Workspaces pods watch is closed, it will be restored on next consistency check. "
+                + "Cause: {}",
+            cause.getMessage());
       }
     }
   }
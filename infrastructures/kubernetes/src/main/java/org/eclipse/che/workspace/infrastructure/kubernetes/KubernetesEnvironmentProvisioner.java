@@ -30,6 +30,8 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.provision.KubernetesT
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.LogsVolumeMachineProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.NodeSelectorProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PodTerminationGracePeriodProvisioner;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProvisioningPreparer;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProvisioningPreparer.Preparation;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProxySettingsProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.SecurityContextProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ServiceAccountProvisioner;
@@ -90,6 +92,7 @@ public interface KubernetesEnvironmentProvisioner<T extends KubernetesEnvironmen
     private final VcsSslCertificateProvisioner vcsSslCertificateProvisioner;
     private final GatewayRouterProvisioner gatewayRouterProvisioner;
     private final KubernetesTrustedCAProvisioner trustedCAProvisioner;
+    private final ProvisioningPreparer provisioningPreparer;
 
     @Inject
     public KubernetesEnvironmentProvisionerImpl(
@@ -117,7 +120,8 @@ public interface KubernetesEnvironmentProvisioner<T extends KubernetesEnvironmen
         PreviewUrlExposer<KubernetesEnvironment> previewUrlExposer,
         VcsSslCertificateProvisioner vcsSslCertificateProvisioner,
         GatewayRouterProvisioner gatewayRouterProvisioner,
-        KubernetesTrustedCAProvisioner trustedCAProvisioner) {
+        KubernetesTrustedCAProvisioner trustedCAProvisioner,
+        ProvisioningPreparer provisioningPreparer) {
       this.pvcEnabled = pvcEnabled;
       this.volumesStrategy = volumesStrategy;
       this.uniqueNamesProvisioner = uniqueNamesProvisioner;
@@ -143,6 +147,7 @@ public interface KubernetesEnvironmentProvisioner<T extends KubernetesEnvironmen
       this.previewUrlExposer = previewUrlExposer;
       this.gatewayRouterProvisioner = gatewayRouterProvisioner;
       this.trustedCAProvisioner = trustedCAProvisioner;
+      this.provisioningPreparer = provisioningPreparer;
     }
 
     @Traced
@@ -152,42 +157,62 @@ public interface KubernetesEnvironmentProvisioner<T extends KubernetesEnvironmen
       TracingTags.WORKSPACE_ID.set(workspaceId);
 
       LOG.debug("Start provisioning Kubernetes environment for workspace '{}'", workspaceId);
-      // 1 stage - update environment according Infrastructure specific
-      if (pvcEnabled) {
-        asyncStoragePodInterceptor.intercept(k8sEnv, identity);
-        LOG.debug("Provisioning logs volume for workspace '{}'", workspaceId);
-        logsVolumeMachineProvisioner.provision(k8sEnv, identity);
-      }
+      // remote lookups don't depend on the environment, so they are started before the first
+      // stage and applied in the usual order
+      Preparation<KubernetesEnvironment> imagePullSecretProvisioning =
+          provisioningPreparer.prepareAsync(imagePullSecretProvisioner, identity);
+      Preparation<KubernetesEnvironment> sshKeysProvisioning =
+          provisioningPreparer.prepareAsync(sshKeysProvisioner, identity);
+      Preparation<KubernetesEnvironment> gitConfigProvisioning =
+          provisioningPreparer.prepareAsync(gitConfigProvisioner, identity);
+      Preparation<KubernetesEnvironment> trustedCAProvisioning =
+          provisioningPreparer.prepareAsync(trustedCAProvisioner, identity);
 
-      // 2 stage - converting Che model env to Kubernetes env
-      LOG.debug("Provisioning servers & env vars converters for workspace '{}'", workspaceId);
-      serversConverter.provision(k8sEnv, identity);
-      previewUrlExposer.expose(k8sEnv);
-      envVarsConverter.provision(k8sEnv, identity);
-      if (pvcEnabled) {
-        volumesStrategy.provision(k8sEnv, identity);
-      }
+      try {
+        // 1 stage - update environment according Infrastructure specific
+        if (pvcEnabled) {
+          asyncStoragePodInterceptor.intercept(k8sEnv, identity);
+          LOG.debug("Provisioning logs volume for workspace '{}'", workspaceId);
+          logsVolumeMachineProvisioner.provision(k8sEnv, identity);
+        }
 
-      // 3 stage - add Kubernetes env items
-      LOG.debug("Provisioning environment items for workspace '{}'", workspaceId);
-      restartPolicyRewriter.provision(k8sEnv, identity);
-      resourceLimitRequestProvisioner.provision(k8sEnv, identity);
-      nodeSelectorProvisioner.provision(k8sEnv, identity);
-      tolerationsProvisioner.provision(k8sEnv, identity);
-      externalServerTlsProvisioner.provision(k8sEnv, identity);
-      securityContextProvisioner.provision(k8sEnv, identity);
-      podTerminationGracePeriodProvisioner.provision(k8sEnv, identity);
-      imagePullSecretProvisioner.provision(k8sEnv, identity);
-      proxySettingsProvisioner.provision(k8sEnv, identity);
-      serviceAccountProvisioner.provision(k8sEnv, identity);
-      asyncStorageProvisioner.provision(k8sEnv, identity);
-      certificateProvisioner.provision(k8sEnv, identity);
-      sshKeysProvisioner.provision(k8sEnv, identity);
-      vcsSslCertificateProvisioner.provision(k8sEnv, identity);
-      gitConfigProvisioner.provision(k8sEnv, identity);
-      gatewayRouterProvisioner.provision(k8sEnv, identity);
-      trustedCAProvisioner.provision(k8sEnv, identity);
-      uniqueNamesProvisioner.provision(k8sEnv, identity);
+        // 2 stage - converting Che model env to Kubernetes env
+        LOG.debug("Provisioning servers & env vars converters for workspace '{}'", workspaceId);
+        serversConverter.provision(k8sEnv, identity);
+        previewUrlExposer.expose(k8sEnv);
+        envVarsConverter.provision(k8sEnv, identity);
+        if (pvcEnabled) {
+          volumesStrategy.provision(k8sEnv, identity);
+        }
+
+        // 3 stage - add Kubernetes env items
+        LOG.debug("Provisioning environment items for workspace '{}'", workspaceId);
+        restartPolicyRewriter.provision(k8sEnv, identity);
+        resourceLimitRequestProvisioner.provision(k8sEnv, identity);
+        nodeSelectorProvisioner.provision(k8sEnv, identity);
+        tolerationsProvisioner.provision(k8sEnv, identity);
+        externalServerTlsProvisioner.provision(k8sEnv, identity);
+        securityContextProvisioner.provision(k8sEnv, identity);
+        podTerminationGracePeriodProvisioner.provision(k8sEnv, identity);
+        imagePullSecretProvisioning.apply(k8sEnv);
+        proxySettingsProvisioner.provision(k8sEnv, identity);
+        serviceAccountProvisioner.provision(k8sEnv, identity);
+        asyncStorageProvisioner.provision(k8sEnv, identity);
+        certificateProvisioner.provision(k8sEnv, identity);
+        sshKeysProvisioning.apply(k8sEnv);
+        vcsSslCertificateProvisioner.provision(k8sEnv, identity);
+        gitConfigProvisioning.apply(k8sEnv);
+        gatewayRouterProvisioner.provision(k8sEnv, identity);
+        trustedCAProvisioning.apply(k8sEnv);
+        uniqueNamesProvisioner.provision(k8sEnv, identity);
+      } finally {
+        // preparations which are not applied because of a failure are not needed anymore
+        ProvisioningPreparer.cancel(
+            imagePullSecretProvisioning,
+            sshKeysProvisioning,
+            gitConfigProvisioning,
+            trustedCAProvisioning);
+      }
       LOG.debug("Provisioning Kubernetes environment done for workspace '{}'", workspaceId);
     }
   }
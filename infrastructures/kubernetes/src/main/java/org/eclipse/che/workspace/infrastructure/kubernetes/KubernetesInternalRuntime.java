@@ -49,6 +49,7 @@ import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
@@ -234,7 +235,7 @@ public class KubernetesInternalRuntime<E extends KubernetesEnvironment>
                   // since machine running future will be completed from the thread that is not from
                   // kubernetes pool it's needed to explicitly put the executor to not to delay
                   // processing in the external pool.
-                  .thenComposeAsync(checkFailure(startFailure), executor)
+                  .thenComposeAsync(checkFailure(startFailure), this::executeOrRunInCallingThread)
                   .thenRun(publishRunningStatus(machineName))
                   .thenCompose(checkFailure(startFailure))
                   .thenCompose(setContext(currentContext, checkServers(toCancelFutures, machine)))
@@ -558,6 +559,22 @@ public class KubernetesInternalRuntime<E extends KubernetesEnvironment>
     };
   }
 
+  /**
+   * Executes the task in the shared pool. When the pool is saturated, runs it in the calling
+   * thread, which is the thread that completes the previous stage, so the boot chain is not broken.
+   */
+  private void executeOrRunInCallingThread(Runnable task) {
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      LOG.debug(
+          "Task of workspace '{}' start is rejected by the shared pool, it is run by the thread '{}'",
+          getContext().getIdentity().getWorkspaceId(),
+          Thread.currentThread().getName());
+      task.run();
+    }
+  }
+
   /** Cancels all the given futures */
   private static void cancelAll(Collection<CompletableFuture<?>> toClose) {
     toClose.forEach(cancelled -> cancelled.cancel(true));
@@ -14,12 +14,26 @@ package org.eclipse.che.workspace.infrastructure.kubernetes.cache.jpa;
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toMap;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.persist.Transactional;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
@@ -27,6 +41,7 @@ import org.eclipse.che.api.core.model.workspace.runtime.MachineStatus;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.core.model.workspace.runtime.ServerStatus;
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.workspace.server.model.impl.ServerImpl;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.core.db.cascade.CascadeEventSubscriber;
 import org.eclipse.che.core.db.jpa.DuplicateKeyException;
@@ -36,19 +51,47 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesMachi
 import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesMachineImpl.MachineId;
 import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesServerImpl;
 import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesServerImpl.ServerId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * JPA based implementation of {@link KubernetesMachineCache}.
  *
+ * <p>Statuses of machines and servers change many times within seconds while a runtime starts, as
+ * readiness probes report in. When the flush window is positive, the status updates of a runtime
+ * are accumulated in memory and written to the database with a single transaction when the window
+ * since the first not yet written update elapses. Until then the cache returns the machines of the
+ * runtime from memory, so the callers see their updates immediately and can publish events right
+ * away. Other Che server replicas see the updates when they are written. Statuses which fail to be
+ * written are kept and written again when the window elapses next time. Updates are written right
+ * away when the window is not positive.
+ *
  * @author Sergii Leshchenko
  */
+@Singleton
 public class JpaKubernetesMachineCache implements KubernetesMachineCache {
 
+  private static final Logger LOG = LoggerFactory.getLogger(JpaKubernetesMachineCache.class);
+
   private final Provider<EntityManager> managerProvider;
+  private final long flushWindowMs;
+  private final ScheduledExecutorService flushScheduler;
+  private final ConcurrentMap<String, PendingStatuses> pendingStatuses = new ConcurrentHashMap<>();
 
   @Inject
-  public JpaKubernetesMachineCache(Provider<EntityManager> managerProvider) {
+  public JpaKubernetesMachineCache(
+      Provider<EntityManager> managerProvider,
+      @Named("che.infra.kubernetes.machine_status_flush_window_ms") long flushWindowMs) {
     this.managerProvider = managerProvider;
+    this.flushWindowMs = flushWindowMs;
+    this.flushScheduler =
+        flushWindowMs > 0
+            ? Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                    .setNameFormat("KubernetesMachineStatusesFlusher-%d")
+                    .setDaemon(true)
+                    .build())
+            : null;
   }
 
   @Override
@@ -61,41 +104,56 @@ public class JpaKubernetesMachineCache implements KubernetesMachineCache {
     } catch (RuntimeException e) {
       throw new InfrastructureException(e.getMessage(), e);
     }
+    PendingStatuses statuses = pendingStatuses.get(runtimeIdentity.getWorkspaceId());
+    if (statuses != null) {
+      synchronized (statuses) {
+        if (statuses.machines != null) {
+          statuses.machines.putIfAbsent(machine.getName(), copy(machine));
+        }
+      }
+    }
   }
 
-  @Transactional(rollbackOn = InfrastructureException.class)
   @Override
   public Map<String, KubernetesMachineImpl> getMachines(RuntimeIdentity runtimeIdentity)
       throws InfrastructureException {
+    PendingStatuses statuses = pendingStatuses.get(runtimeIdentity.getWorkspaceId());
+    if (statuses != null) {
+      synchronized (statuses) {
+        if (!statuses.flushed && statuses.machines != null) {
+          return statuses
+              .machines
+              .values()
+              .stream()
+              .collect(toMap(KubernetesMachineImpl::getName, JpaKubernetesMachineCache::copy));
+        }
+      }
+    }
     try {
-      return managerProvider
-          .get()
-          .createNamedQuery("KubernetesMachine.getByWorkspaceId", KubernetesMachineImpl.class)
-          .setParameter("workspaceId", runtimeIdentity.getWorkspaceId())
-          .getResultList()
-          .stream()
-          .collect(toMap(KubernetesMachineImpl::getName, Function.identity()));
+      return doGetMachines(runtimeIdentity.getWorkspaceId());
     } catch (RuntimeException e) {
       throw new InfrastructureException(e.getMessage(), e);
     }
   }
 
-  @Transactional(rollbackOn = InfrastructureException.class)
   @Override
   public KubernetesServerImpl getServer(
       RuntimeIdentity runtimeIdentity, String machineName, String serverName)
       throws InfrastructureException {
-    try {
-      String workspaceId = runtimeIdentity.getWorkspaceId();
-      KubernetesServerImpl server =
-          managerProvider
-              .get()
-              .find(KubernetesServerImpl.class, new ServerId(workspaceId, machineName, serverName));
-      if (server == null) {
-        throw new InfrastructureException(
-            format("Server with name '%s' was not found", serverName));
+    PendingStatuses statuses = pendingStatuses.get(runtimeIdentity.getWorkspaceId());
+    if (statuses != null) {
+      synchronized (statuses) {
+        if (!statuses.flushed && statuses.machines != null) {
+          return new KubernetesServerImpl(
+              runtimeIdentity.getWorkspaceId(),
+              machineName,
+              serverName,
+              new ServerImpl(statuses.getServer(machineName, serverName)));
+        }
       }
-      return server;
+    }
+    try {
+      return doGetServer(runtimeIdentity.getWorkspaceId(), machineName, serverName);
     } catch (RuntimeException e) {
       throw new InfrastructureException(e.getMessage(), e);
     }
@@ -105,11 +163,21 @@ public class JpaKubernetesMachineCache implements KubernetesMachineCache {
   public void updateMachineStatus(
       RuntimeIdentity runtimeIdentity, String machineName, MachineStatus newStatus)
       throws InfrastructureException {
-    try {
-      doUpdateMachineStatus(runtimeIdentity.getWorkspaceId(), machineName, newStatus);
-    } catch (RuntimeException e) {
-      throw new InfrastructureException(e.getMessage(), e);
+    if (flushScheduler == null) {
+      try {
+        doUpdateMachineStatus(runtimeIdentity.getWorkspaceId(), machineName, newStatus);
+      } catch (RuntimeException e) {
+        throw new InfrastructureException(e.getMessage(), e);
+      }
+      return;
     }
+    withPendingStatuses(
+        runtimeIdentity,
+        statuses -> {
+          statuses.getMachine(machineName).setStatus(newStatus);
+          statuses.machineStatuses.put(machineName, newStatus);
+          return null;
+        });
   }
 
   @Override
@@ -119,15 +187,39 @@ public class JpaKubernetesMachineCache implements KubernetesMachineCache {
       String serverName,
       ServerStatus newStatus)
       throws InfrastructureException {
-    try {
-      return doUpdateServerStatus(runtimeIdentity, machineName, serverName, newStatus);
-    } catch (RuntimeException e) {
-      throw new InfrastructureException(e.getMessage(), e);
+    if (flushScheduler == null) {
+      try {
+        return doUpdateServerStatus(runtimeIdentity, machineName, serverName, newStatus);
+      } catch (RuntimeException e) {
+        throw new InfrastructureException(e.getMessage(), e);
+      }
     }
+    return withPendingStatuses(
+        runtimeIdentity,
+        statuses -> {
+          KubernetesServerImpl server = statuses.getServer(machineName, serverName);
+          if (server.getStatus() == newStatus) {
+            return false;
+          }
+          server.setStatus(newStatus);
+          statuses.serverStatuses.put(
+              new ServerId(runtimeIdentity.getWorkspaceId(), machineName, serverName), newStatus);
+          return true;
+        });
   }
 
   @Override
   public void remove(RuntimeIdentity runtimeIdentity) throws InfrastructureException {
+    PendingStatuses statuses = pendingStatuses.get(runtimeIdentity.getWorkspaceId());
+    if (statuses != null) {
+      synchronized (statuses) {
+        // statuses of the removed machines must not be applied to the machines stored next
+        statuses.machines = null;
+        statuses.machineStatuses.clear();
+        statuses.serverStatuses.clear();
+        statuses.removals++;
+      }
+    }
     try {
       doRemove(runtimeIdentity);
     } catch (RuntimeException e) {
@@ -135,19 +227,57 @@ public class JpaKubernetesMachineCache implements KubernetesMachineCache {
     }
   }
 
+  /** Writes all the accumulated statuses to the database right away. */
+  @VisibleForTesting
+  void flushAll() {
+    for (PendingStatuses statuses : new ArrayList<>(pendingStatuses.values())) {
+      flush(statuses);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (flushScheduler != null) {
+      flushScheduler.shutdownNow();
+      flushAll();
+    }
+  }
+
   @Transactional(rollbackOn = {RuntimeException.class, InfrastructureException.class})
   protected void doRemove(RuntimeIdentity runtimeIdentity) throws InfrastructureException {
     EntityManager em = managerProvider.get();
 
-    Collection<KubernetesMachineImpl> machines = getMachines(runtimeIdentity).values();
-
-    for (KubernetesMachineImpl machine : machines) {
+    for (KubernetesMachineImpl machine : doGetMachines(runtimeIdentity.getWorkspaceId()).values()) {
       em.remove(machine);
     }
 
     em.flush();
   }
 
+  @Transactional
+  protected Map<String, KubernetesMachineImpl> doGetMachines(String workspaceId) {
+    return managerProvider
+        .get()
+        .createNamedQuery("KubernetesMachine.getByWorkspaceId", KubernetesMachineImpl.class)
+        .setParameter("workspaceId", workspaceId)
+        .getResultList()
+        .stream()
+        .collect(toMap(KubernetesMachineImpl::getName, Function.identity()));
+  }
+
+  @Transactional(rollbackOn = InfrastructureException.class)
+  protected KubernetesServerImpl doGetServer(
+      String workspaceId, String machineName, String serverName) throws InfrastructureException {
+    KubernetesServerImpl server =
+        managerProvider
+            .get()
+            .find(KubernetesServerImpl.class, new ServerId(workspaceId, machineName, serverName));
+    if (server == null) {
+      throw new InfrastructureException(format("Server with name '%s' was not found", serverName));
+    }
+    return server;
+  }
+
   @Transactional
   protected void doPutMachine(KubernetesMachineImpl machine) {
     EntityManager em = managerProvider.get();
@@ -179,7 +309,8 @@ public class JpaKubernetesMachineCache implements KubernetesMachineCache {
       throws InfrastructureException {
     EntityManager entityManager = managerProvider.get();
 
-    KubernetesServerImpl server = getServer(runtimeIdentity, machineName, serverName);
+    KubernetesServerImpl server =
+        doGetServer(runtimeIdentity.getWorkspaceId(), machineName, serverName);
 
     if (server.getStatus() != status) {
       server.setStatus(status);
@@ -189,6 +320,205 @@ public class JpaKubernetesMachineCache implements KubernetesMachineCache {
     return false;
   }
 
+  /**
+   * Writes the accumulated statuses with a single transaction. Statuses of the machines and servers
+   * which are already removed are skipped.
+   */
+  @Transactional
+  protected void doUpdateStatuses(
+      String workspaceId,
+      Map<String, MachineStatus> machineStatuses,
+      Map<ServerId, ServerStatus> serverStatuses) {
+    EntityManager entityManager = managerProvider.get();
+    for (Entry<String, MachineStatus> entry : machineStatuses.entrySet()) {
+      KubernetesMachineImpl machine =
+          entityManager.find(
+              KubernetesMachineImpl.class, new MachineId(workspaceId, entry.getKey()));
+      if (machine != null) {
+        machine.setStatus(entry.getValue());
+      }
+    }
+    for (Entry<ServerId, ServerStatus> entry : serverStatuses.entrySet()) {
+      KubernetesServerImpl server = entityManager.find(KubernetesServerImpl.class, entry.getKey());
+      if (server != null) {
+        server.setStatus(entry.getValue());
+      }
+    }
+    entityManager.flush();
+  }
+
+  /**
+   * Applies the update to the accumulated statuses of the runtime and schedules their writing if it
+   * is not scheduled yet.
+   */
+  private <T> T withPendingStatuses(RuntimeIdentity runtimeIdentity, StatusesUpdate<T> update)
+      throws InfrastructureException {
+    String workspaceId = runtimeIdentity.getWorkspaceId();
+    while (true) {
+      PendingStatuses statuses = pendingStatuses.computeIfAbsent(workspaceId, PendingStatuses::new);
+      synchronized (statuses) {
+        if (statuses.flushed) {
+          // statuses were written while waiting for the lock, the next ones are accumulated anew
+          continue;
+        }
+        try {
+          if (statuses.machines == null) {
+            statuses.load(doGetMachines(workspaceId));
+          }
+          return update.apply(statuses);
+        } catch (RuntimeException e) {
+          throw new InfrastructureException(e.getMessage(), e);
+        } finally {
+          if (statuses.flushTask == null) {
+            scheduleFlush(statuses);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the accumulated statuses of the runtime. The statuses are taken from the accumulated
+   * ones and written without holding the lock of the runtime, so the readers and the writers of the
+   * cache are not blocked by the transaction and keep seeing the statuses in memory until they are
+   * written. Statuses which fail to be written are put back unless newer ones are accumulated or
+   * the machines are removed meanwhile.
+   */
+  private void flush(PendingStatuses statuses) {
+    statuses.writeLock.lock();
+    try {
+      final Map<String, MachineStatus> machineStatuses;
+      final Map<ServerId, ServerStatus> serverStatuses;
+      final long removals;
+      synchronized (statuses) {
+        if (statuses.flushed) {
+          return;
+        }
+        machineStatuses = new HashMap<>(statuses.machineStatuses);
+        serverStatuses = new HashMap<>(statuses.serverStatuses);
+        statuses.machineStatuses.clear();
+        statuses.serverStatuses.clear();
+        removals = statuses.removals;
+      }
+      boolean written = true;
+      if (!machineStatuses.isEmpty() || !serverStatuses.isEmpty()) {
+        try {
+          doUpdateStatuses(statuses.workspaceId, machineStatuses, serverStatuses);
+        } catch (RuntimeException e) {
+          written = false;
+          LOG.error(
+              "Unable to write statuses of machines and servers of the workspace '{}', "
+                  + "they will be written again. Cause: {}",
+              statuses.workspaceId,
+              e.getMessage(),
+              e);
+        }
+      }
+      synchronized (statuses) {
+        if (!written && statuses.removals == removals) {
+          machineStatuses.forEach(statuses.machineStatuses::putIfAbsent);
+          serverStatuses.forEach(statuses.serverStatuses::putIfAbsent);
+        }
+        if (statuses.machineStatuses.isEmpty() && statuses.serverStatuses.isEmpty()) {
+          statuses.flushed = true;
+          pendingStatuses.remove(statuses.workspaceId, statuses);
+        } else if (!flushScheduler.isShutdown()) {
+          scheduleFlush(statuses);
+        }
+      }
+    } finally {
+      statuses.writeLock.unlock();
+    }
+  }
+
+  private void scheduleFlush(PendingStatuses statuses) {
+    statuses.flushTask =
+        flushScheduler.schedule(() -> flush(statuses), flushWindowMs, TimeUnit.MILLISECONDS);
+  }
+
+  private static KubernetesMachineImpl copy(KubernetesMachineImpl machine) {
+    return new KubernetesMachineImpl(
+        machine.getWorkspaceId(),
+        machine.getName(),
+        machine.getPodName(),
+        machine.getContainerName(),
+        machine.getStatus(),
+        new HashMap<>(machine.getAttributes()),
+        machine
+            .getServers()
+            .entrySet()
+            .stream()
+            .collect(toMap(Entry::getKey, e -> new ServerImpl(e.getValue()))));
+  }
+
+  @FunctionalInterface
+  private interface StatusesUpdate<T> {
+    T apply(PendingStatuses statuses) throws InfrastructureException;
+  }
+
+  /** Statuses of machines and servers of a runtime which are not yet written to the database. */
+  private static class PendingStatuses {
+
+    private final String workspaceId;
+    private final Map<String, MachineStatus> machineStatuses = new HashMap<>();
+    private final Map<ServerId, ServerStatus> serverStatuses = new HashMap<>();
+
+    /** Machines of the runtime with the accumulated statuses, null if not loaded. */
+    private Map<String, KubernetesMachineImpl> machines;
+
+    /** Serializes writing of the statuses, doesn't block the readers. */
+    private final Lock writeLock = new ReentrantLock();
+
+    private ScheduledFuture<?> flushTask;
+    private boolean flushed;
+    /** The number of removals of the machines, statuses taken before a removal are stale. */
+    private long removals;
+
+    private PendingStatuses(String workspaceId) {
+      this.workspaceId = workspaceId;
+    }
+
+    /** Loads the machines of the runtime applying the accumulated statuses. */
+    private void load(Map<String, KubernetesMachineImpl> loaded) {
+      machines = new HashMap<>();
+      for (KubernetesMachineImpl machine : loaded.values()) {
+        KubernetesMachineImpl copy = copy(machine);
+        MachineStatus status = machineStatuses.get(copy.getName());
+        if (status != null) {
+          copy.setStatus(status);
+        }
+        for (Entry<String, KubernetesServerImpl> server : copy.getServers().entrySet()) {
+          ServerStatus serverStatus =
+              serverStatuses.get(new ServerId(workspaceId, copy.getName(), server.getKey()));
+          if (serverStatus != null) {
+            server.getValue().setStatus(serverStatus);
+          }
+        }
+        machines.put(copy.getName(), copy);
+      }
+    }
+
+    private KubernetesMachineImpl getMachine(String machineName) throws InfrastructureException {
+      KubernetesMachineImpl machine = machines.get(machineName);
+      if (machine == null) {
+        throw new InfrastructureException(
+            format("Machine '%s:%s' was not found", workspaceId, machineName));
+      }
+      return machine;
+    }
+
+    private KubernetesServerImpl getServer(String machineName, String serverName)
+        throws InfrastructureException {
+      KubernetesMachineImpl machine = machines.get(machineName);
+      KubernetesServerImpl server = machine == null ? null : machine.getServers().get(serverName);
+      if (server == null) {
+        throw new InfrastructureException(
+            format("Server with name '%s' was not found", serverName));
+      }
+      return server;
+    }
+  }
+
   @Singleton
   public static class RemoveKubernetesMachinesBeforeRuntimesRemoved
       extends CascadeEventSubscriber<BeforeKubernetesRuntimeStateRemovedEvent> {
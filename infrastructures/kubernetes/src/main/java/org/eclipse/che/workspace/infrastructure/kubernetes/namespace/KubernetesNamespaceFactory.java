@@ -176,7 +176,7 @@ public class KubernetesNamespaceFactory {
   @VisibleForTesting
   KubernetesNamespace doCreateNamespaceAccess(String workspaceId, String name) {
     return new KubernetesNamespace(
-        clientFactory, cheClientFactory, sharedPool.getExecutor(), name, workspaceId);
+        clientFactory, cheClientFactory, sharedPool.getLogWatchersExecutor(), name, workspaceId);
   }
 
   /**
@@ -13,6 +13,7 @@ package org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.lang.String.format;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toSet;
 import static org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesObjectUtil.newPVC;
@@ -96,6 +97,7 @@ public class CommonPVCStrategy implements WorkspaceVolumesStrategy {
   private final PodsVolumes podsVolumes;
   private final SubPathPrefixes subpathPrefixes;
   private final boolean waitBound;
+  private final PVCBindingWatcher pvcBindingWatcher;
 
   @Inject
   public CommonPVCStrategy(
@@ -110,7 +112,8 @@ public class CommonPVCStrategy implements WorkspaceVolumesStrategy {
       EphemeralWorkspaceAdapter ephemeralWorkspaceAdapter,
       PVCProvisioner pvcProvisioner,
       PodsVolumes podsVolumes,
-      SubPathPrefixes subpathPrefixes) {
+      SubPathPrefixes subpathPrefixes,
+      PVCBindingWatcher pvcBindingWatcher) {
     this.configuredPVCName = configuredPVCName;
     this.pvcQuantity = pvcQuantity;
     this.pvcAccessMode = pvcAccessMode;
@@ -123,6 +126,7 @@ public class CommonPVCStrategy implements WorkspaceVolumesStrategy {
     this.pvcProvisioner = pvcProvisioner;
     this.podsVolumes = podsVolumes;
     this.subpathPrefixes = subpathPrefixes;
+    this.pvcBindingWatcher = pvcBindingWatcher;
   }
 
   /**
@@ -210,7 +214,11 @@ public class CommonPVCStrategy implements WorkspaceVolumesStrategy {
       pvcs.create(commonPVC);
       if (waitBound) {
         log.debug("Waiting for PVC for workspace '{}' to be bound", workspaceId);
-        pvcs.waitBound(commonPVC.getMetadata().getName(), timeoutMillis);
+        pvcBindingWatcher.waitBound(
+            workspaceId,
+            namespace.getName(),
+            singletonList(commonPVC.getMetadata().getName()),
+            timeoutMillis);
       }
     }
 
@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.EventList;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.api.workspace.server.spi.InternalInfrastructureException;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesInfrastructureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waits for persistent volume claims to be bound using watches shared by all the claims of a
+ * namespace.
+ *
+ * <p>While there is at least one claim waited in a namespace, one watch on persistent volume claims
+ * and one watch on 'WaitForFirstConsumer' events are opened in it. The watches start from the
+ * resource versions of a single list of the claims and a single list of the events of the
+ * namespace, so the state of all the waited claims is known without requesting them one by one.
+ * Events are related to the claims by the uid of the claim, so an event of a removed claim with the
+ * same name is not taken into account. The watches are closed once the last waited claim is
+ * resolved, and timeouts of all the claims are enforced by a single scheduler.
+ *
+ * <p>The watches of a namespace are opened by the first caller which waits for a claim in it,
+ * outside of any lock, the callers which come in meantime get futures which are resolved once the
+ * watches are opened.
+ *
+ * <p>If used k8s Storage Class has 'volumeBindingMode: WaitForFirstConsumer', the claim is not
+ * waited to be bound to avoid deadlock.
+ */
+@Singleton
+public class PVCBindingWatcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PVCBindingWatcher.class);
+
+  private static final String PVC_BOUND_PHASE = "Bound";
+  private static final String PVC_EVENT_REASON_FIELD_KEY = "reason";
+  private static final String PVC_EVENT_WAIT_CONSUMER_REASON = "WaitForFirstConsumer";
+  private static final String PVC_EVENT_KIND_FIELD_KEY = "involvedObject.kind";
+  private static final String PVC_KIND = "PersistentVolumeClaim";
+
+  private final KubernetesClientFactory clientFactory;
+  private final ScheduledExecutorService timeoutScheduler;
+  private final ConcurrentMap<String, NamespaceWatch> namespaceWatches = new ConcurrentHashMap<>();
+
+  @Inject
+  public PVCBindingWatcher(KubernetesClientFactory clientFactory) {
+    this.clientFactory = clientFactory;
+    this.timeoutScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("PVCBindingWatcherTimeouts-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  /**
+   * Waits until all the specified persistent volume claims are bound or waiting for first consumer.
+   *
+   * @param workspaceId identifier of the workspace the claims are waited for
+   * @param namespace namespace the claims are located in
+   * @param names names of persistent volume claims that should be watched
+   * @param timeoutMillis waiting timeout in milliseconds
+   * @throws InfrastructureException when specified timeout is reached
+   * @throws InfrastructureException when {@link Thread} is interrupted while waiting
+   * @throws InfrastructureException when any other exception occurs
+   */
+  public void waitBound(
+      String workspaceId, String namespace, Collection<String> names, long timeoutMillis)
+      throws InfrastructureException {
+    List<CompletableFuture<PersistentVolumeClaim>> futures = new ArrayList<>(names.size());
+    for (String name : names) {
+      futures.add(waitBoundAsync(workspaceId, namespace, name, timeoutMillis));
+    }
+    for (CompletableFuture<PersistentVolumeClaim> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof InfrastructureException) {
+          throw (InfrastructureException) e.getCause();
+        }
+        throw new InternalInfrastructureException(e.getCause().getMessage(), e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InfrastructureException(
+            "Waiting for persistent volume claims in namespace '"
+                + namespace
+                + "' was interrupted");
+      }
+    }
+  }
+
+  /**
+   * Returns future which is completed when the persistent volume claim is bound or waiting for
+   * first consumer, or completed exceptionally when the timeout is reached or the shared watches
+   * can't be opened or are closed with an error.
+   */
+  @VisibleForTesting
+  CompletableFuture<PersistentVolumeClaim> waitBoundAsync(
+      String workspaceId, String namespace, String name, long timeoutMillis)
+      throws InfrastructureException {
+    KubernetesClient client = clientFactory.create(workspaceId);
+    CompletableFuture<PersistentVolumeClaim> future;
+    NamespaceWatch namespaceWatch;
+    do {
+      namespaceWatch = namespaceWatches.computeIfAbsent(namespace, NamespaceWatch::new);
+      // null when the watch is closed concurrently and is about to be removed from the map
+      future = namespaceWatch.register(name);
+    } while (future == null);
+    if (namespaceWatch.opening.compareAndSet(false, true)) {
+      namespaceWatch.open(client);
+    }
+    if (!future.isDone()) {
+      CompletableFuture<PersistentVolumeClaim> waited = future;
+      ScheduledFuture<?> timeout =
+          timeoutScheduler.schedule(
+              () ->
+                  waited.completeExceptionally(
+                      // May happen when PVC is not bound in the time.
+                      // Throw internal exception because there may be some cluster
+                      // configuration/performance issues that admin should take a look.
+                      new InternalInfrastructureException(
+                          "Waiting for persistent volume claim '" + name + "' reached timeout",
+                          new TimeoutException())),
+              timeoutMillis,
+              MILLISECONDS);
+      future.whenComplete((pvc, error) -> timeout.cancel(false));
+    }
+    return future;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    timeoutScheduler.shutdownNow();
+    for (NamespaceWatch namespaceWatch : namespaceWatches.values()) {
+      namespaceWatch.close();
+    }
+    namespaceWatches.clear();
+  }
+
+  private boolean isBound(PersistentVolumeClaim pvc) {
+    return pvc.getStatus() != null && PVC_BOUND_PHASE.equals(pvc.getStatus().getPhase());
+  }
+
+  private FilterWatchListDeletable<Event, EventList, Boolean, Watch, Watcher<Event>>
+      waitForConsumerEvents(KubernetesClient client, String namespace) {
+    return client
+        .events()
+        .inNamespace(namespace)
+        .withField(PVC_EVENT_REASON_FIELD_KEY, PVC_EVENT_WAIT_CONSUMER_REASON)
+        .withField(PVC_EVENT_KIND_FIELD_KEY, PVC_KIND);
+  }
+
+  /**
+   * Watches opened in a namespace, the last known state of the claims of the namespace and the
+   * claims waited through them.
+   *
+   * <p>The state is modified under the monitor of the instance while waiters are completed and
+   * watches are opened and closed outside of it.
+   */
+  private class NamespaceWatch {
+
+    private final String namespace;
+    private final AtomicBoolean opening = new AtomicBoolean();
+
+    private final Map<String, CompletableFuture<PersistentVolumeClaim>> waiters = new HashMap<>();
+    private final Map<String, PersistentVolumeClaim> claims = new HashMap<>();
+    private final Set<String> waitingForConsumer = new HashSet<>();
+
+    private boolean opened;
+    private boolean closed;
+    private Watch pvcWatch;
+    private Watch eventWatch;
+
+    NamespaceWatch(String namespace) {
+      this.namespace = namespace;
+    }
+
+    /**
+     * Returns the future of the claim waited in this namespace, or null if the watches are closed
+     * and can't be used anymore.
+     */
+    CompletableFuture<PersistentVolumeClaim> register(String name) {
+      CompletableFuture<PersistentVolumeClaim> future;
+      PersistentVolumeClaim resolved;
+      synchronized (this) {
+        if (closed) {
+          return null;
+        }
+        future = waiters.get(name);
+        if (future != null) {
+          return future;
+        }
+        future = new CompletableFuture<>();
+        waiters.put(name, future);
+        resolved = opened ? resolved(name) : null;
+      }
+      CompletableFuture<PersistentVolumeClaim> registered = future;
+      future.whenComplete((pvc, error) -> unregister(name, registered));
+      if (resolved != null) {
+        future.complete(resolved);
+      }
+      return future;
+    }
+
+    void open(KubernetesClient client) {
+      Map<CompletableFuture<PersistentVolumeClaim>, PersistentVolumeClaim> toComplete;
+      try {
+        PersistentVolumeClaimList pvcs =
+            client.persistentVolumeClaims().inNamespace(namespace).list();
+        EventList events = waitForConsumerEvents(client, namespace).list();
+        synchronized (this) {
+          pvcs.getItems().forEach(pvc -> claims.put(pvc.getMetadata().getName(), pvc));
+          events.getItems().forEach(event -> waitingForConsumer.add(uidOf(event)));
+        }
+        // changes made after the lists are delivered by the watches
+        Watch pvcWatch =
+            client
+                .persistentVolumeClaims()
+                .inNamespace(namespace)
+                .withResourceVersion(pvcs.getMetadata().getResourceVersion())
+                .watch(
+                    new Watcher<PersistentVolumeClaim>() {
+                      @Override
+                      public void eventReceived(Action action, PersistentVolumeClaim pvc) {
+                        onClaimChanged(action, pvc);
+                      }
+
+                      @Override
+                      public void onClose(KubernetesClientException cause) {
+                        onWatchClosed(cause);
+                      }
+                    });
+        Watch eventWatch;
+        try {
+          eventWatch =
+              waitForConsumerEvents(client, namespace)
+                  .withResourceVersion(events.getMetadata().getResourceVersion())
+                  .watch(
+                      new Watcher<Event>() {
+                        @Override
+                        public void eventReceived(Action action, Event event) {
+                          onWaitingForConsumer(event);
+                        }
+
+                        @Override
+                        public void onClose(KubernetesClientException cause) {
+                          onWatchClosed(cause);
+                        }
+                      });
+        } catch (KubernetesClientException e) {
+          pvcWatch.close();
+          throw e;
+        }
+        synchronized (this) {
+          this.pvcWatch = pvcWatch;
+          this.eventWatch = eventWatch;
+          opened = true;
+          toComplete = new HashMap<>();
+          for (Map.Entry<String, CompletableFuture<PersistentVolumeClaim>> waiter :
+              waiters.entrySet()) {
+            PersistentVolumeClaim resolved = resolved(waiter.getKey());
+            if (resolved != null) {
+              toComplete.put(waiter.getValue(), resolved);
+            }
+          }
+        }
+      } catch (KubernetesClientException e) {
+        fail(name -> new KubernetesInfrastructureException(e));
+        return;
+      }
+      if (isClosed()) {
+        // all the waiters are gone while the watches were opened
+        close();
+        return;
+      }
+      toComplete.forEach(CompletableFuture::complete);
+    }
+
+    void close() {
+      Watch pvcWatch;
+      Watch eventWatch;
+      synchronized (this) {
+        closed = true;
+        pvcWatch = this.pvcWatch;
+        eventWatch = this.eventWatch;
+        this.pvcWatch = null;
+        this.eventWatch = null;
+      }
+      if (pvcWatch != null) {
+        pvcWatch.close();
+      }
+      if (eventWatch != null) {
+        eventWatch.close();
+      }
+    }
+
+    private synchronized boolean isClosed() {
+      return closed;
+    }
+
+    private void unregister(String name, CompletableFuture<PersistentVolumeClaim> future) {
+      synchronized (this) {
+        waiters.remove(name, future);
+        if (!waiters.isEmpty() || closed) {
+          return;
+        }
+        closed = true;
+        namespaceWatches.remove(namespace, this);
+        if (!opened) {
+          // watches are closed by the opening caller
+          return;
+        }
+      }
+      close();
+    }
+
+    private void onClaimChanged(Watcher.Action action, PersistentVolumeClaim pvc) {
+      String name = pvc.getMetadata().getName();
+      CompletableFuture<PersistentVolumeClaim> future;
+      PersistentVolumeClaim resolved;
+      synchronized (this) {
+        if (action == Watcher.Action.DELETED) {
+          claims.remove(name);
+          waitingForConsumer.remove(pvc.getMetadata().getUid());
+          return;
+        }
+        claims.put(name, pvc);
+        future = waiters.get(name);
+        resolved = future != null ? resolved(name) : null;
+      }
+      if (resolved != null) {
+        LOG.debug("pvc '{}' is bound", name);
+        future.complete(resolved);
+      }
+    }
+
+    private void onWaitingForConsumer(Event event) {
+      String name = event.getInvolvedObject().getName();
+      CompletableFuture<PersistentVolumeClaim> future;
+      PersistentVolumeClaim resolved;
+      synchronized (this) {
+        waitingForConsumer.add(uidOf(event));
+        future = waiters.get(name);
+        resolved = future != null ? resolved(name) : null;
+      }
+      if (resolved != null) {
+        LOG.debug(
+            "PVC '{}' is waiting for first consumer. Don't wait to bound to avoid deadlock.", name);
+        future.complete(resolved);
+      }
+    }
+
+    private void onWatchClosed(KubernetesClientException cause) {
+      if (cause == null) {
+        // closed by us
+        return;
+      }
+      // May happen only if WebSocket Connection is closed before needed event received.
+      // Throw internal exception because there may be some cluster/network issues that admin
+      // should take a look.
+      fail(
+          name ->
+              new InternalInfrastructureException(
+                  "Waiting for persistent volume claim '"
+                      + name
+                      + "' was interrupted: "
+                      + cause.getMessage(),
+                  cause));
+    }
+
+    /** Closes the watches and fails all the waited claims with the errors built by their names. */
+    private void fail(Function<String, InfrastructureException> errorByName) {
+      Map<String, CompletableFuture<PersistentVolumeClaim>> failed;
+      synchronized (this) {
+        closed = true;
+        namespaceWatches.remove(namespace, this);
+        failed = new HashMap<>(waiters);
+      }
+      close();
+      failed.forEach((name, future) -> future.completeExceptionally(errorByName.apply(name)));
+    }
+
+    /** Returns the claim if it is bound or waiting for first consumer, null otherwise. */
+    private PersistentVolumeClaim resolved(String name) {
+      PersistentVolumeClaim pvc = claims.get(name);
+      if (pvc != null
+          && (isBound(pvc) || waitingForConsumer.contains(pvc.getMetadata().getUid()))) {
+        return pvc;
+      }
+      return null;
+    }
+
+    private String uidOf(Event event) {
+      return event.getInvolvedObject().getUid();
+    }
+  }
+}
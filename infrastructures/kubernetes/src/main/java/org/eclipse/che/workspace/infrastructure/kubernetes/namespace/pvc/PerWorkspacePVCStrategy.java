@@ -62,7 +62,8 @@ public class PerWorkspacePVCStrategy extends CommonPVCStrategy {
       EphemeralWorkspaceAdapter ephemeralWorkspaceAdapter,
       PVCProvisioner pvcProvisioner,
       PodsVolumes podsVolumes,
-      SubPathPrefixes subpathPrefixes) {
+      SubPathPrefixes subpathPrefixes,
+      PVCBindingWatcher pvcBindingWatcher) {
     super(
         pvcName,
         pvcQuantity,
@@ -75,7 +76,8 @@ public class PerWorkspacePVCStrategy extends CommonPVCStrategy {
         ephemeralWorkspaceAdapter,
         pvcProvisioner,
         podsVolumes,
-        subpathPrefixes);
+        subpathPrefixes,
+        pvcBindingWatcher);
     this.pvcNamePrefix = pvcName;
     this.factory = factory;
     this.pvcAccessMode = pvcAccessMode;
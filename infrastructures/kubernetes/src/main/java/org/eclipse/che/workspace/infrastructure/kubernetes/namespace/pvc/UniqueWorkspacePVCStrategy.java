@@ -11,6 +11,7 @@
  */
 package org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc;
 
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_WORKSPACE_ID_LABEL;
 
@@ -27,6 +28,7 @@ import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.commons.annotation.Traced;
 import org.eclipse.che.commons.tracing.TracingTags;
 import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment;
+import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesNamespace;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesNamespaceFactory;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesPersistentVolumeClaims;
 import org.slf4j.Logger;
@@ -82,6 +84,7 @@ public class UniqueWorkspacePVCStrategy implements WorkspaceVolumesStrategy {
   private final PVCProvisioner pvcProvisioner;
   private final SubPathPrefixes subpathPrefixes;
   private final boolean waitBound;
+  private final PVCBindingWatcher pvcBindingWatcher;
 
   @Inject
   public UniqueWorkspacePVCStrategy(
@@ -89,12 +92,14 @@ public class UniqueWorkspacePVCStrategy implements WorkspaceVolumesStrategy {
       KubernetesNamespaceFactory factory,
       EphemeralWorkspaceAdapter ephemeralWorkspaceAdapter,
       PVCProvisioner pvcProvisioner,
-      SubPathPrefixes subpathPrefixes) {
+      SubPathPrefixes subpathPrefixes,
+      PVCBindingWatcher pvcBindingWatcher) {
     this.waitBound = waitBound;
     this.factory = factory;
     this.ephemeralWorkspaceAdapter = ephemeralWorkspaceAdapter;
     this.pvcProvisioner = pvcProvisioner;
     this.subpathPrefixes = subpathPrefixes;
+    this.pvcBindingWatcher = pvcBindingWatcher;
   }
 
   @Override
@@ -146,16 +151,23 @@ public class UniqueWorkspacePVCStrategy implements WorkspaceVolumesStrategy {
       return;
     }
 
-    final KubernetesPersistentVolumeClaims k8sClaims =
-        factory.getOrCreate(identity).persistentVolumeClaims();
+    final KubernetesNamespace namespace = factory.getOrCreate(identity);
+    final KubernetesPersistentVolumeClaims k8sClaims = namespace.persistentVolumeClaims();
     LOG.debug("Creating PVCs for workspace '{}'", workspaceId);
     k8sClaims.createIfNotExist(k8sEnv.getPersistentVolumeClaims().values());
 
     if (waitBound) {
       LOG.debug("Waiting for PVC(s) of workspace '{}' to be bound", workspaceId);
-      for (PersistentVolumeClaim pvc : k8sEnv.getPersistentVolumeClaims().values()) {
-        k8sClaims.waitBound(pvc.getMetadata().getName(), timeoutMillis);
-      }
+      pvcBindingWatcher.waitBound(
+          workspaceId,
+          namespace.getName(),
+          k8sEnv
+              .getPersistentVolumeClaims()
+              .values()
+              .stream()
+              .map(pvc -> pvc.getMetadata().getName())
+              .collect(toList()),
+          timeoutMillis);
     }
     LOG.debug("Preparing PVCs done for workspace '{}'", workspaceId);
   }
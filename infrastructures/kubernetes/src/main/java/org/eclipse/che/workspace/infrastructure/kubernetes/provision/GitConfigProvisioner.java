@@ -42,7 +42,6 @@ import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.user.server.PreferenceManager;
 import org.eclipse.che.api.user.server.UserManager;
 import org.eclipse.che.api.workspace.server.model.impl.WarningImpl;
-import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.workspace.infrastructure.kubernetes.Warnings;
@@ -50,7 +49,8 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.environment.Kubernete
 import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment.PodRole;
 
 @Singleton
-public class GitConfigProvisioner implements ConfigurationProvisioner<KubernetesEnvironment> {
+public class GitConfigProvisioner
+    implements PreparableConfigurationProvisioner<KubernetesEnvironment> {
 
   public static final String GIT_CONFIG_MAP_NAME = "gitconfig";
 
@@ -78,8 +78,7 @@ public class GitConfigProvisioner implements ConfigurationProvisioner<Kubernetes
   }
 
   @Override
-  public void provision(KubernetesEnvironment k8sEnv, RuntimeIdentity identity)
-      throws InfrastructureException {
+  public Provisioning<KubernetesEnvironment> prepare(RuntimeIdentity identity) {
 
     try {
       Pair<String, String> userAndEmail = getUserFromPreferences();
@@ -88,22 +87,26 @@ public class GitConfigProvisioner implements ConfigurationProvisioner<Kubernetes
         userAndEmail = getUserFromUserManager();
       }
 
-      prepareAndProvisionGitConfiguration(
-          userAndEmail.first, userAndEmail.second, k8sEnv, identity);
+      Optional<String> content =
+          prepareGitConfigurationContent(userAndEmail.first, userAndEmail.second);
+      return k8sEnv ->
+          content.ifPresent(c -> doProvisionGitConfiguration(GIT_CONFIG_MAP_NAME, c, k8sEnv));
     } catch (ServerException | NotFoundException e) {
-      reportWarning(
-          k8sEnv,
-          Warnings.EXCEPTION_IN_USER_MANAGEMENT_DURING_GIT_PROVISION_WARNING_CODE,
-          format(
-              Warnings.EXCEPTION_IN_USER_MANAGEMENT_DURING_GIT_PROVISION_MESSAGE_FMT,
-              e.getMessage()));
+      return k8sEnv ->
+          reportWarning(
+              k8sEnv,
+              Warnings.EXCEPTION_IN_USER_MANAGEMENT_DURING_GIT_PROVISION_WARNING_CODE,
+              format(
+                  Warnings.EXCEPTION_IN_USER_MANAGEMENT_DURING_GIT_PROVISION_MESSAGE_FMT,
+                  e.getMessage()));
     } catch (JsonSyntaxException e) {
-      reportWarning(
-          k8sEnv,
-          Warnings.JSON_IS_NOT_A_VALID_REPRESENTATION_FOR_AN_OBJECT_OF_TYPE_WARNING_CODE,
-          format(
-              Warnings.JSON_IS_NOT_A_VALID_REPRESENTATION_FOR_AN_OBJECT_OF_TYPE_MESSAGE_FMT,
-              e.getMessage()));
+      return k8sEnv ->
+          reportWarning(
+              k8sEnv,
+              Warnings.JSON_IS_NOT_A_VALID_REPRESENTATION_FOR_AN_OBJECT_OF_TYPE_WARNING_CODE,
+              format(
+                  Warnings.JSON_IS_NOT_A_VALID_REPRESENTATION_FOR_AN_OBJECT_OF_TYPE_MESSAGE_FMT,
+                  e.getMessage()));
     }
   }
 
@@ -129,12 +132,6 @@ public class GitConfigProvisioner implements ConfigurationProvisioner<Kubernetes
     return Pair.of(user.getName(), user.getEmail());
   }
 
-  private void prepareAndProvisionGitConfiguration(
-      String name, String email, KubernetesEnvironment k8sEnv, RuntimeIdentity identity) {
-    prepareGitConfigurationContent(name, email)
-        .ifPresent(content -> doProvisionGitConfiguration(GIT_CONFIG_MAP_NAME, content, k8sEnv));
-  }
-
   private String getStringValueOrNull(Map<String, Object> map, String key) {
     Object value = map.get(key);
 
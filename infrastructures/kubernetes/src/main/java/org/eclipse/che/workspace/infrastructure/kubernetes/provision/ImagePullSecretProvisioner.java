@@ -49,7 +49,8 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.environment.Kubernete
  *
  * @author David Festal
  */
-public class ImagePullSecretProvisioner implements ConfigurationProvisioner<KubernetesEnvironment> {
+public class ImagePullSecretProvisioner
+    implements PreparableConfigurationProvisioner<KubernetesEnvironment> {
 
   static final String SECRET_NAME_SUFFIX = "-private-registries";
 
@@ -63,20 +64,20 @@ public class ImagePullSecretProvisioner implements ConfigurationProvisioner<Kube
 
   @Override
   @Traced
-  public void provision(KubernetesEnvironment k8sEnv, RuntimeIdentity identity)
+  public Provisioning<KubernetesEnvironment> prepare(RuntimeIdentity identity)
       throws InfrastructureException {
 
     TracingTags.WORKSPACE_ID.set(identity::getWorkspaceId);
 
     DockerAuthConfigs credentials = credentialsProvider.getCredentials();
     if (credentials == null) {
-      return;
+      return k8sEnv -> {};
     }
 
     Map<String, DockerAuthConfig> authConfigs = credentials.getConfigs();
 
     if (authConfigs == null || authConfigs.isEmpty()) {
-      return;
+      return k8sEnv -> {};
     }
 
     String encodedConfig =
@@ -91,12 +92,14 @@ public class ImagePullSecretProvisioner implements ConfigurationProvisioner<Kube
             .endMetadata()
             .build();
 
-    k8sEnv.getSecrets().put(secret.getMetadata().getName(), secret);
+    return k8sEnv -> {
+      k8sEnv.getSecrets().put(secret.getMetadata().getName(), secret);
 
-    k8sEnv
-        .getPodsData()
-        .values()
-        .forEach(p -> addImagePullSecret(secret.getMetadata().getName(), p.getSpec()));
+      k8sEnv
+          .getPodsData()
+          .values()
+          .forEach(p -> addImagePullSecret(secret.getMetadata().getName(), p.getSpec()));
+    };
   }
 
   /**
@@ -86,17 +86,17 @@ public class KubernetesTrustedCAProvisioner implements TrustedCAProvisioner {
   }
 
   /**
-   * Propagates additional CA certificates into config map and mounts them into all pods of given
-   * namespace
+   * Fetches the config map with additional CA certificates, the returned provisioning propagates
+   * them into config map and mounts them into all pods of given namespace
    *
-   * @param k8sEnv available objects in the scope
    * @param runtimeID defines namespace into which config map should be provisioned
    * @throws InfrastructureException if failed to CRUD a resource
    */
-  public void provision(KubernetesEnvironment k8sEnv, RuntimeIdentity runtimeID)
+  @Override
+  public Provisioning<KubernetesEnvironment> prepare(RuntimeIdentity runtimeID)
       throws InfrastructureException {
     if (!trustedStoreInitialized) {
-      return;
+      return k8sEnv -> {};
     }
 
     ConfigMap allCaCertsConfigMap =
@@ -107,9 +107,13 @@ public class KubernetesTrustedCAProvisioner implements TrustedCAProvisioner {
             .withName(caBundleConfigMap)
             .get();
     if (allCaCertsConfigMap == null) {
-      return;
+      return k8sEnv -> {};
     }
 
+    return k8sEnv -> provisionCaBundle(k8sEnv, allCaCertsConfigMap);
+  }
+
+  private void provisionCaBundle(KubernetesEnvironment k8sEnv, ConfigMap allCaCertsConfigMap) {
     k8sEnv
         .getConfigMaps()
         .put(
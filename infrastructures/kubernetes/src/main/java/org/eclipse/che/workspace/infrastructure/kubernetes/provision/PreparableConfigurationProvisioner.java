@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.provision;
+
+import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment;
+
+/**
+ * {@link ConfigurationProvisioner} which separates loading of the data it needs (user preferences,
+ * SSH keys, objects of Che installation namespace, etc.) from the modification of the environment.
+ *
+ * <p>{@link #prepare(RuntimeIdentity)} depends only on the runtime identity, it neither reads nor
+ * modifies the environment, so it can be run concurrently with other provisioners. The returned
+ * {@link Provisioning} is applied in the usual provisioning order, which keeps the resulting
+ * environment the same as with sequential provisioning.
+ */
+public interface PreparableConfigurationProvisioner<T extends KubernetesEnvironment>
+    extends ConfigurationProvisioner<T> {
+
+  /**
+   * Loads everything needed for provisioning of the workspace with the given identity.
+   *
+   * <p>Failures which should be reported as environment warnings or which should fail the
+   * provisioning are expected to be deferred to {@link Provisioning#apply}.
+   *
+   * @param identity runtime identity
+   * @return provisioning to apply to the environment
+   * @throws InfrastructureException when any error occurs
+   */
+  Provisioning<T> prepare(RuntimeIdentity identity) throws InfrastructureException;
+
+  @Override
+  default void provision(T k8sEnv, RuntimeIdentity identity) throws InfrastructureException {
+    prepare(identity).apply(k8sEnv);
+  }
+
+  /** Modification of the environment with the data loaded by {@link #prepare}. */
+  @FunctionalInterface
+  interface Provisioning<T extends KubernetesEnvironment> {
+
+    /**
+     * Applies the prepared configuration to the Kubernetes environment.
+     *
+     * @param k8sEnv Kubernetes environment
+     * @throws InfrastructureException when any error occurs
+     */
+    void apply(T k8sEnv) throws InfrastructureException;
+  }
+}
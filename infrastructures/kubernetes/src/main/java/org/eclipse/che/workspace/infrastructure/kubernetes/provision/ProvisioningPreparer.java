@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.provision;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.api.workspace.server.spi.InternalInfrastructureException;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
+import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PreparableConfigurationProvisioner.Provisioning;
+import org.eclipse.che.workspace.infrastructure.kubernetes.util.KubernetesSharedPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs {@link PreparableConfigurationProvisioner#prepare(RuntimeIdentity)} in the {@link
+ * KubernetesSharedPool}, so remote lookups of different provisioners are performed concurrently
+ * while the environment is being provisioned by the other provisioners.
+ *
+ * <p>When metrics are enabled, the time of each preparation is recorded by the timer tagged with
+ * the class of the provisioner.
+ */
+@Singleton
+public class ProvisioningPreparer implements MeterBinder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ProvisioningPreparer.class);
+
+  private static final String PREPARATION_TIMER = "che.workspace.provisioning.preparation.time";
+
+  private final ExecutorService executor;
+  private final long awaitTimeoutMillis;
+
+  private volatile MeterRegistry meterRegistry;
+
+  @Inject
+  public ProvisioningPreparer(
+      KubernetesSharedPool sharedPool,
+      @Named("che.infra.kubernetes.workspace_start_timeout_min") int workspaceStartTimeoutMin) {
+    this(sharedPool, MINUTES.toMillis(workspaceStartTimeoutMin));
+  }
+
+  @VisibleForTesting
+  ProvisioningPreparer(KubernetesSharedPool sharedPool, long awaitTimeoutMillis) {
+    this.executor = sharedPool.getExecutor();
+    this.awaitTimeoutMillis = awaitTimeoutMillis;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    this.meterRegistry = registry;
+  }
+
+  /**
+   * Starts preparation of the given provisioner asynchronously.
+   *
+   * <p>Thread local context (e.g. current subject) of the calling thread is propagated to the
+   * preparation. The returned preparation waits for the preparation to be finished, but not longer
+   * than the workspace start timeout, and then applies it, failures of the preparation are rethrown
+   * on apply. When the pool is saturated the preparation is performed on apply by the provisioning
+   * thread. Preparations which are not applied because the provisioning failed must be {@link
+   * Preparation#cancel() cancelled}.
+   *
+   * @param provisioner provisioner to prepare
+   * @param identity runtime identity
+   * @return preparation that should be applied in place of {@link
+   *     ConfigurationProvisioner#provision}
+   */
+  public <T extends KubernetesEnvironment> Preparation<T> prepareAsync(
+      PreparableConfigurationProvisioner<T> provisioner, RuntimeIdentity identity) {
+    String provisionerName = provisioner.getClass().getSimpleName();
+    try {
+      return new Preparation<>(
+          executor.submit(
+              ThreadLocalPropagateContext.wrap(() -> timedPrepare(provisioner, identity))),
+          provisionerName,
+          awaitTimeoutMillis);
+    } catch (RejectedExecutionException e) {
+      LOG.debug(
+          "Preparation of '{}' for workspace '{}' is rejected by the pool, it is done on apply",
+          provisionerName,
+          identity.getWorkspaceId());
+      return new Preparation<T>(null, provisionerName, awaitTimeoutMillis) {
+        @Override
+        public void apply(T k8sEnv) throws InfrastructureException {
+          timedPrepare(provisioner, identity).apply(k8sEnv);
+        }
+      };
+    }
+  }
+
+  /**
+   * Cancels preparations which are not finished yet, does nothing with the finished ones.
+   *
+   * @param preparations preparations to cancel
+   */
+  public static void cancel(Preparation<?>... preparations) {
+    for (Preparation<?> preparation : preparations) {
+      preparation.cancel();
+    }
+  }
+
+  private <T extends KubernetesEnvironment> Provisioning<T> timedPrepare(
+      PreparableConfigurationProvisioner<T> provisioner, RuntimeIdentity identity)
+      throws InfrastructureException {
+    String provisionerName = provisioner.getClass().getSimpleName();
+    long start = System.nanoTime();
+    try {
+      return provisioner.prepare(identity);
+    } finally {
+      long duration = System.nanoTime() - start;
+      MeterRegistry registry = meterRegistry;
+      if (registry != null) {
+        Timer.builder(PREPARATION_TIMER)
+            .description("The time of preparation of the workspace provisioning")
+            .tag("provisioner", provisionerName)
+            .register(registry)
+            .record(duration, NANOSECONDS);
+      }
+      LOG.debug(
+          "Preparation of '{}' for workspace '{}' took {} ms",
+          provisionerName,
+          identity.getWorkspaceId(),
+          NANOSECONDS.toMillis(duration));
+    }
+  }
+
+  /** Provisioning which is prepared asynchronously. */
+  public static class Preparation<T extends KubernetesEnvironment> implements Provisioning<T> {
+
+    private final Future<Provisioning<T>> future;
+    private final String provisionerName;
+    private final long awaitTimeoutMillis;
+
+    private Preparation(
+        Future<Provisioning<T>> future, String provisionerName, long awaitTimeoutMillis) {
+      this.future = future;
+      this.provisionerName = provisionerName;
+      this.awaitTimeoutMillis = awaitTimeoutMillis;
+    }
+
+    /** Waits for the preparation to be finished and applies it to the given environment. */
+    @Override
+    public void apply(T k8sEnv) throws InfrastructureException {
+      await().apply(k8sEnv);
+    }
+
+    /** Interrupts the preparation if it is not finished yet. */
+    public void cancel() {
+      if (future != null) {
+        future.cancel(true);
+      }
+    }
+
+    private Provisioning<T> await() throws InfrastructureException {
+      try {
+        return future.get(awaitTimeoutMillis, MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancel();
+        throw new InfrastructureException(
+            "Interrupted while waiting for preparation of " + provisionerName);
+      } catch (TimeoutException e) {
+        cancel();
+        throw new InfrastructureException(
+            "Preparation of " + provisionerName + " is not finished in time");
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof InfrastructureException) {
+          throw (InfrastructureException) cause;
+        } else if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new InternalInfrastructureException(cause.getMessage(), cause);
+      }
+    }
+  }
+}
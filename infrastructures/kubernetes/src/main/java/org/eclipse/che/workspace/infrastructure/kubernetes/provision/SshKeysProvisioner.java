@@ -81,7 +81,8 @@ import org.slf4j.LoggerFactory;
  * @author Vitalii Parfonov
  * @author Vlad Zhukovskyi
  */
-public class SshKeysProvisioner implements ConfigurationProvisioner<KubernetesEnvironment> {
+public class SshKeysProvisioner
+    implements PreparableConfigurationProvisioner<KubernetesEnvironment> {
 
   private static String SSH_BASE_CONFIG_PATH = "/etc/ssh/";
 
@@ -112,13 +113,22 @@ public class SshKeysProvisioner implements ConfigurationProvisioner<KubernetesEn
 
   @Override
   @Traced
-  public void provision(KubernetesEnvironment k8sEnv, RuntimeIdentity identity)
-      throws InfrastructureException {
+  public Provisioning<KubernetesEnvironment> prepare(RuntimeIdentity identity) {
     String workspaceId = identity.getWorkspaceId();
     TracingTags.WORKSPACE_ID.set(workspaceId);
 
-    List<SshPairImpl> vcsSshPairs = getVcsSshPairs(k8sEnv, identity);
-    List<SshPairImpl> systemSshPairs = getSystemSshPairs(k8sEnv, identity);
+    List<WarningImpl> warnings = new ArrayList<>();
+    List<SshPairImpl> vcsSshPairs;
+    List<SshPairImpl> systemSshPairs;
+    try {
+      vcsSshPairs = getVcsSshPairs(warnings, identity);
+      systemSshPairs = getSystemSshPairs(warnings, identity);
+    } catch (InfrastructureException e) {
+      return k8sEnv -> {
+        warnings.forEach(k8sEnv::addWarning);
+        throw e;
+      };
+    }
 
     List<SshPairImpl> allSshPairs = new ArrayList<>(vcsSshPairs);
     allSshPairs.addAll(systemSshPairs);
@@ -130,35 +140,39 @@ public class SshKeysProvisioner implements ConfigurationProvisioner<KubernetesEn
             .map(SshPairImpl::getName)
             .collect(toList());
 
-    if (!invalidSshKeyNames.isEmpty()) {
-      String message =
-          format(
-              Warnings.SSH_KEYS_WILL_NOT_BE_MOUNTED_MESSAGE,
-              invalidSshKeyNames.toString(),
-              identity.getWorkspaceId());
-      LOG.warn(message);
-      k8sEnv.addWarning(new WarningImpl(Warnings.SSH_KEYS_WILL_NOT_BE_MOUNTED, message));
-      runtimeEventsPublisher.sendRuntimeLogEvent(message, ZonedDateTime.now().toString(), identity);
-    }
+    return k8sEnv -> {
+      if (!invalidSshKeyNames.isEmpty()) {
+        String message =
+            format(
+                Warnings.SSH_KEYS_WILL_NOT_BE_MOUNTED_MESSAGE,
+                invalidSshKeyNames.toString(),
+                identity.getWorkspaceId());
+        LOG.warn(message);
+        k8sEnv.addWarning(new WarningImpl(Warnings.SSH_KEYS_WILL_NOT_BE_MOUNTED, message));
+        runtimeEventsPublisher.sendRuntimeLogEvent(
+            message, ZonedDateTime.now().toString(), identity);
+      }
 
-    doProvisionSshKeys(
-        allSshPairs.stream().filter(this::isValidSshKeyPair).collect(toList()),
-        k8sEnv,
-        workspaceId);
-    doProvisionVcsSshConfig(
-        vcsSshPairs.stream().filter(this::isValidSshKeyPair).collect(toList()),
-        k8sEnv,
-        workspaceId);
+      doProvisionSshKeys(
+          allSshPairs.stream().filter(this::isValidSshKeyPair).collect(toList()),
+          k8sEnv,
+          workspaceId);
+      doProvisionVcsSshConfig(
+          vcsSshPairs.stream().filter(this::isValidSshKeyPair).collect(toList()),
+          k8sEnv,
+          workspaceId);
+    };
   }
 
   /**
    * Return list of keys related to the VCS (Version Control Systems), Git, SVN and etc. Usually
    * managed by user
    *
+   * @param warnings list to collect warnings which should be added to the environment
    * @param identity
    * @return list of ssh pairs
    */
-  private List<SshPairImpl> getVcsSshPairs(KubernetesEnvironment k8sEnv, RuntimeIdentity identity)
+  private List<SshPairImpl> getVcsSshPairs(List<WarningImpl> warnings, RuntimeIdentity identity)
       throws InfrastructureException {
     List<SshPairImpl> sshPairs;
     try {
@@ -166,7 +180,7 @@ public class SshKeysProvisioner implements ConfigurationProvisioner<KubernetesEn
     } catch (ServerException e) {
       String message = format("Unable to get SSH Keys. Cause: %s", e.getMessage());
       LOG.warn(message);
-      k8sEnv.addWarning(
+      warnings.add(
           new WarningImpl(
               NOT_ABLE_TO_PROVISION_SSH_KEYS,
               format(NOT_ABLE_TO_PROVISION_SSH_KEYS_MESSAGE, message)));
@@ -182,7 +196,7 @@ public class SshKeysProvisioner implements ConfigurationProvisioner<KubernetesEn
         String message =
             format("Unable to generate the initial SSH key. Cause: %s", e.getMessage());
         LOG.warn(message);
-        k8sEnv.addWarning(
+        warnings.add(
             new WarningImpl(
                 NOT_ABLE_TO_PROVISION_SSH_KEYS,
                 format(NOT_ABLE_TO_PROVISION_SSH_KEYS_MESSAGE, message)));
@@ -196,10 +210,11 @@ public class SshKeysProvisioner implements ConfigurationProvisioner<KubernetesEn
    * Return system (aka 'internal') ssh keys, this key used for internal services like rsync via ssh
    * and etc. Not generated or managed by a user
    *
+   * @param warnings list to collect warnings which should be added to the environment
    * @param identity
    * @return list of keys pair
    */
-  private List<SshPairImpl> getSystemSshPairs(KubernetesEnvironment k8sEn, RuntimeIdentity identity)
+  private List<SshPairImpl> getSystemSshPairs(List<WarningImpl> warnings, RuntimeIdentity identity)
       throws InfrastructureException {
     List<SshPairImpl> sshPairs;
     try {
@@ -207,7 +222,7 @@ public class SshKeysProvisioner implements ConfigurationProvisioner<KubernetesEn
     } catch (ServerException e) {
       String message = format("Unable to get SSH Keys. Cause: %s", e.getMessage());
       LOG.warn(message);
-      k8sEn.addWarning(
+      warnings.add(
           new WarningImpl(
               NOT_ABLE_TO_PROVISION_SSH_KEYS,
               format(NOT_ABLE_TO_PROVISION_SSH_KEYS_MESSAGE, message)));
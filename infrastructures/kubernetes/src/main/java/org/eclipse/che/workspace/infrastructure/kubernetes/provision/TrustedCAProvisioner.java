@@ -11,8 +11,11 @@
  */
 package org.eclipse.che.workspace.infrastructure.kubernetes.provision;
 
+import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment;
+
 /** Provisions trusted CA certificate into all workspaces pods and plugin brokers. */
-public interface TrustedCAProvisioner extends ConfigurationProvisioner {
+public interface TrustedCAProvisioner
+    extends PreparableConfigurationProvisioner<KubernetesEnvironment> {
   /**
    * Checks whether additional CA certificates configured. The check is done once on Che server
    * start.
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.provision.secret;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.stream.Collectors.toMap;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesInfrastructureException;
+import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesNamespace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watch-backed index of the secrets which should be mounted into workspace containers, see {@link
+ * SecretAsContainerResourceProvisioner}. Only secrets that match all the labels configured by
+ * "che.workspace.provision.secret.labels" are indexed.
+ *
+ * <p>The first read for a namespace performs a live list request and opens a watch starting from
+ * the resource version of that list, so the following reads are served from memory without calling
+ * the API server. Whenever the watch is closed or reports an error, the namespace entry is dropped
+ * and the next read falls back to a live list again. Entries which are not read within the
+ * configured idle timeout are evicted and their watches are closed.
+ *
+ * <p>Setting "che.workspace.provision.secret.index_idle_timeout_min" to a non positive value
+ * disables the index, then every read performs a live list request.
+ */
+@Beta
+@Singleton
+public class MountableSecretsIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MountableSecretsIndex.class);
+
+  private final KubernetesClientFactory clientFactory;
+  private final Map<String, String> secretLabels;
+  private final long idleTimeoutMs;
+  private final ConcurrentMap<String, NamespaceSecrets> namespaces = new ConcurrentHashMap<>();
+
+  @Inject
+  public MountableSecretsIndex(
+      KubernetesClientFactory clientFactory,
+      @Named("che.workspace.provision.secret.labels") String[] labels,
+      @Named("che.workspace.provision.secret.index_idle_timeout_min") long idleTimeoutMin) {
+    this.clientFactory = clientFactory;
+    this.secretLabels =
+        Arrays.stream(labels)
+            .map(item -> item.split("=", 2))
+            .collect(toMap(p -> p[0], p -> p.length == 1 ? "" : p[1]));
+    this.idleTimeoutMs = MINUTES.toMillis(idleTimeoutMin);
+  }
+
+  /**
+   * Returns the mountable secrets of the given namespace.
+   *
+   * @param namespace namespace to return the secrets of
+   * @return snapshot of the secrets matching configured labels
+   * @throws InfrastructureException when the index is not synced yet and the live list fails
+   */
+  public List<Secret> get(KubernetesNamespace namespace) throws InfrastructureException {
+    NamespaceSecrets indexed = namespaces.get(namespace.getName());
+    if (indexed != null && indexed.isSynced()) {
+      return indexed.snapshot();
+    }
+    if (idleTimeoutMs <= 0) {
+      return list(namespace).getItems();
+    }
+    return sync(namespace).snapshot();
+  }
+
+  /** Returns the resource version the index of the given namespace is consistent with. */
+  @VisibleForTesting
+  String getResourceVersion(String namespaceName) {
+    NamespaceSecrets indexed = namespaces.get(namespaceName);
+    return indexed != null ? indexed.resourceVersion : null;
+  }
+
+  /** Evicts namespaces which were not read within the idle timeout. */
+  @ScheduleDelay(initialDelay = 5, delay = 5, unit = MINUTES)
+  public void evictIdle() {
+    long threshold = System.currentTimeMillis() - idleTimeoutMs;
+    namespaces.forEach(
+        (name, indexed) -> {
+          if (indexed.lastAccessTime < threshold) {
+            LOG.debug("Evicting idle secrets index of namespace '{}'", name);
+            evict(name, indexed);
+          }
+        });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    namespaces.forEach(this::evict);
+  }
+
+  private NamespaceSecrets sync(KubernetesNamespace namespace) throws InfrastructureException {
+    String namespaceName = namespace.getName();
+    SecretList list = list(namespace);
+    NamespaceSecrets indexed = new NamespaceSecrets(namespaceName, list);
+    // the entry is registered before the watch is opened, so the watch closed right away
+    // is able to unregister it
+    NamespaceSecrets previous = namespaces.put(namespaceName, indexed);
+    if (previous != null) {
+      previous.close();
+    }
+    Watch watch;
+    try {
+      watch =
+          clientFactory
+              .create(namespace.getWorkspaceId())
+              .secrets()
+              .inNamespace(namespaceName)
+              .withLabels(secretLabels)
+              .withResourceVersion(indexed.resourceVersion)
+              .watch(indexed);
+    } catch (KubernetesClientException e) {
+      // the index stays unsynced, the listed secrets are still valid for the current read
+      LOG.warn(
+          "Unable to watch secrets in namespace '{}', reads fall back to live list. Cause: {}",
+          namespaceName,
+          e.getMessage());
+      evict(namespaceName, indexed);
+      return indexed;
+    }
+    indexed.markSynced(watch);
+    return indexed;
+  }
+
+  private SecretList list(KubernetesNamespace namespace) throws InfrastructureException {
+    try {
+      KubernetesClient client = clientFactory.create(namespace.getWorkspaceId());
+      return client.secrets().inNamespace(namespace.getName()).withLabels(secretLabels).list();
+    } catch (KubernetesClientException e) {
+      throw new KubernetesInfrastructureException(e);
+    }
+  }
+
+  private void evict(String namespaceName, NamespaceSecrets indexed) {
+    if (namespaces.remove(namespaceName, indexed)) {
+      indexed.close();
+    }
+  }
+
+  /** Secrets of a single namespace kept up to date by a watch. */
+  private class NamespaceSecrets implements Watcher<Secret> {
+
+    private final String namespaceName;
+    private final Map<String, Secret> secrets = new ConcurrentHashMap<>();
+
+    private volatile String resourceVersion;
+    private volatile boolean synced;
+    private volatile long lastAccessTime;
+    private Watch watch;
+    private boolean closed;
+
+    NamespaceSecrets(String namespaceName, SecretList list) {
+      this.namespaceName = namespaceName;
+      for (Secret secret : list.getItems()) {
+        secrets.put(secret.getMetadata().getName(), secret);
+      }
+      // the watch without resource version starts from the current state
+      this.resourceVersion =
+          list.getMetadata() != null ? list.getMetadata().getResourceVersion() : null;
+      this.lastAccessTime = System.currentTimeMillis();
+    }
+
+    boolean isSynced() {
+      return synced;
+    }
+
+    List<Secret> snapshot() {
+      lastAccessTime = System.currentTimeMillis();
+      return new ArrayList<>(secrets.values());
+    }
+
+    @Override
+    public void eventReceived(Action action, Secret secret) {
+      switch (action) {
+        case ADDED:
+        case MODIFIED:
+          secrets.put(secret.getMetadata().getName(), secret);
+          break;
+        case DELETED:
+          secrets.remove(secret.getMetadata().getName());
+          break;
+        default:
+          // the state can't be trusted anymore, next read lists the secrets again
+          evict(namespaceName, this);
+          return;
+      }
+      resourceVersion = secret.getMetadata().getResourceVersion();
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+      if (cause != null) {
+        LOG.debug(
+            "Secrets watch in namespace '{}' is closed. Cause: {}",
+            namespaceName,
+            cause.getMessage());
+      }
+      synchronized (this) {
+        closed = true;
+        synced = false;
+      }
+      namespaces.remove(namespaceName, this);
+    }
+
+    /**
+     * Marks the index as synced unless it was closed while the watch was being opened, then the
+     * opened watch is closed.
+     */
+    void markSynced(Watch opened) {
+      synchronized (this) {
+        if (!closed) {
+          watch = opened;
+          synced = true;
+          return;
+        }
+      }
+      opened.close();
+      namespaces.remove(namespaceName, this);
+    }
+
+    void close() {
+      Watch toClose;
+      synchronized (this) {
+        closed = true;
+        synced = false;
+        toClose = watch;
+      }
+      if (toClose != null) {
+        toClose.close();
+      }
+    }
+  }
+}
@@ -13,18 +13,12 @@ package org.eclipse.che.workspace.infrastructure.kubernetes.provision.secret;
 
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.String.format;
-import static java.util.stream.Collectors.toMap;
 import static org.eclipse.che.workspace.infrastructure.kubernetes.provision.secret.KubernetesSecretAnnotationNames.ANNOTATION_GIT_CREDENTIALS;
 import static org.eclipse.che.workspace.infrastructure.kubernetes.provision.secret.KubernetesSecretAnnotationNames.ANNOTATION_MOUNT_AS;
 
 import com.google.common.annotations.Beta;
-import io.fabric8.kubernetes.api.model.LabelSelector;
-import io.fabric8.kubernetes.api.model.LabelSelectorBuilder;
 import io.fabric8.kubernetes.api.model.Secret;
-import java.util.Arrays;
-import java.util.Map;
 import javax.inject.Inject;
-import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
@@ -37,6 +31,8 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesN
  * mount as env variables, env name is read from "che.eclipse.org/env-name" annotation. Secrets
  * which having "che.eclipse.org/mount-as=file" are mounted as file in the folder specified by
  * "che.eclipse.org/mount-path" annotation. Refer to che docs for concrete examples.
+ *
+ * <p>Secrets are read from {@link MountableSecretsIndex} instead of being listed on every start.
  */
 @Beta
 @Singleton
@@ -46,27 +42,23 @@ public class SecretAsContainerResourceProvisioner<E extends KubernetesEnvironmen
   private final EnvironmentVariableSecretApplier environmentVariableSecretApplier;
 
   private final GitCredentialStorageFileSecretApplier gitCredentialStorageFileSecretApplier;
-  private final Map<String, String> secretLabels;
+  private final MountableSecretsIndex secretsIndex;
 
   @Inject
   public SecretAsContainerResourceProvisioner(
       FileSecretApplier fileSecretApplier,
       EnvironmentVariableSecretApplier environmentVariableSecretApplier,
       GitCredentialStorageFileSecretApplier gitCredentialStorageFileSecretApplier,
-      @Named("che.workspace.provision.secret.labels") String[] labels) {
+      MountableSecretsIndex secretsIndex) {
     this.fileSecretApplier = fileSecretApplier;
     this.environmentVariableSecretApplier = environmentVariableSecretApplier;
     this.gitCredentialStorageFileSecretApplier = gitCredentialStorageFileSecretApplier;
-    this.secretLabels =
-        Arrays.stream(labels)
-            .map(item -> item.split("=", 2))
-            .collect(toMap(p -> p[0], p -> p.length == 1 ? "" : p[1]));
+    this.secretsIndex = secretsIndex;
   }
 
   public void provision(E env, RuntimeIdentity runtimeIdentity, KubernetesNamespace namespace)
       throws InfrastructureException {
-    LabelSelector selector = new LabelSelectorBuilder().withMatchLabels(secretLabels).build();
-    for (Secret secret : namespace.secrets().get(selector)) {
+    for (Secret secret : secretsIndex.get(namespace)) {
       if (secret.getMetadata().getAnnotations() == null) {
         throw new InfrastructureException(
             format(
@@ -11,38 +11,155 @@
  */
 package org.eclipse.che.workspace.infrastructure.kubernetes.util;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.commons.observability.ExecutorServiceWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Provides single {@link ExecutorService} instance with daemon threads for Kubernetes/Openshfit
  * infrastructures components.
  *
+ * <p>The type of the pool is configured with "che.infra.kubernetes.pool.type":
+ *
+ * <ul>
+ *   <li>bounded - at most "che.infra.kubernetes.pool.max_threads" threads and a queue of
+ *       "che.infra.kubernetes.pool.queue_capacity" tasks. When both are saturated the task is
+ *       rejected with {@link RejectedExecutionException}. Tasks are never run by the submitting
+ *       thread, which may be a thread of the Kubernetes client dispatching watch events;
+ *   <li>cached - unbounded cached thread pool;
+ *   <li>virtual - a new virtual thread per task, requires JDK 21+ and falls back to bounded pool on
+ *       older runtimes.
+ * </ul>
+ *
+ * <p>Containers logs are streamed for as long as the containers run, such tasks would occupy the
+ * threads of the bounded pool, so they are executed by a separate unbounded pool, see {@link
+ * #getLogWatchersExecutor()}.
+ *
+ * <p>Active, queued and rejected tasks are reported by {@link ExecutorServiceWrapper}
+ * implementation.
+ *
  * @author Anton Korneta
  */
 @Singleton
 public class KubernetesSharedPool {
 
+  private static final Logger LOG = LoggerFactory.getLogger(KubernetesSharedPool.class);
+
+  @VisibleForTesting static final String THREAD_NAME_PREFIX = "KubernetesMachineSharedPool-";
+
+  @VisibleForTesting
+  static final String LOG_WATCHERS_THREAD_NAME_PREFIX = "KubernetesLogWatchersPool-";
+
   private final ExecutorService executor;
+  private final ExecutorService logWatchersExecutor;
 
   @Inject
-  public KubernetesSharedPool(ExecutorServiceWrapper executorServiceWrapper) {
+  public KubernetesSharedPool(
+      @Named("che.infra.kubernetes.pool.type") String poolType,
+      @Named("che.infra.kubernetes.pool.max_threads") int maxThreads,
+      @Named("che.infra.kubernetes.pool.queue_capacity") int queueCapacity,
+      ExecutorServiceWrapper executorServiceWrapper) {
     final ThreadFactory factory =
-        new ThreadFactoryBuilder()
-            .setNameFormat("KubernetesMachineSharedPool-%d")
-            .setDaemon(true)
-            .build();
-    this.executor =
-        executorServiceWrapper.wrap(
-            Executors.newCachedThreadPool(factory), KubernetesSharedPool.class.getName());
+        new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_PREFIX + "%d").setDaemon(true).build();
+    ExecutorService pool;
+    boolean bounded = false;
+    switch (poolType.toLowerCase()) {
+      case "bounded":
+        pool = newBoundedPool(maxThreads, queueCapacity, factory);
+        bounded = true;
+        break;
+      case "cached":
+        pool = Executors.newCachedThreadPool(factory);
+        break;
+      case "virtual":
+        pool = newVirtualThreadPerTaskExecutor();
+        if (pool == null) {
+          LOG.warn(
+              "Virtual threads are not supported by the current Java runtime, "
+                  + "bounded pool is used for Kubernetes infrastructure components instead");
+          pool = newBoundedPool(maxThreads, queueCapacity, factory);
+          bounded = true;
+        }
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "The type of the pool '" + poolType + "' is not supported");
+    }
+    this.executor = executorServiceWrapper.wrap(pool, KubernetesSharedPool.class.getName());
+    if (bounded) {
+      this.logWatchersExecutor =
+          executorServiceWrapper.wrap(
+              Executors.newCachedThreadPool(
+                  new ThreadFactoryBuilder()
+                      .setNameFormat(LOG_WATCHERS_THREAD_NAME_PREFIX + "%d")
+                      .setDaemon(true)
+                      .build()),
+              KubernetesSharedPool.class.getName() + "-LogWatchers");
+    } else {
+      this.logWatchersExecutor = executor;
+    }
   }
 
   public ExecutorService getExecutor() {
     return executor;
   }
+
+  /**
+   * Returns the executor for the long-running tasks which stream containers logs. It is not
+   * bounded, as each of such tasks holds its thread while the container runs.
+   */
+  public ExecutorService getLogWatchersExecutor() {
+    return logWatchersExecutor;
+  }
+
+  private static ExecutorService newBoundedPool(
+      int maxThreads, int queueCapacity, ThreadFactory factory) {
+    ThreadPoolExecutor pool =
+        new ThreadPoolExecutor(
+            maxThreads,
+            maxThreads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity),
+            factory,
+            new ThreadPoolExecutor.AbortPolicy());
+    // idle threads are not kept, so the pool shrinks back as cached one does
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * Returns {@code Executors.newVirtualThreadPerTaskExecutor()} if it's available in the current
+   * runtime, {@code null} otherwise. Looked up reflectively to keep compiling against older JDKs.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          MethodHandles.publicLookup()
+              .findStatic(
+                  Executors.class,
+                  "newVirtualThreadPerTaskExecutor",
+                  MethodType.methodType(ExecutorService.class))
+              .invoke();
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    } catch (Throwable e) {
+      LOG.warn("Unable to create virtual thread executor: {}", e.getMessage());
+      return null;
+    }
+  }
 }
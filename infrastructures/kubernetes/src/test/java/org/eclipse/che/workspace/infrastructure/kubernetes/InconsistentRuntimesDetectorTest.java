@@ -12,6 +12,7 @@
 package org.eclipse.che.workspace.infrastructure.kubernetes;
 
 import static java.util.Collections.emptyMap;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_WORKSPACE_ID_LABEL;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
@@ -20,22 +21,42 @@ import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
 import org.eclipse.che.api.workspace.server.model.impl.RuntimeIdentityImpl;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.api.workspace.server.spi.InternalRuntime;
+import org.eclipse.che.commons.observability.NoopExecutorServiceWrapper;
+import org.eclipse.che.workspace.infrastructure.kubernetes.util.KubernetesSharedPool;
 import org.eclipse.che.workspace.infrastructure.kubernetes.util.RuntimeEventsPublisher;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
@@ -48,27 +69,58 @@ import org.testng.annotations.Test;
 @Listeners(MockitoTestNGListener.class)
 public class InconsistentRuntimesDetectorTest {
 
+  private static final String NAMESPACE = "infraNamespace";
+  private static final String PODS_WATCH_PATH =
+      "/api/v1/pods?labelSelector=" + CHE_WORKSPACE_ID_LABEL + "&watch=true";
+  private static final long EVENTS_DELAY_MS = 100;
+
+  // requests of these pods trigger events of the watch mocks, the pods are never requested by
+  // the detector, so the watches which expect them stay open
+  private static final String CLOSE_WATCH_POD = "close-watch";
+  private static final String DELETE_POD = "delete-pod";
+  private static final String PODS_PATH = "/api/v1/namespaces/" + NAMESPACE + "/pods/";
+  private static final String CLOSE_WATCH_PATH = PODS_PATH + CLOSE_WATCH_POD;
+  private static final String DELETE_POD_PATH = PODS_PATH + DELETE_POD;
+  private static final String KEEP_OPEN_PATH = PODS_PATH + "keep-open";
+
   private RuntimeIdentity runtimeId =
       new RuntimeIdentityImpl("workspace1", "envName", "owner1", "infraNamespace");
 
   @Mock private RuntimeEventsPublisher eventPublisher;
   @Mock private WorkspaceRuntimes workspaceRuntimes;
 
+  @Mock private CheServerKubernetesClientFactory clientFactory;
+
   @Mock private KubernetesInternalRuntime k8sRuntime;
   @Mock private KubernetesRuntimeContext k8sContext;
 
+  private KubernetesSharedPool sharedPool;
+  private KubernetesServer serverMock;
   private InconsistentRuntimesDetector inconsistentRuntimesDetector;
 
   @BeforeMethod
   public void setUp() throws Exception {
+    sharedPool = new KubernetesSharedPool("bounded", 10, 100, new NoopExecutorServiceWrapper());
     inconsistentRuntimesDetector =
-        spy(new InconsistentRuntimesDetector(eventPublisher, workspaceRuntimes));
+        spy(
+            new InconsistentRuntimesDetector(
+                eventPublisher, workspaceRuntimes, clientFactory, sharedPool, -1, 60));
     lenient().when(k8sRuntime.getContext()).thenReturn(k8sContext);
     lenient().when(k8sContext.getIdentity()).thenReturn(runtimeId);
 
     lenient().when(k8sRuntime.getStatus()).thenReturn(WorkspaceStatus.RUNNING);
   }
 
+  @AfterMethod
+  public void tearDown() {
+    inconsistentRuntimesDetector.shutdown();
+    sharedPool.getExecutor().shutdownNow();
+    if (serverMock != null) {
+      serverMock.after();
+      serverMock = null;
+    }
+  }
+
   @Test
   public void shouldCheckRuntimesConsistencyOneByOne() throws Exception {
     // given
@@ -233,4 +285,254 @@ public class InconsistentRuntimesDetectorTest {
     verify(eventPublisher, never())
         .sendAbnormalStoppedEvent(runtimeId, "The runtime has inconsistent state.");
   }
+
+  @Test
+  public void shouldCheckOnlyRuntimesOfWorkspacesWhosePodsAreDeleted() throws Exception {
+    // given
+    Set<String> deleted = ImmutableSet.of("workspace13", "workspace512", "workspace999");
+    KubernetesClient client = startServerMock();
+    serverMock
+        .expect()
+        .withPath(PODS_WATCH_PATH)
+        .andUpgradeToWebSocket()
+        .open()
+        .waitFor(EVENTS_DELAY_MS)
+        .andEmit(new WatchEvent(newPod("workspace13"), "DELETED"))
+        .waitFor(EVENTS_DELAY_MS)
+        .andEmit(new WatchEvent(newPod("workspace512"), "DELETED"))
+        .waitFor(EVENTS_DELAY_MS)
+        .andEmit(new WatchEvent(newPod("workspace999"), "DELETED"))
+        .expectHttpRequest(KEEP_OPEN_PATH)
+        .andEmit(new WatchEvent(newPod("workspace1"), "MODIFIED"))
+        .once()
+        .done()
+        .once();
+    Map<String, KubernetesInternalRuntime> runtimes = mockRunningRuntimes(client, 1000);
+    inconsistentRuntimesDetector =
+        spy(
+            new InconsistentRuntimesDetector(
+                eventPublisher, workspaceRuntimes, clientFactory, sharedPool, 5, 60));
+
+    // when
+    inconsistentRuntimesDetector.start();
+
+    // then
+    for (String workspaceId : deleted) {
+      verify(runtimes.get(workspaceId), timeout(10_000)).stop(emptyMap());
+    }
+    verify(inconsistentRuntimesDetector, times(deleted.size())).checkOne(any());
+    verify(workspaceRuntimes, never()).getRunning();
+    assertEquals(getRequestedPods(), deleted);
+  }
+
+  @Test
+  public void shouldCheckAllRuntimesWhenPodsWatchIsReopened() throws Exception {
+    // given
+    KubernetesClient client = startServerMock();
+    serverMock
+        .expect()
+        .withPath(PODS_WATCH_PATH)
+        .andUpgradeToWebSocket()
+        .open()
+        .waitFor(EVENTS_DELAY_MS)
+        .andEmit(new WatchEvent(newPod("workspace3"), "DELETED"))
+        .expectHttpRequest(CLOSE_WATCH_PATH)
+        .andEmit(new WatchEvent(new StatusBuilder().withCode(410).build(), "ERROR"))
+        .once()
+        .done()
+        .once();
+    serverMock
+        .expect()
+        .withPath(PODS_WATCH_PATH)
+        .andUpgradeToWebSocket()
+        .open()
+        .expectHttpRequest(KEEP_OPEN_PATH)
+        .andEmit(new WatchEvent(newPod("workspace1"), "MODIFIED"))
+        .once()
+        .done()
+        .once();
+    Map<String, KubernetesInternalRuntime> runtimes = mockRunningRuntimes(client, 20);
+    inconsistentRuntimesDetector =
+        spy(
+            new InconsistentRuntimesDetector(
+                eventPublisher, workspaceRuntimes, clientFactory, sharedPool, 5, 60));
+    inconsistentRuntimesDetector.start();
+    verify(runtimes.get("workspace3"), timeout(10_000)).stop(emptyMap());
+    // full check after the watch is opened, then checks are skipped while it is open
+    inconsistentRuntimesDetector.check();
+    inconsistentRuntimesDetector.check();
+    verify(workspaceRuntimes).getRunning();
+    // the watch can't be resumed, pods deleted till it is reopened are not noticed
+    client.pods().inNamespace(NAMESPACE).withName(CLOSE_WATCH_POD).get();
+    waitWatchIsClosed();
+
+    // when
+    inconsistentRuntimesDetector.check();
+    inconsistentRuntimesDetector.check();
+
+    // then
+    assertTrue(inconsistentRuntimesDetector.isWatchingPods());
+    verify(workspaceRuntimes, times(2)).getRunning();
+    verify(runtimes.get("workspace5"), times(2)).stop(emptyMap());
+  }
+
+  @Test
+  public void shouldCheckRuntimeOnNextCheckWhenPoolRejectsIt() throws Exception {
+    // given
+    KubernetesClient client = startServerMock();
+    serverMock
+        .expect()
+        .withPath(PODS_WATCH_PATH)
+        .andUpgradeToWebSocket()
+        .open()
+        .expectHttpRequest(DELETE_POD_PATH)
+        .andEmit(new WatchEvent(newPod("workspace3"), "DELETED"))
+        .once()
+        .expectHttpRequest(KEEP_OPEN_PATH)
+        .andEmit(new WatchEvent(newPod("workspace1"), "MODIFIED"))
+        .once()
+        .done()
+        .once();
+    Map<String, KubernetesInternalRuntime> runtimes = mockRunningRuntimes(client, 10);
+    inconsistentRuntimesDetector =
+        spy(
+            new InconsistentRuntimesDetector(
+                eventPublisher, workspaceRuntimes, clientFactory, sharedPool, 5, 60));
+    inconsistentRuntimesDetector.start();
+    // full check after the watch is opened
+    inconsistentRuntimesDetector.check();
+    verify(runtimes.get("workspace3")).stop(emptyMap());
+    sharedPool.getExecutor().shutdownNow();
+    client.pods().inNamespace(NAMESPACE).withName(DELETE_POD).get();
+    verify(workspaceRuntimes, timeout(10_000)).getStatus("workspace3");
+
+    // when
+    inconsistentRuntimesDetector.check();
+
+    // then
+    verify(runtimes.get("workspace3"), times(2)).stop(emptyMap());
+    verify(runtimes.get("workspace1")).stop(emptyMap());
+    verify(workspaceRuntimes).getRunning();
+  }
+
+  @Test
+  public void shouldSkipFullCheckWhilePodsAreWatched() throws Exception {
+    // given
+    startServerMock();
+    serverMock
+        .expect()
+        .withPath(PODS_WATCH_PATH)
+        .andUpgradeToWebSocket()
+        .open()
+        .expectHttpRequest(KEEP_OPEN_PATH)
+        .andEmit(new WatchEvent(newPod("workspace1"), "MODIFIED"))
+        .once()
+        .done()
+        .once();
+    when(workspaceRuntimes.getRunning()).thenReturn(ImmutableSet.of("workspace1"));
+    inconsistentRuntimesDetector =
+        spy(
+            new InconsistentRuntimesDetector(
+                eventPublisher, workspaceRuntimes, clientFactory, sharedPool, 5, 60));
+    doNothing().when(inconsistentRuntimesDetector).checkOne(any());
+    inconsistentRuntimesDetector.start();
+
+    // when
+    inconsistentRuntimesDetector.check();
+    inconsistentRuntimesDetector.check();
+
+    // then
+    verify(workspaceRuntimes).getRunning();
+    verify(inconsistentRuntimesDetector).checkOne("workspace1");
+  }
+
+  @Test
+  public void shouldCheckAllRuntimesEachTimeWhenPodsCanNotBeWatched() throws Exception {
+    // given
+    when(clientFactory.create()).thenThrow(new InfrastructureException("forbidden"));
+    when(workspaceRuntimes.getRunning()).thenReturn(ImmutableSet.of("workspace1"));
+    inconsistentRuntimesDetector =
+        spy(
+            new InconsistentRuntimesDetector(
+                eventPublisher, workspaceRuntimes, clientFactory, sharedPool, 5, 60));
+    doNothing().when(inconsistentRuntimesDetector).checkOne(any());
+    inconsistentRuntimesDetector.start();
+
+    // when
+    inconsistentRuntimesDetector.check();
+    inconsistentRuntimesDetector.check();
+
+    // then
+    verify(workspaceRuntimes, times(2)).getRunning();
+    verify(inconsistentRuntimesDetector, times(2)).checkOne("workspace1");
+  }
+
+  private KubernetesClient startServerMock() throws Exception {
+    serverMock = new KubernetesServer(true, false);
+    serverMock.before();
+    KubernetesClient client = serverMock.getClient();
+    when(clientFactory.create()).thenReturn(client);
+    return client;
+  }
+
+  private static Pod newPod(String workspaceId) {
+    return new PodBuilder()
+        .withNewMetadata()
+        .withName(workspaceId + ".pod")
+        .withNamespace(NAMESPACE)
+        .withLabels(ImmutableMap.of(CHE_WORKSPACE_ID_LABEL, workspaceId))
+        .endMetadata()
+        .build();
+  }
+
+  /**
+   * Mocks running runtimes which consistency check fetches their pod, pods don't exist on the
+   * server, so every checked runtime is stopped.
+   */
+  private Map<String, KubernetesInternalRuntime> mockRunningRuntimes(
+      KubernetesClient client, int count) throws Exception {
+    Map<String, KubernetesInternalRuntime> runtimes = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      String workspaceId = "workspace" + i;
+      KubernetesInternalRuntime runtime = mock(KubernetesInternalRuntime.class);
+      KubernetesRuntimeContext context = mock(KubernetesRuntimeContext.class);
+      lenient().when(runtime.getContext()).thenReturn(context);
+      lenient()
+          .when(context.getIdentity())
+          .thenReturn(new RuntimeIdentityImpl(workspaceId, "envName", "owner1", NAMESPACE));
+      lenient()
+          .when(runtime.isConsistent())
+          .thenAnswer(
+              inv ->
+                  client.pods().inNamespace(NAMESPACE).withName(workspaceId + ".pod").get()
+                      != null);
+      lenient().when(runtime.getStatus()).thenReturn(WorkspaceStatus.RUNNING);
+      lenient().doReturn(runtime).when(workspaceRuntimes).getInternalRuntime(workspaceId);
+      runtimes.put(workspaceId, runtime);
+    }
+    lenient().when(workspaceRuntimes.getRunning()).thenReturn(runtimes.keySet());
+    lenient().when(workspaceRuntimes.getStatus(any())).thenReturn(WorkspaceStatus.RUNNING);
+    return runtimes;
+  }
+
+  /** Returns workspaces whose pods were fetched one by one. */
+  private Set<String> getRequestedPods() throws Exception {
+    String podsPath = PODS_PATH;
+    Set<String> workspaces = new HashSet<>();
+    RecordedRequest request;
+    while ((request = serverMock.getMockServer().takeRequest(1, TimeUnit.SECONDS)) != null) {
+      if ("GET".equals(request.getMethod()) && request.getPath().startsWith(podsPath)) {
+        String podName = request.getPath().substring(podsPath.length());
+        assertTrue(workspaces.add(podName.substring(0, podName.length() - ".pod".length())));
+      }
+    }
+    return workspaces;
+  }
+
+  private void waitWatchIsClosed() throws Exception {
+    for (int i = 0; i < 100 && inconsistentRuntimesDetector.isWatchingPods(); i++) {
+      Thread.sleep(100);
+    }
+    assertFalse(inconsistentRuntimesDetector.isWatchingPods());
+  }
 }
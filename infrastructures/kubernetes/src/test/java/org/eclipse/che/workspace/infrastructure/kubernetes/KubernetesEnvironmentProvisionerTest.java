@@ -11,11 +11,29 @@
  */
 package org.eclipse.che.workspace.infrastructure.kubernetes;
 
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.observability.NoopExecutorServiceWrapper;
 import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesEnvironmentProvisioner.KubernetesEnvironmentProvisionerImpl;
 import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc.WorkspaceVolumesStrategy;
@@ -29,6 +47,10 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.provision.KubernetesT
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.LogsVolumeMachineProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.NodeSelectorProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PodTerminationGracePeriodProvisioner;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PreparableConfigurationProvisioner;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PreparableConfigurationProvisioner.Provisioning;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProvisioningPreparer;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProvisioningPreparer.Preparation;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProxySettingsProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.SecurityContextProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ServiceAccountProvisioner;
@@ -43,10 +65,13 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.provision.limits.ram.
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.restartpolicy.RestartPolicyRewriter;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.server.ServersConverter;
 import org.eclipse.che.workspace.infrastructure.kubernetes.server.PreviewUrlExposer;
+import org.eclipse.che.workspace.infrastructure.kubernetes.util.KubernetesSharedPool;
 import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
@@ -88,6 +113,11 @@ public class KubernetesEnvironmentProvisionerTest {
   @Mock private TolerationsProvisioner tolerationsProvisioner;
   @Mock private KubernetesTrustedCAProvisioner trustedCAProvisioner;
   @Mock private GatewayRouterProvisioner gatewayRouterProvisioner;
+  @Mock private ProvisioningPreparer provisioningPreparer;
+  @Mock private Preparation<KubernetesEnvironment> imagePullSecretProvisioning;
+  @Mock private Preparation<KubernetesEnvironment> sshKeysProvisioning;
+  @Mock private Preparation<KubernetesEnvironment> gitConfigProvisioning;
+  @Mock private Preparation<KubernetesEnvironment> trustedCAProvisioning;
 
   private KubernetesEnvironmentProvisioner<KubernetesEnvironment> k8sInfraProvisioner;
 
@@ -95,35 +125,21 @@ public class KubernetesEnvironmentProvisionerTest {
 
   @BeforeMethod
   public void setUp() {
+    lenient()
+        .when(provisioningPreparer.prepareAsync(imagePullSecretProvisioner, runtimeIdentity))
+        .thenReturn(imagePullSecretProvisioning);
+    lenient()
+        .when(provisioningPreparer.prepareAsync(sshKeysProvisioner, runtimeIdentity))
+        .thenReturn(sshKeysProvisioning);
+    lenient()
+        .when(provisioningPreparer.prepareAsync(gitConfigProvisioner, runtimeIdentity))
+        .thenReturn(gitConfigProvisioning);
+    lenient()
+        .when(provisioningPreparer.prepareAsync(trustedCAProvisioner, runtimeIdentity))
+        .thenReturn(trustedCAProvisioning);
     when(externalServerIngressTlsProvisionerProvider.get())
         .thenReturn(externalServerIngressTlsProvisioner);
-    k8sInfraProvisioner =
-        new KubernetesEnvironmentProvisionerImpl(
-            true,
-            uniqueNamesProvisioner,
-            serversProvisioner,
-            envVarsProvisioner,
-            restartPolicyRewriter,
-            volumesStrategy,
-            ramLimitProvisioner,
-            logsVolumeMachineProvisioner,
-            securityContextProvisioner,
-            podTerminationGracePeriodProvisioner,
-            externalServerIngressTlsProvisionerProvider,
-            imagePullSecretProvisioner,
-            proxySettingsProvisioner,
-            nodeSelectorProvisioner,
-            tolerationsProvisioner,
-            asyncStorageProvisioner,
-            asyncStoragePodObserver,
-            serviceAccountProvisioner,
-            certificateProvisioner,
-            sshKeysProvisioner,
-            gitConfigProvisioner,
-            previewUrlExposer,
-            vcsSslCertificateProvisioner,
-            gatewayRouterProvisioner,
-            trustedCAProvisioner);
+    k8sInfraProvisioner = createProvisioner(provisioningPreparer);
     provisionOrder =
         inOrder(
             logsVolumeMachineProvisioner,
@@ -138,14 +154,45 @@ public class KubernetesEnvironmentProvisionerTest {
             securityContextProvisioner,
             podTerminationGracePeriodProvisioner,
             externalServerIngressTlsProvisioner,
-            imagePullSecretProvisioner,
+            imagePullSecretProvisioning,
             proxySettingsProvisioner,
             serviceAccountProvisioner,
             certificateProvisioner,
-            gitConfigProvisioner,
+            gitConfigProvisioning,
             previewUrlExposer,
             gatewayRouterProvisioner,
-            trustedCAProvisioner);
+            trustedCAProvisioning);
+  }
+
+  private KubernetesEnvironmentProvisioner<KubernetesEnvironment> createProvisioner(
+      ProvisioningPreparer provisioningPreparer) {
+    return new KubernetesEnvironmentProvisionerImpl(
+        true,
+        uniqueNamesProvisioner,
+        serversProvisioner,
+        envVarsProvisioner,
+        restartPolicyRewriter,
+        volumesStrategy,
+        ramLimitProvisioner,
+        logsVolumeMachineProvisioner,
+        securityContextProvisioner,
+        podTerminationGracePeriodProvisioner,
+        externalServerIngressTlsProvisionerProvider,
+        imagePullSecretProvisioner,
+        proxySettingsProvisioner,
+        nodeSelectorProvisioner,
+        tolerationsProvisioner,
+        asyncStorageProvisioner,
+        asyncStoragePodObserver,
+        serviceAccountProvisioner,
+        certificateProvisioner,
+        sshKeysProvisioner,
+        gitConfigProvisioner,
+        previewUrlExposer,
+        vcsSslCertificateProvisioner,
+        gatewayRouterProvisioner,
+        trustedCAProvisioner,
+        provisioningPreparer);
   }
 
   @Test
@@ -168,14 +215,156 @@ public class KubernetesEnvironmentProvisionerTest {
     provisionOrder
         .verify(podTerminationGracePeriodProvisioner)
         .provision(eq(k8sEnv), eq(runtimeIdentity));
-    provisionOrder.verify(imagePullSecretProvisioner).provision(eq(k8sEnv), eq(runtimeIdentity));
+    provisionOrder.verify(imagePullSecretProvisioning).apply(eq(k8sEnv));
     provisionOrder.verify(proxySettingsProvisioner).provision(eq(k8sEnv), eq(runtimeIdentity));
     provisionOrder.verify(serviceAccountProvisioner).provision(eq(k8sEnv), eq(runtimeIdentity));
     provisionOrder.verify(certificateProvisioner).provision(eq(k8sEnv), eq(runtimeIdentity));
-    provisionOrder.verify(gitConfigProvisioner).provision(eq(k8sEnv), eq(runtimeIdentity));
+    provisionOrder.verify(gitConfigProvisioning).apply(eq(k8sEnv));
     provisionOrder.verify(gatewayRouterProvisioner).provision(eq(k8sEnv), eq(runtimeIdentity));
-    provisionOrder.verify(trustedCAProvisioner).provision(eq(k8sEnv), eq(runtimeIdentity));
+    provisionOrder.verify(trustedCAProvisioning).apply(eq(k8sEnv));
     provisionOrder.verify(uniqueNamesProvisioner).provision(eq(k8sEnv), eq(runtimeIdentity));
+    provisionOrder.verify(imagePullSecretProvisioning).cancel();
+    provisionOrder.verify(gitConfigProvisioning).cancel();
+    provisionOrder.verify(trustedCAProvisioning).cancel();
     provisionOrder.verifyNoMoreInteractions();
   }
+
+  @Test
+  public void cancelsPreparationsWhenProvisioningFails() throws Exception {
+    doThrow(new InfrastructureException("failed"))
+        .when(serversProvisioner)
+        .provision(k8sEnv, runtimeIdentity);
+
+    try {
+      k8sInfraProvisioner.provision(k8sEnv, runtimeIdentity);
+    } catch (InfrastructureException expected) {
+    }
+
+    for (Preparation<KubernetesEnvironment> preparation :
+        asList(
+            imagePullSecretProvisioning,
+            sshKeysProvisioning,
+            gitConfigProvisioning,
+            trustedCAProvisioning)) {
+      verify(preparation).cancel();
+      verify(preparation, never()).apply(any());
+    }
+  }
+
+  @DataProvider
+  public Object[][] environmentSizes() {
+    return new Object[][] {{0}, {1}, {2}, {5}, {10}, {50}};
+  }
+
+  @Test(dataProvider = "environmentSizes", timeOut = 30_000)
+  public void provisionsEnvironmentConcurrentlyAsSequentially(int size) throws Exception {
+    doAnswer(record("logsVolumeMachineProvisioner"))
+        .when(logsVolumeMachineProvisioner)
+        .provision(any(), any());
+    doAnswer(record("serversProvisioner")).when(serversProvisioner).provision(any(), any());
+    doAnswer(record("envVarsProvisioner")).when(envVarsProvisioner).provision(any(), any());
+    doAnswer(record("volumesStrategy")).when(volumesStrategy).provision(any(), any());
+    doAnswer(record("restartPolicyRewriter")).when(restartPolicyRewriter).provision(any(), any());
+    doAnswer(record("ramLimitProvisioner")).when(ramLimitProvisioner).provision(any(), any());
+    doAnswer(record("nodeSelectorProvisioner"))
+        .when(nodeSelectorProvisioner)
+        .provision(any(), any());
+    doAnswer(record("tolerationsProvisioner")).when(tolerationsProvisioner).provision(any(), any());
+    doAnswer(record("externalServerIngressTlsProvisioner"))
+        .when(externalServerIngressTlsProvisioner)
+        .provision(any(), any());
+    doAnswer(record("securityContextProvisioner"))
+        .when(securityContextProvisioner)
+        .provision(any(), any());
+    doAnswer(record("podTerminationGracePeriodProvisioner"))
+        .when(podTerminationGracePeriodProvisioner)
+        .provision(any(), any());
+    doAnswer(record("proxySettingsProvisioner"))
+        .when(proxySettingsProvisioner)
+        .provision(any(), any());
+    doAnswer(record("serviceAccountProvisioner"))
+        .when(serviceAccountProvisioner)
+        .provision(any(), any());
+    doAnswer(record("asyncStorageProvisioner"))
+        .when(asyncStorageProvisioner)
+        .provision(any(), any());
+    doAnswer(record("certificateProvisioner")).when(certificateProvisioner).provision(any(), any());
+    doAnswer(record("vcsSslCertificateProvisioner"))
+        .when(vcsSslCertificateProvisioner)
+        .provision(any(), any());
+    doAnswer(record("gatewayRouterProvisioner"))
+        .when(gatewayRouterProvisioner)
+        .provision(any(), any());
+    doAnswer(record("uniqueNamesProvisioner")).when(uniqueNamesProvisioner).provision(any(), any());
+    Random random = new Random(size);
+    recordPreparation(imagePullSecretProvisioner, random.nextInt(50));
+    recordPreparation(sshKeysProvisioner, random.nextInt(50));
+    recordPreparation(gitConfigProvisioner, random.nextInt(50));
+    recordPreparation(trustedCAProvisioner, random.nextInt(50));
+    KubernetesSharedPool concurrentPool =
+        new KubernetesSharedPool("bounded", 10, 100, new NoopExecutorServiceWrapper());
+    // preparations rejected by the pool are performed on apply, i.e. sequentially
+    KubernetesSharedPool rejectingPool =
+        new KubernetesSharedPool("bounded", 1, 1, new NoopExecutorServiceWrapper());
+    rejectingPool.getExecutor().shutdown();
+    KubernetesEnvironment concurrentEnv = createEnvironment(size);
+    KubernetesEnvironment sequentialEnv = createEnvironment(size);
+
+    try {
+      createProvisioner(new ProvisioningPreparer(concurrentPool, 1))
+          .provision(concurrentEnv, runtimeIdentity);
+      createProvisioner(new ProvisioningPreparer(rejectingPool, 1))
+          .provision(sequentialEnv, runtimeIdentity);
+    } finally {
+      concurrentPool.getExecutor().shutdownNow();
+    }
+
+    assertEquals(concurrentEnv.getConfigMaps(), sequentialEnv.getConfigMaps());
+    assertEquals(concurrentEnv.getConfigMaps().size(), size + 22);
+  }
+
+  private static KubernetesEnvironment createEnvironment(int size) {
+    Map<String, Pod> pods = new HashMap<>();
+    Map<String, ConfigMap> configMaps = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      pods.put(
+          "pod" + i, new PodBuilder().withNewMetadata().withName("pod" + i).endMetadata().build());
+      configMaps.put("configMap" + i, newConfigMap("configMap" + i, i));
+    }
+    return KubernetesEnvironment.builder().setPods(pods).setConfigMaps(configMaps).build();
+  }
+
+  private static Answer<Void> record(String step) {
+    return invocation -> {
+      record(invocation.getArgument(0), step);
+      return null;
+    };
+  }
+
+  private void recordPreparation(
+      PreparableConfigurationProvisioner<KubernetesEnvironment> provisioner, long delayMillis)
+      throws InfrastructureException {
+    when(provisioner.prepare(runtimeIdentity))
+        .thenAnswer(
+            invocation -> {
+              MILLISECONDS.sleep(delayMillis);
+              return (Provisioning<KubernetesEnvironment>)
+                  k8sEnv -> record(k8sEnv, provisioner.toString());
+            });
+  }
+
+  /** Records the provisioning step along with the number of config maps provisioned before it. */
+  private static void record(KubernetesEnvironment k8sEnv, String step) {
+    Map<String, ConfigMap> configMaps = k8sEnv.getConfigMaps();
+    configMaps.put(step, newConfigMap(step, configMaps.size()));
+  }
+
+  private static ConfigMap newConfigMap(String name, int position) {
+    return new ConfigMapBuilder()
+        .withNewMetadata()
+        .withName(name)
+        .endMetadata()
+        .addToData("position", Integer.toString(position))
+        .build();
+  }
 }
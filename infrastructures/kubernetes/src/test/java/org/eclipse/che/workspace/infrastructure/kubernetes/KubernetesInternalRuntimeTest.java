@@ -90,7 +90,9 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
@@ -256,6 +258,8 @@ public class KubernetesInternalRuntimeTest {
 
   private final CommandImpl envCommand = new CommandImpl("envCommand", "echo hello", "env");
 
+  private KubernetesSharedPool sharedPool;
+
   @BeforeMethod
   public void setup() throws Exception {
     MockitoAnnotations.initMocks(this);
@@ -271,6 +275,7 @@ public class KubernetesInternalRuntimeTest {
             WorkspaceExposureType.NATIVE.getConfigValue());
 
     startSynchronizer = spy(new StartSynchronizer(eventService, 5, IDENTITY));
+    sharedPool = new KubernetesSharedPool("bounded", 10, 100, new NoopExecutorServiceWrapper());
     when(startSynchronizerFactory.create(any())).thenReturn(startSynchronizer);
 
     internalRuntime =
@@ -284,7 +289,7 @@ public class KubernetesInternalRuntimeTest {
             probesScheduler,
             workspaceProbesFactory,
             eventPublisher,
-            new KubernetesSharedPool(new NoopExecutorServiceWrapper()),
+            sharedPool,
             runtimeStatesCache,
             machinesCache,
             startSynchronizerFactory,
@@ -450,6 +455,23 @@ public class KubernetesInternalRuntimeTest {
     verify(namespace.deployments(), times(1)).stopWatch();
   }
 
+  @Test(timeOut = 10_000)
+  public void startsKubernetesEnvironmentWhenSharedPoolIsSaturated() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      saturate(sharedPool, release);
+
+      internalRuntime.start(emptyMap());
+    } finally {
+      release.countDown();
+    }
+
+    verifyOrderedEventsChains(
+        new MachineStatusEvent[] {newEvent(M1_NAME, STARTING), newEvent(M1_NAME, RUNNING)},
+        new MachineStatusEvent[] {newEvent(M2_NAME, STARTING), newEvent(M2_NAME, RUNNING)});
+    verify(serversChecker, times(2)).startAsync(any());
+  }
+
   @Test
   public void testCleanupHappensFirst() throws InfrastructureException {
     internalRuntime.start(emptyMap());
@@ -1205,6 +1227,25 @@ public class KubernetesInternalRuntimeTest {
     verify(runtimeCleaner).cleanUp(namespace, WORKSPACE_ID);
   }
 
+  /** Occupies all the threads and the queue of the given pool till the latch is released. */
+  private static void saturate(KubernetesSharedPool pool, CountDownLatch release) {
+    try {
+      while (true) {
+        pool.getExecutor()
+            .execute(
+                () -> {
+                  try {
+                    release.await();
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                });
+      }
+    } catch (RejectedExecutionException e) {
+      // the pool is saturated
+    }
+  }
+
   private static MachineStatusEvent newEvent(String machineName, MachineStatus status) {
     return newDto(MachineStatusEvent.class)
         .withIdentity(DtoConverter.asDto(IDENTITY))
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.cache.jpa;
+
+import static java.util.Collections.singletonMap;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.cache.tck.TestObjects.createMachine;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.cache.tck.TestObjects.createRuntimeState;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.cache.tck.TestObjects.createServer;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.cache.tck.TestObjects.createWorkspace;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.persistence.EntityManager;
+import org.eclipse.che.api.core.model.workspace.runtime.MachineStatus;
+import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.core.model.workspace.runtime.ServerStatus;
+import org.eclipse.che.api.workspace.server.model.impl.ServerImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.commons.test.db.StatementCountingCustomizer;
+import org.eclipse.che.commons.test.tck.TckResourcesCleaner;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesMachineImpl;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesRuntimeState;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesServerImpl;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesServerImpl.ServerId;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the number of transactions used by {@link JpaKubernetesMachineCache} to write statuses of
+ * machines and servers and the state written with these transactions.
+ */
+public class JpaKubernetesMachineCacheTest {
+
+  private static final int MACHINES_COUNT = 20;
+  private static final int SERVERS_COUNT = 10;
+  private static final long FLUSH_WINDOW_MS = 3_600_000;
+
+  private JpaKubernetesMachineCache machineCache;
+  private EntityManager manager;
+  private TckResourcesCleaner tckResourcesCleaner;
+  private RuntimeIdentity runtimeId;
+
+  @AfterMethod
+  private void cleanup() {
+    machineCache.shutdown();
+    manager.clear();
+    manager.getTransaction().begin();
+    for (Object machine :
+        manager.createQuery("SELECT m FROM KubernetesMachine m").getResultList()) {
+      manager.remove(machine);
+    }
+    manager.getTransaction().commit();
+    manager.getTransaction().begin();
+    final List<Object> entities = new ArrayList<>();
+    entities.addAll(manager.createQuery("SELECT r FROM KubernetesRuntime r").getResultList());
+    entities.addAll(manager.createQuery("SELECT w FROM Workspace w").getResultList());
+    entities.addAll(manager.createQuery("SELECT a FROM Account a").getResultList());
+    for (Object entity : entities) {
+      manager.remove(entity);
+    }
+    manager.getTransaction().commit();
+    tckResourcesCleaner.clean();
+  }
+
+  @Test
+  public void shouldWriteStatusesUpdatedWithinWindowWithSingleTransaction() throws Exception {
+    setUp(FLUSH_WINDOW_MS);
+
+    updateStatuses();
+
+    // updates are not written yet but are visible to the readers of the cache
+    assertEquals(StatementCountingCustomizer.getCommits(), 0);
+    assertRunning(machineCache.getMachines(runtimeId));
+    assertEquals(
+        machineCache.getServer(runtimeId, "machine0", "server0").getStatus(), ServerStatus.RUNNING);
+
+    machineCache.flushAll();
+
+    assertEquals(StatementCountingCustomizer.getCommits(), 1);
+    manager.clear();
+    assertRunning(loadMachines());
+  }
+
+  @Test
+  public void shouldWriteEachStatusWhenWindowIsNotPositive() throws Exception {
+    setUp(0);
+
+    updateStatuses();
+
+    assertEquals(
+        StatementCountingCustomizer.getCommits(), MACHINES_COUNT + MACHINES_COUNT * SERVERS_COUNT);
+    manager.clear();
+    assertRunning(loadMachines());
+  }
+
+  @Test
+  public void shouldSkipStatusesOfRemovedMachines() throws Exception {
+    setUp(FLUSH_WINDOW_MS);
+    machineCache.updateMachineStatus(runtimeId, "machine0", MachineStatus.RUNNING);
+    machineCache.updateServerStatus(runtimeId, "machine0", "server0", ServerStatus.RUNNING);
+
+    machineCache.remove(runtimeId);
+    machineCache.flushAll();
+
+    assertTrue(machineCache.getMachines(runtimeId).isEmpty());
+    assertTrue(loadMachines().isEmpty());
+  }
+
+  @Test
+  public void shouldNotApplyStatusesOfRemovedMachinesToMachinesStoredAgain() throws Exception {
+    setUp(FLUSH_WINDOW_MS);
+    machineCache.updateMachineStatus(runtimeId, "machine0", MachineStatus.RUNNING);
+    machineCache.updateServerStatus(runtimeId, "machine0", "server0", ServerStatus.RUNNING);
+
+    machineCache.remove(runtimeId);
+    machineCache.put(
+        runtimeId,
+        createMachine(
+            runtimeId.getWorkspaceId(),
+            "machine0",
+            MachineStatus.STARTING,
+            singletonMap("server0", createServer(ServerStatus.UNKNOWN))));
+    machineCache.updateServerStatus(runtimeId, "machine0", "server0", ServerStatus.RUNNING);
+    machineCache.flushAll();
+
+    manager.clear();
+    final List<KubernetesMachineImpl> machines = loadMachines();
+    assertEquals(machines.size(), 1);
+    assertEquals(machines.get(0).getStatus(), MachineStatus.STARTING);
+    assertEquals(machines.get(0).getServers().get("server0").getStatus(), ServerStatus.RUNNING);
+  }
+
+  @Test
+  public void shouldWriteStatusesWhichFailedToBeWrittenNextTime() throws Exception {
+    setUp(FLUSH_WINDOW_MS, FailingOnceMachineCache.class);
+    updateStatuses();
+
+    machineCache.flushAll();
+
+    assertEquals(StatementCountingCustomizer.getCommits(), 0);
+    assertRunning(machineCache.getMachines(runtimeId));
+
+    machineCache.flushAll();
+
+    assertEquals(StatementCountingCustomizer.getCommits(), 1);
+    manager.clear();
+    assertRunning(loadMachines());
+  }
+
+  private void setUp(long flushWindowMs) {
+    setUp(flushWindowMs, JpaKubernetesMachineCache.class);
+  }
+
+  private void setUp(long flushWindowMs, Class<? extends JpaKubernetesMachineCache> cacheType) {
+    final Map<String, String> properties =
+        singletonMap(
+            PersistenceUnitProperties.SESSION_CUSTOMIZER,
+            StatementCountingCustomizer.class.getName());
+    final Injector injector = Guice.createInjector(new JpaTckModule(flushWindowMs, properties));
+    manager = injector.getInstance(EntityManager.class);
+    machineCache = injector.getInstance(cacheType);
+    tckResourcesCleaner = injector.getInstance(TckResourcesCleaner.class);
+
+    final WorkspaceImpl workspace = createWorkspace();
+    final KubernetesRuntimeState runtimeState = createRuntimeState(workspace);
+    runtimeId = runtimeState.getRuntimeId();
+    manager.getTransaction().begin();
+    manager.persist(workspace.getAccount());
+    manager.persist(workspace);
+    manager.persist(runtimeState);
+    manager.getTransaction().commit();
+    manager.getTransaction().begin();
+    for (int i = 0; i < MACHINES_COUNT; i++) {
+      final Map<String, ServerImpl> servers = new HashMap<>();
+      for (int j = 0; j < SERVERS_COUNT; j++) {
+        servers.put("server" + j, createServer(ServerStatus.UNKNOWN));
+      }
+      manager.persist(
+          createMachine(workspace.getId(), "machine" + i, MachineStatus.STARTING, servers));
+    }
+    manager.getTransaction().commit();
+    manager.clear();
+    StatementCountingCustomizer.reset();
+  }
+
+  private void updateStatuses() throws Exception {
+    for (int i = 0; i < MACHINES_COUNT; i++) {
+      for (int j = 0; j < SERVERS_COUNT; j++) {
+        assertTrue(
+            machineCache.updateServerStatus(
+                runtimeId, "machine" + i, "server" + j, ServerStatus.RUNNING));
+      }
+      machineCache.updateMachineStatus(runtimeId, "machine" + i, MachineStatus.RUNNING);
+    }
+  }
+
+  private List<KubernetesMachineImpl> loadMachines() {
+    return manager
+        .createNamedQuery("KubernetesMachine.getByWorkspaceId", KubernetesMachineImpl.class)
+        .setParameter("workspaceId", runtimeId.getWorkspaceId())
+        .getResultList();
+  }
+
+  private static void assertRunning(Map<String, KubernetesMachineImpl> machines) {
+    assertRunning(new ArrayList<>(machines.values()));
+  }
+
+  private static void assertRunning(List<KubernetesMachineImpl> machines) {
+    assertEquals(machines.size(), MACHINES_COUNT);
+    for (KubernetesMachineImpl machine : machines) {
+      assertEquals(machine.getStatus(), MachineStatus.RUNNING);
+      assertEquals(machine.getServers().size(), SERVERS_COUNT);
+      for (KubernetesServerImpl server : machine.getServers().values()) {
+        assertEquals(server.getStatus(), ServerStatus.RUNNING);
+      }
+    }
+  }
+
+  /** Fails to write the statuses the first time. */
+  private static class FailingOnceMachineCache extends JpaKubernetesMachineCache {
+
+    private boolean failed;
+
+    @Inject
+    FailingOnceMachineCache(
+        Provider<EntityManager> managerProvider,
+        @Named("che.infra.kubernetes.machine_status_flush_window_ms") long flushWindowMs) {
+      super(managerProvider, flushWindowMs);
+    }
+
+    @Override
+    @Transactional
+    protected void doUpdateStatuses(
+        String workspaceId,
+        Map<String, MachineStatus> machineStatuses,
+        Map<ServerId, ServerStatus> serverStatuses) {
+      if (!failed) {
+        failed = true;
+        throw new RuntimeException("Database is not available");
+      }
+      super.doUpdateStatuses(workspaceId, machineStatuses, serverStatuses);
+    }
+  }
+}
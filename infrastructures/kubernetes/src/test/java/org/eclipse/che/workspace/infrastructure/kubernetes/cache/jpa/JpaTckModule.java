@@ -12,6 +12,9 @@
 package org.eclipse.che.workspace.infrastructure.kubernetes.cache.jpa;
 
 import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import java.util.Collections;
+import java.util.Map;
 import org.eclipse.che.account.spi.AccountImpl;
 import org.eclipse.che.api.workspace.server.devfile.SerializableConverter;
 import org.eclipse.che.api.workspace.server.model.impl.CommandImpl;
@@ -55,11 +58,31 @@ import org.h2.Driver;
 /** @author Sergii Leshchenko */
 public class JpaTckModule extends TckModule {
 
+  private static final long MACHINE_STATUS_FLUSH_WINDOW_MS = 500;
+
+  private final long machineStatusFlushWindowMs;
+  private final Map<String, String> persistenceProperties;
+
+  public JpaTckModule() {
+    this(MACHINE_STATUS_FLUSH_WINDOW_MS, Collections.emptyMap());
+  }
+
+  /**
+   * Creates module with the given flush window of machine statuses which adds the given properties
+   * to the persistence unit.
+   */
+  public JpaTckModule(long machineStatusFlushWindowMs, Map<String, String> persistenceProperties) {
+    this.machineStatusFlushWindowMs = machineStatusFlushWindowMs;
+    this.persistenceProperties = persistenceProperties;
+  }
+
   @Override
   protected void configure() {
     H2DBTestServer server = H2DBTestServer.startDefault();
+    PersistTestModuleBuilder persistModuleBuilder = new PersistTestModuleBuilder();
+    persistenceProperties.forEach(persistModuleBuilder::setProperty);
     install(
-        new PersistTestModuleBuilder()
+        persistModuleBuilder
             .setDriver(Driver.class)
             .runningOn(server)
             .addEntityClasses(
@@ -109,6 +132,9 @@ public class JpaTckModule extends TckModule {
 
     bind(KubernetesRuntimeStateCache.class).to(JpaKubernetesRuntimeStateCache.class);
     bind(KubernetesMachineCache.class).to(JpaKubernetesMachineCache.class);
+    bind(Long.class)
+        .annotatedWith(Names.named("che.infra.kubernetes.machine_status_flush_window_ms"))
+        .toInstance(machineStatusFlushWindowMs);
 
     bind(SchemaInitializer.class)
         .toInstance(new FlywaySchemaInitializer(server.getDataSource(), "che-schema"));
@@ -14,6 +14,7 @@ package org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc;
 import static java.lang.String.format;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
 import static org.eclipse.che.api.workspace.shared.Constants.PERSIST_VOLUMES_ATTRIBUTE;
 import static org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc.CommonPVCStrategy.SUBPATHS_PROPERTY_FMT;
 import static org.mockito.ArgumentMatchers.any;
@@ -91,6 +92,7 @@ public class CommonPVCStrategyTest {
   @Mock private PVCProvisioner volumeConverter;
   @Mock private PodsVolumes podsVolumes;
   @Mock private SubPathPrefixes subpathPrefixes;
+  @Mock private PVCBindingWatcher pvcBindingWatcher;
 
   private InOrder provisionOrder;
 
@@ -111,7 +113,8 @@ public class CommonPVCStrategyTest {
             ephemeralWorkspaceAdapter,
             volumeConverter,
             podsVolumes,
-            subpathPrefixes);
+            subpathPrefixes,
+            pvcBindingWatcher);
 
     k8sEnv = KubernetesEnvironment.builder().build();
 
@@ -125,6 +128,7 @@ public class CommonPVCStrategyTest {
 
     lenient().when(factory.getOrCreate(IDENTITY)).thenReturn(k8sNamespace);
     lenient().when(k8sNamespace.persistentVolumeClaims()).thenReturn(pvcs);
+    lenient().when(k8sNamespace.getName()).thenReturn(NAMESPACE);
 
     lenient().when(subpathPrefixes.getWorkspaceSubPath(WORKSPACE_ID)).thenReturn(WORKSPACE_ID);
   }
@@ -177,7 +181,8 @@ public class CommonPVCStrategyTest {
             ephemeralWorkspaceAdapter,
             volumeConverter,
             podsVolumes,
-            subpathPrefixes);
+            subpathPrefixes,
+            pvcBindingWatcher);
 
     commonPVCStrategy.provision(k8sEnv, IDENTITY);
 
@@ -205,7 +210,7 @@ public class CommonPVCStrategyTest {
 
     verify(pvcs).get();
     verify(pvcs).create(pvc);
-    verify(pvcs).waitBound(PVC_NAME, 100);
+    verify(pvcBindingWatcher).waitBound(WORKSPACE_ID, NAMESPACE, singletonList(PVC_NAME), 100);
     verify(pvcSubPathHelper)
         .createDirs(IDENTITY, WORKSPACE_ID, PVC_NAME, emptyMap(), WORKSPACE_SUBPATHS);
   }
@@ -225,7 +230,8 @@ public class CommonPVCStrategyTest {
             ephemeralWorkspaceAdapter,
             volumeConverter,
             podsVolumes,
-            subpathPrefixes);
+            subpathPrefixes,
+            pvcBindingWatcher);
     final PersistentVolumeClaim pvc = newPVC(PVC_NAME);
     pvc.getAdditionalProperties()
         .put(format(SUBPATHS_PROPERTY_FMT, WORKSPACE_ID), WORKSPACE_SUBPATHS);
@@ -238,7 +244,7 @@ public class CommonPVCStrategyTest {
 
     verify(pvcs).get();
     verify(pvcs).create(pvc);
-    verify(pvcs, never()).waitBound(anyString(), anyLong());
+    verify(pvcBindingWatcher, never()).waitBound(anyString(), anyString(), any(), anyLong());
     verify(pvcSubPathHelper)
         .createDirs(IDENTITY, WORKSPACE_ID, PVC_NAME, emptyMap(), WORKSPACE_SUBPATHS);
   }
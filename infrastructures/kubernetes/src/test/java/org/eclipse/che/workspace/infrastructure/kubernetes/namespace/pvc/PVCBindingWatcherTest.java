@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.EventBuilder;
+import io.fabric8.kubernetes.api.model.EventListBuilder;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimBuilder;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimList;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimListBuilder;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.fabric8.mockwebserver.dsl.EventDoneable;
+import io.fabric8.mockwebserver.dsl.TimesOnceableOrHttpHeaderable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.eclipse.che.api.workspace.server.spi.InternalInfrastructureException;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+@Listeners(MockitoTestNGListener.class)
+public class PVCBindingWatcherTest {
+
+  private static final String NAMESPACE = "infraNamespace";
+  private static final long TIMEOUT_MILLIS = SECONDS.toMillis(10);
+  private static final String RESOURCE_VERSION = "42";
+  private static final String EVENTS_FIELD_SELECTOR =
+      "fieldSelector=reason%3DWaitForFirstConsumer%2CinvolvedObject.kind%3DPersistentVolumeClaim";
+
+  // requests of these pods trigger events of the watch mocks, pods are never requested by the
+  // watcher, so the watches which expect them stay open
+  private static final String KEEP_OPEN_POD = "keep-open";
+  private static final String CLOSE_WATCH_POD = "close-watch";
+  private static final String BIND_ALL_POD = "bind-all";
+
+  @Mock private KubernetesClientFactory clientFactory;
+
+  private KubernetesServer serverMock;
+  private KubernetesClient client;
+  private PVCBindingWatcher bindingWatcher;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    serverMock = new KubernetesServer(true, false);
+    serverMock.before();
+    client = serverMock.getClient();
+    lenient().when(clientFactory.create(anyString())).thenReturn(client);
+
+    bindingWatcher = new PVCBindingWatcher(clientFactory);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    bindingWatcher.shutdown();
+    serverMock.after();
+  }
+
+  @Test
+  public void shouldReturnImmediatelyWhenClaimIsAlreadyBound() throws Exception {
+    expectClaims(NAMESPACE, createPVC("claim", "uid", "Bound"));
+    expectEvents(NAMESPACE);
+    expectClaimsWatch(NAMESPACE, emptyMap());
+    expectEventsWatch(NAMESPACE, emptyMap());
+
+    CompletableFuture<PersistentVolumeClaim> future =
+        bindingWatcher.waitBoundAsync("ws", NAMESPACE, "claim", TIMEOUT_MILLIS);
+
+    assertTrue(future.isDone());
+    assertEquals(future.get().getMetadata().getName(), "claim");
+  }
+
+  @Test
+  public void shouldShareNamespaceWatchesBetweenAllWaitedClaims() throws Exception {
+    // given
+    int namespaces = 4;
+    int workspaces = 100;
+    int claimsPerWorkspace = 3;
+    // claims are bound one by one by the requests of the test
+    long timeoutMillis = MINUTES.toMillis(1);
+    Map<String, List<PersistentVolumeClaim>> pendingClaims = new HashMap<>();
+    Map<String, List<PersistentVolumeClaim>> boundClaims = new HashMap<>();
+    for (int ws = 0; ws < workspaces; ws++) {
+      String namespace = "namespace-" + ws % namespaces;
+      for (int claim = 0; claim < claimsPerWorkspace; claim++) {
+        String name = "claim-" + ws + "-" + claim;
+        pendingClaims
+            .computeIfAbsent(namespace, k -> new ArrayList<>())
+            .add(createPVC(name, name + "-uid", "Pending"));
+        boundClaims
+            .computeIfAbsent(namespace, k -> new ArrayList<>())
+            .add(createPVC(name, name + "-uid", "Bound"));
+      }
+    }
+    for (String namespace : pendingClaims.keySet()) {
+      expectClaims(namespace, pendingClaims.get(namespace).toArray(new PersistentVolumeClaim[0]));
+      expectEvents(namespace);
+      // the watch delivers items of an emitted list one by one, so all the claims of the
+      // namespace are bound by a single request of the test
+      expectClaimsWatch(
+          namespace,
+          singletonMap(
+              BIND_ALL_POD, new WatchEvent(createPVCList(boundClaims.get(namespace)), "MODIFIED")));
+      expectEventsWatch(namespace, emptyMap());
+    }
+
+    // when
+    ExecutorService executor = Executors.newFixedThreadPool(workspaces);
+    List<CompletableFuture<PersistentVolumeClaim>> futures = new ArrayList<>();
+    try {
+      List<Future<List<CompletableFuture<PersistentVolumeClaim>>>> registrations =
+          new ArrayList<>();
+      for (int ws = 0; ws < workspaces; ws++) {
+        String workspaceId = "ws" + ws;
+        String namespace = "namespace-" + ws % namespaces;
+        List<String> names = new ArrayList<>();
+        for (int claim = 0; claim < claimsPerWorkspace; claim++) {
+          names.add("claim-" + ws + "-" + claim);
+        }
+        registrations.add(
+            executor.submit(
+                () -> {
+                  List<CompletableFuture<PersistentVolumeClaim>> workspaceFutures =
+                      new ArrayList<>();
+                  for (String name : names) {
+                    workspaceFutures.add(
+                        bindingWatcher.waitBoundAsync(workspaceId, namespace, name, timeoutMillis));
+                  }
+                  return workspaceFutures;
+                }));
+        if (ws < namespaces) {
+          // the mock server doesn't keep websockets which are opened concurrently, so the
+          // namespace watches are opened one by one by the first workspaces of the namespaces
+          registrations.get(ws).get(10, SECONDS);
+        }
+      }
+      for (Future<List<CompletableFuture<PersistentVolumeClaim>>> registration : registrations) {
+        futures.addAll(registration.get(10, SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    for (CompletableFuture<PersistentVolumeClaim> future : futures) {
+      assertFalse(future.isDone());
+    }
+    for (String namespace : boundClaims.keySet()) {
+      triggerEvent(namespace, BIND_ALL_POD);
+    }
+
+    // then
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(1, MINUTES);
+    for (CompletableFuture<PersistentVolumeClaim> future : futures) {
+      assertEquals(future.get().getStatus().getPhase(), "Bound");
+    }
+    assertEquals(futures.size(), workspaces * claimsPerWorkspace);
+    List<String> requested = getRequestedPaths();
+    for (String namespace : pendingClaims.keySet()) {
+      assertEquals(count(requested, claimsPath(namespace)), 1);
+      assertEquals(count(requested, eventsPath(namespace)), 1);
+      assertEquals(count(requested, claimsWatchPath(namespace)), 1);
+      assertEquals(count(requested, eventsWatchPath(namespace)), 1);
+    }
+    assertEquals(countWatches(requested), 2 * namespaces);
+  }
+
+  @Test
+  public void shouldCompleteClaimWhichIsWaitingForFirstConsumerMatchingEventByUid()
+      throws Exception {
+    expectClaims(NAMESPACE, createPVC("claim", "uid", "Pending"));
+    expectEvents(NAMESPACE);
+    expectClaimsWatch(NAMESPACE, emptyMap());
+    expectEventsWatch(
+        NAMESPACE,
+        ImmutableMap.of(
+            // the event of the removed claim with the same name
+            "removed",
+            new WatchEvent(createWaitingForConsumerEvent("claim", "removed-uid"), "ADDED"),
+            "actual",
+            new WatchEvent(createWaitingForConsumerEvent("claim", "uid"), "ADDED")));
+
+    CompletableFuture<PersistentVolumeClaim> future =
+        bindingWatcher.waitBoundAsync("ws", NAMESPACE, "claim", TIMEOUT_MILLIS);
+    triggerEvent(NAMESPACE, "removed");
+    assertFalse(future.isDone());
+    triggerEvent(NAMESPACE, "actual");
+
+    assertEquals(future.get(10, SECONDS).getMetadata().getUid(), "uid");
+  }
+
+  @Test
+  public void shouldCompleteClaimWhichWasWaitingForFirstConsumerBeforeWatchWasOpened()
+      throws Exception {
+    expectClaims(NAMESPACE, createPVC("claim", "uid", "Pending"));
+    expectEvents(NAMESPACE, createWaitingForConsumerEvent("claim", "uid"));
+    expectClaimsWatch(NAMESPACE, emptyMap());
+    expectEventsWatch(NAMESPACE, emptyMap());
+
+    CompletableFuture<PersistentVolumeClaim> future =
+        bindingWatcher.waitBoundAsync("ws", NAMESPACE, "claim", TIMEOUT_MILLIS);
+
+    assertTrue(future.isDone());
+    assertEquals(future.get().getMetadata().getName(), "claim");
+  }
+
+  @Test
+  public void shouldFailWaitingWhenTimeoutIsReached() throws Exception {
+    expectClaims(NAMESPACE, createPVC("claim", "uid", "Pending"));
+    expectEvents(NAMESPACE);
+    expectClaimsWatch(NAMESPACE, emptyMap());
+    expectEventsWatch(NAMESPACE, emptyMap());
+
+    CompletableFuture<PersistentVolumeClaim> future =
+        bindingWatcher.waitBoundAsync("ws", NAMESPACE, "claim", 100);
+
+    try {
+      future.get(10, SECONDS);
+      fail("Waiting is expected to reach timeout");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof InternalInfrastructureException);
+      assertEquals(
+          e.getCause().getMessage(), "Waiting for persistent volume claim 'claim' reached timeout");
+    }
+  }
+
+  @Test
+  public void shouldNotFailOtherClaimsWhenOneTimesOut() throws Exception {
+    expectClaims(
+        NAMESPACE,
+        createPVC("slow", "slow-uid", "Pending"),
+        createPVC("fast", "fast-uid", "Pending"));
+    expectEvents(NAMESPACE);
+    expectClaimsWatch(
+        NAMESPACE,
+        singletonMap("fast", new WatchEvent(createPVC("fast", "fast-uid", "Bound"), "MODIFIED")));
+    expectEventsWatch(NAMESPACE, emptyMap());
+
+    CompletableFuture<PersistentVolumeClaim> slow =
+        bindingWatcher.waitBoundAsync("ws", NAMESPACE, "slow", 100);
+    CompletableFuture<PersistentVolumeClaim> fast =
+        bindingWatcher.waitBoundAsync("ws", NAMESPACE, "fast", TIMEOUT_MILLIS);
+    try {
+      slow.get(10, SECONDS);
+      fail("Waiting is expected to reach timeout");
+    } catch (ExecutionException ignored) {
+    }
+    assertFalse(fast.isDone());
+
+    triggerEvent(NAMESPACE, "fast");
+
+    assertEquals(fast.get(10, SECONDS).getMetadata().getName(), "fast");
+    assertEquals(countWatches(getRequestedPaths()), 2);
+  }
+
+  @Test
+  public void shouldFailWaitingAndReopenWatchesWhenWatchIsClosedWithError() throws Exception {
+    expectClaims(NAMESPACE, createPVC("claim", "uid", "Pending"));
+    expectEvents(NAMESPACE);
+    serverMock
+        .expect()
+        .withPath(claimsWatchPath(NAMESPACE))
+        .andUpgradeToWebSocket()
+        .open()
+        .expectHttpRequest(podPath(NAMESPACE, CLOSE_WATCH_POD))
+        .andEmit(new WatchEvent(new StatusBuilder().withCode(410).build(), "ERROR"))
+        .once()
+        .done()
+        .once();
+    expectClaimsWatch(
+        NAMESPACE,
+        singletonMap("claim", new WatchEvent(createPVC("claim", "uid", "Bound"), "MODIFIED")));
+    expectEventsWatch(NAMESPACE, emptyMap());
+    expectEventsWatch(NAMESPACE, emptyMap());
+    CompletableFuture<PersistentVolumeClaim> future =
+        bindingWatcher.waitBoundAsync("ws", NAMESPACE, "claim", TIMEOUT_MILLIS);
+
+    triggerEvent(NAMESPACE, CLOSE_WATCH_POD);
+
+    try {
+      future.get(10, SECONDS);
+      fail("Waiting is expected to be interrupted");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof InternalInfrastructureException);
+      assertTrue(
+          e.getCause()
+              .getMessage()
+              .startsWith("Waiting for persistent volume claim 'claim' was interrupted"));
+    }
+    CompletableFuture<PersistentVolumeClaim> retried =
+        bindingWatcher.waitBoundAsync("ws", NAMESPACE, "claim", TIMEOUT_MILLIS);
+    triggerEvent(NAMESPACE, "claim");
+    assertEquals(retried.get(10, SECONDS).getStatus().getPhase(), "Bound");
+    assertEquals(countWatches(getRequestedPaths()), 4);
+  }
+
+  private void expectClaims(String namespace, PersistentVolumeClaim... pvcs) {
+    serverMock
+        .expect()
+        .get()
+        .withPath(claimsPath(namespace))
+        .andReturn(200, createPVCList(asList(pvcs)))
+        .always();
+  }
+
+  private void expectEvents(String namespace, Event... events) {
+    serverMock
+        .expect()
+        .get()
+        .withPath(eventsPath(namespace))
+        .andReturn(
+            200,
+            new EventListBuilder()
+                .withNewMetadata()
+                .withResourceVersion(RESOURCE_VERSION)
+                .endMetadata()
+                .withItems(events)
+                .build())
+        .always();
+  }
+
+  /**
+   * Expects the claims watch which emits the events once the pods they are mapped to are requested.
+   */
+  private void expectClaimsWatch(String namespace, Map<String, WatchEvent> eventsByPod) {
+    expectWatch(claimsWatchPath(namespace), namespace, eventsByPod);
+  }
+
+  private void expectEventsWatch(String namespace, Map<String, WatchEvent> eventsByPod) {
+    expectWatch(eventsWatchPath(namespace), namespace, eventsByPod);
+  }
+
+  private void expectWatch(String path, String namespace, Map<String, WatchEvent> eventsByPod) {
+    EventDoneable<TimesOnceableOrHttpHeaderable<Void>> watch =
+        serverMock.expect().withPath(path).andUpgradeToWebSocket().open();
+    for (Map.Entry<String, WatchEvent> event : eventsByPod.entrySet()) {
+      watch =
+          watch
+              .expectHttpRequest(podPath(namespace, event.getKey()))
+              .andEmit(event.getValue())
+              .once();
+    }
+    watch
+        .expectHttpRequest(podPath(namespace, KEEP_OPEN_POD))
+        .andEmit(new WatchEvent(createPVC(KEEP_OPEN_POD, KEEP_OPEN_POD, "Pending"), "ADDED"))
+        .once()
+        .done()
+        .once();
+  }
+
+  private void triggerEvent(String namespace, String pod) {
+    client.pods().inNamespace(namespace).withName(pod).get();
+  }
+
+  private List<String> getRequestedPaths() throws Exception {
+    List<String> paths = new ArrayList<>();
+    RecordedRequest request;
+    while ((request = serverMock.getMockServer().takeRequest(1, SECONDS)) != null) {
+      paths.add(request.getPath());
+    }
+    return paths;
+  }
+
+  private static long count(List<String> paths, String path) {
+    return paths.stream().filter(path::equals).count();
+  }
+
+  private static long countWatches(List<String> paths) {
+    return paths.stream().filter(path -> path.endsWith("watch=true")).count();
+  }
+
+  private static String claimsPath(String namespace) {
+    return "/api/v1/namespaces/" + namespace + "/persistentvolumeclaims";
+  }
+
+  private static String claimsWatchPath(String namespace) {
+    return claimsPath(namespace) + "?resourceVersion=" + RESOURCE_VERSION + "&watch=true";
+  }
+
+  private static String eventsPath(String namespace) {
+    return "/api/v1/namespaces/" + namespace + "/events?" + EVENTS_FIELD_SELECTOR;
+  }
+
+  private static String eventsWatchPath(String namespace) {
+    return eventsPath(namespace) + "&resourceVersion=" + RESOURCE_VERSION + "&watch=true";
+  }
+
+  private static String podPath(String namespace, String pod) {
+    return "/api/v1/namespaces/" + namespace + "/pods/" + pod;
+  }
+
+  private static PersistentVolumeClaim createPVC(String name, String uid, String phase) {
+    return new PersistentVolumeClaimBuilder()
+        .withNewMetadata()
+        .withName(name)
+        .withUid(uid)
+        .endMetadata()
+        .withNewStatus()
+        .withPhase(phase)
+        .endStatus()
+        .build();
+  }
+
+  private static PersistentVolumeClaimList createPVCList(List<PersistentVolumeClaim> pvcs) {
+    return new PersistentVolumeClaimListBuilder()
+        .withNewMetadata()
+        .withResourceVersion(RESOURCE_VERSION)
+        .endMetadata()
+        .withItems(pvcs)
+        .build();
+  }
+
+  private static Event createWaitingForConsumerEvent(String pvcName, String pvcUid) {
+    return new EventBuilder()
+        .withNewMetadata()
+        .withName(pvcName + "." + pvcUid)
+        .endMetadata()
+        .withReason("WaitForFirstConsumer")
+        .withNewInvolvedObject()
+        .withKind("PersistentVolumeClaim")
+        .withName(pvcName)
+        .withUid(pvcUid)
+        .endInvolvedObject()
+        .build();
+  }
+}
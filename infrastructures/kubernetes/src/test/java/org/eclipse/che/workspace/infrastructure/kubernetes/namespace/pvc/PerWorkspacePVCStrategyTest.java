@@ -13,6 +13,7 @@ package org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc;
 
 import static java.lang.String.format;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
 import static org.eclipse.che.api.workspace.shared.Constants.PERSIST_VOLUMES_ATTRIBUTE;
 import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_WORKSPACE_ID_LABEL;
 import static org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc.CommonPVCStrategy.SUBPATHS_PROPERTY_FMT;
@@ -73,6 +74,7 @@ public class PerWorkspacePVCStrategyTest {
   @Mock private PVCProvisioner volumeConverter;
   @Mock private PodsVolumes podsVolumes;
   @Mock private SubPathPrefixes subpathPrefixes;
+  @Mock private PVCBindingWatcher pvcBindingWatcher;
 
   private PerWorkspacePVCStrategy strategy;
 
@@ -91,11 +93,13 @@ public class PerWorkspacePVCStrategyTest {
             ephemeralWorkspaceAdapter,
             volumeConverter,
             podsVolumes,
-            subpathPrefixes);
+            subpathPrefixes,
+            pvcBindingWatcher);
 
     lenient().when(factory.getOrCreate(IDENTITY)).thenReturn(k8sNamespace);
     lenient().when(factory.get(any(Workspace.class))).thenReturn(k8sNamespace);
     lenient().when(k8sNamespace.persistentVolumeClaims()).thenReturn(pvcs);
+    lenient().when(k8sNamespace.getName()).thenReturn(INFRA_NAMESPACE);
   }
 
   @Test
@@ -116,7 +120,8 @@ public class PerWorkspacePVCStrategyTest {
     // then
     verify(pvcs).get();
     verify(pvcs).create(pvc);
-    verify(pvcs).waitBound(perWorkspacePVCName, 100);
+    verify(pvcBindingWatcher)
+        .waitBound(WORKSPACE_ID, INFRA_NAMESPACE, singletonList(perWorkspacePVCName), 100);
     verify(pvcSubPathHelper)
         .createDirs(IDENTITY, WORKSPACE_ID, perWorkspacePVCName, emptyMap(), subPaths);
   }
@@ -137,7 +142,8 @@ public class PerWorkspacePVCStrategyTest {
             ephemeralWorkspaceAdapter,
             volumeConverter,
             podsVolumes,
-            subpathPrefixes);
+            subpathPrefixes,
+            pvcBindingWatcher);
     final PersistentVolumeClaim pvc = newPVC(PVC_NAME_PREFIX + "-" + WORKSPACE_ID);
     String perWorkspacePVCName = pvc.getMetadata().getName();
 
@@ -153,7 +159,7 @@ public class PerWorkspacePVCStrategyTest {
     // then
     verify(pvcs).get();
     verify(pvcs).create(pvc);
-    verify(pvcs, never()).waitBound(anyString(), anyLong());
+    verify(pvcBindingWatcher, never()).waitBound(anyString(), anyString(), any(), anyLong());
     verify(pvcSubPathHelper)
         .createDirs(IDENTITY, WORKSPACE_ID, perWorkspacePVCName, emptyMap(), subPaths);
   }
@@ -187,7 +193,8 @@ public class PerWorkspacePVCStrategyTest {
               ephemeralWorkspaceAdapter,
               volumeConverter,
               podsVolumes,
-              subpathPrefixes);
+              subpathPrefixes,
+              pvcBindingWatcher);
 
       final PersistentVolumeClaim commonPVC = strategy.createCommonPVC(WORKSPACE_ID);
 
@@ -80,6 +80,7 @@ public class UniqueWorkspacePVCStrategyTest {
   @Mock private PVCProvisioner pvcProvisioner;
   @Mock private PodsVolumes podsVolumes;
   @Mock private SubPathPrefixes subpathPrefixes;
+  @Mock private PVCBindingWatcher pvcBindingWatcher;
   @Captor private ArgumentCaptor<KubernetesEnvironment> k8sEnvCaptor;
 
   private InOrder provisionOrder;
@@ -90,7 +91,12 @@ public class UniqueWorkspacePVCStrategyTest {
   public void setup() throws Exception {
     strategy =
         new UniqueWorkspacePVCStrategy(
-            true, factory, ephemeralWorkspaceAdapter, pvcProvisioner, subpathPrefixes);
+            true,
+            factory,
+            ephemeralWorkspaceAdapter,
+            pvcProvisioner,
+            subpathPrefixes,
+            pvcBindingWatcher);
 
     k8sEnv = KubernetesEnvironment.builder().build();
 
@@ -99,6 +105,7 @@ public class UniqueWorkspacePVCStrategyTest {
     lenient().when(factory.getOrCreate(eq(IDENTITY))).thenReturn(k8sNamespace);
     lenient().when(factory.get(any(Workspace.class))).thenReturn(k8sNamespace);
     when(k8sNamespace.persistentVolumeClaims()).thenReturn(pvcs);
+    lenient().when(k8sNamespace.getName()).thenReturn(NAMESPACE);
   }
 
   @Test
@@ -156,7 +163,7 @@ public class UniqueWorkspacePVCStrategyTest {
     strategy.prepare(k8sEnv, IDENTITY, 100, emptyMap());
 
     verify(pvcs).createIfNotExist(any());
-    verify(pvcs).waitBound(uniqueName, 100);
+    verify(pvcBindingWatcher).waitBound(WORKSPACE_ID, NAMESPACE, singletonList(uniqueName), 100);
   }
 
   @Test
@@ -167,7 +174,8 @@ public class UniqueWorkspacePVCStrategyTest {
             factory,
             ephemeralWorkspaceAdapter,
             pvcProvisioner,
-            subpathPrefixes);
+            subpathPrefixes,
+            pvcBindingWatcher);
 
     final String uniqueName = PVC_NAME_PREFIX + "-3121";
     final PersistentVolumeClaim pvc = newPVC(uniqueName);
@@ -178,7 +186,7 @@ public class UniqueWorkspacePVCStrategyTest {
     strategy.prepare(k8sEnv, IDENTITY, 100, emptyMap());
 
     verify(pvcs).createIfNotExist(any());
-    verify(pvcs, never()).waitBound(anyString(), anyLong());
+    verify(pvcBindingWatcher, never()).waitBound(anyString(), anyString(), any(), anyLong());
   }
 
   @Test(expectedExceptions = InfrastructureException.class)
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.provision;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.observability.NoopExecutorServiceWrapper;
+import org.eclipse.che.commons.subject.SubjectImpl;
+import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PreparableConfigurationProvisioner.Provisioning;
+import org.eclipse.che.workspace.infrastructure.kubernetes.util.KubernetesSharedPool;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests {@link ProvisioningPreparer}. */
+@Listeners(MockitoTestNGListener.class)
+public class ProvisioningPreparerTest {
+
+  @Mock private KubernetesEnvironment k8sEnv;
+  @Mock private RuntimeIdentity identity;
+  @Mock private Provisioning<KubernetesEnvironment> provisioning;
+
+  private KubernetesSharedPool sharedPool;
+  private ProvisioningPreparer preparer;
+
+  @BeforeMethod
+  public void setUp() {
+    sharedPool = new KubernetesSharedPool("bounded", 10, 100, new NoopExecutorServiceWrapper());
+    preparer = new ProvisioningPreparer(sharedPool, SECONDS.toMillis(10));
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    EnvironmentContext.reset();
+    sharedPool.getExecutor().shutdownNow();
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldPrepareProvisionersConcurrently() throws Exception {
+    // both preparations finish only if they are run at the same time
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    PreparableConfigurationProvisioner<KubernetesEnvironment> first =
+        id -> {
+          awaitOther(bothStarted);
+          return env -> env.getConfigMaps();
+        };
+    PreparableConfigurationProvisioner<KubernetesEnvironment> second =
+        id -> {
+          awaitOther(bothStarted);
+          return env -> env.getSecrets();
+        };
+
+    Provisioning<KubernetesEnvironment> firstProvisioning = preparer.prepareAsync(first, identity);
+    Provisioning<KubernetesEnvironment> secondProvisioning =
+        preparer.prepareAsync(second, identity);
+    firstProvisioning.apply(k8sEnv);
+    secondProvisioning.apply(k8sEnv);
+
+    assertEquals(bothStarted.getCount(), 0);
+    verify(k8sEnv).getConfigMaps();
+    verify(k8sEnv).getSecrets();
+  }
+
+  @Test
+  public void shouldApplyPreparedProvisioning() throws Exception {
+    preparer.prepareAsync(id -> provisioning, identity).apply(k8sEnv);
+
+    verify(provisioning).apply(k8sEnv);
+  }
+
+  @Test
+  public void shouldPropagateCurrentSubjectToPreparation() throws Exception {
+    SubjectImpl subject = new SubjectImpl("user", "user123", "token", false);
+    EnvironmentContext.getCurrent().setSubject(subject);
+    AtomicReference<String> preparedFor = new AtomicReference<>();
+
+    preparer
+        .prepareAsync(
+            id -> {
+              preparedFor.set(EnvironmentContext.getCurrent().getSubject().getUserId());
+              return provisioning;
+            },
+            identity)
+        .apply(k8sEnv);
+
+    assertEquals(preparedFor.get(), "user123");
+  }
+
+  @Test(
+      expectedExceptions = InfrastructureException.class,
+      expectedExceptionsMessageRegExp = "Unable to fetch data")
+  public void shouldRethrowPreparationFailureOnApply() throws Exception {
+    Provisioning<KubernetesEnvironment> failed =
+        preparer.prepareAsync(
+            id -> {
+              throw new InfrastructureException("Unable to fetch data");
+            },
+            identity);
+
+    failed.apply(k8sEnv);
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldRecordPreparationTimeByProvisionerClass() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    preparer.bindTo(registry);
+
+    preparer.prepareAsync(new SlowSshProvisioner(), identity).apply(k8sEnv);
+    preparer.prepareAsync(new SlowGitProvisioner(), identity).apply(k8sEnv);
+    preparer.prepareAsync(new SlowSshProvisioner(), identity).apply(k8sEnv);
+
+    Timer sshTimer =
+        registry
+            .find("che.workspace.provisioning.preparation.time")
+            .tag("provisioner", SlowSshProvisioner.class.getSimpleName())
+            .timer();
+    Timer gitTimer =
+        registry
+            .find("che.workspace.provisioning.preparation.time")
+            .tag("provisioner", SlowGitProvisioner.class.getSimpleName())
+            .timer();
+    assertNotNull(sshTimer);
+    assertNotNull(gitTimer);
+    assertEquals(sshTimer.count(), 2);
+    assertEquals(gitTimer.count(), 1);
+    assertTrue(sshTimer.totalTime(MILLISECONDS) >= 2 * SlowProvisioner.DELAY_MS);
+    assertTrue(gitTimer.totalTime(MILLISECONDS) >= SlowProvisioner.DELAY_MS);
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldOverlapPreparationsOfSlowProvisioners() throws Exception {
+    long start = System.nanoTime();
+
+    Provisioning<KubernetesEnvironment> ssh =
+        preparer.prepareAsync(new SlowSshProvisioner(), identity);
+    Provisioning<KubernetesEnvironment> git =
+        preparer.prepareAsync(new SlowGitProvisioner(), identity);
+    ssh.apply(k8sEnv);
+    git.apply(k8sEnv);
+
+    long elapsedMillis = MILLISECONDS.convert(System.nanoTime() - start, NANOSECONDS);
+    assertTrue(elapsedMillis >= SlowProvisioner.DELAY_MS);
+    assertTrue(elapsedMillis < 2 * SlowProvisioner.DELAY_MS, "took " + elapsedMillis + " ms");
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldInterruptCancelledPreparation() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    ProvisioningPreparer.Preparation<KubernetesEnvironment> preparation =
+        preparer.prepareAsync(id -> awaitInterruption(started, interrupted), identity);
+    started.await();
+
+    ProvisioningPreparer.cancel(preparation);
+
+    assertTrue(interrupted.await(5, SECONDS));
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldFailAndInterruptPreparationWhichIsNotFinishedInTime() throws Exception {
+    preparer = new ProvisioningPreparer(sharedPool, 100L);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    Provisioning<KubernetesEnvironment> preparation =
+        preparer.prepareAsync(id -> awaitInterruption(started, interrupted), identity);
+
+    try {
+      preparation.apply(k8sEnv);
+      fail("Preparation is expected to be timed out");
+    } catch (InfrastructureException e) {
+      assertTrue(e.getMessage().endsWith("is not finished in time"), e.getMessage());
+    }
+    assertTrue(interrupted.await(5, SECONDS));
+  }
+
+  private Provisioning<KubernetesEnvironment> awaitInterruption(
+      CountDownLatch started, CountDownLatch interrupted) {
+    started.countDown();
+    try {
+      SECONDS.sleep(30);
+    } catch (InterruptedException e) {
+      interrupted.countDown();
+    }
+    return provisioning;
+  }
+
+  private abstract static class SlowProvisioner
+      implements PreparableConfigurationProvisioner<KubernetesEnvironment> {
+
+    static final long DELAY_MS = 500;
+
+    @Override
+    public Provisioning<KubernetesEnvironment> prepare(RuntimeIdentity identity)
+        throws InfrastructureException {
+      try {
+        MILLISECONDS.sleep(DELAY_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InfrastructureException(e);
+      }
+      return k8sEnv -> {};
+    }
+  }
+
+  private static class SlowSshProvisioner extends SlowProvisioner {}
+
+  private static class SlowGitProvisioner extends SlowProvisioner {}
+
+  private static void awaitOther(CountDownLatch latch) throws InfrastructureException {
+    latch.countDown();
+    try {
+      if (!latch.await(5, SECONDS)) {
+        throw new InfrastructureException("Preparations are not run concurrently");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InfrastructureException(e);
+    }
+  }
+}
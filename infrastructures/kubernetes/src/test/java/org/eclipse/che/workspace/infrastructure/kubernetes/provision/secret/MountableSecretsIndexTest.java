@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.provision.secret;
+
+import static java.util.stream.Collectors.toSet;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.SecretList;
+import io.fabric8.kubernetes.api.model.SecretListBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Watchable;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesNamespace;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+@Listeners(MockitoTestNGListener.class)
+public class MountableSecretsIndexTest {
+
+  private static final String NAMESPACE = "user-che";
+  private static final String WORKSPACE_ID = "workspace123";
+
+  @Mock private KubernetesClientFactory clientFactory;
+  @Mock private KubernetesNamespace namespace;
+
+  private FilterWatchListDeletable<Secret, SecretList, Boolean, Watch, Watcher<Secret>> labeled;
+  private KubernetesServer serverMock;
+  private KubernetesClient client;
+  private MountableSecretsIndex secretsIndex;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    serverMock = new KubernetesServer(true, true);
+    serverMock.before();
+    client = serverMock.getClient();
+    lenient().when(clientFactory.create(anyString())).thenReturn(client);
+    when(namespace.getName()).thenReturn(NAMESPACE);
+    lenient().when(namespace.getWorkspaceId()).thenReturn(WORKSPACE_ID);
+
+    secretsIndex = new MountableSecretsIndex(clientFactory, new String[] {"app=che"}, 30);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    secretsIndex.shutdown();
+    serverMock.after();
+  }
+
+  @Test
+  public void shouldReturnOnlyLabeledSecrets() throws Exception {
+    createSecret("mountable", ImmutableMap.of("app", "che"));
+    createSecret("other", ImmutableMap.of("app", "other"));
+
+    Set<String> names = names(this::get);
+
+    assertEquals(names, ImmutableSet.of("mountable"));
+  }
+
+  @Test
+  public void shouldNotListSecretsOnRepeatedReads() throws Exception {
+    createSecret("mountable", ImmutableMap.of("app", "che"));
+    secretsIndex.get(namespace);
+    int requestsAfterSync = serverMock.getMockServer().getRequestCount();
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(secretsIndex.get(namespace).size(), 1);
+    }
+
+    assertEquals(serverMock.getMockServer().getRequestCount(), requestsAfterSync);
+  }
+
+  @Test
+  public void shouldUpdateIndexOnSecretEvents() throws Exception {
+    Watchable<Watch, Watcher<Secret>> versioned = mockSecretsApi(secret("first"));
+    ArgumentCaptor<Watcher<Secret>> watcherCaptor = ArgumentCaptor.forClass(Watcher.class);
+    when(versioned.watch(watcherCaptor.capture())).thenReturn(mock(Watch.class));
+    assertEquals(names(this::get), ImmutableSet.of("first"));
+    Watcher<Secret> watcher = watcherCaptor.getValue();
+
+    watcher.eventReceived(Action.ADDED, secret("second"));
+    assertEquals(names(this::get), ImmutableSet.of("first", "second"));
+
+    watcher.eventReceived(Action.DELETED, secret("first"));
+    assertEquals(names(this::get), ImmutableSet.of("second"));
+  }
+
+  @Test
+  public void shouldListSecretsOnEveryReadWhenIndexIsDisabled() throws Exception {
+    secretsIndex = new MountableSecretsIndex(clientFactory, new String[] {"app=che"}, 0);
+    createSecret("first", ImmutableMap.of("app", "che"));
+    secretsIndex.get(namespace);
+
+    createSecret("second", ImmutableMap.of("app", "che"));
+
+    assertEquals(names(this::get), ImmutableSet.of("first", "second"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldNotMarkIndexSyncedWhenWatchIsClosedWhileOpening() throws Exception {
+    Watchable<Watch, Watcher<Secret>> versioned = mockSecretsApi();
+    Watch watch = mock(Watch.class);
+    when(versioned.watch(any()))
+        .thenAnswer(
+            inv -> {
+              // the watch is closed before the index is marked as synced
+              ((Watcher<Secret>) inv.getArgument(0)).onClose(new KubernetesClientException("gone"));
+              return watch;
+            });
+
+    secretsIndex.get(namespace);
+    secretsIndex.get(namespace);
+
+    verify(labeled, times(2)).list();
+    verify(watch, times(2)).close();
+    assertNull(secretsIndex.getResourceVersion(NAMESPACE));
+  }
+
+  /** Mocks the secrets API of the client, returns the operation the watch is opened with. */
+  @SuppressWarnings("unchecked")
+  private Watchable<Watch, Watcher<Secret>> mockSecretsApi(Secret... listed) throws Exception {
+    KubernetesClient mockClient = mock(KubernetesClient.class);
+    MixedOperation secrets = mock(MixedOperation.class);
+    NonNamespaceOperation namespaced = mock(NonNamespaceOperation.class);
+    labeled = mock(FilterWatchListDeletable.class);
+    Watchable<Watch, Watcher<Secret>> versioned = mock(Watchable.class);
+    when(clientFactory.create(anyString())).thenReturn(mockClient);
+    when(mockClient.secrets()).thenReturn(secrets);
+    when(secrets.inNamespace(NAMESPACE)).thenReturn(namespaced);
+    when(namespaced.withLabels(any())).thenReturn(labeled);
+    when(labeled.list())
+        .thenReturn(
+            new SecretListBuilder()
+                .withNewMetadata()
+                .withResourceVersion("1")
+                .endMetadata()
+                .withItems(listed)
+                .build());
+    when(labeled.withResourceVersion("1")).thenReturn(versioned);
+    return versioned;
+  }
+
+  private static Secret secret(String name) {
+    return new SecretBuilder()
+        .withMetadata(new ObjectMetaBuilder().withName(name).withResourceVersion("2").build())
+        .build();
+  }
+
+  private List<Secret> get() {
+    try {
+      return secretsIndex.get(namespace);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void createSecret(String name, Map<String, String> labels) {
+    client
+        .secrets()
+        .inNamespace(NAMESPACE)
+        .create(
+            new SecretBuilder()
+                .withMetadata(new ObjectMetaBuilder().withName(name).withLabels(labels).build())
+                .build());
+  }
+
+  private static Set<String> names(Supplier<List<Secret>> secrets) {
+    return secrets.get().stream().map(s -> s.getMetadata().getName()).collect(toSet());
+  }
+}
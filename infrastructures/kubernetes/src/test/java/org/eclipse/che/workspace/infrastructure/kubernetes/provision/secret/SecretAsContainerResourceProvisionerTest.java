@@ -19,14 +19,12 @@ import static org.eclipse.che.workspace.infrastructure.kubernetes.provision.secr
 import static org.eclipse.che.workspace.infrastructure.kubernetes.provision.secret.KubernetesSecretAnnotationNames.ANNOTATION_GIT_CREDENTIALS;
 import static org.eclipse.che.workspace.infrastructure.kubernetes.provision.secret.KubernetesSecretAnnotationNames.ANNOTATION_MOUNT_AS;
 import static org.eclipse.che.workspace.infrastructure.kubernetes.provision.secret.KubernetesSecretAnnotationNames.ANNOTATION_MOUNT_PATH;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableMap;
-import io.fabric8.kubernetes.api.model.LabelSelector;
 import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretBuilder;
@@ -34,7 +32,6 @@ import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesNamespace;
-import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesSecrets;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -54,19 +51,18 @@ public class SecretAsContainerResourceProvisionerTest {
 
   @Mock private KubernetesNamespace namespace;
 
-  @Mock private KubernetesSecrets secrets;
+  @Mock private MountableSecretsIndex secretsIndex;
 
   @Mock private RuntimeIdentity runtimeIdentity;
 
   @BeforeMethod
   public void setUp() throws Exception {
-    when(namespace.secrets()).thenReturn(secrets);
     provisioner =
         new SecretAsContainerResourceProvisioner<>(
             fileSecretApplier,
             environmentVariableSecretApplier,
             gitCredentialStorageFileSecretApplier,
-            new String[] {"app:che"});
+            secretsIndex);
   }
 
   @Test(
@@ -85,7 +81,7 @@ public class SecretAsContainerResourceProvisionerTest {
                     .withLabels(emptyMap())
                     .build())
             .build();
-    when(secrets.get(any(LabelSelector.class))).thenReturn(singletonList(secret));
+    when(secretsIndex.get(namespace)).thenReturn(singletonList(secret));
     // when
     provisioner.provision(environment, runtimeIdentity, namespace);
   }
@@ -111,7 +107,7 @@ public class SecretAsContainerResourceProvisionerTest {
                     .build())
             .build();
 
-    when(secrets.get(any(LabelSelector.class))).thenReturn(singletonList(secret));
+    when(secretsIndex.get(namespace)).thenReturn(singletonList(secret));
     // when
     provisioner.provision(environment, runtimeIdentity, namespace);
     // then
@@ -142,7 +138,7 @@ public class SecretAsContainerResourceProvisionerTest {
                     .build())
             .build();
 
-    when(secrets.get(any(LabelSelector.class))).thenReturn(singletonList(secret));
+    when(secretsIndex.get(namespace)).thenReturn(singletonList(secret));
     // when
     provisioner.provision(environment, runtimeIdentity, namespace);
     // then
@@ -174,7 +170,7 @@ public class SecretAsContainerResourceProvisionerTest {
                     .build())
             .build();
 
-    when(secrets.get(any(LabelSelector.class))).thenReturn(singletonList(secret));
+    when(secretsIndex.get(namespace)).thenReturn(singletonList(secret));
     // when
     provisioner.provision(environment, runtimeIdentity, namespace);
     // then
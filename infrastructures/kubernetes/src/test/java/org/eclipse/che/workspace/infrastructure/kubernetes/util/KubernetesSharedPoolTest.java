@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.util;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.util.KubernetesSharedPool.LOG_WATCHERS_THREAD_NAME_PREFIX;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.util.KubernetesSharedPool.THREAD_NAME_PREFIX;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.che.commons.observability.NoopExecutorServiceWrapper;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Load test of {@link KubernetesSharedPool} with blocking tasks calling a slow HTTP endpoint. */
+public class KubernetesSharedPoolTest {
+
+  private static final int TASKS = 10_000;
+  private static final int CACHED_POOL_TASKS = 1_000;
+  private static final int MAX_THREADS = 50;
+
+  private HttpServer slowServer;
+  private ExecutorService serverExecutor;
+  private URL slowUrl;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    serverExecutor = Executors.newCachedThreadPool();
+    slowServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    slowServer.createContext(
+        "/slow",
+        exchange -> {
+          try {
+            Thread.sleep(2);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    slowServer.setExecutor(serverExecutor);
+    slowServer.start();
+    slowUrl = new URL("http://localhost:" + slowServer.getAddress().getPort() + "/slow");
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    slowServer.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  @Test
+  public void shouldBoundPlatformThreadsOfBoundedPool() throws Exception {
+    KubernetesSharedPool pool =
+        new KubernetesSharedPool("bounded", MAX_THREADS, 100, new NoopExecutorServiceWrapper());
+
+    LoadResult result;
+    try {
+      result = runLoad(pool, TASKS);
+    } finally {
+      pool.getExecutor().shutdownNow();
+    }
+
+    assertEquals(result.completed, TASKS);
+    assertEquals(result.runOutsideOfPool, 0);
+    assertTrue(result.rejected > 0, "The pool is expected to be saturated");
+    assertTrue(
+        result.peakThreads <= MAX_THREADS, "Peak of live pool threads: " + result.peakThreads);
+  }
+
+  @Test
+  public void shouldCreateMorePlatformThreadsInCachedPoolThanInBoundedOne() throws Exception {
+    KubernetesSharedPool bounded =
+        new KubernetesSharedPool("bounded", MAX_THREADS, 100, new NoopExecutorServiceWrapper());
+    KubernetesSharedPool cached =
+        new KubernetesSharedPool("cached", MAX_THREADS, 100, new NoopExecutorServiceWrapper());
+
+    LoadResult boundedResult;
+    LoadResult cachedResult;
+    try {
+      boundedResult = runLoad(bounded, CACHED_POOL_TASKS);
+      cachedResult = runLoad(cached, CACHED_POOL_TASKS);
+    } finally {
+      bounded.getExecutor().shutdownNow();
+      cached.getExecutor().shutdownNow();
+    }
+
+    assertEquals(boundedResult.completed, CACHED_POOL_TASKS);
+    assertEquals(cachedResult.completed, CACHED_POOL_TASKS);
+    assertEquals(cachedResult.rejected, 0);
+    assertTrue(
+        boundedResult.peakThreads <= MAX_THREADS,
+        "Peak of live bounded pool threads: " + boundedResult.peakThreads);
+    assertTrue(
+        cachedResult.peakThreads > boundedResult.peakThreads,
+        "Peak of live cached pool threads: "
+            + cachedResult.peakThreads
+            + ", bounded: "
+            + boundedResult.peakThreads);
+  }
+
+  @Test
+  public void shouldRunLogWatchersOutsideOfBoundedPool() throws Exception {
+    KubernetesSharedPool pool =
+        new KubernetesSharedPool("bounded", 1, 1, new NoopExecutorServiceWrapper());
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      // saturates the bounded pool
+      pool.getExecutor().execute(() -> await(release));
+      pool.getExecutor().execute(() -> await(release));
+
+      String threadName =
+          pool.getLogWatchersExecutor()
+              .submit(() -> Thread.currentThread().getName())
+              .get(1, MINUTES);
+      assertTrue(threadName.startsWith(LOG_WATCHERS_THREAD_NAME_PREFIX), threadName);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void shouldUseSamePoolForLogWatchersWhenPoolIsNotBounded() {
+    KubernetesSharedPool pool =
+        new KubernetesSharedPool("cached", MAX_THREADS, 100, new NoopExecutorServiceWrapper());
+
+    assertSame(pool.getLogWatchersExecutor(), pool.getExecutor());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void shouldThrowExceptionOnUnknownPoolType() {
+    new KubernetesSharedPool("unknown", MAX_THREADS, 100, new NoopExecutorServiceWrapper());
+  }
+
+  @Test
+  public void shouldCreateVirtualThreadExecutorOrFallbackToBoundedPool() throws Exception {
+    KubernetesSharedPool pool =
+        new KubernetesSharedPool("virtual", MAX_THREADS, 100, new NoopExecutorServiceWrapper());
+
+    assertEquals(pool.getExecutor().submit(() -> "done").get(), "done");
+  }
+
+  /**
+   * Submits the given number of tasks calling the slow endpoint to the pool, retrying rejected
+   * ones, and samples the number of live pool threads till all the tasks are completed.
+   */
+  private LoadResult runLoad(KubernetesSharedPool pool, int tasks) throws Exception {
+    Set<Thread> threadsBefore = livePoolThreads();
+    AtomicInteger peakThreads = new AtomicInteger();
+    AtomicBoolean loaded = new AtomicBoolean(true);
+    Thread sampler =
+        new Thread(
+            () -> {
+              while (loaded.get()) {
+                Set<Thread> threads = livePoolThreads();
+                threads.removeAll(threadsBefore);
+                peakThreads.accumulateAndGet(threads.size(), Math::max);
+                try {
+                  Thread.sleep(1);
+                } catch (InterruptedException e) {
+                  return;
+                }
+              }
+            });
+    sampler.start();
+
+    LoadResult result = new LoadResult();
+    AtomicInteger completed = new AtomicInteger();
+    AtomicInteger runOutsideOfPool = new AtomicInteger();
+    List<CompletableFuture<Void>> futures = new ArrayList<>(tasks);
+    try {
+      for (int i = 0; i < tasks; i++) {
+        Runnable task =
+            () -> {
+              // e.g. by the submitting thread, which may be a watcher thread in reality
+              if (!Thread.currentThread().getName().startsWith(THREAD_NAME_PREFIX)) {
+                runOutsideOfPool.incrementAndGet();
+              }
+              callSlowServer();
+              completed.incrementAndGet();
+            };
+        while (true) {
+          try {
+            futures.add(CompletableFuture.runAsync(task, pool.getExecutor()));
+            break;
+          } catch (RejectedExecutionException e) {
+            result.rejected++;
+            Thread.sleep(1);
+          }
+        }
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, MINUTES);
+    } finally {
+      loaded.set(false);
+      sampler.join();
+    }
+    result.completed = completed.get();
+    result.runOutsideOfPool = runOutsideOfPool.get();
+    result.peakThreads = peakThreads.get();
+    return result;
+  }
+
+  private static Set<Thread> livePoolThreads() {
+    Set<Thread> threads = new HashSet<>();
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.isAlive() && thread.getName().startsWith(THREAD_NAME_PREFIX)) {
+        threads.add(thread);
+      }
+    }
+    return threads;
+  }
+
+  private static class LoadResult {
+    int completed;
+    int runOutsideOfPool;
+    int rejected;
+    int peakThreads;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void callSlowServer() {
+    try {
+      HttpURLConnection connection = (HttpURLConnection) slowUrl.openConnection();
+      try (InputStream ignored = connection.getInputStream()) {
+        assertEquals(connection.getResponseCode(), 200);
+      } finally {
+        connection.disconnect();
+      }
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -19,6 +19,7 @@ import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.commons.annotation.Traced;
 import org.eclipse.che.commons.tracing.TracingTags;
 import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesEnvironmentProvisioner;
+import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc.WorkspaceVolumesStrategy;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.AsyncStoragePodInterceptor;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.AsyncStorageProvisioner;
@@ -30,6 +31,8 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ImagePullSe
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.LogsVolumeMachineProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.NodeSelectorProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PodTerminationGracePeriodProvisioner;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProvisioningPreparer;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProvisioningPreparer.Preparation;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProxySettingsProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ServiceAccountProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.SshKeysProvisioner;
@@ -88,6 +91,7 @@ public class OpenShiftEnvironmentProvisioner
   private final GatewayRouterProvisioner gatewayRouterProvisioner;
   private final DeploymentMetadataProvisioner deploymentMetadataProvisioner;
   private final OpenshiftTrustedCAProvisioner trustedCAProvisioner;
+  private final ProvisioningPreparer provisioningPreparer;
 
   @Inject
   public OpenShiftEnvironmentProvisioner(
@@ -115,7 +119,8 @@ public class OpenShiftEnvironmentProvisioner
       VcsSslCertificateProvisioner vcsSslCertificateProvisioner,
       GatewayRouterProvisioner gatewayRouterProvisioner,
       DeploymentMetadataProvisioner deploymentMetadataProvisioner,
-      OpenshiftTrustedCAProvisioner trustedCAProvisioner) {
+      OpenshiftTrustedCAProvisioner trustedCAProvisioner,
+      ProvisioningPreparer provisioningPreparer) {
     this.pvcEnabled = pvcEnabled;
     this.volumesStrategy = volumesStrategy;
     this.uniqueNamesProvisioner = uniqueNamesProvisioner;
@@ -141,6 +146,7 @@ public class OpenShiftEnvironmentProvisioner
     this.gatewayRouterProvisioner = gatewayRouterProvisioner;
     this.deploymentMetadataProvisioner = deploymentMetadataProvisioner;
     this.trustedCAProvisioner = trustedCAProvisioner;
+    this.provisioningPreparer = provisioningPreparer;
   }
 
   @Override
@@ -151,39 +157,59 @@ public class OpenShiftEnvironmentProvisioner
 
     LOG.debug(
         "Start provisioning OpenShift environment for workspace '{}'", identity.getWorkspaceId());
-    // 1 stage - update environment according Infrastructure specific
-    if (pvcEnabled) {
-      asyncStoragePodInterceptor.intercept(osEnv, identity);
-      logsVolumeMachineProvisioner.provision(osEnv, identity);
-    }
+    // remote lookups don't depend on the environment, so they are started before the first
+    // stage and applied in the usual order
+    Preparation<KubernetesEnvironment> imagePullSecretProvisioning =
+        provisioningPreparer.prepareAsync(imagePullSecretProvisioner, identity);
+    Preparation<KubernetesEnvironment> sshKeysProvisioning =
+        provisioningPreparer.prepareAsync(sshKeysProvisioner, identity);
+    Preparation<KubernetesEnvironment> gitConfigProvisioning =
+        provisioningPreparer.prepareAsync(gitConfigProvisioner, identity);
+    Preparation<KubernetesEnvironment> trustedCAProvisioning =
+        provisioningPreparer.prepareAsync(trustedCAProvisioner, identity);
 
-    // 2 stage - converting Che model env to OpenShift env
-    serversConverter.provision(osEnv, identity);
-    previewUrlExposer.expose(osEnv);
-    envVarsConverter.provision(osEnv, identity);
-    if (pvcEnabled) {
-      volumesStrategy.provision(osEnv, identity);
-    }
+    try {
+      // 1 stage - update environment according Infrastructure specific
+      if (pvcEnabled) {
+        asyncStoragePodInterceptor.intercept(osEnv, identity);
+        logsVolumeMachineProvisioner.provision(osEnv, identity);
+      }
 
-    // 3 stage - add OpenShift env items
-    restartPolicyRewriter.provision(osEnv, identity);
-    routeTlsProvisioner.provision(osEnv, identity);
-    resourceLimitRequestProvisioner.provision(osEnv, identity);
-    nodeSelectorProvisioner.provision(osEnv, identity);
-    tolerationsProvisioner.provision(osEnv, identity);
-    podTerminationGracePeriodProvisioner.provision(osEnv, identity);
-    imagePullSecretProvisioner.provision(osEnv, identity);
-    proxySettingsProvisioner.provision(osEnv, identity);
-    serviceAccountProvisioner.provision(osEnv, identity);
-    asyncStorageProvisioner.provision(osEnv, identity);
-    certificateProvisioner.provision(osEnv, identity);
-    sshKeysProvisioner.provision(osEnv, identity);
-    vcsSslCertificateProvisioner.provision(osEnv, identity);
-    gitConfigProvisioner.provision(osEnv, identity);
-    gatewayRouterProvisioner.provision(osEnv, identity);
-    deploymentMetadataProvisioner.provision(osEnv, identity);
-    trustedCAProvisioner.provision(osEnv, identity);
-    uniqueNamesProvisioner.provision(osEnv, identity);
+      // 2 stage - converting Che model env to OpenShift env
+      serversConverter.provision(osEnv, identity);
+      previewUrlExposer.expose(osEnv);
+      envVarsConverter.provision(osEnv, identity);
+      if (pvcEnabled) {
+        volumesStrategy.provision(osEnv, identity);
+      }
+
+      // 3 stage - add OpenShift env items
+      restartPolicyRewriter.provision(osEnv, identity);
+      routeTlsProvisioner.provision(osEnv, identity);
+      resourceLimitRequestProvisioner.provision(osEnv, identity);
+      nodeSelectorProvisioner.provision(osEnv, identity);
+      tolerationsProvisioner.provision(osEnv, identity);
+      podTerminationGracePeriodProvisioner.provision(osEnv, identity);
+      imagePullSecretProvisioning.apply(osEnv);
+      proxySettingsProvisioner.provision(osEnv, identity);
+      serviceAccountProvisioner.provision(osEnv, identity);
+      asyncStorageProvisioner.provision(osEnv, identity);
+      certificateProvisioner.provision(osEnv, identity);
+      sshKeysProvisioning.apply(osEnv);
+      vcsSslCertificateProvisioner.provision(osEnv, identity);
+      gitConfigProvisioning.apply(osEnv);
+      gatewayRouterProvisioner.provision(osEnv, identity);
+      deploymentMetadataProvisioner.provision(osEnv, identity);
+      trustedCAProvisioning.apply(osEnv);
+      uniqueNamesProvisioner.provision(osEnv, identity);
+    } finally {
+      // preparations which are not applied because of a failure are not needed anymore
+      ProvisioningPreparer.cancel(
+          imagePullSecretProvisioning,
+          sshKeysProvisioning,
+          gitConfigProvisioning,
+          trustedCAProvisioning);
+    }
     LOG.debug(
         "Provisioning OpenShift environment done for workspace '{}'", identity.getWorkspaceId());
   }
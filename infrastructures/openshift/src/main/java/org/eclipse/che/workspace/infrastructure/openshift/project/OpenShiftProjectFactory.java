@@ -165,7 +165,7 @@ public class OpenShiftProjectFactory extends KubernetesNamespaceFactory {
   @VisibleForTesting
   OpenShiftProject doCreateProjectAccess(String workspaceId, String name) {
     return new OpenShiftProject(
-        clientFactory, cheClientFactory, sharedPool.getExecutor(), name, workspaceId);
+        clientFactory, cheClientFactory, sharedPool.getLogWatchersExecutor(), name, workspaceId);
   }
 
   @VisibleForTesting
@@ -11,11 +11,30 @@
  */
 package org.eclipse.che.workspace.infrastructure.openshift;
 
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.observability.NoopExecutorServiceWrapper;
+import org.eclipse.che.workspace.infrastructure.kubernetes.environment.KubernetesEnvironment;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.pvc.WorkspaceVolumesStrategy;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.AsyncStoragePodInterceptor;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.AsyncStorageProvisioner;
@@ -27,6 +46,10 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ImagePullSe
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.LogsVolumeMachineProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.NodeSelectorProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PodTerminationGracePeriodProvisioner;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PreparableConfigurationProvisioner;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.PreparableConfigurationProvisioner.Provisioning;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProvisioningPreparer;
+import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProvisioningPreparer.Preparation;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ProxySettingsProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.ServiceAccountProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.SshKeysProvisioner;
@@ -37,6 +60,7 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.provision.env.EnvVars
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.limits.ram.ContainerResourceProvisioner;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.restartpolicy.RestartPolicyRewriter;
 import org.eclipse.che.workspace.infrastructure.kubernetes.provision.server.ServersConverter;
+import org.eclipse.che.workspace.infrastructure.kubernetes.util.KubernetesSharedPool;
 import org.eclipse.che.workspace.infrastructure.openshift.environment.OpenShiftEnvironment;
 import org.eclipse.che.workspace.infrastructure.openshift.provision.OpenShiftUniqueNamesProvisioner;
 import org.eclipse.che.workspace.infrastructure.openshift.provision.OpenshiftTrustedCAProvisioner;
@@ -44,8 +68,10 @@ import org.eclipse.che.workspace.infrastructure.openshift.provision.RouteTlsProv
 import org.eclipse.che.workspace.infrastructure.openshift.server.OpenShiftPreviewUrlExposer;
 import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
@@ -84,6 +110,11 @@ public class OpenShiftEnvironmentProvisionerTest {
   @Mock private GatewayRouterProvisioner gatewayRouterProvisioner;
   @Mock private DeploymentMetadataProvisioner deploymentMetadataProvisioner;
   @Mock private OpenshiftTrustedCAProvisioner trustedCAProvisioner;
+  @Mock private ProvisioningPreparer provisioningPreparer;
+  @Mock private Preparation<KubernetesEnvironment> imagePullSecretProvisioning;
+  @Mock private Preparation<KubernetesEnvironment> sshKeysProvisioning;
+  @Mock private Preparation<KubernetesEnvironment> gitConfigProvisioning;
+  @Mock private Preparation<KubernetesEnvironment> trustedCAProvisioning;
 
   private OpenShiftEnvironmentProvisioner osInfraProvisioner;
 
@@ -91,34 +122,20 @@ public class OpenShiftEnvironmentProvisionerTest {
 
   @BeforeMethod
   public void setUp() {
+    lenient()
+        .when(provisioningPreparer.prepareAsync(imagePullSecretProvisioner, runtimeIdentity))
+        .thenReturn(imagePullSecretProvisioning);
+    lenient()
+        .when(provisioningPreparer.prepareAsync(sshKeysProvisioner, runtimeIdentity))
+        .thenReturn(sshKeysProvisioning);
+    lenient()
+        .when(provisioningPreparer.prepareAsync(gitConfigProvisioner, runtimeIdentity))
+        .thenReturn(gitConfigProvisioning);
+    lenient()
+        .when(provisioningPreparer.prepareAsync(trustedCAProvisioner, runtimeIdentity))
+        .thenReturn(trustedCAProvisioning);
     when(tlsRouteProvisionerProvider.get()).thenReturn(tlsRouteProvisioner);
-    osInfraProvisioner =
-        new OpenShiftEnvironmentProvisioner(
-            true,
-            uniqueNamesProvisioner,
-            tlsRouteProvisionerProvider,
-            serversProvisioner,
-            envVarsProvisioner,
-            restartPolicyRewriter,
-            volumesStrategy,
-            ramLimitProvisioner,
-            logsVolumeMachineProvisioner,
-            podTerminationGracePeriodProvisioner,
-            imagePullSecretProvisioner,
-            proxySettingsProvisioner,
-            nodeSelectorProvisioner,
-            tolerationsProvisioner,
-            asyncStorageProvisioner,
-            asyncStoragePodObserver,
-            serviceAccountProvisioner,
-            certificateProvisioner,
-            sshKeysProvisioner,
-            gitConfigProvisioner,
-            previewUrlEndpointsProvisioner,
-            vcsSslCertificateProvisioner,
-            gatewayRouterProvisioner,
-            deploymentMetadataProvisioner,
-            trustedCAProvisioner);
+    osInfraProvisioner = createProvisioner(provisioningPreparer);
     provisionOrder =
         inOrder(
             logsVolumeMachineProvisioner,
@@ -132,17 +149,48 @@ public class OpenShiftEnvironmentProvisionerTest {
             nodeSelectorProvisioner,
             tolerationsProvisioner,
             podTerminationGracePeriodProvisioner,
-            imagePullSecretProvisioner,
+            imagePullSecretProvisioning,
             proxySettingsProvisioner,
             serviceAccountProvisioner,
             certificateProvisioner,
-            sshKeysProvisioner,
+            sshKeysProvisioning,
             vcsSslCertificateProvisioner,
-            gitConfigProvisioner,
+            gitConfigProvisioning,
             previewUrlEndpointsProvisioner,
             gatewayRouterProvisioner,
             deploymentMetadataProvisioner,
-            trustedCAProvisioner);
+            trustedCAProvisioning);
+  }
+
+  private OpenShiftEnvironmentProvisioner createProvisioner(
+      ProvisioningPreparer provisioningPreparer) {
+    return new OpenShiftEnvironmentProvisioner(
+        true,
+        uniqueNamesProvisioner,
+        tlsRouteProvisionerProvider,
+        serversProvisioner,
+        envVarsProvisioner,
+        restartPolicyRewriter,
+        volumesStrategy,
+        ramLimitProvisioner,
+        logsVolumeMachineProvisioner,
+        podTerminationGracePeriodProvisioner,
+        imagePullSecretProvisioner,
+        proxySettingsProvisioner,
+        nodeSelectorProvisioner,
+        tolerationsProvisioner,
+        asyncStorageProvisioner,
+        asyncStoragePodObserver,
+        serviceAccountProvisioner,
+        certificateProvisioner,
+        sshKeysProvisioner,
+        gitConfigProvisioner,
+        previewUrlEndpointsProvisioner,
+        vcsSslCertificateProvisioner,
+        gatewayRouterProvisioner,
+        deploymentMetadataProvisioner,
+        trustedCAProvisioner,
+        provisioningPreparer);
   }
 
   @Test
@@ -161,17 +209,158 @@ public class OpenShiftEnvironmentProvisionerTest {
     provisionOrder
         .verify(podTerminationGracePeriodProvisioner)
         .provision(eq(osEnv), eq(runtimeIdentity));
-    provisionOrder.verify(imagePullSecretProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
+    provisionOrder.verify(imagePullSecretProvisioning).apply(eq(osEnv));
     provisionOrder.verify(proxySettingsProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
     provisionOrder.verify(serviceAccountProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
     provisionOrder.verify(certificateProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
-    provisionOrder.verify(sshKeysProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
+    provisionOrder.verify(sshKeysProvisioning).apply(eq(osEnv));
     provisionOrder.verify(vcsSslCertificateProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
-    provisionOrder.verify(gitConfigProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
+    provisionOrder.verify(gitConfigProvisioning).apply(eq(osEnv));
     provisionOrder.verify(gatewayRouterProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
     provisionOrder.verify(deploymentMetadataProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
-    provisionOrder.verify(trustedCAProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
+    provisionOrder.verify(trustedCAProvisioning).apply(eq(osEnv));
     provisionOrder.verify(uniqueNamesProvisioner).provision(eq(osEnv), eq(runtimeIdentity));
+    provisionOrder.verify(imagePullSecretProvisioning).cancel();
+    provisionOrder.verify(sshKeysProvisioning).cancel();
+    provisionOrder.verify(gitConfigProvisioning).cancel();
+    provisionOrder.verify(trustedCAProvisioning).cancel();
     provisionOrder.verifyNoMoreInteractions();
   }
+
+  @Test
+  public void cancelsPreparationsWhenProvisioningFails() throws Exception {
+    doThrow(new InfrastructureException("failed"))
+        .when(serversProvisioner)
+        .provision(osEnv, runtimeIdentity);
+
+    try {
+      osInfraProvisioner.provision(osEnv, runtimeIdentity);
+    } catch (InfrastructureException expected) {
+    }
+
+    for (Preparation<KubernetesEnvironment> preparation :
+        asList(
+            imagePullSecretProvisioning,
+            sshKeysProvisioning,
+            gitConfigProvisioning,
+            trustedCAProvisioning)) {
+      verify(preparation).cancel();
+      verify(preparation, never()).apply(any());
+    }
+  }
+
+  @DataProvider
+  public Object[][] environmentSizes() {
+    return new Object[][] {{0}, {1}, {2}, {5}, {10}, {50}};
+  }
+
+  @Test(dataProvider = "environmentSizes", timeOut = 30_000)
+  public void provisionsEnvironmentConcurrentlyAsSequentially(int size) throws Exception {
+    doAnswer(record("logsVolumeMachineProvisioner"))
+        .when(logsVolumeMachineProvisioner)
+        .provision(any(), any());
+    doAnswer(record("serversProvisioner")).when(serversProvisioner).provision(any(), any());
+    doAnswer(record("envVarsProvisioner")).when(envVarsProvisioner).provision(any(), any());
+    doAnswer(record("volumesStrategy")).when(volumesStrategy).provision(any(), any());
+    doAnswer(record("restartPolicyRewriter")).when(restartPolicyRewriter).provision(any(), any());
+    doAnswer(record("tlsRouteProvisioner")).when(tlsRouteProvisioner).provision(any(), any());
+    doAnswer(record("ramLimitProvisioner")).when(ramLimitProvisioner).provision(any(), any());
+    doAnswer(record("nodeSelectorProvisioner"))
+        .when(nodeSelectorProvisioner)
+        .provision(any(), any());
+    doAnswer(record("tolerationsProvisioner")).when(tolerationsProvisioner).provision(any(), any());
+    doAnswer(record("podTerminationGracePeriodProvisioner"))
+        .when(podTerminationGracePeriodProvisioner)
+        .provision(any(), any());
+    doAnswer(record("proxySettingsProvisioner"))
+        .when(proxySettingsProvisioner)
+        .provision(any(), any());
+    doAnswer(record("serviceAccountProvisioner"))
+        .when(serviceAccountProvisioner)
+        .provision(any(), any());
+    doAnswer(record("asyncStorageProvisioner"))
+        .when(asyncStorageProvisioner)
+        .provision(any(), any());
+    doAnswer(record("certificateProvisioner")).when(certificateProvisioner).provision(any(), any());
+    doAnswer(record("vcsSslCertificateProvisioner"))
+        .when(vcsSslCertificateProvisioner)
+        .provision(any(), any());
+    doAnswer(record("gatewayRouterProvisioner"))
+        .when(gatewayRouterProvisioner)
+        .provision(any(), any());
+    doAnswer(record("deploymentMetadataProvisioner"))
+        .when(deploymentMetadataProvisioner)
+        .provision(any(), any());
+    doAnswer(record("uniqueNamesProvisioner")).when(uniqueNamesProvisioner).provision(any(), any());
+    Random random = new Random(size);
+    recordPreparation(imagePullSecretProvisioner, random.nextInt(50));
+    recordPreparation(sshKeysProvisioner, random.nextInt(50));
+    recordPreparation(gitConfigProvisioner, random.nextInt(50));
+    recordPreparation(trustedCAProvisioner, random.nextInt(50));
+    KubernetesSharedPool concurrentPool =
+        new KubernetesSharedPool("bounded", 10, 100, new NoopExecutorServiceWrapper());
+    // preparations rejected by the pool are performed on apply, i.e. sequentially
+    KubernetesSharedPool rejectingPool =
+        new KubernetesSharedPool("bounded", 1, 1, new NoopExecutorServiceWrapper());
+    rejectingPool.getExecutor().shutdown();
+    OpenShiftEnvironment concurrentEnv = createEnvironment(size);
+    OpenShiftEnvironment sequentialEnv = createEnvironment(size);
+
+    try {
+      createProvisioner(new ProvisioningPreparer(concurrentPool, 1))
+          .provision(concurrentEnv, runtimeIdentity);
+      createProvisioner(new ProvisioningPreparer(rejectingPool, 1))
+          .provision(sequentialEnv, runtimeIdentity);
+    } finally {
+      concurrentPool.getExecutor().shutdownNow();
+    }
+
+    assertEquals(concurrentEnv.getConfigMaps(), sequentialEnv.getConfigMaps());
+    assertEquals(concurrentEnv.getConfigMaps().size(), size + 22);
+  }
+
+  private static OpenShiftEnvironment createEnvironment(int size) {
+    Map<String, Pod> pods = new HashMap<>();
+    Map<String, ConfigMap> configMaps = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      pods.put(
+          "pod" + i, new PodBuilder().withNewMetadata().withName("pod" + i).endMetadata().build());
+      configMaps.put("configMap" + i, newConfigMap("configMap" + i, i));
+    }
+    return OpenShiftEnvironment.builder().setPods(pods).setConfigMaps(configMaps).build();
+  }
+
+  private static Answer<Void> record(String step) {
+    return invocation -> {
+      record(invocation.getArgument(0), step);
+      return null;
+    };
+  }
+
+  private void recordPreparation(
+      PreparableConfigurationProvisioner<KubernetesEnvironment> provisioner, long delayMillis)
+      throws InfrastructureException {
+    when(provisioner.prepare(runtimeIdentity))
+        .thenAnswer(
+            invocation -> {
+              MILLISECONDS.sleep(delayMillis);
+              return (Provisioning<KubernetesEnvironment>)
+                  osEnv -> record(osEnv, provisioner.toString());
+            });
+  }
+
+  /** Records the provisioning step along with the number of config maps provisioned before it. */
+  private static void record(KubernetesEnvironment osEnv, String step) {
+    Map<String, ConfigMap> configMaps = osEnv.getConfigMaps();
+    configMaps.put(step, newConfigMap(step, configMaps.size()));
+  }
+
+  private static ConfigMap newConfigMap(String name, int position) {
+    return new ConfigMapBuilder()
+        .withNewMetadata()
+        .withName(name)
+        .endMetadata()
+        .addToData("position", Integer.toString(position))
+        .build();
+  }
 }
@@ -25,6 +25,7 @@ import org.eclipse.che.multiuser.organization.spi.impl.MemberImpl;
 import org.eclipse.che.multiuser.organization.spi.jpa.JpaMemberDao;
 import org.eclipse.che.multiuser.organization.spi.jpa.JpaOrganizationDao;
 import org.eclipse.che.multiuser.organization.spi.jpa.JpaOrganizationDistributedResourcesDao;
+import org.eclipse.che.multiuser.organization.spi.jpa.OrganizationPathsInitializer;
 
 /** @author Sergii Leschenko */
 public class OrganizationJpaModule extends AbstractModule {
@@ -32,6 +33,7 @@ public class OrganizationJpaModule extends AbstractModule {
   protected void configure() {
     bind(OrganizationDao.class).to(JpaOrganizationDao.class);
     bind(MemberDao.class).to(JpaMemberDao.class);
+    bind(OrganizationPathsInitializer.class).asEagerSingleton();
 
     bind(new TypeLiteral<AbstractPermissionsDomain<MemberImpl>>() {}).to(OrganizationDomain.class);
 
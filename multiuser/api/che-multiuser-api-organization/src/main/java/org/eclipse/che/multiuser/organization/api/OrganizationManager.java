@@ -11,7 +11,10 @@
  */
 package org.eclipse.che.multiuser.organization.api;
 
+import static java.util.Collections.emptyList;
+import static java.util.Comparator.comparingInt;
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.multiuser.organization.api.DtoConverter.asDto;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -54,6 +57,8 @@ import org.eclipse.che.multiuser.organization.spi.impl.OrganizationImpl;
 @Singleton
 public class OrganizationManager {
 
+  private static final int SUBORGANIZATIONS_PAGE_SIZE = 100;
+
   private final EventService eventService;
   private final OrganizationDao organizationDao;
   private final MemberDao memberDao;
@@ -131,11 +136,21 @@ public class OrganizationManager {
     final String newQualifiedName = buildQualifiedName(oldQualifiedName, update.getName());
 
     checkNameReservation(newQualifiedName);
+    // suborganizations are found by the name of the parent, so they are fetched before renaming it
+    final List<OrganizationImpl> suborganizations =
+        newName.equals(oldName)
+            ? emptyList()
+            : Pages.stream(
+                    (maxItems, skipCount) ->
+                        organizationDao.getSuborganizations(oldQualifiedName, maxItems, skipCount),
+                    SUBORGANIZATIONS_PAGE_SIZE)
+                .collect(toList());
     organization.setQualifiedName(newQualifiedName);
 
     organizationDao.update(organization);
     if (!newName.equals(oldName)) {
-      updateSuborganizationsQualifiedNames(oldQualifiedName, organization.getQualifiedName());
+      updateSuborganizationsQualifiedNames(
+          suborganizations, oldQualifiedName, organization.getQualifiedName());
 
       final String performerName = EnvironmentContext.getCurrent().getSubject().getUserName();
       // should be DTO as it sent via json rpc
@@ -161,11 +176,8 @@ public class OrganizationManager {
           .publish(new BeforeAccountRemovedEvent(organization.getAccount()))
           .propagateException();
       eventService.publish(new BeforeOrganizationRemovedEvent(organization)).propagateException();
-      removeSuborganizations(organizationId);
-      final List<String> members = removeMembers(organizationId);
-      organizationDao.remove(organizationId);
-      final String initiator = EnvironmentContext.getCurrent().getSubject().getUserName();
-      eventService.publish(asDto(new OrganizationRemovedEvent(initiator, organization, members)));
+      removeSuborganizations(organization.getQualifiedName());
+      removeWithMembers(organization);
     } catch (NotFoundException e) {
       // organization is already removed
     }
@@ -259,14 +271,12 @@ public class OrganizationManager {
   }
 
   private void updateSuborganizationsQualifiedNames(
-      String oldQualifiedName, String newQualifiedName)
+      List<OrganizationImpl> suborganizations, String oldQualifiedName, String newQualifiedName)
       throws NotFoundException, ConflictException, ServerException {
-    for (OrganizationImpl suborganization :
-        Pages.iterate(
-            (maxItems, skipCount) ->
-                organizationDao.getSuborganizations(oldQualifiedName, maxItems, skipCount))) {
-      suborganization.setQualifiedName(
-          suborganization.getQualifiedName().replaceFirst(oldQualifiedName, newQualifiedName));
+    for (OrganizationImpl suborganization : suborganizations) {
+      final String relativeName =
+          suborganization.getQualifiedName().substring(oldQualifiedName.length());
+      suborganization.setQualifiedName(newQualifiedName + relativeName);
       organizationDao.update(suborganization);
     }
   }
@@ -296,21 +306,45 @@ public class OrganizationManager {
   }
 
   /**
-   * Removes suborganizations of given parent organization page by page
+   * Removes all the direct and nested suborganizations of given parent organization.
+   *
+   * <p>The whole subtree is fetched at once, then suborganizations are removed starting from the
+   * most nested ones, so none of them is removed before its own suborganizations.
    *
-   * @param organizationId parent organization id
+   * @param parentQualifiedName parent organization qualified name
    */
   @VisibleForTesting
-  void removeSuborganizations(String organizationId) throws ServerException {
-    Page<? extends Organization> suborganizationsPage;
-    do {
-      // skip count always equals to 0 because elements will be shifted after removing previous
-      // items
-      suborganizationsPage = organizationDao.getByParent(organizationId, 100, 0);
-      for (Organization suborganization : suborganizationsPage.getItems()) {
-        remove(suborganization.getId());
-      }
-    } while (suborganizationsPage.hasNextPage());
+  void removeSuborganizations(String parentQualifiedName) throws ServerException {
+    final List<OrganizationImpl> suborganizations =
+        Pages.stream(
+                (maxItems, skipCount) ->
+                    organizationDao.getSuborganizations(parentQualifiedName, maxItems, skipCount),
+                SUBORGANIZATIONS_PAGE_SIZE)
+            .sorted(comparingInt(OrganizationManager::depth).reversed())
+            .collect(toList());
+    for (OrganizationImpl suborganization : suborganizations) {
+      eventService
+          .publish(new BeforeAccountRemovedEvent(suborganization.getAccount()))
+          .propagateException();
+      eventService
+          .publish(new BeforeOrganizationRemovedEvent(suborganization))
+          .propagateException();
+      removeWithMembers(suborganization);
+    }
+  }
+
+  /** Removes organization which doesn't have suborganizations along with its members. */
+  private void removeWithMembers(OrganizationImpl organization) throws ServerException {
+    final List<String> members = removeMembers(organization.getId());
+    organizationDao.remove(organization.getId());
+    final String initiator = EnvironmentContext.getCurrent().getSubject().getUserName();
+    eventService.publish(asDto(new OrganizationRemovedEvent(initiator, organization, members)));
+  }
+
+  /** Returns the level of the organization in the tree, which is 0 for root organizations. */
+  private static int depth(Organization organization) {
+    final String qualifiedName = organization.getQualifiedName();
+    return qualifiedName.length() - qualifiedName.replace("/", "").length();
   }
 
   @VisibleForTesting
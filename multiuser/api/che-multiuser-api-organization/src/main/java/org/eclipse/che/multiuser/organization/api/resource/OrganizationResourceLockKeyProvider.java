@@ -41,6 +41,13 @@ public class OrganizationResourceLockKeyProvider implements ResourceLockKeyProvi
     String currentOrganizationId = accountId;
     try {
       Organization organization = organizationManager.getById(currentOrganizationId);
+      if (organization instanceof OrganizationImpl) {
+        // the root is the first organization of the path, so there is no need to walk the tree
+        String rootId = ((OrganizationImpl) organization).getRootId();
+        if (rootId != null) {
+          return rootId;
+        }
+      }
       while (organization.getParent() != null) {
         currentOrganizationId = organization.getParent();
         organization = organizationManager.getById(currentOrganizationId);
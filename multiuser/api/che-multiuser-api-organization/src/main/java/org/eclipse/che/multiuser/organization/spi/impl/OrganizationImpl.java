@@ -41,18 +41,27 @@ import org.eclipse.che.multiuser.organization.shared.model.Organization;
   @NamedQuery(
       name = "Organization.getByParentCount",
       query = "SELECT COUNT(o) " + "FROM Organization o " + "WHERE o.parent = :parent "),
+  @NamedQuery(
+      name = "Organization.getPathByName",
+      query = "SELECT o.path " + "FROM Organization o " + "WHERE o.account.name = :name"),
   @NamedQuery(
       name = "Organization.getSuborganizations",
-      query = "SELECT o " + "FROM Organization o " + "WHERE o.account.name LIKE :qualifiedName "),
+      query =
+          "SELECT o "
+              + "FROM Organization o "
+              + "WHERE o.path LIKE :pathPrefix "
+              + "ORDER BY o.path"),
   @NamedQuery(
       name = "Organization.getSuborganizationsCount",
-      query =
-          "SELECT COUNT(o) " + "FROM Organization o " + "WHERE o.account.name LIKE :qualifiedName ")
+      query = "SELECT COUNT(o) " + "FROM Organization o " + "WHERE o.path LIKE :pathPrefix ")
 })
 @Table(name = "che_organization")
 public class OrganizationImpl implements Organization {
   public static final String ORGANIZATIONAL_ACCOUNT = "organizational";
 
+  /** Separator of the organization ids in the {@link #getPath() path}. */
+  public static final String PATH_SEPARATOR = "/";
+
   @Id
   @Column(name = "id")
   private String id;
@@ -64,6 +73,14 @@ public class OrganizationImpl implements Organization {
   @Column(name = "parent")
   private String parent;
 
+  /**
+   * Materialized path of the organization, ids of its ancestors and its own id separated by {@link
+   * #PATH_SEPARATOR}, e.g. 'rootId/parentId/id'. It doesn't depend on names, so it is kept when
+   * organizations are renamed and allows to fetch the whole subtree with a single prefix query.
+   */
+  @Column(name = "path", nullable = false)
+  private String path;
+
   // Mapping exists for explicit constraints which allows
   // jpa backend to perform operations in correct order
   @ManyToOne
@@ -130,6 +147,38 @@ public class OrganizationImpl implements Organization {
     this.parent = parent;
   }
 
+  /** Returns the materialized path of the organization, see {@link #path}. */
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  /**
+   * Returns the id of the root organization of this organization, which is this organization id for
+   * the root organizations.
+   */
+  public String getRootId() {
+    if (path == null) {
+      return parent == null ? id : null;
+    }
+    int separatorIndex = path.indexOf(PATH_SEPARATOR);
+    return separatorIndex == -1 ? path : path.substring(0, separatorIndex);
+  }
+
+  /**
+   * Builds the path of an organization.
+   *
+   * @param parentPath path of the parent organization, or null for the root organization
+   * @param organizationId id of the organization
+   * @return materialized path of the organization
+   */
+  public static String buildPath(String parentPath, String organizationId) {
+    return parentPath == null ? organizationId : parentPath + PATH_SEPARATOR + organizationId;
+  }
+
   public AccountImpl getAccount() {
     return account;
   }
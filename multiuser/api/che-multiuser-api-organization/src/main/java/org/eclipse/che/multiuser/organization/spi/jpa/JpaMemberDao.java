@@ -12,12 +12,14 @@
 package org.eclipse.che.multiuser.organization.spi.jpa;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
 import com.google.inject.persist.Transactional;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
@@ -25,6 +27,7 @@ import javax.persistence.NoResultException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.core.db.jpa.eclipselink.AfterCommit;
 import org.eclipse.che.multiuser.api.permission.server.AbstractPermissionsDomain;
 import org.eclipse.che.multiuser.api.permission.server.jpa.AbstractJpaPermissionsDao;
 import org.eclipse.che.multiuser.organization.spi.MemberDao;
@@ -34,14 +37,32 @@ import org.eclipse.che.multiuser.organization.spi.impl.OrganizationImpl;
 /**
  * JPA based implementation of {@link MemberDao}.
  *
+ * <p>Memberships looked up by user are served from {@link MemberCache}, the cached memberships are
+ * invalidated once their changes are committed.
+ *
  * @author Sergii Leschenko
  */
 @Singleton
 public class JpaMemberDao extends AbstractJpaPermissionsDao<MemberImpl> implements MemberDao {
 
+  private final MemberCache memberCache;
+
   @Inject
-  public JpaMemberDao(AbstractPermissionsDomain<MemberImpl> supportedDomain) throws IOException {
+  public JpaMemberDao(
+      AbstractPermissionsDomain<MemberImpl> supportedDomain, MemberCache memberCache)
+      throws IOException {
     super(supportedDomain);
+    this.memberCache = memberCache;
+  }
+
+  @Override
+  public Optional<MemberImpl> store(MemberImpl member) throws ServerException {
+    requireNonNull(member, "Permissions instance required");
+    try {
+      return super.store(member);
+    } finally {
+      invalidateAfterCommit(member.getUserId(), member.getOrganizationId());
+    }
   }
 
   @Override
@@ -69,6 +90,8 @@ public class JpaMemberDao extends AbstractJpaPermissionsDao<MemberImpl> implemen
       doRemove(organizationId, userId);
     } catch (RuntimeException e) {
       throw new ServerException(e.getLocalizedMessage(), e);
+    } finally {
+      invalidateAfterCommit(userId, organizationId);
     }
   }
 
@@ -77,11 +100,14 @@ public class JpaMemberDao extends AbstractJpaPermissionsDao<MemberImpl> implemen
       throws NotFoundException, ServerException {
     requireNonNull(organizationId, "Required non-null organization id");
     requireNonNull(userId, "Required non-null user id");
-    try {
-      return new MemberImpl(getEntity(wildcardToNull(userId), organizationId));
-    } catch (RuntimeException e) {
-      throw new ServerException(e.getLocalizedMessage(), e);
-    }
+    return memberCache
+        .getMember(userId, organizationId, () -> findMember(organizationId, userId))
+        .orElseThrow(
+            () ->
+                new NotFoundException(
+                    format(
+                        "Membership of user %s in organization %s was not found",
+                        wildcardToNull(userId), organizationId)));
   }
 
   @Override
@@ -116,9 +142,13 @@ public class JpaMemberDao extends AbstractJpaPermissionsDao<MemberImpl> implemen
   }
 
   @Override
-  @Transactional
   public List<MemberImpl> getMemberships(String userId) throws ServerException {
     requireNonNull(userId, "Required non-null user id");
+    return memberCache.getMemberships(userId, () -> doGetMemberships(userId));
+  }
+
+  @Transactional
+  protected List<MemberImpl> doGetMemberships(String userId) throws ServerException {
     try {
       final EntityManager manager = managerProvider.get();
       return manager
@@ -178,6 +208,26 @@ public class JpaMemberDao extends AbstractJpaPermissionsDao<MemberImpl> implemen
     }
   }
 
+  /**
+   * Invalidates the cached membership once the change is committed, the change might be a part of
+   * an outer transaction, e.g. the one of organization creation.
+   */
+  @Transactional
+  protected void invalidateAfterCommit(String userId, String organizationId) {
+    AfterCommit.run(managerProvider.get(), () -> memberCache.invalidate(userId, organizationId));
+  }
+
+  private Optional<MemberImpl> findMember(String organizationId, String userId)
+      throws ServerException {
+    try {
+      return Optional.of(new MemberImpl(getEntity(wildcardToNull(userId), organizationId)));
+    } catch (NotFoundException e) {
+      return Optional.empty();
+    } catch (RuntimeException e) {
+      throw new ServerException(e.getLocalizedMessage(), e);
+    }
+  }
+
   @Override
   protected MemberImpl getEntity(String userId, String instanceId)
       throws NotFoundException, ServerException {
@@ -13,10 +13,12 @@ package org.eclipse.che.multiuser.organization.spi.jpa;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 
 import com.google.inject.persist.Transactional;
 import java.util.List;
+import java.util.Objects;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
@@ -155,10 +157,19 @@ public class JpaOrganizationDao implements OrganizationDao {
         "The number of items to skip can't be greater than " + Integer.MAX_VALUE);
     try {
       final EntityManager manager = managerProvider.get();
+      final List<String> parentPath =
+          manager
+              .createNamedQuery("Organization.getPathByName", String.class)
+              .setParameter("name", parentQualifiedName)
+              .getResultList();
+      if (parentPath.isEmpty()) {
+        return new Page<>(emptyList(), skipCount, maxItems, 0);
+      }
+      final String pathPrefix = parentPath.get(0) + OrganizationImpl.PATH_SEPARATOR + "%";
       List<OrganizationImpl> result =
           manager
               .createNamedQuery("Organization.getSuborganizations", OrganizationImpl.class)
-              .setParameter("qualifiedName", parentQualifiedName + "/%")
+              .setParameter("pathPrefix", pathPrefix)
               .setMaxResults(maxItems)
               .setFirstResult((int) skipCount)
               .getResultList();
@@ -166,7 +177,7 @@ public class JpaOrganizationDao implements OrganizationDao {
       final long suborganizationsCount =
           manager
               .createNamedQuery("Organization.getSuborganizationsCount", Long.class)
-              .setParameter("qualifiedName", parentQualifiedName + "/%")
+              .setParameter("pathPrefix", pathPrefix)
               .getSingleResult();
 
       return new Page<>(result, skipCount, maxItems, suborganizationsCount);
@@ -178,6 +189,9 @@ public class JpaOrganizationDao implements OrganizationDao {
   @Transactional
   protected void doCreate(OrganizationImpl organization) {
     EntityManager manager = managerProvider.get();
+    organization.setPath(
+        OrganizationImpl.buildPath(
+            getParentPath(manager, organization.getParent()), organization.getId()));
     manager.persist(organization);
     manager.flush();
   }
@@ -185,16 +199,45 @@ public class JpaOrganizationDao implements OrganizationDao {
   @Transactional
   protected void doUpdate(OrganizationImpl update) throws NotFoundException {
     final EntityManager manager = managerProvider.get();
-    if (manager.find(OrganizationImpl.class, update.getId()) == null) {
+    final OrganizationImpl existing = manager.find(OrganizationImpl.class, update.getId());
+    if (existing == null) {
       throw new NotFoundException(
           format(
               "Couldn't update organization with id '%s' because it doesn't exist",
               update.getId()));
     }
+    final String oldPath = existing.getPath();
+    if (Objects.equals(existing.getParent(), update.getParent())) {
+      update.setPath(oldPath);
+    } else {
+      final String newPath =
+          OrganizationImpl.buildPath(getParentPath(manager, update.getParent()), update.getId());
+      // the subtree is moved along with the organization
+      for (OrganizationImpl suborganization :
+          manager
+              .createNamedQuery("Organization.getSuborganizations", OrganizationImpl.class)
+              .setParameter("pathPrefix", oldPath + OrganizationImpl.PATH_SEPARATOR + "%")
+              .getResultList()) {
+        suborganization.setPath(newPath + suborganization.getPath().substring(oldPath.length()));
+      }
+      update.setPath(newPath);
+    }
     manager.merge(update);
     manager.flush();
   }
 
+  /**
+   * Returns the path of the parent organization, null if the parent is null or doesn't exist, in
+   * the latter case the organization is rejected by the parent constraint.
+   */
+  private static String getParentPath(EntityManager manager, String parentId) {
+    if (parentId == null) {
+      return null;
+    }
+    final OrganizationImpl parent = manager.find(OrganizationImpl.class, parentId);
+    return parent == null ? null : parent.getPath();
+  }
+
   @Transactional
   protected void doRemove(String organizationId) {
     final EntityManager manager = managerProvider.get();
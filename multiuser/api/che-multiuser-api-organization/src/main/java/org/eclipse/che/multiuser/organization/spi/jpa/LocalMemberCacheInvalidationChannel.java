@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.organization.spi.jpa;
+
+import java.util.function.BiConsumer;
+import javax.inject.Singleton;
+
+/** Invalidation channel of a single Che Server instance, there are no other instances to notify. */
+@Singleton
+public class LocalMemberCacheInvalidationChannel implements MemberCacheInvalidationChannel {
+
+  @Override
+  public void publish(String organizationId, String userId) {}
+
+  @Override
+  public void subscribe(BiConsumer<String, String> listener) {}
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.organization.spi.jpa;
+
+import static java.util.stream.Collectors.toList;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.multiuser.organization.shared.event.MemberEvent;
+import org.eclipse.che.multiuser.organization.shared.event.OrganizationEvent;
+import org.eclipse.che.multiuser.organization.spi.impl.MemberImpl;
+
+/**
+ * Read-through cache of organization memberships used by {@link JpaMemberDao}.
+ *
+ * <p>The same memberships are resolved on every request which uses an organizational namespace,
+ * e.g. permission checks of workspace creation or resources information, so memberships are cached
+ * by user and organization including the absent ones, as well as the lists of memberships of users.
+ *
+ * <p>Entries are invalidated when memberships are stored or removed through the DAO, when member
+ * and organization removal events are published, and when invalidations are received from other Che
+ * Server instances through {@link MemberCacheInvalidationChannel}. Entries also expire after the
+ * configured time.
+ */
+@Singleton
+public class MemberCache implements EventSubscriber<OrganizationEvent> {
+
+  private final EventService eventService;
+  private final MemberCacheInvalidationChannel invalidationChannel;
+  private final Cache<MemberKey, Optional<MemberImpl>> members;
+  private final Cache<String, List<MemberImpl>> memberships;
+
+  /**
+   * Incremented on each invalidation. Values loaded while it was changed are not kept since they
+   * could be read before the invalidated change.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  @Inject
+  public MemberCache(
+      EventService eventService,
+      MemberCacheInvalidationChannel invalidationChannel,
+      @Named("che.organization.member_cache.max_size") int maxSize,
+      @Named("che.organization.member_cache.expire_after_sec") long expireAfterSec) {
+    this.eventService = eventService;
+    this.invalidationChannel = invalidationChannel;
+    this.members =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(expireAfterSec, TimeUnit.SECONDS)
+            .build();
+    this.memberships =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(expireAfterSec, TimeUnit.SECONDS)
+            .build();
+  }
+
+  @PostConstruct
+  public void subscribe() {
+    eventService.subscribe(this, OrganizationEvent.class);
+    invalidationChannel.subscribe(this::invalidateLocally);
+  }
+
+  @PreDestroy
+  public void unsubscribe() {
+    eventService.unsubscribe(this, OrganizationEvent.class);
+  }
+
+  /**
+   * Returns the membership of the user in the organization, loading it when it is not cached.
+   *
+   * @param userId id of the user or '*' for memberships of all users
+   * @param organizationId id of the organization
+   * @param loader loads membership from the storage
+   * @return the membership or empty optional when the user is not a member of the organization
+   * @throws ServerException when the loader fails
+   */
+  public Optional<MemberImpl> getMember(
+      String userId, String organizationId, Loader<Optional<MemberImpl>> loader)
+      throws ServerException {
+    final MemberKey key = new MemberKey(userId, organizationId);
+    Optional<MemberImpl> member = members.getIfPresent(key);
+    if (member == null) {
+      final long loadGeneration = generation.get();
+      member = loader.load().map(MemberCache::copy);
+      putIfNotInvalidated(members, key, member, loadGeneration);
+    }
+    return member.map(MemberCache::copy);
+  }
+
+  /**
+   * Returns the memberships of the user, loading them when they are not cached.
+   *
+   * @param userId id of the user
+   * @param loader loads memberships from the storage
+   * @return memberships of the user
+   * @throws ServerException when the loader fails
+   */
+  public List<MemberImpl> getMemberships(String userId, Loader<List<MemberImpl>> loader)
+      throws ServerException {
+    List<MemberImpl> userMemberships = memberships.getIfPresent(userId);
+    if (userMemberships == null) {
+      final long loadGeneration = generation.get();
+      userMemberships = copy(loader.load());
+      putIfNotInvalidated(memberships, userId, userMemberships, loadGeneration);
+    }
+    return copy(userMemberships);
+  }
+
+  /**
+   * Invalidates the membership of the user in the organization on this and other Che Server
+   * instances.
+   */
+  public void invalidate(String userId, String organizationId) {
+    invalidateLocally(organizationId, userId);
+    invalidationChannel.publish(organizationId, userId);
+  }
+
+  /**
+   * Invalidates memberships of all the users in the organization on this and other Che Server
+   * instances.
+   */
+  public void invalidateOrganization(String organizationId) {
+    invalidateLocally(organizationId, null);
+    invalidationChannel.publish(organizationId, null);
+  }
+
+  @Override
+  public void onEvent(OrganizationEvent event) {
+    // changes are already propagated to other instances by the DAO which made them,
+    // events only make sure that changes made around the DAO are not missed locally
+    switch (event.getType()) {
+      case MEMBER_ADDED:
+      case MEMBER_REMOVED:
+        invalidateLocally(
+            event.getOrganization().getId(), ((MemberEvent) event).getMember().getId());
+        break;
+      case ORGANIZATION_REMOVED:
+        invalidateLocally(event.getOrganization().getId(), null);
+        break;
+      default:
+        // memberships are cached by ids, so renaming doesn't affect them
+    }
+  }
+
+  private void invalidateLocally(String organizationId, @Nullable String userId) {
+    generation.incrementAndGet();
+    if (userId != null) {
+      members.invalidate(new MemberKey(userId, organizationId));
+      memberships.invalidate(userId);
+    } else {
+      members.asMap().keySet().removeIf(key -> key.organizationId.equals(organizationId));
+      memberships
+          .asMap()
+          .values()
+          .removeIf(
+              userMemberships ->
+                  userMemberships
+                      .stream()
+                      .anyMatch(member -> member.getOrganizationId().equals(organizationId)));
+    }
+  }
+
+  private <K, V> void putIfNotInvalidated(Cache<K, V> cache, K key, V value, long loadGeneration) {
+    if (generation.get() != loadGeneration) {
+      return;
+    }
+    cache.put(key, value);
+    // invalidation might happen right before the value is put
+    if (generation.get() != loadGeneration) {
+      cache.invalidate(key);
+    }
+  }
+
+  private static MemberImpl copy(MemberImpl member) {
+    return new MemberImpl(
+        member.getUserId(), member.getOrganizationId(), new ArrayList<>(member.getActions()));
+  }
+
+  private static List<MemberImpl> copy(List<MemberImpl> members) {
+    return members.stream().map(MemberCache::copy).collect(toList());
+  }
+
+  /** Loads cached values from the storage. */
+  @FunctionalInterface
+  public interface Loader<T> {
+    T load() throws ServerException;
+  }
+
+  private static final class MemberKey {
+
+    private final String userId;
+    private final String organizationId;
+
+    private MemberKey(String userId, String organizationId) {
+      this.userId = userId;
+      this.organizationId = organizationId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof MemberKey)) {
+        return false;
+      }
+      final MemberKey that = (MemberKey) obj;
+      return Objects.equals(userId, that.userId)
+          && Objects.equals(organizationId, that.organizationId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(userId, organizationId);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.organization.spi.jpa;
+
+import com.google.inject.ImplementedBy;
+import java.util.function.BiConsumer;
+import org.eclipse.che.commons.annotation.Nullable;
+
+/**
+ * Propagates invalidations of {@link MemberCache} between Che Server instances, so memberships
+ * changed on one instance are not served from the caches of the others.
+ */
+@ImplementedBy(LocalMemberCacheInvalidationChannel.class)
+public interface MemberCacheInvalidationChannel {
+
+  /**
+   * Notifies other Che Server instances that memberships are changed.
+   *
+   * @param organizationId id of the organization which memberships are changed
+   * @param userId id of the user which membership is changed, or null when memberships of all the
+   *     users in the organization are changed
+   */
+  void publish(String organizationId, @Nullable String userId);
+
+  /**
+   * Subscribes the listener of invalidations published by other Che Server instances.
+   *
+   * @param listener consumer of organization id and nullable user id of the changed memberships
+   */
+  void subscribe(BiConsumer<String, String> listener);
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.organization.spi.jpa;
+
+import static java.lang.String.format;
+
+import com.google.inject.persist.Transactional;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import javax.persistence.EntityManager;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.core.db.DBInitializer;
+import org.eclipse.che.multiuser.organization.spi.impl.OrganizationImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sets materialized paths of the organizations created before the paths were introduced.
+ *
+ * <p>The schema migration sets paths of the root organizations and, where recursive updates are
+ * supported, of the whole tree. The rest of the paths are set here one level of the tree per
+ * transaction. Organizations which are not reachable from any root organization can't get a path,
+ * so the start fails with a message pointing to them.
+ *
+ * @see OrganizationImpl#getPath()
+ */
+@Singleton
+public class OrganizationPathsInitializer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OrganizationPathsInitializer.class);
+
+  private static final String GET_CHILDREN_OF_ORGANIZATIONS_WITH_PATH =
+      "SELECT o, p.path "
+          + "FROM Organization o "
+          + "JOIN o.parentObj p "
+          + "WHERE o.path IS NULL AND p.path IS NOT NULL";
+  private static final String GET_ORGANIZATIONS_WITHOUT_PATH =
+      "SELECT o.id FROM Organization o WHERE o.path IS NULL ORDER BY o.id";
+  private static final String INITIALIZE_ROOTS =
+      "UPDATE Organization o SET o.path = o.id WHERE o.path IS NULL AND o.parent IS NULL";
+
+  private final Provider<EntityManager> managerProvider;
+
+  @Inject
+  @SuppressWarnings("unused")
+  private DBInitializer dbInitializer;
+
+  @Inject
+  public OrganizationPathsInitializer(Provider<EntityManager> managerProvider) {
+    this.managerProvider = managerProvider;
+  }
+
+  @PostConstruct
+  public void init() throws ServerException {
+    int initialized = initializeRoots();
+    for (int level = initializeNextLevel(); level > 0; level = initializeNextLevel()) {
+      initialized += level;
+    }
+    if (initialized > 0) {
+      LOG.info("Initialized materialized paths of {} organizations", initialized);
+    }
+    final List<String> unreachable = getOrganizationsWithoutPath();
+    if (!unreachable.isEmpty()) {
+      throw new ServerException(
+          format(
+              "Unable to initialize materialized paths of organizations %s, they are not "
+                  + "suborganizations of any root organization. Fix the 'parent' column of these "
+                  + "organizations in the 'che_organization' table and restart Che Server",
+              unreachable));
+    }
+  }
+
+  /** Sets paths of the root organizations, returns the number of them. */
+  @Transactional
+  protected int initializeRoots() throws ServerException {
+    try {
+      return managerProvider.get().createQuery(INITIALIZE_ROOTS).executeUpdate();
+    } catch (RuntimeException e) {
+      throw new ServerException(e.getLocalizedMessage(), e);
+    }
+  }
+
+  /** Sets paths of the organizations whose parents have paths, returns the number of them. */
+  @Transactional
+  protected int initializeNextLevel() throws ServerException {
+    try {
+      final List<Object[]> children =
+          managerProvider
+              .get()
+              .createQuery(GET_CHILDREN_OF_ORGANIZATIONS_WITH_PATH, Object[].class)
+              .getResultList();
+      for (Object[] child : children) {
+        final OrganizationImpl organization = (OrganizationImpl) child[0];
+        organization.setPath(OrganizationImpl.buildPath((String) child[1], organization.getId()));
+      }
+      return children.size();
+    } catch (RuntimeException e) {
+      throw new ServerException(e.getLocalizedMessage(), e);
+    }
+  }
+
+  @Transactional
+  protected List<String> getOrganizationsWithoutPath() throws ServerException {
+    try {
+      return managerProvider
+          .get()
+          .createQuery(GET_ORGANIZATIONS_WITHOUT_PATH, String.class)
+          .getResultList();
+    } catch (RuntimeException e) {
+      throw new ServerException(e.getLocalizedMessage(), e);
+    }
+  }
+}
@@ -11,6 +11,8 @@
  */
 package org.eclipse.che.multiuser.organization.api;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -20,6 +22,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -52,6 +55,7 @@ import org.eclipse.che.multiuser.organization.spi.impl.MemberImpl;
 import org.eclipse.che.multiuser.organization.spi.impl.OrganizationImpl;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.testng.MockitoTestNGListener;
@@ -237,7 +241,7 @@ public class OrganizationManagerTest {
 
     verify(organizationDao).remove(toRemove.getId());
     verify(manager).removeMembers(eq(toRemove.getId()));
-    verify(manager).removeSuborganizations(eq(toRemove.getId()));
+    verify(manager).removeSuborganizations(eq(toRemove.getQualifiedName()));
     verify(eventService, times(3)).publish(anyObject());
     verify(beforeAccountRemovedEvent).propagateException();
     verify(beforeOrganizationRemovedEvent).propagateException();
@@ -260,20 +264,25 @@ public class OrganizationManagerTest {
   }
 
   @Test
-  public void shouldRemoveSuborganizationsByParentOrganizationId() throws Exception {
-    doNothing().when(manager).remove(any());
-    OrganizationImpl subOrg1 = new OrganizationImpl("subOrg1", "subOrg1", "org1");
-    OrganizationImpl subOrg2 = new OrganizationImpl("subOrg2", "subOrg2", "org1");
-    doReturn(new Page<>(singletonList(subOrg1), 0, 1, 2))
-        .doReturn(new Page<>(singletonList(subOrg2), 1, 1, 2))
+  public void shouldRemoveSuborganizationsStartingFromNestedOnes() throws Exception {
+    doReturn(emptyList()).when(manager).removeMembers(anyString());
+    OrganizationImpl subOrg1 = new OrganizationImpl("subOrg1", "org1/subOrg1", "org1");
+    OrganizationImpl subSubOrg = new OrganizationImpl("subSubOrg", "org1/subOrg1/sub", "subOrg1");
+    OrganizationImpl subOrg2 = new OrganizationImpl("subOrg2", "org1/subOrg2", "org1");
+    doReturn(new Page<>(asList(subOrg1, subSubOrg), 0, 2, 3))
+        .doReturn(new Page<>(singletonList(subOrg2), 2, 2, 3))
         .when(organizationDao)
-        .getByParent(anyString(), anyInt(), anyLong());
+        .getSuborganizations(anyString(), anyInt(), anyLong());
 
     manager.removeSuborganizations("org1");
 
-    verify(organizationDao, times(2)).getByParent("org1", 100, 0);
-    verify(manager).remove("subOrg1");
-    verify(manager).remove("subOrg2");
+    verify(organizationDao).getSuborganizations("org1", 100, 0);
+    verify(organizationDao, never()).getByParent(anyString(), anyInt(), anyLong());
+    InOrder inOrder = inOrder(organizationDao);
+    inOrder.verify(organizationDao).remove("subSubOrg");
+    inOrder.verify(organizationDao).remove("subOrg1");
+    verify(organizationDao).remove("subOrg2");
+    verify(manager, never()).remove(anyString());
   }
 
   @Test
@@ -11,7 +11,10 @@
  */
 package org.eclipse.che.multiuser.organization.api.resource;
 
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 
 import org.eclipse.che.multiuser.organization.api.OrganizationManager;
@@ -48,6 +51,22 @@ public class OrganizationResourceLockKeyProviderTest {
     assertEquals(lockId, "root");
   }
 
+  @Test
+  public void shouldReturnRootOrganizationIdFromPathWithoutFetchingParents() throws Exception {
+    // given
+    OrganizationImpl organization =
+        new OrganizationImpl("subsuborg", "rootName/suborgName/subsuborgName", "suborg");
+    organization.setPath("root/suborg/subsuborg");
+    when(organizationManager.getById("subsuborg")).thenReturn(organization);
+
+    // when
+    final String lockId = lockProvider.getLockKey("subsuborg");
+
+    // then
+    assertEquals(lockId, "root");
+    verify(organizationManager).getById(anyString());
+  }
+
   @Test
   public void shouldReturnOrganizationalReturnType() throws Exception {
     // then
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.organization.spi.jpa;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.util.Modules;
+import javax.persistence.EntityManager;
+import org.eclipse.che.api.user.server.model.impl.UserImpl;
+import org.eclipse.che.commons.test.tck.TckResourcesCleaner;
+import org.eclipse.che.multiuser.organization.spi.impl.MemberImpl;
+import org.eclipse.che.multiuser.organization.spi.impl.OrganizationImpl;
+import org.eclipse.che.multiuser.organization.spi.tck.jpa.OrganizationJpaTckModule;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests {@link JpaMemberDao} invalidation of {@link MemberCache}. */
+public class JpaMemberDaoTest {
+
+  private static final String USER_ID = "user123";
+  private static final String ORGANIZATION_ID = "organization123";
+
+  private MemberCache memberCache;
+  private EntityManager manager;
+  private JpaMemberDao memberDao;
+  private TckResourcesCleaner tckResourcesCleaner;
+
+  @BeforeMethod
+  public void setUp() {
+    memberCache = mock(MemberCache.class);
+    final Injector injector =
+        Guice.createInjector(
+            Modules.override(new OrganizationJpaTckModule())
+                .with(binder -> binder.bind(MemberCache.class).toInstance(memberCache)));
+    manager = injector.getInstance(EntityManager.class);
+    memberDao = injector.getInstance(JpaMemberDao.class);
+    tckResourcesCleaner = injector.getInstance(TckResourcesCleaner.class);
+
+    final OrganizationImpl organization = new OrganizationImpl(ORGANIZATION_ID, "test", null);
+    organization.setPath(OrganizationImpl.buildPath(null, ORGANIZATION_ID));
+    manager.getTransaction().begin();
+    manager.persist(new UserImpl(USER_ID, "user@test.com", "user"));
+    manager.persist(organization);
+    manager.getTransaction().commit();
+    manager.clear();
+  }
+
+  @AfterMethod
+  public void cleanup() {
+    tckResourcesCleaner.clean();
+  }
+
+  @Test
+  public void shouldInvalidateStoredMembershipRightAwayWithoutOuterTransaction() throws Exception {
+    memberDao.store(newMember());
+
+    verify(memberCache).invalidate(USER_ID, ORGANIZATION_ID);
+  }
+
+  @Test
+  public void shouldInvalidateStoredMembershipAfterOuterTransactionIsCommitted() throws Exception {
+    manager.getTransaction().begin();
+    memberDao.store(newMember());
+    verify(memberCache, never()).invalidate(USER_ID, ORGANIZATION_ID);
+
+    manager.getTransaction().commit();
+
+    verify(memberCache).invalidate(USER_ID, ORGANIZATION_ID);
+  }
+
+  @Test
+  public void shouldInvalidateRemovedMembershipAfterOuterTransactionIsCommitted() throws Exception {
+    memberDao.store(newMember());
+    manager.getTransaction().begin();
+    memberDao.remove(USER_ID, ORGANIZATION_ID);
+    verify(memberCache).invalidate(USER_ID, ORGANIZATION_ID);
+
+    manager.getTransaction().commit();
+
+    verify(memberCache, times(2)).invalidate(USER_ID, ORGANIZATION_ID);
+  }
+
+  @Test
+  public void shouldNotInvalidateMembershipWhenOuterTransactionIsRolledBack() throws Exception {
+    manager.getTransaction().begin();
+    memberDao.store(newMember());
+
+    manager.getTransaction().rollback();
+    memberDao.getByUser(USER_ID);
+
+    verify(memberCache, never()).invalidate(USER_ID, ORGANIZATION_ID);
+  }
+
+  private static MemberImpl newMember() {
+    return new MemberImpl(USER_ID, ORGANIZATION_ID, singletonList("read"));
+  }
+}
@@ -16,6 +16,7 @@ import com.google.inject.persist.UnitOfWork;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import javax.inject.Provider;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -44,11 +45,25 @@ public class JpaOrganizationImplTckRepository extends JpaTckRepository<Organizat
   @Override
   public void createAll(Collection<? extends OrganizationImpl> entities)
       throws TckRepositoryException {
+    // paths are set by the dao, so they are built here for the directly stored organizations
+    for (OrganizationImpl organization : entities) {
+      organization.setPath(
+          OrganizationImpl.buildPath(findParentPath(organization, entities), organization.getId()));
+    }
     super.createAll(entities);
     // It's important to save organization to remove them in the reverse order
     createdOrganizations.addAll(entities);
   }
 
+  private String findParentPath(
+      OrganizationImpl organization, Collection<? extends OrganizationImpl> entities) {
+    return Stream.concat(createdOrganizations.stream(), entities.stream())
+        .filter(o -> o.getId().equals(organization.getParent()))
+        .map(OrganizationImpl::getPath)
+        .findAny()
+        .orElse(null);
+  }
+
   @Override
   public void removeAll() throws TckRepositoryException {
     uow.begin();
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.organization.spi.jpa;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+import com.google.inject.util.Modules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import javax.persistence.EntityManager;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.user.server.model.impl.UserImpl;
+import org.eclipse.che.commons.test.db.StatementCountingCustomizer;
+import org.eclipse.che.commons.test.tck.TckResourcesCleaner;
+import org.eclipse.che.multiuser.organization.api.event.MemberRemovedEvent;
+import org.eclipse.che.multiuser.organization.api.event.OrganizationRemovedEvent;
+import org.eclipse.che.multiuser.organization.api.event.OrganizationRenamedEvent;
+import org.eclipse.che.multiuser.organization.spi.impl.MemberImpl;
+import org.eclipse.che.multiuser.organization.spi.impl.OrganizationImpl;
+import org.eclipse.che.multiuser.organization.spi.tck.jpa.OrganizationJpaTckModule;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests {@link MemberCache}. */
+@Listeners(MockitoTestNGListener.class)
+public class MemberCacheTest {
+
+  private static final OrganizationImpl ORGANIZATION = new OrganizationImpl("org1", "org", null);
+  private static final UserImpl USER = new UserImpl("user1", "user1@test.com", "user");
+
+  @Mock private MemberCacheInvalidationChannel invalidationChannel;
+  @Captor private ArgumentCaptor<BiConsumer<String, String>> invalidationListenerCaptor;
+
+  private EventService eventService;
+  private MemberCache memberCache;
+
+  /** Counts loads from the storage, each of them is a database query. */
+  private AtomicInteger loads;
+
+  private EntityManager manager;
+  private JpaMemberDao memberDao;
+  private TckResourcesCleaner tckResourcesCleaner;
+
+  @BeforeMethod
+  public void setUp() {
+    eventService = new EventService();
+    memberCache = new MemberCache(eventService, invalidationChannel, 100, 60);
+    memberCache.subscribe();
+    loads = new AtomicInteger();
+  }
+
+  @AfterMethod
+  public void cleanup() {
+    if (tckResourcesCleaner != null) {
+      tckResourcesCleaner.clean();
+      tckResourcesCleaner = null;
+    }
+  }
+
+  @Test
+  public void loadsMembershipOnceForRepeatedLookups() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      assertEquals(getMember("user1", "org1"), Optional.of(member("user1", "org1")));
+      assertFalse(getMember("*", "org1").isPresent());
+    }
+
+    assertEquals(loads.get(), 2);
+  }
+
+  @Test
+  public void loadsMembershipsOfUserOnceForRepeatedLookups() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      assertEquals(getMemberships("user1"), singletonList(member("user1", "org1")));
+    }
+
+    assertEquals(loads.get(), 1);
+  }
+
+  @Test
+  public void reloadsInvalidatedMembership() throws Exception {
+    getMember("user1", "org1");
+    getMember("user2", "org1");
+    getMemberships("user1");
+
+    memberCache.invalidate("user1", "org1");
+    getMember("user1", "org1");
+    getMember("user2", "org1");
+    getMemberships("user1");
+
+    assertEquals(loads.get(), 5);
+    verify(invalidationChannel).publish("org1", "user1");
+  }
+
+  @Test
+  public void reloadsInvalidatedMembershipsOfOrganization() throws Exception {
+    getMember("user1", "org1");
+    getMember("user1", "org2");
+    getMemberships("user1");
+
+    memberCache.invalidateOrganization("org1");
+    getMember("user1", "org1");
+    getMember("user1", "org2");
+    getMemberships("user1");
+
+    assertEquals(loads.get(), 5);
+    verify(invalidationChannel).publish("org1", null);
+  }
+
+  @Test
+  public void reloadsMembershipAfterMemberRemovedEventWithoutPublishingInvalidation()
+      throws Exception {
+    getMember("user1", "org1");
+
+    eventService.publish(new MemberRemovedEvent("admin", USER, ORGANIZATION));
+    getMember("user1", "org1");
+
+    assertEquals(loads.get(), 2);
+    verify(invalidationChannel, never()).publish(any(), any());
+  }
+
+  @Test
+  public void reloadsMembershipsAfterOrganizationRemovedEvent() throws Exception {
+    getMember("user1", "org1");
+    getMember("user2", "org1");
+
+    eventService.publish(
+        new OrganizationRemovedEvent("admin", ORGANIZATION, asList("user1", "user2")));
+    getMember("user1", "org1");
+    getMember("user2", "org1");
+
+    assertEquals(loads.get(), 4);
+  }
+
+  @Test
+  public void keepsMembershipsAfterOrganizationRenamedEvent() throws Exception {
+    getMember("user1", "org1");
+
+    eventService.publish(new OrganizationRenamedEvent("admin", "old", "org", ORGANIZATION));
+    getMember("user1", "org1");
+
+    assertEquals(loads.get(), 1);
+  }
+
+  @Test
+  public void reloadsMembershipInvalidatedByOtherServer() throws Exception {
+    verify(invalidationChannel).subscribe(invalidationListenerCaptor.capture());
+    getMember("user1", "org1");
+
+    invalidationListenerCaptor.getValue().accept("org1", "user1");
+    getMember("user1", "org1");
+
+    assertEquals(loads.get(), 2);
+    verify(invalidationChannel, never()).publish(any(), any());
+  }
+
+  @Test
+  public void doesNotKeepMembershipLoadedWhileItWasInvalidated() throws Exception {
+    memberCache.getMember(
+        "user1",
+        "org1",
+        () -> {
+          loads.incrementAndGet();
+          memberCache.invalidate("user1", "org1");
+          return Optional.of(member("user1", "org1"));
+        });
+
+    getMember("user1", "org1");
+
+    assertEquals(loads.get(), 2);
+  }
+
+  @Test
+  public void returnsCopiesOfCachedMemberships() throws Exception {
+    getMember("user1", "org1").get().getActions().clear();
+    getMemberships("user1").get(0).getActions().clear();
+
+    assertEquals(getMember("user1", "org1"), Optional.of(member("user1", "org1")));
+    assertEquals(getMemberships("user1"), singletonList(member("user1", "org1")));
+  }
+
+  @Test
+  public void selectsMembershipOnceForRepeatedLookupsThroughDao() throws Exception {
+    setUpH2MemberDao();
+    memberDao.store(
+        new MemberImpl("user1", "org1", new ArrayList<>(asList("read", "createWorkspaces"))));
+
+    StatementCountingCustomizer.reset();
+    for (int i = 0; i < 10; i++) {
+      assertEquals(memberDao.getMember("org1", "user1"), member("user1", "org1"));
+    }
+    assertEquals(StatementCountingCustomizer.getStatements(), 1);
+
+    StatementCountingCustomizer.reset();
+    for (int i = 0; i < 10; i++) {
+      assertEquals(memberDao.getMemberships("user1"), singletonList(member("user1", "org1")));
+    }
+    assertEquals(StatementCountingCustomizer.getStatements(), 1);
+  }
+
+  @Test
+  public void selectsMembershipAgainAfterStoreOrRemoveIsCommitted() throws Exception {
+    setUpH2MemberDao();
+    memberDao.store(
+        new MemberImpl("user1", "org1", new ArrayList<>(asList("read", "createWorkspaces"))));
+    memberDao.getMember("org1", "user1");
+    memberDao.getMemberships("user1");
+
+    final MemberImpl updated =
+        new MemberImpl("user1", "org1", new ArrayList<>(singletonList("read")));
+    manager.getTransaction().begin();
+    memberDao.store(updated);
+    manager.getTransaction().commit();
+
+    StatementCountingCustomizer.reset();
+    assertEquals(memberDao.getMember("org1", "user1"), updated);
+    assertEquals(memberDao.getMemberships("user1"), singletonList(updated));
+    assertEquals(StatementCountingCustomizer.getStatements(), 2);
+
+    memberDao.remove("user1", "org1");
+
+    StatementCountingCustomizer.reset();
+    assertNull(notFoundToNull(() -> memberDao.getMember("org1", "user1")));
+    assertTrue(memberDao.getMemberships("user1").isEmpty());
+    assertEquals(StatementCountingCustomizer.getStatements(), 2);
+  }
+
+  /** Sets up the dao backed by H2 database which counts statements sent to it. */
+  private void setUpH2MemberDao() {
+    final Injector injector =
+        Guice.createInjector(
+            Modules.override(
+                    new OrganizationJpaTckModule(
+                        singletonMap(
+                            PersistenceUnitProperties.SESSION_CUSTOMIZER,
+                            StatementCountingCustomizer.class.getName())))
+                .with(
+                    binder ->
+                        binder
+                            .bindConstant()
+                            .annotatedWith(Names.named("che.organization.member_cache.max_size"))
+                            .to(100)));
+    manager = injector.getInstance(EntityManager.class);
+    memberDao = injector.getInstance(JpaMemberDao.class);
+    tckResourcesCleaner = injector.getInstance(TckResourcesCleaner.class);
+
+    final OrganizationImpl organization = new OrganizationImpl("org1", "org", null);
+    organization.setPath(OrganizationImpl.buildPath(null, "org1"));
+    manager.getTransaction().begin();
+    manager.persist(new UserImpl("user1", "user1@test.com", "user"));
+    manager.persist(organization);
+    manager.getTransaction().commit();
+    manager.clear();
+  }
+
+  private Optional<MemberImpl> getMember(String userId, String organizationId) throws Exception {
+    return memberCache.getMember(
+        userId,
+        organizationId,
+        () -> {
+          loads.incrementAndGet();
+          return "*".equals(userId)
+              ? Optional.empty()
+              : Optional.of(member(userId, organizationId));
+        });
+  }
+
+  private List<MemberImpl> getMemberships(String userId) throws Exception {
+    return memberCache.getMemberships(
+        userId,
+        () -> {
+          loads.incrementAndGet();
+          return singletonList(member(userId, "org1"));
+        });
+  }
+
+  private static <T> T notFoundToNull(Callable<T> action) throws Exception {
+    try {
+      return action.call();
+    } catch (NotFoundException x) {
+      return null;
+    }
+  }
+
+  private static MemberImpl member(String userId, String organizationId) {
+    return new MemberImpl(userId, organizationId, asList("read", "createWorkspaces"));
+  }
+}
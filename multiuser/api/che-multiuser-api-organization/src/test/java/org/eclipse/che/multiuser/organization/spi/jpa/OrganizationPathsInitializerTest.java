@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.organization.spi.jpa;
+
+import static org.testng.Assert.assertEquals;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import javax.persistence.EntityManager;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.commons.test.tck.TckResourcesCleaner;
+import org.eclipse.che.multiuser.organization.spi.impl.OrganizationImpl;
+import org.eclipse.che.multiuser.organization.spi.tck.jpa.OrganizationJpaTckModule;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests {@link OrganizationPathsInitializer}. */
+public class OrganizationPathsInitializerTest {
+
+  private EntityManager manager;
+  private OrganizationPathsInitializer pathsInitializer;
+  private TckResourcesCleaner tckResourcesCleaner;
+
+  @BeforeMethod
+  public void setUp() {
+    final Injector injector = Guice.createInjector(new OrganizationJpaTckModule());
+    manager = injector.getInstance(EntityManager.class);
+    pathsInitializer = injector.getInstance(OrganizationPathsInitializer.class);
+    tckResourcesCleaner = injector.getInstance(TckResourcesCleaner.class);
+  }
+
+  @AfterMethod
+  public void cleanup() {
+    tckResourcesCleaner.clean();
+  }
+
+  @Test
+  public void shouldInitializePathsOfSuborganizations() throws Exception {
+    final OrganizationImpl root = new OrganizationImpl("root", "root", null);
+    root.setPath("root");
+    final OrganizationImpl child = new OrganizationImpl("child", "root/child", "root");
+    final OrganizationImpl grandchild =
+        new OrganizationImpl("grandchild", "root/child/grandchild", "child");
+    persist(root, child, grandchild);
+
+    pathsInitializer.init();
+
+    assertEquals(manager.find(OrganizationImpl.class, "child").getPath(), "root/child");
+    assertEquals(
+        manager.find(OrganizationImpl.class, "grandchild").getPath(), "root/child/grandchild");
+  }
+
+  @Test(
+      expectedExceptions = ServerException.class,
+      expectedExceptionsMessageRegExp =
+          "Unable to initialize materialized paths of organizations \\[first, second\\].*")
+  public void shouldFailWhenOrganizationsAreNotReachableFromRoots() throws Exception {
+    persist(
+        new OrganizationImpl("first", "first", null),
+        new OrganizationImpl("second", "second", null));
+    manager.getTransaction().begin();
+    manager
+        .createNativeQuery("UPDATE che_organization SET parent = 'second' WHERE id = 'first'")
+        .executeUpdate();
+    manager
+        .createNativeQuery("UPDATE che_organization SET parent = 'first' WHERE id = 'second'")
+        .executeUpdate();
+    manager.getTransaction().commit();
+
+    pathsInitializer.init();
+  }
+
+  private void persist(OrganizationImpl... organizations) {
+    // parents must be inserted first
+    for (OrganizationImpl organization : organizations) {
+      manager.getTransaction().begin();
+      manager.persist(organization);
+      manager.getTransaction().commit();
+    }
+    manager.clear();
+  }
+}
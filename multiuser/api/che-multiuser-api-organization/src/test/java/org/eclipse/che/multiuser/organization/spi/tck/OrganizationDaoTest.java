@@ -12,11 +12,16 @@
 package org.eclipse.che.multiuser.organization.spi.tck;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toSet;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
@@ -251,6 +256,104 @@ public class OrganizationDaoTest {
     assertEquals(suborganizations.size(), 3);
   }
 
+  @Test
+  public void shouldBuildPathOfCreatedSuborganization() throws Exception {
+    final OrganizationImpl parent = organizations[0];
+    final OrganizationImpl child =
+        new OrganizationImpl("child1", parent.getQualifiedName() + "/childTest1", parent.getId());
+
+    organizationDao.create(child);
+
+    assertEquals(
+        organizationDao.getById(child.getId()).getPath(), parent.getId() + "/" + child.getId());
+  }
+
+  @Test
+  public void shouldGetSuborganizationsByNewNameOfRenamedParent() throws Exception {
+    final OrganizationImpl parent = organizations[0];
+    final OrganizationImpl child =
+        new OrganizationImpl("child1", parent.getQualifiedName() + "/childTest1", parent.getId());
+    tckRepository.createAll(singletonList(child));
+
+    organizationDao.update(new OrganizationImpl(parent.getId(), "new-name", null));
+
+    assertEquals(organizationDao.getSuborganizations("new-name", 30, 0).getItems(), asList(child));
+    assertEquals(organizationDao.getSuborganizations(parent.getName(), 30, 0).getItems(), asList());
+  }
+
+  @Test
+  public void shouldMoveSuborganizationsAlongWithTheirParent() throws Exception {
+    final OrganizationImpl child =
+        new OrganizationImpl("child1", "test1/childTest1", organizations[0].getId());
+    final OrganizationImpl grandchild =
+        new OrganizationImpl("child2", "test1/childTest1/childTest2", child.getId());
+    tckRepository.createAll(asList(child, grandchild));
+
+    organizationDao.update(
+        new OrganizationImpl(child.getId(), child.getQualifiedName(), organizations[1].getId()));
+
+    assertEquals(
+        organizationDao.getSuborganizations(organizations[1].getName(), 30, 0).getTotalItemsCount(),
+        2);
+    assertEquals(
+        organizationDao.getSuborganizations(organizations[0].getName(), 30, 0).getTotalItemsCount(),
+        0);
+    assertEquals(
+        organizationDao.getById(grandchild.getId()).getPath(),
+        organizations[1].getId() + "/" + child.getId() + "/" + grandchild.getId());
+  }
+
+  @Test
+  public void shouldReturnEmptyPageOfSuborganizationsOfNonExistingOrganization() throws Exception {
+    final Page<OrganizationImpl> suborganizations =
+        organizationDao.getSuborganizations("non-existing-org", 30, 0);
+
+    assertEquals(suborganizations.getTotalItemsCount(), 0);
+    assertTrue(suborganizations.getItems().isEmpty());
+  }
+
+  @Test
+  public void shouldGetAllSuborganizationsOfLargeTree() throws Exception {
+    // 3 children per organization, 6 levels below the root, 1092 suborganizations in total
+    final List<OrganizationImpl> tree = new ArrayList<>();
+    List<OrganizationImpl> level = singletonList(organizations[0]);
+    for (int depth = 0; depth < 6; depth++) {
+      final List<OrganizationImpl> nextLevel = new ArrayList<>();
+      for (OrganizationImpl parent : level) {
+        for (int i = 0; i < 3; i++) {
+          final String id = parent.getId() + "-" + i;
+          nextLevel.add(
+              new OrganizationImpl(id, parent.getQualifiedName() + "/" + i, parent.getId()));
+        }
+      }
+      tree.addAll(nextLevel);
+      level = nextLevel;
+    }
+    tckRepository.createAll(tree);
+
+    final OrganizationImpl subtreeRoot = tree.get(1);
+    final Set<String> expected =
+        tree.stream()
+            .filter(o -> o.getQualifiedName().startsWith(subtreeRoot.getQualifiedName() + "/"))
+            .map(OrganizationImpl::getId)
+            .collect(toSet());
+    final List<String> subtree =
+        Pages.stream(
+                (maxItems, skipCount) ->
+                    organizationDao.getSuborganizations(
+                        subtreeRoot.getQualifiedName(), maxItems, skipCount),
+                100)
+            .map(OrganizationImpl::getId)
+            .collect(Collectors.toList());
+
+    assertEquals(expected.size(), 363);
+    assertEquals(subtree.size(), expected.size());
+    assertEquals(new HashSet<>(subtree), expected);
+    assertEquals(
+        organizationDao.getSuborganizations(organizations[0].getName(), 1, 0).getTotalItemsCount(),
+        tree.size());
+  }
+
   private static <T> T notFoundToNull(Callable<T> action) throws Exception {
     try {
       return action.call();
@@ -12,7 +12,10 @@
 package org.eclipse.che.multiuser.organization.spi.tck.jpa;
 
 import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
 import com.google.inject.persist.jpa.JpaPersistModule;
+import java.util.Collections;
+import java.util.Map;
 import org.eclipse.che.api.user.server.model.impl.UserImpl;
 import org.eclipse.che.commons.test.db.H2DBTestServer;
 import org.eclipse.che.commons.test.db.H2JpaCleaner;
@@ -39,9 +42,20 @@ import org.eclipse.che.multiuser.organization.spi.jpa.JpaOrganizationImplTckRepo
 /** @author Sergii Leschenko */
 public class OrganizationJpaTckModule extends TckModule {
 
+  private final Map<String, String> persistenceProperties;
+
+  public OrganizationJpaTckModule() {
+    this(Collections.emptyMap());
+  }
+
+  /** Creates module which adds the given properties to the persistence unit. */
+  public OrganizationJpaTckModule(Map<String, String> persistenceProperties) {
+    this.persistenceProperties = persistenceProperties;
+  }
+
   @Override
   protected void configure() {
-    install(new JpaPersistModule("main"));
+    install(new JpaPersistModule("main").properties(persistenceProperties));
     H2DBTestServer server = H2DBTestServer.startDefault();
     bind(SchemaInitializer.class)
         .toInstance(new FlywaySchemaInitializer(server.getDataSource(), "che-schema"));
@@ -61,6 +75,11 @@ public class OrganizationJpaTckModule extends TckModule {
 
     bind(OrganizationDao.class).to(JpaOrganizationDao.class);
     bind(MemberDao.class).to(JpaMemberDao.class);
+    // tck repositories change memberships bypassing the dao, so they must not be cached
+    bindConstant().annotatedWith(Names.named("che.organization.member_cache.max_size")).to(0);
+    bindConstant()
+        .annotatedWith(Names.named("che.organization.member_cache.expire_after_sec"))
+        .to(60L);
 
     bind(OrganizationDistributedResourcesDao.class)
         .to(JpaOrganizationDistributedResourcesDao.class);
@@ -294,6 +294,12 @@ public class JpaEntitiesCascadeRemovalTest {
                                             RamResourceType.ID, 1024, RamResourceType.UNIT)))));
 
                 bindConstant().annotatedWith(Names.named("che.workspace.probe_pool_size")).to(1);
+                bindConstant()
+                    .annotatedWith(Names.named("che.organization.member_cache.max_size"))
+                    .to(100);
+                bindConstant()
+                    .annotatedWith(Names.named("che.organization.member_cache.expire_after_sec"))
+                    .to(60L);
 
                 // setup bindings for the devfile that would otherwise be read from the config
                 bindConstant()
@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.persistence.EntityManager;
@@ -176,6 +177,11 @@ public class MultiuserMySqlTckModule extends TckModule {
 
     bind(WorkerDao.class).to(JpaWorkerDao.class);
     bind(MemberDao.class).to(JpaMemberDao.class);
+    // tck repositories change memberships bypassing the dao, so they must not be cached
+    bindConstant().annotatedWith(Names.named("che.organization.member_cache.max_size")).to(0);
+    bindConstant()
+        .annotatedWith(Names.named("che.organization.member_cache.expire_after_sec"))
+        .to(60L);
     bind(SignatureKeyDao.class).to(JpaSignatureKeyDao.class);
     bind(new TypeLiteral<PermissionsDao<MemberImpl>>() {}).to(JpaMemberDao.class);
     bind(new TypeLiteral<AbstractPermissionsDomain<MemberImpl>>() {}).to(OrganizationDomain.class);
@@ -269,11 +275,26 @@ public class MultiuserMySqlTckModule extends TckModule {
     @Override
     public void createAll(Collection<? extends OrganizationImpl> entities)
         throws TckRepositoryException {
+      // paths are set by the dao, so they are built here for the directly stored organizations
+      for (OrganizationImpl organization : entities) {
+        organization.setPath(
+            OrganizationImpl.buildPath(
+                findParentPath(organization, entities), organization.getId()));
+      }
       super.createAll(entities);
       // It's important to save organization to remove them in the reverse order
       createdOrganizations.addAll(entities);
     }
 
+    private String findParentPath(
+        OrganizationImpl organization, Collection<? extends OrganizationImpl> entities) {
+      return Stream.concat(createdOrganizations.stream(), entities.stream())
+          .filter(o -> o.getId().equals(organization.getParent()))
+          .map(OrganizationImpl::getPath)
+          .findAny()
+          .orElse(null);
+    }
+
     @Override
     public void removeAll() throws TckRepositoryException {
       uow.begin();
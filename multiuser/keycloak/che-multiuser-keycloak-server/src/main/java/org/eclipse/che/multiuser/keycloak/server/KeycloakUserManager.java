@@ -12,16 +12,22 @@
 package org.eclipse.che.multiuser.keycloak.server;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.base.Strings.nullToEmpty;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.emptyList;
 import static org.eclipse.che.commons.lang.NameGenerator.generate;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.google.inject.persist.Transactional;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
+import javax.persistence.EntityManager;
 import org.eclipse.che.account.api.AccountManager;
 import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.ConflictException;
@@ -35,6 +41,9 @@ import org.eclipse.che.api.user.server.model.impl.UserImpl;
 import org.eclipse.che.api.user.server.spi.PreferenceDao;
 import org.eclipse.che.api.user.server.spi.ProfileDao;
 import org.eclipse.che.api.user.server.spi.UserDao;
+import org.eclipse.che.commons.lang.concurrent.StripedLocks;
+import org.eclipse.che.commons.lang.concurrent.Unlocker;
+import org.eclipse.che.core.db.jpa.eclipselink.AfterCommit;
 import org.eclipse.che.multiuser.api.account.personal.PersonalAccountUserManager;
 
 /**
@@ -42,11 +51,22 @@ import org.eclipse.che.multiuser.api.account.personal.PersonalAccountUserManager
  * overriding create/remove operations to be compatible with {@link
  * org.eclipse.che.multiuser.keycloak.server.dao.KeycloakProfileDao}
  *
+ * <p>Users which were recently returned by {@link #getOrCreateUser(String, String, String)} are
+ * cached for a short time, so requests of established users don't hit DB. The cache is invalidated
+ * once update or removal of the user through this manager is committed, changes made by other
+ * server instances become visible when the cached entry expires.
+ *
  * @author Mykhailo Kuznietsov
  */
 @Singleton
 public class KeycloakUserManager extends PersonalAccountUserManager {
 
+  // id locks are always acquired before email locks, so the two can't deadlock
+  private final StripedLocks idLocks = new StripedLocks(64);
+  private final StripedLocks emailLocks = new StripedLocks(64);
+  private final Cache<String, User> verifiedUsers;
+  private final Provider<EntityManager> managerProvider;
+
   @Inject
   public KeycloakUserManager(
       UserDao userDao,
@@ -54,8 +74,39 @@ public class KeycloakUserManager extends PersonalAccountUserManager {
       PreferenceDao preferencesDao,
       AccountManager accountManager,
       EventService eventService,
-      @Named("che.auth.reserved_user_names") String[] reservedNames) {
+      @Named("che.auth.reserved_user_names") String[] reservedNames,
+      @Named("che.keycloak.user_cache.max_size") int userCacheMaxSize,
+      @Named("che.keycloak.user_cache.expire_after_sec") long userCacheExpireAfterSec,
+      Provider<EntityManager> managerProvider) {
     super(userDao, profileDao, preferencesDao, reservedNames, accountManager, eventService);
+    this.managerProvider = managerProvider;
+    this.verifiedUsers =
+        CacheBuilder.newBuilder()
+            .maximumSize(userCacheMaxSize)
+            .expireAfterWrite(userCacheExpireAfterSec, TimeUnit.SECONDS)
+            .build();
+  }
+
+  @Transactional(rollbackOn = {RuntimeException.class, ApiException.class})
+  @Override
+  public void update(User user) throws NotFoundException, ServerException, ConflictException {
+    super.update(user);
+    invalidateAfterCommit(user.getId());
+  }
+
+  @Transactional(rollbackOn = {RuntimeException.class, ApiException.class})
+  @Override
+  public void remove(String id) throws ServerException, ConflictException {
+    super.remove(id);
+    invalidateAfterCommit(id);
+  }
+
+  /**
+   * Invalidates the verified user once the current transaction is committed, so concurrent logins
+   * can't cache the state which is about to be replaced.
+   */
+  private void invalidateAfterCommit(String id) {
+    AfterCommit.run(managerProvider.get(), () -> verifiedUsers.invalidate(id));
   }
 
   @Transactional(rollbackOn = {RuntimeException.class, ApiException.class})
@@ -95,6 +146,9 @@ public class KeycloakUserManager extends PersonalAccountUserManager {
    * way, there will be no conflict with existing user id or email upon recreation. In case of
    * conflict with user name, it may be prepended randomized symbols
    *
+   * <p>Creation is serialized only for the same {@code id} or {@code email}. If the user is
+   * concurrently created by another server instance, the created user is fetched on the conflict.
+   *
    * @param id - user id from
    * @param email - user email
    * @param username - user name
@@ -105,26 +159,47 @@ public class KeycloakUserManager extends PersonalAccountUserManager {
    */
   public User getOrCreateUser(String id, String email, String username)
       throws ServerException, ConflictException {
+    User verified = verifiedUsers.getIfPresent(id);
+    if (verified != null && (isNullOrEmpty(email) || verified.getEmail().equals(email))) {
+      return new UserImpl(verified);
+    }
+
+    User user;
+    Optional<User> userById = getUserById(id);
+    if (userById.isPresent()) {
+      user = actualizeUserEmail(userById.get(), email);
+    } else {
+      try (Unlocker idUnlocker = idLocks.writeLock(id);
+          Unlocker emailUnlocker = emailLocks.writeLock(nullToEmpty(email))) {
+        user = createUser(id, email, username);
+      }
+    }
+    verifiedUsers.put(id, new UserImpl(user));
+    return user;
+  }
+
+  private User createUser(String id, String email, String username)
+      throws ServerException, ConflictException {
     Optional<User> userById = getUserById(id);
-    if (!userById.isPresent()) {
-      synchronized (this) {
-        userById = getUserById(id);
-        if (!userById.isPresent()) {
-          Optional<User> userByEmail = getUserByEmail(email);
-          if (userByEmail.isPresent()) {
-            remove(userByEmail.get().getId());
-          }
-          final UserImpl cheUser = new UserImpl(id, email, username, generate("", 12), emptyList());
-          try {
-            return create(cheUser, false);
-          } catch (ConflictException ex) {
-            cheUser.setName(generate(cheUser.getName(), 4));
-            return create(cheUser, false);
-          }
-        }
+    if (userById.isPresent()) {
+      return actualizeUserEmail(userById.get(), email);
+    }
+    Optional<User> userByEmail = getUserByEmail(email);
+    if (userByEmail.isPresent()) {
+      remove(userByEmail.get().getId());
+    }
+    final UserImpl cheUser = new UserImpl(id, email, username, generate("", 12), emptyList());
+    try {
+      return create(cheUser, false);
+    } catch (ConflictException ex) {
+      // the user might be created by another server instance in the meantime
+      userById = getUserById(id);
+      if (userById.isPresent()) {
+        return actualizeUserEmail(userById.get(), email);
       }
+      cheUser.setName(generate(cheUser.getName(), 4));
+      return create(cheUser, false);
     }
-    return actualizeUserEmail(userById.get(), email);
   }
 
   /**
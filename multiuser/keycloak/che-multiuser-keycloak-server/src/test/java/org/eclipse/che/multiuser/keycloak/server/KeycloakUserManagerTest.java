@@ -13,8 +13,11 @@ package org.eclipse.che.multiuser.keycloak.server;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -22,6 +25,19 @@ import static org.mockito.MockitoAnnotations.initMocks;
 import static org.testng.Assert.assertNotEquals;
 import static org.testng.AssertJUnit.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
 import org.eclipse.che.account.api.AccountManager;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -51,6 +67,9 @@ public class KeycloakUserManagerTest {
   @Mock private EventService eventService;
   @Mock private PostUserPersistedEvent postUserPersistedEvent;
   @Mock private BeforeUserRemovedEvent beforeUserRemovedEvent;
+  @Mock private Provider<EntityManager> managerProvider;
+  @Mock private EntityManager manager;
+  @Mock private EntityTransaction transaction;
 
   KeycloakUserManager keycloakUserManager;
 
@@ -59,7 +78,18 @@ public class KeycloakUserManagerTest {
     initMocks(this);
     keycloakUserManager =
         new KeycloakUserManager(
-            userDao, profileDao, preferenceDao, accountManager, eventService, new String[] {});
+            userDao,
+            profileDao,
+            preferenceDao,
+            accountManager,
+            eventService,
+            new String[] {},
+            100,
+            60,
+            managerProvider);
+
+    lenient().when(managerProvider.get()).thenReturn(manager);
+    lenient().when(manager.getTransaction()).thenReturn(transaction);
 
     when(eventService.publish(any()))
         .thenAnswer(
@@ -175,7 +205,7 @@ public class KeycloakUserManagerTest {
     keycloakUserManager.getOrCreateUser("id", "user@mail.com", "name");
 
     // then
-    verify(userDao, times(2)).getById(eq("id"));
+    verify(userDao, times(3)).getById(eq("id"));
     verify(userDao).getByEmail(eq("user@mail.com"));
 
     verify(userDao, atLeastOnce()).create((captor.capture()));
@@ -183,4 +213,153 @@ public class KeycloakUserManagerTest {
     assertEquals(newUserImpl.getEmail(), captor.getValue().getEmail());
     assertNotEquals(newUserImpl.getName(), captor.getValue().getName());
   }
+
+  @Test
+  public void shouldReturnConcurrentlyCreatedUserOnConflict() throws Exception {
+    UserImpl createdUser = new UserImpl("id", "user@mail.com", "name");
+    when(userDao.getById(eq("id")))
+        .thenThrow(NotFoundException.class)
+        .thenThrow(NotFoundException.class)
+        .thenReturn(createdUser);
+    when(userDao.getByEmail(eq("user@mail.com"))).thenThrow(NotFoundException.class);
+    doAnswer(
+            invocation -> {
+              throw new ConflictException("");
+            })
+        .when(userDao)
+        .create(any());
+
+    User user = keycloakUserManager.getOrCreateUser("id", "user@mail.com", "name");
+
+    verify(userDao, times(1)).create(any());
+    assertEquals("id", user.getId());
+    assertEquals("name", user.getName());
+  }
+
+  @Test
+  public void shouldNotQueryDatabaseForRecentlyVerifiedUser() throws Exception {
+    UserImpl userImpl = new UserImpl("id", "user@mail.com", "name");
+    when(userDao.getById(eq("id"))).thenReturn(userImpl);
+
+    keycloakUserManager.getOrCreateUser("id", "user@mail.com", "name");
+    User user = keycloakUserManager.getOrCreateUser("id", "user@mail.com", "name");
+
+    verify(userDao, times(1)).getById("id");
+    assertEquals("id", user.getId());
+    assertEquals("user@mail.com", user.getEmail());
+  }
+
+  @Test
+  public void shouldQueryDatabaseWhenEmailOfVerifiedUserChanges() throws Exception {
+    UserImpl userImpl = new UserImpl("id", "user@mail.com", "name");
+    when(userDao.getById(eq("id"))).thenReturn(userImpl);
+
+    keycloakUserManager.getOrCreateUser("id", "user@mail.com", "name");
+    User user = keycloakUserManager.getOrCreateUser("id", "new@mail.com", "name");
+
+    verify(userDao).update(any());
+    assertEquals("new@mail.com", user.getEmail());
+  }
+
+  @Test
+  public void shouldQueryDatabaseAfterVerifiedUserIsRemoved() throws Exception {
+    UserImpl userImpl = new UserImpl("id", "user@mail.com", "name");
+    when(userDao.getById(eq("id"))).thenReturn(userImpl);
+    keycloakUserManager.getOrCreateUser("id", "user@mail.com", "name");
+
+    keycloakUserManager.remove("id");
+    keycloakUserManager.getOrCreateUser("id", "user@mail.com", "name");
+
+    // one more call is made on removal
+    verify(userDao, times(3)).getById("id");
+  }
+
+  @Test
+  public void shouldCreateEachUserOnceOnConcurrentLogins() throws Exception {
+    ConcurrentMap<String, UserImpl> users = new ConcurrentHashMap<>();
+    when(userDao.getById(any()))
+        .thenAnswer(
+            invocation -> {
+              UserImpl user = users.get(invocation.<String>getArgument(0));
+              if (user == null) {
+                throw new NotFoundException("");
+              }
+              return user;
+            });
+    when(userDao.getByEmail(any())).thenThrow(NotFoundException.class);
+    doAnswer(
+            invocation -> {
+              UserImpl user = invocation.getArgument(0);
+              if (users.putIfAbsent(user.getId(), new UserImpl(user)) != null) {
+                throw new ConflictException("");
+              }
+              return null;
+            })
+        .when(userDao)
+        .create(any());
+    int usersCount = 10;
+    int loginsCount = 500;
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<User>> logins = new ArrayList<>();
+
+    try {
+      for (int i = 0; i < loginsCount; i++) {
+        String id = "id" + i % usersCount;
+        Callable<User> login =
+            () -> {
+              start.await();
+              return keycloakUserManager.getOrCreateUser(id, id + "@mail.com", id);
+            };
+        logins.add(executor.submit(login));
+      }
+      start.countDown();
+      for (Future<User> login : logins) {
+        login.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    verify(userDao, times(usersCount)).create(any());
+    verify(userDao, never()).remove(any());
+    assertEquals(usersCount, users.size());
+  }
+
+  @Test
+  public void shouldSerializeCreationOfUsersWithTheSameEmail() throws Exception {
+    CountDownLatch creating = new CountDownLatch(1);
+    CountDownLatch created = new CountDownLatch(1);
+    when(userDao.getById(any())).thenThrow(NotFoundException.class);
+    when(userDao.getByEmail(eq("user@mail.com"))).thenThrow(NotFoundException.class);
+    doAnswer(
+            invocation -> {
+              creating.countDown();
+              created.await();
+              return null;
+            })
+        .when(userDao)
+        .create(any());
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      Future<User> first =
+          executor.submit(
+              () -> keycloakUserManager.getOrCreateUser("id1", "user@mail.com", "name1"));
+      creating.await(10, TimeUnit.SECONDS);
+      Future<User> second =
+          executor.submit(
+              () -> keycloakUserManager.getOrCreateUser("id2", "user@mail.com", "name2"));
+
+      // the second login waits for the first one before looking for the user by email
+      verify(userDao, after(200).times(1)).getByEmail("user@mail.com");
+      created.countDown();
+      first.get(10, TimeUnit.SECONDS);
+      second.get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    verify(userDao, times(2)).getByEmail("user@mail.com");
+  }
 }
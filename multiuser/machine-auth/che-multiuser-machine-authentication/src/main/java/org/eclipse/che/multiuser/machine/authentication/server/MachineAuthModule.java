@@ -79,5 +79,8 @@ public class MachineAuthModule extends AbstractModule {
 
     bindConstant().annotatedWith(Names.named("che.auth.signature_key_size")).to(2048);
     bindConstant().annotatedWith(Names.named("che.auth.signature_key_algorithm")).to("RSA");
+    bindConstant().annotatedWith(Names.named("che.auth.signature_key_cache_size")).to(1000);
+    bindConstant().annotatedWith(Names.named("che.auth.signature_key_cache_expire_min")).to(10L);
+    bindConstant().annotatedWith(Names.named("che.auth.signature_key_pool_size")).to(2);
   }
 }
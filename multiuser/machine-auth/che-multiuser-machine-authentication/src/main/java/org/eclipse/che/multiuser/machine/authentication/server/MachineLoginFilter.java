@@ -20,6 +20,7 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureException;
 import java.io.IOException;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -49,6 +50,7 @@ public class MachineLoginFilter extends MultiUserEnvironmentInitializationFilter
 
   private final UserManager userManager;
   private final JwtParser jwtParser;
+  private final JwtParser reloadingJwtParser;
   private final PermissionChecker permissionChecker;
 
   @Inject
@@ -61,6 +63,7 @@ public class MachineLoginFilter extends MultiUserEnvironmentInitializationFilter
     super(sessionStore, tokenExtractor);
     this.userManager = userManager;
     this.jwtParser = Jwts.parser().setSigningKeyResolver(machineKeyResolver);
+    this.reloadingJwtParser = Jwts.parser().setSigningKeyResolver(machineKeyResolver.reloading());
     this.permissionChecker = permissionChecker;
   }
 
@@ -86,7 +89,7 @@ public class MachineLoginFilter extends MultiUserEnvironmentInitializationFilter
   @Override
   public Subject extractSubject(String token) {
     try {
-      final Claims claims = jwtParser.parseClaimsJws(token).getBody();
+      final Claims claims = parseClaims(token);
       final String userId = claims.get(USER_ID_CLAIM, String.class);
       // check if user with such id exists
       final String userName = userManager.getById(userId).getName();
@@ -102,10 +105,22 @@ public class MachineLoginFilter extends MultiUserEnvironmentInitializationFilter
 
   @Override
   protected String getUserId(String token) {
-    final Claims claims = jwtParser.parseClaimsJws(token).getBody();
+    final Claims claims = parseClaims(token);
     return claims.get(USER_ID_CLAIM, String.class);
   }
 
+  /**
+   * Parses the token verifying its signature with the cached key pair, if the signature does not
+   * match then the token is verified once again with the key pair re-read from the DB.
+   */
+  private Claims parseClaims(String token) {
+    try {
+      return jwtParser.parseClaimsJws(token).getBody();
+    } catch (SignatureException e) {
+      return reloadingJwtParser.parseClaimsJws(token).getBody();
+    }
+  }
+
   @Override
   protected void handleMissingToken(
       ServletRequest request, ServletResponse response, FilterChain chain)
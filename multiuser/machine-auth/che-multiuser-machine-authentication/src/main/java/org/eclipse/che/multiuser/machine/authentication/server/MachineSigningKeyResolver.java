@@ -17,6 +17,7 @@ import static org.eclipse.che.multiuser.machine.authentication.shared.Constants.
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SigningKeyResolver;
 import io.jsonwebtoken.SigningKeyResolverAdapter;
 import java.security.Key;
 import javax.inject.Inject;
@@ -37,6 +38,23 @@ public class MachineSigningKeyResolver extends SigningKeyResolverAdapter {
 
   @Override
   public Key resolveSigningKey(JwsHeader header, Claims claims) {
+    return resolveSigningKey(header, claims, false);
+  }
+
+  /**
+   * Returns the resolver which re-reads the signing key pair bypassing the cache, the cached key
+   * pair might be outdated when it was regenerated by another Che server replica.
+   */
+  public SigningKeyResolver reloading() {
+    return new SigningKeyResolverAdapter() {
+      @Override
+      public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        return MachineSigningKeyResolver.this.resolveSigningKey(header, claims, true);
+      }
+    };
+  }
+
+  private Key resolveSigningKey(JwsHeader header, Claims claims, boolean reload) {
     if (!MACHINE_TOKEN_KIND.equals(header.get("kind"))) {
       throw new NotMachineTokenJwtException();
     }
@@ -46,7 +64,8 @@ public class MachineSigningKeyResolver extends SigningKeyResolverAdapter {
           "Unable to fetch signature key pair: no workspace id present in token");
     }
     try {
-      return keyManager.getOrCreateKeyPair(wsId).getPublic();
+      return (reload ? keyManager.reloadKeyPair(wsId) : keyManager.getOrCreateKeyPair(wsId))
+          .getPublic();
     } catch (SignatureKeyManagerException e) {
       throw new JwtException("Unable to fetch signature key pair:" + e.getMessage(), e);
     }
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.machine.authentication.server.signature;
+
+import com.google.inject.ImplementedBy;
+import java.util.function.Consumer;
+
+/**
+ * Propagates invalidations of the key pairs cached by {@link SignatureKeyManager} between Che
+ * Server instances, so a key pair removed on one instance is not accepted by the others.
+ */
+@ImplementedBy(LocalSignatureKeyInvalidationChannel.class)
+public interface SignatureKeyInvalidationChannel {
+
+  /**
+   * Notifies other Che Server instances that the key pair of the workspace is removed.
+   *
+   * @param workspaceId id of the workspace which key pair is removed
+   */
+  void publish(String workspaceId);
+
+  /**
+   * Subscribes the listener of invalidations published by other Che Server instances.
+   *
+   * @param listener consumer of workspace ids which key pairs are removed
+   */
+  void subscribe(Consumer<String> listener);
+}
@@ -15,6 +15,9 @@ import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
 
 import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.security.KeyFactory;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
@@ -25,7 +28,20 @@ import java.security.spec.EncodedKeySpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -35,6 +51,8 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.eclipse.che.api.workspace.shared.event.WorkspaceRemovedEvent;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.core.db.DBInitializer;
 import org.eclipse.che.multiuser.machine.authentication.server.signature.model.impl.SignatureKeyPairImpl;
 import org.eclipse.che.multiuser.machine.authentication.server.signature.spi.SignatureKeyDao;
@@ -44,6 +62,16 @@ import org.slf4j.LoggerFactory;
 /**
  * Manages signature keys.
  *
+ * <p>Key pairs are requested for each request authenticated with a machine token, so the decoded
+ * key pairs are cached. The cache is invalidated when the key pair of a workspace is removed, on
+ * workspace stop or removal. Removals are propagated to other Che server replicas through {@link
+ * SignatureKeyInvalidationChannel}, so a removed key pair is not accepted by any of them. Cached
+ * key pairs also expire after a while and the token verification re-reads the key pair with {@link
+ * #reloadKeyPair(String)} when the cached one does not match the token.
+ *
+ * <p>Generation of a key pair is CPU intensive and it is done on the workspace start, so a few key
+ * pairs are generated in background beforehand and new workspace key pairs are taken from them.
+ *
  * @author Anton Korneta
  */
 @Beta
@@ -61,6 +89,21 @@ public class SignatureKeyManager {
   private final SignatureKeyDao signatureKeyDao;
   private final EventService eventService;
   private final EventSubscriber<?> workspaceEventsSubscriber;
+  private final EventSubscriber<WorkspaceRemovedEvent> workspaceRemovedSubscriber;
+  private final SignatureKeyInvalidationChannel invalidationChannel;
+
+  private final Cache<String, KeyPair> keyPairs;
+
+  /**
+   * Loads of key pairs in progress by workspace ids, guarded by {@link #keyPairs}. Eviction of a
+   * key pair being loaded increments the generation of its load, so the key pair loaded
+   * concurrently with the removal is not cached.
+   */
+  private final Map<String, Load> loads = new HashMap<>();
+
+  private final BlockingQueue<KeyPair> keyPairsPool;
+  private final Executor poolExecutor;
+  private final AtomicBoolean poolFilling = new AtomicBoolean();
 
   @Inject
   @SuppressWarnings("unused")
@@ -70,12 +113,52 @@ public class SignatureKeyManager {
   public SignatureKeyManager(
       @Named("che.auth.signature_key_size") int keySize,
       @Named("che.auth.signature_key_algorithm") String algorithm,
+      @Named("che.auth.signature_key_cache_size") int cacheSize,
+      @Named("che.auth.signature_key_cache_expire_min") long cacheExpireMin,
+      @Named("che.auth.signature_key_pool_size") int poolSize,
       EventService eventService,
-      SignatureKeyDao signatureKeyDao) {
+      SignatureKeyDao signatureKeyDao,
+      SignatureKeyInvalidationChannel invalidationChannel) {
+    this(
+        keySize,
+        algorithm,
+        cacheSize,
+        cacheExpireMin,
+        poolSize,
+        eventService,
+        signatureKeyDao,
+        invalidationChannel,
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("SignatureKeyPool-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build()));
+  }
+
+  @VisibleForTesting
+  SignatureKeyManager(
+      int keySize,
+      String algorithm,
+      int cacheSize,
+      long cacheExpireMin,
+      int poolSize,
+      EventService eventService,
+      SignatureKeyDao signatureKeyDao,
+      SignatureKeyInvalidationChannel invalidationChannel,
+      Executor poolExecutor) {
     this.keySize = keySize;
     this.algorithm = algorithm;
     this.eventService = eventService;
     this.signatureKeyDao = signatureKeyDao;
+    this.invalidationChannel = invalidationChannel;
+    this.keyPairs =
+        CacheBuilder.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(cacheExpireMin, TimeUnit.MINUTES)
+            .build();
+    this.keyPairsPool = poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null;
+    this.poolExecutor = poolExecutor;
     this.workspaceEventsSubscriber =
         new EventSubscriber<WorkspaceStatusEvent>() {
           @Override
@@ -85,6 +168,11 @@ public class SignatureKeyManager {
             }
           }
         };
+    this.workspaceRemovedSubscriber =
+        event -> {
+          evict(event.getWorkspace().getId());
+          invalidationChannel.publish(event.getWorkspace().getId());
+        };
   }
 
   /**
@@ -94,19 +182,57 @@ public class SignatureKeyManager {
    *     or keyspec) or other error
    */
   public KeyPair getOrCreateKeyPair(String workspaceId) throws SignatureKeyManagerException {
-    SignatureKeyPair keyPair;
+    KeyPair cached = keyPairs.getIfPresent(workspaceId);
+    if (cached != null) {
+      return cached;
+    }
+
+    Load load;
+    long generation;
+    synchronized (keyPairs) {
+      load = loads.computeIfAbsent(workspaceId, id -> new Load());
+      load.loaders++;
+      generation = load.generation;
+    }
+    KeyPair javaKeyPair = null;
     try {
+      SignatureKeyPair keyPair;
       try {
-        keyPair = signatureKeyDao.get(workspaceId);
-      } catch (NotFoundException e) {
-        keyPair = generateKeyPair(workspaceId);
+        try {
+          keyPair = signatureKeyDao.get(workspaceId);
+        } catch (NotFoundException e) {
+          keyPair = generateKeyPair(workspaceId);
+        }
+      } catch (NoSuchAlgorithmException | ServerException | ConflictException ex) {
+        LOG.error(
+            "Failed to load signature keys for ws  {}. Cause: {}", workspaceId, ex.getMessage());
+        throw new SignatureKeyManagerException(ex.getMessage(), ex);
+      }
+      javaKeyPair = toJavaKeyPair(keyPair);
+      return javaKeyPair;
+    } finally {
+      synchronized (keyPairs) {
+        // the key pair might be removed while it was loaded, such key pair must not be cached
+        if (javaKeyPair != null && load.generation == generation) {
+          keyPairs.put(workspaceId, javaKeyPair);
+        }
+        if (--load.loaders == 0) {
+          loads.remove(workspaceId);
+        }
       }
-    } catch (NoSuchAlgorithmException | ServerException | ConflictException ex) {
-      LOG.error(
-          "Failed to load signature keys for ws  {}. Cause: {}", workspaceId, ex.getMessage());
-      throw new SignatureKeyManagerException(ex.getMessage(), ex);
     }
-    return toJavaKeyPair(keyPair);
+  }
+
+  /**
+   * Returns instance of {@link KeyPair} for given workspace re-read from the DB, bypassing the
+   * cache.
+   *
+   * @throws SignatureKeyManagerException when stored keypair is incorrect (e.g. has bad algorithm
+   *     or keyspec) or other error
+   */
+  public KeyPair reloadKeyPair(String workspaceId) throws SignatureKeyManagerException {
+    evict(workspaceId);
+    return getOrCreateKeyPair(workspaceId);
   }
 
   /** Removes key pair from cache and DB. */
@@ -120,6 +246,20 @@ public class SignatureKeyManager {
           "Unable to cleanup machine token signature keypairs for ws {}. Cause: {}",
           workspaceId,
           e.getMessage());
+    } finally {
+      evict(workspaceId);
+      invalidationChannel.publish(workspaceId);
+    }
+  }
+
+  /** Removes key pair of the workspace from cache. */
+  private void evict(String workspaceId) {
+    synchronized (keyPairs) {
+      Load load = loads.get(workspaceId);
+      if (load != null) {
+        load.generation++;
+      }
+      keyPairs.invalidate(workspaceId);
     }
   }
 
@@ -127,9 +267,7 @@ public class SignatureKeyManager {
   SignatureKeyPair generateKeyPair(String workspaceId)
       throws NoSuchAlgorithmException, ServerException, ConflictException {
     try {
-      KeyPairGenerator kpg = KeyPairGenerator.getInstance(algorithm);
-      kpg.initialize(keySize);
-      final KeyPair pair = kpg.generateKeyPair();
+      final KeyPair pair = takeOrGenerateKeyPair();
       final SignatureKeyPairImpl kp =
           new SignatureKeyPairImpl(workspaceId, pair.getPublic(), pair.getPrivate());
       LOG.debug(
@@ -146,6 +284,54 @@ public class SignatureKeyManager {
     }
   }
 
+  /** Returns a pre-generated key pair if there is any, otherwise generates a new one. */
+  private KeyPair takeOrGenerateKeyPair() throws NoSuchAlgorithmException {
+    if (keyPairsPool == null) {
+      return newKeyPair();
+    }
+    KeyPair pair = keyPairsPool.poll();
+    fillPoolAsync();
+    return pair != null ? pair : newKeyPair();
+  }
+
+  private KeyPair newKeyPair() throws NoSuchAlgorithmException {
+    KeyPairGenerator kpg = KeyPairGenerator.getInstance(algorithm);
+    kpg.initialize(keySize);
+    return kpg.generateKeyPair();
+  }
+
+  private void fillPoolAsync() {
+    if (keyPairsPool == null || !poolFilling.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      poolExecutor.execute(this::fillPool);
+    } catch (RejectedExecutionException ex) {
+      poolFilling.set(false);
+      LOG.warn("Unable to pre-generate signature key pairs. Cause: {}", ex.getMessage());
+    }
+  }
+
+  /** Generates key pairs until the pool is full. */
+  @VisibleForTesting
+  void fillPool() {
+    try {
+      while (keyPairsPool.remainingCapacity() > 0) {
+        keyPairsPool.offer(newKeyPair());
+      }
+    } catch (NoSuchAlgorithmException ex) {
+      LOG.error("Unable to pre-generate signature key pairs. Cause: {}", ex.getMessage());
+    } finally {
+      poolFilling.set(false);
+    }
+  }
+
+  /** Returns the pre-generated key pairs. */
+  @VisibleForTesting
+  List<KeyPair> getPooledKeyPairs() {
+    return keyPairsPool == null ? new ArrayList<>() : new ArrayList<>(keyPairsPool);
+  }
+
   /** Returns key spec by key format and encoded data. */
   private EncodedKeySpec getKeySpec(SignatureKey key) {
     switch (key.getFormat()) {
@@ -178,5 +364,22 @@ public class SignatureKeyManager {
   @PostConstruct
   void subscribe() {
     eventService.subscribe(workspaceEventsSubscriber);
+    eventService.subscribe(workspaceRemovedSubscriber, WorkspaceRemovedEvent.class);
+    invalidationChannel.subscribe(this::evict);
+    fillPoolAsync();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    eventService.unsubscribe(workspaceRemovedSubscriber, WorkspaceRemovedEvent.class);
+    if (poolExecutor instanceof ExecutorService) {
+      ((ExecutorService) poolExecutor).shutdownNow();
+    }
+  }
+
+  /** Load of a workspace key pair by one or more concurrent callers. */
+  private static class Load {
+    private int loaders;
+    private long generation;
   }
 }
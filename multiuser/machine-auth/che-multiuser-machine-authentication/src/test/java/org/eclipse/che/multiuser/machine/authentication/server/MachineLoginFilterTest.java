@@ -133,10 +133,12 @@ public class MachineLoginFilterTest {
     kpg.initialize(KEY_SIZE);
     final KeyPair pair = kpg.generateKeyPair();
     when(keyManagerMock.getOrCreateKeyPair(eq(WORKSPACE_ID))).thenReturn(pair);
+    when(keyManagerMock.reloadKeyPair(eq(WORKSPACE_ID))).thenReturn(pair);
 
     machineLoginFilter.doFilter(requestMock, responseMock, chainMock);
 
     verify(tokenExtractorMock, atLeastOnce()).getToken(any(HttpServletRequest.class));
+    verify(keyManagerMock, atLeastOnce()).reloadKeyPair(eq(WORKSPACE_ID));
     verify(responseMock)
         .sendError(
             401,
@@ -144,6 +146,21 @@ public class MachineLoginFilterTest {
                 + " JWT validity cannot be asserted and should not be trusted.");
   }
 
+  @Test
+  public void testProcessRequestWhenCachedKeyPairIsOutdated() throws Exception {
+    final KeyPair validPair = keyManagerMock.getOrCreateKeyPair(WORKSPACE_ID);
+    final KeyPairGenerator kpg = KeyPairGenerator.getInstance(SIGNATURE_ALGORITHM);
+    kpg.initialize(KEY_SIZE);
+    when(keyManagerMock.getOrCreateKeyPair(eq(WORKSPACE_ID))).thenReturn(kpg.generateKeyPair());
+    when(keyManagerMock.reloadKeyPair(eq(WORKSPACE_ID))).thenReturn(validPair);
+
+    machineLoginFilter.doFilter(getRequestMock(), responseMock, chainMock);
+
+    verify(keyManagerMock, atLeastOnce()).reloadKeyPair(eq(WORKSPACE_ID));
+    verify(userManagerMock).getById(anyString());
+    verifyZeroInteractions(responseMock);
+  }
+
   @Test
   public void testNotProceedRequestWhenNoWorkspaceIdClaim() throws Exception {
     final HttpServletRequest requestMock = getRequestMock();
@@ -11,22 +11,32 @@
  */
 package org.eclipse.che.multiuser.machine.authentication.server.signature;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 import java.security.Key;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.util.List;
+import java.util.function.Consumer;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.model.workspace.Workspace;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.eclipse.che.api.workspace.shared.event.WorkspaceRemovedEvent;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.multiuser.machine.authentication.server.signature.model.impl.SignatureKeyImpl;
 import org.eclipse.che.multiuser.machine.authentication.server.signature.model.impl.SignatureKeyPairImpl;
@@ -49,11 +59,17 @@ public class SignatureKeyManagerTest {
 
   private static final int KEY_SIZE = 512;
   private static final String ALGORITHM = "RSA";
+  private static final int CACHE_SIZE = 10;
+  private static final long CACHE_EXPIRE_MIN = 10;
+  private static final int POOL_SIZE = 2;
 
   @Mock SignatureKeyDao signatureKeyDao;
   @Mock EventService eventService;
+  @Mock SignatureKeyInvalidationChannel invalidationChannel;
 
   @Captor private ArgumentCaptor<EventSubscriber<WorkspaceStatusEvent>> captor;
+  @Captor private ArgumentCaptor<EventSubscriber<WorkspaceRemovedEvent>> removedCaptor;
+  @Captor private ArgumentCaptor<Consumer<String>> invalidationCaptor;
 
   private KeyPairGenerator kpg;
   private SignatureKeyManager signatureKeyManager;
@@ -63,7 +79,16 @@ public class SignatureKeyManagerTest {
     kpg = KeyPairGenerator.getInstance(ALGORITHM);
     kpg.initialize(KEY_SIZE);
     signatureKeyManager =
-        new SignatureKeyManager(KEY_SIZE, ALGORITHM, eventService, signatureKeyDao);
+        new SignatureKeyManager(
+            KEY_SIZE,
+            ALGORITHM,
+            CACHE_SIZE,
+            CACHE_EXPIRE_MIN,
+            POOL_SIZE,
+            eventService,
+            signatureKeyDao,
+            invalidationChannel,
+            Runnable::run);
   }
 
   @Test
@@ -106,6 +131,137 @@ public class SignatureKeyManagerTest {
     assertKeys(cachedPair.getPrivate(), kp.getPrivateKey());
   }
 
+  @Test
+  public void shouldLoadKeyPairOnceForManyVerifications() throws Exception {
+    String wsId = "WS_id_1";
+    when(signatureKeyDao.get(wsId)).thenReturn(newKeyPair(wsId));
+
+    KeyPair first = signatureKeyManager.getOrCreateKeyPair(wsId);
+    for (int i = 0; i < 1000; i++) {
+      assertSame(signatureKeyManager.getOrCreateKeyPair(wsId), first);
+    }
+
+    verify(signatureKeyDao, times(1)).get(wsId);
+  }
+
+  @Test
+  public void shouldLoadKeyPairAgainAfterWorkspaceStop() throws Exception {
+    String wsId = "WS_id_1";
+    when(signatureKeyDao.get(wsId)).thenReturn(newKeyPair(wsId));
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+
+    signatureKeyManager.removeKeyPair(wsId);
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+
+    verify(signatureKeyDao, times(2)).get(wsId);
+  }
+
+  @Test
+  public void shouldLoadKeyPairAgainAfterWorkspaceRemoval() throws Exception {
+    String wsId = "WS_id_1";
+    when(signatureKeyDao.get(wsId)).thenReturn(newKeyPair(wsId));
+    signatureKeyManager.subscribe();
+    verify(eventService).subscribe(removedCaptor.capture(), eq(WorkspaceRemovedEvent.class));
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+    Workspace workspace = mock(Workspace.class);
+    when(workspace.getId()).thenReturn(wsId);
+
+    removedCaptor.getValue().onEvent(new WorkspaceRemovedEvent(workspace));
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+
+    verify(signatureKeyDao, times(2)).get(wsId);
+  }
+
+  @Test
+  public void shouldPublishInvalidationWhenKeyPairIsRemoved() throws Exception {
+    signatureKeyManager.removeKeyPair("WS_id_1");
+
+    verify(invalidationChannel).publish("WS_id_1");
+  }
+
+  @Test
+  public void shouldLoadKeyPairAgainWhenItIsRemovedByAnotherReplica() throws Exception {
+    String wsId = "WS_id_1";
+    when(signatureKeyDao.get(wsId)).thenReturn(newKeyPair(wsId));
+    signatureKeyManager.subscribe();
+    verify(invalidationChannel).subscribe(invalidationCaptor.capture());
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+
+    invalidationCaptor.getValue().accept(wsId);
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+
+    verify(signatureKeyDao, times(2)).get(wsId);
+    verify(invalidationChannel, never()).publish(anyString());
+  }
+
+  @Test
+  public void shouldNotCacheKeyPairRemovedWhileItIsLoaded() throws Exception {
+    String wsId = "WS_id_1";
+    SignatureKeyPairImpl keyPair = newKeyPair(wsId);
+    when(signatureKeyDao.get(wsId))
+        .thenAnswer(
+            inv -> {
+              signatureKeyManager.removeKeyPair(wsId);
+              return keyPair;
+            })
+        .thenReturn(keyPair);
+
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+
+    verify(signatureKeyDao, times(2)).get(wsId);
+  }
+
+  @Test
+  public void shouldCacheKeyPairLoadedWhileKeyPairOfAnotherWorkspaceIsRemoved() throws Exception {
+    String wsId = "WS_id_1";
+    SignatureKeyPairImpl keyPair = newKeyPair(wsId);
+    when(signatureKeyDao.get(wsId))
+        .thenAnswer(
+            inv -> {
+              signatureKeyManager.removeKeyPair("WS_id_2");
+              return keyPair;
+            });
+
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+
+    verify(signatureKeyDao, times(1)).get(wsId);
+  }
+
+  @Test
+  public void shouldReloadKeyPairRegeneratedByAnotherReplica() throws Exception {
+    String wsId = "WS_id_1";
+    SignatureKeyPairImpl regenerated = newKeyPair(wsId);
+    when(signatureKeyDao.get(wsId)).thenReturn(newKeyPair(wsId)).thenReturn(regenerated);
+    signatureKeyManager.getOrCreateKeyPair(wsId);
+
+    KeyPair reloaded = signatureKeyManager.reloadKeyPair(wsId);
+
+    assertKeys(reloaded.getPublic(), regenerated.getPublicKey());
+    assertSame(signatureKeyManager.getOrCreateKeyPair(wsId), reloaded);
+    verify(signatureKeyDao, times(2)).get(wsId);
+  }
+
+  @Test
+  public void shouldCreateKeyPairFromPregeneratedOnes() throws Exception {
+    String wsId = "WS_id_1";
+    when(signatureKeyDao.get(wsId)).thenThrow(new NotFoundException("not found"));
+    when(signatureKeyDao.create(any())).thenAnswer(inv -> inv.getArgument(0));
+    signatureKeyManager.fillPool();
+    List<KeyPair> pooled = signatureKeyManager.getPooledKeyPairs();
+    assertEquals(pooled.size(), POOL_SIZE);
+
+    KeyPair created = signatureKeyManager.getOrCreateKeyPair(wsId);
+
+    assertEquals(created.getPublic().getEncoded(), pooled.get(0).getPublic().getEncoded());
+    // pool is refilled after the key pair is taken
+    List<KeyPair> refilled = signatureKeyManager.getPooledKeyPairs();
+    assertEquals(refilled.size(), POOL_SIZE);
+    assertTrue(refilled.contains(pooled.get(1)));
+  }
+
   private SignatureKeyPairImpl newKeyPair(String id) {
     final KeyPair pair = kpg.generateKeyPair();
     return new SignatureKeyPairImpl(id, pair.getPublic(), pair.getPrivate());
@@ -46,9 +46,6 @@ import org.eclipse.che.multiuser.permission.workspace.server.model.Worker;
           "SELECT COUNT(worker) "
               + "FROM Worker worker "
               + "WHERE worker.workspaceId = :workspaceId "),
-  @NamedQuery(
-      name = "Worker.getByUserId",
-      query = "SELECT worker " + "FROM Worker worker " + "WHERE worker.userId = :userId "),
   @NamedQuery(
       name = "Worker.getByUserAndWorkspaceId",
       query =
@@ -56,7 +53,20 @@ import org.eclipse.che.multiuser.permission.workspace.server.model.Worker;
               + "FROM Worker worker "
               + "WHERE worker.userId = :userId "
               + "AND worker.workspaceId = :workspaceId ",
-      hints = {@QueryHint(name = "eclipselink.query-results-cache", value = "true")})
+      hints = {@QueryHint(name = "eclipselink.query-results-cache", value = "true")}),
+  @NamedQuery(
+      name = "Worker.getActionsByUserId",
+      query =
+          "SELECT worker.workspaceId, action "
+              + "FROM Worker worker "
+              + "LEFT JOIN worker.actions action "
+              + "WHERE worker.userId = :userId "),
+  @NamedQuery(
+      name = "Worker.removeByWorkspaceId",
+      query = "DELETE FROM Worker worker WHERE worker.workspaceId = :workspaceId"),
+  @NamedQuery(
+      name = "Worker.removeByUserId",
+      query = "DELETE FROM Worker worker WHERE worker.userId = :userId")
 })
 @Table(name = "che_worker")
 public class WorkerImpl extends AbstractPermissions implements Worker {
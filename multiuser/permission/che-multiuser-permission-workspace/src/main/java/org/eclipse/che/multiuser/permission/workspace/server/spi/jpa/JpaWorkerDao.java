@@ -16,9 +16,11 @@ import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.persist.Transactional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
@@ -31,7 +33,6 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.user.server.event.BeforeUserRemovedEvent;
 import org.eclipse.che.api.workspace.server.event.BeforeWorkspaceRemovedEvent;
-import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.core.db.cascade.CascadeEventSubscriber;
 import org.eclipse.che.multiuser.api.permission.server.AbstractPermissionsDomain;
 import org.eclipse.che.multiuser.api.permission.server.jpa.AbstractJpaPermissionsDao;
@@ -77,6 +78,38 @@ public class JpaWorkerDao extends AbstractJpaPermissionsDao<WorkerImpl> implemen
     return getByUser(userId);
   }
 
+  /**
+   * Removes all the workers of the workspace with bulk statements, without loading the workers.
+   *
+   * @param workspaceId identifier of the workspace
+   * @return the number of removed workers
+   * @throws ServerException when any other error occurs
+   */
+  public int removeWorkers(String workspaceId) throws ServerException {
+    requireNonNull(workspaceId, "Workspace identifier required");
+    try {
+      return doRemoveBy("Worker.removeByWorkspaceId", "workspaceId", workspaceId);
+    } catch (RuntimeException e) {
+      throw new ServerException(e.getLocalizedMessage(), e);
+    }
+  }
+
+  /**
+   * Removes all the workers of the user with bulk statements, without loading the workers.
+   *
+   * @param userId identifier of the user
+   * @return the number of removed workers
+   * @throws ServerException when any other error occurs
+   */
+  public int removeWorkersByUser(String userId) throws ServerException {
+    requireNonNull(userId, "User identifier required");
+    try {
+      return doRemoveBy("Worker.removeByUserId", "userId", userId);
+    } catch (RuntimeException e) {
+      throw new ServerException(e.getLocalizedMessage(), e);
+    }
+  }
+
   @Override
   public WorkerImpl get(String userId, String instanceId)
       throws ServerException, NotFoundException {
@@ -92,7 +125,7 @@ public class JpaWorkerDao extends AbstractJpaPermissionsDao<WorkerImpl> implemen
   @Override
   public List<WorkerImpl> getByUser(String userId) throws ServerException {
     requireNonNull(userId, "User identifier required");
-    return doGetByUser(wildcardToNull(userId)).stream().map(WorkerImpl::new).collect(toList());
+    return doGetByUser(userId);
   }
 
   @Override
@@ -150,26 +183,57 @@ public class JpaWorkerDao extends AbstractJpaPermissionsDao<WorkerImpl> implemen
         .getSingleResult();
   }
 
+  /**
+   * Loads workers of the user with a single query which selects only workspace ids and actions, so
+   * neither the actions nor the workspaces of the workers are fetched one by one.
+   */
   @Transactional
-  protected List<WorkerImpl> doGetByUser(@Nullable String userId) throws ServerException {
+  protected List<WorkerImpl> doGetByUser(String userId) throws ServerException {
     try {
-      return managerProvider
-          .get()
-          .createNamedQuery("Worker.getByUserId", WorkerImpl.class)
-          .setParameter("userId", userId)
-          .getResultList();
+      return toWorkers(
+          userId,
+          managerProvider
+              .get()
+              .createNamedQuery("Worker.getActionsByUserId", Object[].class)
+              .setParameter("userId", wildcardToNull(userId))
+              .getResultList());
     } catch (RuntimeException e) {
       throw new ServerException(e.getLocalizedMessage(), e);
     }
   }
 
+  /** Executes the bulk delete query, actions of the workers are deleted by the same query. */
+  @Transactional
+  protected int doRemoveBy(String queryName, String parameter, String value) {
+    return managerProvider
+        .get()
+        .createNamedQuery(queryName)
+        .setParameter(parameter, value)
+        .executeUpdate();
+  }
+
+  /** Groups rows of workspace id and action pairs into workers of the given user. */
+  private static List<WorkerImpl> toWorkers(String userId, List<Object[]> rows) {
+    final Map<String, List<String>> workspaceActions = new LinkedHashMap<>();
+    for (Object[] row : rows) {
+      final List<String> actions =
+          workspaceActions.computeIfAbsent((String) row[0], id -> new ArrayList<>());
+      if (row[1] != null) {
+        actions.add((String) row[1]);
+      }
+    }
+    return workspaceActions
+        .entrySet()
+        .stream()
+        .map(entry -> new WorkerImpl(entry.getKey(), userId, entry.getValue()))
+        .collect(toList());
+  }
+
   @Singleton
   public static class RemoveWorkersBeforeWorkspaceRemovedEventSubscriber
       extends CascadeEventSubscriber<BeforeWorkspaceRemovedEvent> {
-    private static final int PAGE_SIZE = 100;
-
     @Inject private EventService eventService;
-    @Inject private WorkerDao workerDao;
+    @Inject private JpaWorkerDao workerDao;
 
     @PostConstruct
     public void subscribe() {
@@ -183,20 +247,7 @@ public class JpaWorkerDao extends AbstractJpaPermissionsDao<WorkerImpl> implemen
 
     @Override
     public void onCascadeEvent(BeforeWorkspaceRemovedEvent event) throws Exception {
-      removeWorkers(event.getWorkspace().getId(), PAGE_SIZE);
-    }
-
-    @VisibleForTesting
-    void removeWorkers(String workspaceId, int pageSize) throws ServerException {
-      Page<WorkerImpl> workersPage;
-      do {
-        // skip count always equals to 0 because elements will be shifted after removing previous
-        // items
-        workersPage = workerDao.getWorkers(workspaceId, pageSize, 0);
-        for (WorkerImpl worker : workersPage.getItems()) {
-          workerDao.removeWorker(worker.getInstanceId(), worker.getUserId());
-        }
-      } while (workersPage.hasNextPage());
+      workerDao.removeWorkers(event.getWorkspace().getId());
     }
   }
 
@@ -204,7 +255,7 @@ public class JpaWorkerDao extends AbstractJpaPermissionsDao<WorkerImpl> implemen
   public static class RemoveWorkersBeforeUserRemovedEventSubscriber
       extends CascadeEventSubscriber<BeforeUserRemovedEvent> {
     @Inject private EventService eventService;
-    @Inject private WorkerDao dao;
+    @Inject private JpaWorkerDao dao;
 
     @PostConstruct
     public void subscribe() {
@@ -218,9 +269,7 @@ public class JpaWorkerDao extends AbstractJpaPermissionsDao<WorkerImpl> implemen
 
     @Override
     public void onCascadeEvent(BeforeUserRemovedEvent event) throws Exception {
-      for (WorkerImpl worker : dao.getWorkersByUser(event.getUser().getId())) {
-        dao.removeWorker(worker.getInstanceId(), worker.getUserId());
-      }
+      dao.removeWorkersByUser(event.getUser().getId());
     }
   }
 }
@@ -12,6 +12,8 @@
 package org.eclipse.che.multiuser.permission.workspace.server.spi.jpa;
 
 import com.google.inject.TypeLiteral;
+import java.util.Collections;
+import java.util.Map;
 import org.eclipse.che.account.spi.AccountImpl;
 import org.eclipse.che.api.user.server.model.impl.UserImpl;
 import org.eclipse.che.api.workspace.server.devfile.SerializableConverter;
@@ -53,11 +55,24 @@ import org.h2.Driver;
 /** @author Yevhenii Voevodin */
 public class JpaTckModule extends TckModule {
 
+  private final Map<String, String> persistenceProperties;
+
+  public JpaTckModule() {
+    this(Collections.emptyMap());
+  }
+
+  /** Creates module which adds the given properties to the persistence unit. */
+  public JpaTckModule(Map<String, String> persistenceProperties) {
+    this.persistenceProperties = persistenceProperties;
+  }
+
   @Override
   protected void configure() {
     H2DBTestServer server = H2DBTestServer.startDefault();
+    PersistTestModuleBuilder persistModuleBuilder = new PersistTestModuleBuilder();
+    persistenceProperties.forEach(persistModuleBuilder::setProperty);
     install(
-        new PersistTestModuleBuilder()
+        persistModuleBuilder
             .setDriver(Driver.class)
             .runningOn(server)
             .addEntityClasses(
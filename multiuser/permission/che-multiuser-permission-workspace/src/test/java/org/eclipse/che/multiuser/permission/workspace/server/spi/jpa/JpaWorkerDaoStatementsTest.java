@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.permission.workspace.server.spi.jpa;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import org.eclipse.che.account.spi.AccountImpl;
+import org.eclipse.che.api.user.server.model.impl.UserImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.commons.test.db.StatementCountingCustomizer;
+import org.eclipse.che.commons.test.tck.TckResourcesCleaner;
+import org.eclipse.che.core.db.PersistenceProfile;
+import org.eclipse.che.multiuser.permission.workspace.server.model.impl.WorkerImpl;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the number of statements sent to the database with the tuned {@link PersistenceProfile}
+ * and the state persisted with these statements.
+ */
+public class JpaWorkerDaoStatementsTest {
+
+  private static final int BATCH_WRITING_SIZE = 100;
+
+  private JpaWorkerDao workerDao;
+  private EntityManager manager;
+  private TckResourcesCleaner tckResourcesCleaner;
+
+  @BeforeMethod
+  private void setUpManager() {
+    final Map<String, String> properties =
+        new HashMap<>(new PersistenceProfile(BATCH_WRITING_SIZE, 0).toPersistenceProperties());
+    properties.put(
+        PersistenceUnitProperties.SESSION_CUSTOMIZER, StatementCountingCustomizer.class.getName());
+    final Injector injector = Guice.createInjector(new JpaTckModule(properties));
+    manager = injector.getInstance(EntityManager.class);
+    workerDao = injector.getInstance(JpaWorkerDao.class);
+    tckResourcesCleaner = injector.getInstance(TckResourcesCleaner.class);
+  }
+
+  @AfterMethod
+  private void cleanup() {
+    manager.getTransaction().begin();
+    final List<Object> entities = new ArrayList<>();
+    entities.addAll(manager.createQuery("SELECT w FROM Worker w").getResultList());
+    entities.addAll(manager.createQuery("SELECT w FROM Workspace w").getResultList());
+    entities.addAll(manager.createQuery("SELECT u FROM Usr u").getResultList());
+    entities.addAll(manager.createQuery("SELECT a FROM Account a").getResultList());
+    for (Object entity : entities) {
+      manager.remove(entity);
+    }
+    manager.getTransaction().commit();
+    tckResourcesCleaner.clean();
+  }
+
+  @Test
+  public void shouldInsertEntitiesInBatches() {
+    final int workspacesCount = 3 * BATCH_WRITING_SIZE;
+    final AccountImpl account = new AccountImpl("accountId", "namespace", "test");
+    final List<WorkspaceImpl> workspaces = new ArrayList<>();
+    for (int i = 0; i < workspacesCount; i++) {
+      workspaces.add(WorkspaceImpl.builder().setId("workspace" + i).setAccount(account).build());
+    }
+
+    manager.getTransaction().begin();
+    manager.persist(account);
+    workspaces.forEach(manager::persist);
+    StatementCountingCustomizer.reset();
+    manager.getTransaction().commit();
+    manager.clear();
+
+    // one statement for the account and one per batch of workspaces
+    final int statements = StatementCountingCustomizer.getStatements();
+    assertTrue(
+        statements <= 1 + workspacesCount / BATCH_WRITING_SIZE,
+        "Expected batched inserts, but " + statements + " statements were sent");
+    final List<WorkspaceImpl> persisted =
+        manager.createQuery("SELECT w FROM Workspace w", WorkspaceImpl.class).getResultList();
+    assertEquals(
+        persisted.stream().map(WorkspaceImpl::getId).collect(toSet()),
+        workspaces.stream().map(WorkspaceImpl::getId).collect(toSet()));
+    assertTrue(persisted.stream().allMatch(ws -> ws.getAccount().getId().equals("accountId")));
+  }
+
+  @Test
+  public void shouldRemoveWorkersOfWorkspaceWithBulkStatements() throws Exception {
+    final int usersCount = 2 * BATCH_WRITING_SIZE;
+    final AccountImpl account = new AccountImpl("accountId", "namespace", "test");
+    final WorkspaceImpl removed = WorkspaceImpl.builder().setId("ws1").setAccount(account).build();
+    final WorkspaceImpl kept = WorkspaceImpl.builder().setId("ws2").setAccount(account).build();
+    manager.getTransaction().begin();
+    manager.persist(account);
+    manager.persist(removed);
+    manager.persist(kept);
+    for (int i = 0; i < usersCount; i++) {
+      final String userId = "user" + i;
+      manager.persist(new UserImpl(userId, userId + "@com.com", "usr" + i));
+      manager.persist(new WorkerImpl("ws1", userId, Arrays.asList("read", "run")));
+    }
+    manager.persist(new WorkerImpl("ws2", "user0", Arrays.asList("read", "use")));
+    manager.getTransaction().commit();
+    manager.clear();
+
+    StatementCountingCustomizer.reset();
+    final int removedCount = workerDao.removeWorkers("ws1");
+
+    // one statement for the actions and one for the workers
+    assertEquals(StatementCountingCustomizer.getStatements(), 2);
+    assertEquals(removedCount, usersCount);
+    assertEquals(workerDao.getWorkers("ws1", 1, 0).getTotalItemsCount(), 0);
+    assertEquals(
+        manager
+            .createNativeQuery("SELECT COUNT(*) FROM che_worker_actions")
+            .getSingleResult()
+            .toString(),
+        "2");
+    final WorkerImpl keptWorker = workerDao.getWorker("ws2", "user0");
+    assertEquals(keptWorker.getActions(), Arrays.asList("read", "use"));
+  }
+
+  @Test
+  public void shouldRemoveWorkersOfUserWithBulkStatements() throws Exception {
+    final AccountImpl account = new AccountImpl("accountId", "namespace", "test");
+    final List<String> workspaceIds = new ArrayList<>();
+    manager.getTransaction().begin();
+    manager.persist(account);
+    manager.persist(new UserImpl("user1", "user1@com.com", "usr1"));
+    manager.persist(new UserImpl("user2", "user2@com.com", "usr2"));
+    for (int i = 0; i < BATCH_WRITING_SIZE; i++) {
+      final String workspaceId = "workspace" + i;
+      manager.persist(WorkspaceImpl.builder().setId(workspaceId).setAccount(account).build());
+      manager.persist(new WorkerImpl(workspaceId, "user1", Arrays.asList("read", "run")));
+      manager.persist(new WorkerImpl(workspaceId, "user2", Arrays.asList("read")));
+      workspaceIds.add(workspaceId);
+    }
+    manager.getTransaction().commit();
+    manager.clear();
+
+    StatementCountingCustomizer.reset();
+    final int removedCount = workerDao.removeWorkersByUser("user1");
+
+    assertEquals(StatementCountingCustomizer.getStatements(), 2);
+    assertEquals(removedCount, BATCH_WRITING_SIZE);
+    assertTrue(workerDao.getWorkersByUser("user1").isEmpty());
+    final List<WorkerImpl> kept = workerDao.getWorkersByUser("user2");
+    assertEquals(
+        kept.stream().map(WorkerImpl::getWorkspaceId).sorted().collect(toList()),
+        workspaceIds.stream().sorted().collect(toList()));
+    assertTrue(kept.stream().allMatch(w -> w.getActions().equals(Arrays.asList("read"))));
+  }
+}
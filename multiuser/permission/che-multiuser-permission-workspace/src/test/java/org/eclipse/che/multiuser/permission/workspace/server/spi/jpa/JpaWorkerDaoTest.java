@@ -11,13 +11,16 @@
  */
 package org.eclipse.che.multiuser.permission.workspace.server.spi.jpa;
 
+import static java.util.Collections.singletonMap;
 import static org.eclipse.che.inject.Matchers.names;
 import static org.eclipse.che.multiuser.api.permission.server.AbstractPermissionsDomain.SET_PERMISSIONS;
+import static org.testng.Assert.assertEquals;
 
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.matcher.Matchers;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import javax.persistence.EntityManager;
@@ -27,9 +30,11 @@ import org.eclipse.che.account.spi.AccountImpl;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.user.server.model.impl.UserImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.commons.test.db.StatementCountingCustomizer;
 import org.eclipse.che.commons.test.tck.TckModule;
 import org.eclipse.che.commons.test.tck.TckResourcesCleaner;
 import org.eclipse.che.multiuser.permission.workspace.server.model.impl.WorkerImpl;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -43,7 +48,12 @@ public class JpaWorkerDaoTest {
   @BeforeMethod
   private void setUpManager() {
     final Injector injector =
-        Guice.createInjector(new JpaTckModule(), new ExceptionEntityManagerModule());
+        Guice.createInjector(
+            new JpaTckModule(
+                singletonMap(
+                    PersistenceUnitProperties.SESSION_CUSTOMIZER,
+                    StatementCountingCustomizer.class.getName())),
+            new ExceptionEntityManagerModule());
     manager = injector.getInstance(EntityManager.class);
     workerDao = injector.getInstance(JpaWorkerDao.class);
     tckResourcesCleaner = injector.getInstance(TckResourcesCleaner.class);
@@ -103,6 +113,28 @@ public class JpaWorkerDaoTest {
     workerDao.exists("user0", "workspaceId", SET_PERMISSIONS);
   }
 
+  @Test
+  public void shouldLoadWorkersOfUserWithConstantNumberOfStatements() throws Exception {
+    final int workspacesCount = 5000;
+    final Account account = new AccountImpl("accountId", "namespace", "test");
+    final UserImpl user = new UserImpl("user0", "user0@com.com", "usr0");
+    manager.getTransaction().begin();
+    manager.persist(account);
+    manager.persist(user);
+    for (int i = 0; i < workspacesCount; i++) {
+      final String workspaceId = "workspace" + i;
+      manager.persist(WorkspaceImpl.builder().setId(workspaceId).setAccount(account).build());
+      manager.persist(new WorkerImpl(workspaceId, "user0", Arrays.asList("read", "run")));
+    }
+    manager.getTransaction().commit();
+    manager.clear();
+
+    StatementCountingCustomizer.reset();
+    final List<WorkerImpl> userWorkers = workerDao.getWorkersByUser("user0");
+    assertEquals(StatementCountingCustomizer.getStatements(), 1);
+    assertEquals(userWorkers.size(), workspacesCount);
+  }
+
   public class ExceptionEntityManagerModule extends TckModule {
 
     @Override
@@ -132,9 +132,14 @@ public class RemoveWorkersBeforeWorkspaceRemovedEventSubscriberTest {
   }
 
   @Test
-  public void shouldRemoveAllWorkersWhenPageSizeEqualsToOne() throws Exception {
-    subscriber.removeWorkers(workspace.getId(), 1);
+  public void shouldRemoveActionsOfRemovedWorkers() throws Exception {
+    workspaceDao.remove(workspace.getId());
 
-    assertEquals(workerDao.getWorkers(workspace.getId(), 1, 0).getTotalItemsCount(), 0);
+    assertEquals(
+        manager
+            .createNativeQuery("SELECT COUNT(*) FROM che_worker_actions")
+            .getSingleResult()
+            .toString(),
+        "0");
   }
 }
@@ -0,0 +1,22 @@
+--
+-- Copyright (c) 2012-2020 Red Hat, Inc.
+-- This program and the accompanying materials are made
+-- available under the terms of the Eclipse Public License 2.0
+-- which is available at https://www.eclipse.org/legal/epl-2.0/
+--
+-- SPDX-License-Identifier: EPL-2.0
+--
+-- Contributors:
+--   Red Hat, Inc. - initial API and implementation
+--
+
+-- Organization materialized path ----------------------------------------------
+ALTER TABLE che_organization ADD COLUMN path VARCHAR(768);
+
+-- paths of suborganizations are set on Che Server start by OrganizationPathsInitializer,
+-- one level of the tree at a time, as this database does not support recursive updates
+UPDATE che_organization SET path = id WHERE parent IS NULL;
+
+-- indexes
+CREATE INDEX che_index_organization_path ON che_organization (path);
+--------------------------------------------------------------------------------
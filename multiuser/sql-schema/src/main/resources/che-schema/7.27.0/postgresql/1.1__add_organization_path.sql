@@ -0,0 +1,30 @@
+--
+-- Copyright (c) 2012-2020 Red Hat, Inc.
+-- This program and the accompanying materials are made
+-- available under the terms of the Eclipse Public License 2.0
+-- which is available at https://www.eclipse.org/legal/epl-2.0/
+--
+-- SPDX-License-Identifier: EPL-2.0
+--
+-- Contributors:
+--   Red Hat, Inc. - initial API and implementation
+--
+
+-- Organization materialized path ----------------------------------------------
+ALTER TABLE che_organization ADD COLUMN path VARCHAR(768);
+
+WITH RECURSIVE tree(id, path) AS (
+    SELECT id, CAST(id AS VARCHAR(768))
+    FROM che_organization
+    WHERE parent IS NULL
+    UNION ALL
+    SELECT o.id, CAST(t.path || '/' || o.id AS VARCHAR(768))
+    FROM che_organization o
+    JOIN tree t ON o.parent = t.id
+)
+UPDATE che_organization o SET path = tree.path FROM tree WHERE o.id = tree.id;
+
+ALTER TABLE che_organization ALTER COLUMN path SET NOT NULL;
+-- indexes, pattern ops allow prefix LIKE queries to use the index regardless of the collation
+CREATE INDEX che_index_organization_path ON che_organization (path varchar_pattern_ops);
+--------------------------------------------------------------------------------
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.notification.AsyncDeliveryStats;
+import org.eclipse.che.api.core.notification.EventService;
+
+/** Provides metrics of asynchronous events delivery of {@link EventService}. */
+@Singleton
+public class EventServiceMeterBinder implements MeterBinder {
+
+  private final AsyncDeliveryStats stats;
+
+  @Inject
+  public EventServiceMeterBinder(EventService eventService) {
+    this.stats = eventService.getAsyncDeliveryStats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("che.event_service.async.queued", stats, AsyncDeliveryStats::getQueuedEvents)
+        .description("The number of events waiting for delivery to asynchronous subscribers")
+        .baseUnit("event")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.event_service.async.dropped", stats, AsyncDeliveryStats::getDroppedEvents)
+        .description("The number of events dropped since queues of subscribers were full")
+        .baseUnit("event")
+        .register(registry);
+    FunctionTimer.builder(
+            "che.event_service.async.delivery",
+            stats,
+            AsyncDeliveryStats::getDeliveredEvents,
+            s -> s.getTotalDeliveryLatency(TimeUnit.NANOSECONDS),
+            TimeUnit.NANOSECONDS)
+        .description("Time between publishing of events and passing them to subscribers")
+        .register(registry);
+  }
+}
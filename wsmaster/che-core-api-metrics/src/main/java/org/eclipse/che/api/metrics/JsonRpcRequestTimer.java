@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerManager;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlingListener;
+import org.eclipse.che.core.metrics.RequestTimers;
+
+/**
+ * Provides latency metrics of JSON RPC requests and notifications handled by {@link
+ * RequestHandlerManager}, grouped by method name and outcome, along with the time requests wait in
+ * the queue and the number of requests rejected because of processing limits.
+ *
+ * <p>Queue and rejection metrics are not grouped by method since the method name is not validated
+ * at that moment.
+ */
+@Singleton
+public class JsonRpcRequestTimer implements MeterBinder, RequestHandlingListener {
+
+  private final String[] slosMillis;
+  private final int maxTimers;
+
+  private volatile RequestTimers timers;
+  private volatile Timer queueTimer;
+  private volatile Counter rejectedCounter;
+
+  @Inject
+  public JsonRpcRequestTimer(
+      @Named("che.metrics.request_timer.slo_ms") String[] slosMillis,
+      @Named("che.metrics.request_timer.max_timers") int maxTimers) {
+    this.slosMillis = slosMillis;
+    this.maxTimers = maxTimers;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    timers =
+        new RequestTimers(
+            registry,
+            "che.server.jsonrpc.request",
+            "Che Server JSON RPC requests latency",
+            slosMillis,
+            maxTimers);
+    queueTimer =
+        Timer.builder("che.server.jsonrpc.request.queue")
+            .description("Time JSON RPC requests wait in the queue before processing")
+            .sla(RequestTimers.toSlos(slosMillis))
+            .register(registry);
+    rejectedCounter =
+        Counter.builder("che.server.jsonrpc.request.rejected")
+            .description("Number of JSON RPC requests rejected because of processing limits")
+            .register(registry);
+  }
+
+  @Override
+  public void onHandled(String method, long durationNanos, boolean failed) {
+    if (timers == null) {
+      return;
+    }
+    timers.record(
+        Tags.of("method", method, "outcome", failed ? "failure" : "success"),
+        durationNanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void onDequeued(String method, long waitNanos) {
+    if (queueTimer != null) {
+      queueTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Override
+  public void onRejected(String method) {
+    if (rejectedCounter != null) {
+      rejectedCounter.increment();
+    }
+  }
+}
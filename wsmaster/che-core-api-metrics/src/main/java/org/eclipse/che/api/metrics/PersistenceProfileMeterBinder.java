@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.core.db.PersistenceProfile;
+
+/** Provides the effective settings of the statements sent to the database. */
+@Singleton
+public class PersistenceProfileMeterBinder implements MeterBinder {
+
+  private final PersistenceProfile profile;
+
+  @Inject
+  public PersistenceProfileMeterBinder(PersistenceProfile profile) {
+    this.profile = profile;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("che.db.batch.size", profile, PersistenceProfile::getBatchWritingSize)
+        .description("Max number of statements sent in a single JDBC batch, 0 if disabled")
+        .baseUnit("statement")
+        .register(registry);
+    Gauge.builder("che.db.statement.cache.size", profile, PersistenceProfile::getStatementCacheSize)
+        .description("Max number of prepared statements cached per connection, 0 if disabled")
+        .baseUnit("statement")
+        .register(registry);
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.websocket.impl.WebSocketCompression;
+
+/** Provides metrics of permessage-deflate compression of websocket messages. */
+@Singleton
+public class WebSocketCompressionMeterBinder implements MeterBinder {
+
+  private final WebSocketCompression compression;
+
+  @Inject
+  public WebSocketCompressionMeterBinder(WebSocketCompression compression) {
+    this.compression = compression;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder(
+            "che.websocket.messages.sent", compression, WebSocketCompression::getSentMessages)
+        .description("The number of messages sent over websocket connections")
+        .baseUnit("message")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.websocket.messages.deflated",
+            compression,
+            WebSocketCompression::getDeflatedMessages)
+        .description("The number of messages sent over connections with permessage-deflate")
+        .baseUnit("message")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.websocket.deflate.sampled.bytes",
+            compression,
+            WebSocketCompression::getSampledBytes)
+        .description("The size of the sampled messages before compression")
+        .baseUnit("byte")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.websocket.deflate.sampled.compressed.bytes",
+            compression,
+            WebSocketCompression::getSampledCompressedBytes)
+        .description("The estimated size of the sampled messages after compression")
+        .baseUnit("byte")
+        .register(registry);
+    Gauge.builder(
+            "che.websocket.deflate.ratio", compression, WebSocketCompression::getCompressionRatio)
+        .description("The estimated ratio of compressed to uncompressed size of messages")
+        .register(registry);
+    FunctionTimer.builder(
+            "che.websocket.deflate.sampled",
+            compression,
+            WebSocketCompression::getSampledMessages,
+            c -> c.getTotalSampledCompressionTime(TimeUnit.NANOSECONDS),
+            TimeUnit.NANOSECONDS)
+        .description("Time spent on the compression of the sampled messages")
+        .register(registry);
+  }
+}
@@ -14,6 +14,7 @@ package org.eclipse.che.api.metrics;
 import com.google.inject.AbstractModule;
 import com.google.inject.multibindings.Multibinder;
 import io.micrometer.core.instrument.binder.MeterBinder;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlingListener;
 
 /**
  * A Guice module to bind all our metric binders to a single multi-binder. The set of all metric
@@ -37,5 +38,11 @@ public class WsMasterMetricsModule extends AbstractModule {
     meterMultibinder.addBinding().to(UserMeterBinder.class);
     meterMultibinder.addBinding().to(RuntimeLogMeterBinder.class);
     meterMultibinder.addBinding().to(WorkspaceMeterBinder.class);
+    meterMultibinder.addBinding().to(EventServiceMeterBinder.class);
+    meterMultibinder.addBinding().to(WebSocketCompressionMeterBinder.class);
+    meterMultibinder.addBinding().to(JsonRpcRequestTimer.class);
+    meterMultibinder.addBinding().to(PersistenceProfileMeterBinder.class);
+
+    bind(RequestHandlingListener.class).to(JsonRpcRequestTimer.class);
   }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static org.testng.Assert.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.che.api.core.notification.EventService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class EventServiceMeterBinderTest {
+
+  private EventService eventService;
+  private MeterRegistry registry;
+
+  @BeforeMethod
+  public void setUp() {
+    eventService = new EventService();
+    registry = new SimpleMeterRegistry();
+    new EventServiceMeterBinder(eventService).bindTo(registry);
+  }
+
+  @Test
+  public void shouldCollectAsyncDeliveryMetrics() {
+    List<Runnable> tasks = new ArrayList<>();
+    eventService.subscribeAsync(event -> {}, String.class, tasks::add, event -> "key", 2);
+
+    eventService.publish("first");
+    eventService.publish("second");
+    eventService.publish("third");
+
+    assertEquals(registry.find("che.event_service.async.queued").gauge().value(), 2.0);
+    assertEquals(registry.find("che.event_service.async.dropped").functionCounter().count(), 1.0);
+
+    tasks.forEach(Runnable::run);
+
+    assertEquals(registry.find("che.event_service.async.queued").gauge().value(), 0.0);
+    assertEquals(registry.find("che.event_service.async.delivery").functionTimer().count(), 2.0);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.fail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcComposer;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcMarshaller;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerManager;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+@Listeners(MockitoTestNGListener.class)
+public class JsonRpcRequestTimerTest {
+
+  @Mock private WebSocketMessageTransmitter transmitter;
+  @Mock private JsonRpcComposer composer;
+  @Mock private JsonRpcMarshaller marshaller;
+
+  private MeterRegistry registry;
+  private RequestHandlerManager requestHandlerManager;
+
+  @BeforeMethod
+  public void setUp() {
+    registry = new SimpleMeterRegistry();
+    JsonRpcRequestTimer requestTimer = new JsonRpcRequestTimer(new String[] {"10", "100"}, 10);
+    requestTimer.bindTo(registry);
+
+    requestHandlerManager = new RequestHandlerManager(transmitter, composer, marshaller);
+    requestHandlerManager.setHandlingListener(requestTimer);
+  }
+
+  @Test
+  public void shouldRecordHandledNotifications() {
+    requestHandlerManager.registerNoneToNone("test/method", endpointId -> {});
+
+    requestHandlerManager.handle("endpoint", "test/method", null);
+    requestHandlerManager.handle("endpoint", "test/method", null);
+
+    Timer timer =
+        registry
+            .find("che.server.jsonrpc.request")
+            .tag("method", "test/method")
+            .tag("outcome", "success")
+            .timer();
+    assertNotNull(timer);
+    assertEquals(timer.count(), 2);
+  }
+
+  @Test
+  public void shouldRecordFailedNotifications() {
+    requestHandlerManager.registerNoneToNone(
+        "test/failing",
+        endpointId -> {
+          throw new IllegalStateException("failed");
+        });
+
+    try {
+      requestHandlerManager.handle("endpoint", "test/failing", null);
+      fail("Handler failure is expected to be propagated");
+    } catch (IllegalStateException expected) {
+      // expected
+    }
+
+    Timer timer =
+        registry
+            .find("che.server.jsonrpc.request")
+            .tag("method", "test/failing")
+            .tag("outcome", "failure")
+            .timer();
+    assertNotNull(timer);
+    assertEquals(timer.count(), 1);
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static org.testng.Assert.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.che.core.db.PersistenceProfile;
+import org.testng.annotations.Test;
+
+public class PersistenceProfileMeterBinderTest {
+
+  @Test
+  public void shouldProvideEffectiveSettings() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+
+    new PersistenceProfileMeterBinder(new PersistenceProfile(100, 50)).bindTo(registry);
+
+    assertEquals(registry.find("che.db.batch.size").gauge().value(), 100.0);
+    assertEquals(registry.find("che.db.statement.cache.size").gauge().value(), 50.0);
+  }
+
+  @Test
+  public void shouldProvideZeroBatchSizeWhenBatchWritingIsDisabled() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+
+    new PersistenceProfileMeterBinder(new PersistenceProfile(1, 0)).bindTo(registry);
+
+    assertEquals(registry.find("che.db.batch.size").gauge().value(), 0.0);
+    assertEquals(registry.find("che.db.statement.cache.size").gauge().value(), 0.0);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.core.websocket.impl.WebSocketCompression.PERMESSAGE_DEFLATE;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import javax.websocket.Extension;
+import javax.websocket.Session;
+import org.eclipse.che.api.core.websocket.impl.WebSocketCompression;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class WebSocketCompressionMeterBinderTest {
+
+  private WebSocketCompression compression;
+  private MeterRegistry registry;
+
+  @BeforeMethod
+  public void setUp() {
+    compression = new WebSocketCompression(true, 1);
+    registry = new SimpleMeterRegistry();
+    new WebSocketCompressionMeterBinder(compression).bindTo(registry);
+  }
+
+  @Test
+  public void shouldCollectCompressionMetrics() {
+    Extension deflate = mock(Extension.class);
+    when(deflate.getName()).thenReturn(PERMESSAGE_DEFLATE);
+    Session session = mock(Session.class);
+    when(session.getNegotiatedExtensions()).thenReturn(singletonList(deflate));
+
+    compression.onSent(session, "{\"text\":\"" + "a".repeat(100) + "\"}");
+
+    assertEquals(registry.find("che.websocket.messages.sent").functionCounter().count(), 1.0);
+    assertEquals(registry.find("che.websocket.messages.deflated").functionCounter().count(), 1.0);
+    assertEquals(registry.find("che.websocket.deflate.sampled").functionTimer().count(), 1.0);
+    assertTrue(registry.find("che.websocket.deflate.ratio").gauge().value() < 1.0);
+  }
+}
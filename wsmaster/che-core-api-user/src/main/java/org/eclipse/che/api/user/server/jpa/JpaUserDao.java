@@ -13,29 +13,43 @@ package org.eclipse.che.api.user.server.jpa;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
 import com.google.inject.persist.Transactional;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
+import javax.persistence.TypedQuery;
 import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.user.server.model.impl.UserImpl;
+import org.eclipse.che.api.user.server.model.impl.UserSearchTrigrams;
 import org.eclipse.che.api.user.server.spi.UserDao;
 import org.eclipse.che.core.db.jpa.DuplicateKeyException;
 import org.eclipse.che.security.PasswordEncryptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * JPA based implementation of {@link UserDao}.
  *
+ * <p>Search by name or email part intersects the indexed trigrams of the part, see {@link
+ * UserSearchTrigrams}, and checks the found users with LIKE. On PostgreSQL the search is done with
+ * LIKE only, as it is served by the pg_trgm indexes, so the trigrams of users are not stored there.
+ * Parts which are shorter than a trigram or contain LIKE wildcards are searched with LIKE as well.
+ *
  * @author Yevhenii Voevodin
  * @author Anton Korneta
  * @author Igor Vinokur
@@ -43,9 +57,14 @@ import org.eclipse.che.security.PasswordEncryptor;
 @Singleton
 public class JpaUserDao implements UserDao {
 
+  private static final Logger LOG = LoggerFactory.getLogger(JpaUserDao.class);
+
   @Inject protected Provider<EntityManager> managerProvider;
   @Inject private PasswordEncryptor encryptor;
 
+  /** Whether the database indexes LIKE queries itself, null until the database is checked. */
+  private volatile Boolean likeIndexed;
+
   @Override
   @Transactional
   public UserImpl getByAliasAndPassword(String emailOrName, String password)
@@ -214,24 +233,7 @@ public class JpaUserDao implements UserDao {
         skipCount >= 0 && skipCount <= Integer.MAX_VALUE,
         "The number of items to skip can't be negative or greater than " + Integer.MAX_VALUE);
     try {
-      final List<UserImpl> list =
-          managerProvider
-              .get()
-              .createNamedQuery("User.getByNamePart", UserImpl.class)
-              .setParameter("name", namePart.toLowerCase())
-              .setMaxResults(maxItems)
-              .setFirstResult((int) skipCount)
-              .getResultList()
-              .stream()
-              .map(JpaUserDao::erasePassword)
-              .collect(toList());
-      final long count =
-          managerProvider
-              .get()
-              .createNamedQuery("User.getByNamePartCount", Long.class)
-              .setParameter("name", namePart.toLowerCase())
-              .getSingleResult();
-      return new Page<>(list, skipCount, maxItems, count);
+      return searchByPart("User.getByNamePart", "name", namePart, maxItems, skipCount);
     } catch (RuntimeException x) {
       throw new ServerException(x.getLocalizedMessage(), x);
     }
@@ -247,24 +249,7 @@ public class JpaUserDao implements UserDao {
         skipCount >= 0 && skipCount <= Integer.MAX_VALUE,
         "The number of items to skip can't be negative or greater than " + Integer.MAX_VALUE);
     try {
-      final List<UserImpl> list =
-          managerProvider
-              .get()
-              .createNamedQuery("User.getByEmailPart", UserImpl.class)
-              .setParameter("email", emailPart.toLowerCase())
-              .setMaxResults(maxItems)
-              .setFirstResult((int) skipCount)
-              .getResultList()
-              .stream()
-              .map(JpaUserDao::erasePassword)
-              .collect(toList());
-      final long count =
-          managerProvider
-              .get()
-              .createNamedQuery("User.getByEmailPartCount", Long.class)
-              .setParameter("email", emailPart.toLowerCase())
-              .getSingleResult();
-      return new Page<>(list, skipCount, maxItems, count);
+      return searchByPart("User.getByEmailPart", "email", emailPart, maxItems, skipCount);
     } catch (RuntimeException x) {
       throw new ServerException(x.getLocalizedMessage(), x);
     }
@@ -283,6 +268,68 @@ public class JpaUserDao implements UserDao {
     }
   }
 
+  /**
+   * Searches users by the part of the attribute.
+   *
+   * @param queryName name of the LIKE query, the trigram query has the same name with 'Trigrams'
+   *     suffix and count queries have 'Count' suffix
+   * @param parameter name of the query parameter
+   * @param part part of the attribute value
+   * @param maxItems max number of users to return
+   * @param skipCount number of users to skip
+   */
+  private Page<UserImpl> searchByPart(
+      String queryName, String parameter, String part, int maxItems, long skipCount) {
+    final EntityManager manager = managerProvider.get();
+    final String lowerPart = part.toLowerCase(Locale.ROOT);
+    final Set<String> trigrams = UserSearchTrigrams.of(part);
+    final boolean useTrigrams =
+        !trigrams.isEmpty()
+            && lowerPart.indexOf('%') == -1
+            && lowerPart.indexOf('_') == -1
+            && !isLikeIndexed(manager);
+    if (useTrigrams) {
+      queryName += "Trigrams";
+    }
+    final TypedQuery<UserImpl> query =
+        manager
+            .createNamedQuery(queryName, UserImpl.class)
+            .setParameter(parameter, lowerPart)
+            .setMaxResults(maxItems)
+            .setFirstResult((int) skipCount);
+    final TypedQuery<Long> countQuery =
+        manager
+            .createNamedQuery(queryName + "Count", Long.class)
+            .setParameter(parameter, lowerPart);
+    if (useTrigrams) {
+      for (TypedQuery<?> q : asList(query, countQuery)) {
+        q.setParameter("trigrams", trigrams).setParameter("trigramsCount", (long) trigrams.size());
+      }
+    }
+    final List<UserImpl> list =
+        query.getResultList().stream().map(JpaUserDao::erasePassword).collect(toList());
+    return new Page<>(list, skipCount, maxItems, countQuery.getSingleResult());
+  }
+
+  /** Checks once whether the database is PostgreSQL, which has pg_trgm indexes for LIKE search. */
+  private boolean isLikeIndexed(EntityManager manager) {
+    Boolean indexed = likeIndexed;
+    if (indexed == null) {
+      try {
+        final Connection connection = manager.unwrap(Connection.class);
+        if (connection == null) {
+          return false;
+        }
+        final String productName = connection.getMetaData().getDatabaseProductName();
+        likeIndexed = indexed = productName.toLowerCase(Locale.ROOT).contains("postgresql");
+      } catch (SQLException | RuntimeException x) {
+        LOG.warn("Failed to check the database product, trigram search is used", x);
+        likeIndexed = indexed = false;
+      }
+    }
+    return indexed;
+  }
+
   @Transactional(rollbackOn = {RuntimeException.class, ApiException.class})
   protected void doCreate(UserImpl user) throws ConflictException, ServerException {
     EntityManager manage = managerProvider.get();
@@ -15,10 +15,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
+import javax.persistence.FetchType;
 import javax.persistence.Id;
 import javax.persistence.Index;
 import javax.persistence.JoinColumn;
@@ -26,6 +29,8 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import org.eclipse.che.api.core.model.user.User;
+import org.eclipse.persistence.descriptors.DescriptorEvent;
+import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
 
 /**
  * Data object for the {@link User}.
@@ -55,9 +60,58 @@ import org.eclipse.che.api.core.model.user.User;
       query = "SELECT u FROM Usr u WHERE LOWER(u.name) LIKE CONCAT('%', :name, '%')"),
   @NamedQuery(
       name = "User.getByNamePartCount",
-      query = "SELECT COUNT(u) FROM Usr u WHERE LOWER(u.name) LIKE CONCAT('%', :name, '%')")
+      query = "SELECT COUNT(u) FROM Usr u WHERE LOWER(u.name) LIKE CONCAT('%', :name, '%')"),
+  @NamedQuery(
+      name = "User.getByEmailPartTrigrams",
+      query =
+          "SELECT u "
+              + "FROM Usr u "
+              + "WHERE u.id IN (SELECT t.id "
+              + "               FROM Usr t "
+              + "               JOIN t.emailTrigrams g "
+              + "               WHERE g IN :trigrams "
+              + "               GROUP BY t.id "
+              + "               HAVING COUNT(DISTINCT g) = :trigramsCount) "
+              + "AND LOWER(u.email) LIKE CONCAT('%', :email, '%')"),
+  @NamedQuery(
+      name = "User.getByEmailPartTrigramsCount",
+      query =
+          "SELECT COUNT(u) "
+              + "FROM Usr u "
+              + "WHERE u.id IN (SELECT t.id "
+              + "               FROM Usr t "
+              + "               JOIN t.emailTrigrams g "
+              + "               WHERE g IN :trigrams "
+              + "               GROUP BY t.id "
+              + "               HAVING COUNT(DISTINCT g) = :trigramsCount) "
+              + "AND LOWER(u.email) LIKE CONCAT('%', :email, '%')"),
+  @NamedQuery(
+      name = "User.getByNamePartTrigrams",
+      query =
+          "SELECT u "
+              + "FROM Usr u "
+              + "WHERE u.id IN (SELECT t.id "
+              + "               FROM Usr t "
+              + "               JOIN t.nameTrigrams g "
+              + "               WHERE g IN :trigrams "
+              + "               GROUP BY t.id "
+              + "               HAVING COUNT(DISTINCT g) = :trigramsCount) "
+              + "AND LOWER(u.name) LIKE CONCAT('%', :name, '%')"),
+  @NamedQuery(
+      name = "User.getByNamePartTrigramsCount",
+      query =
+          "SELECT COUNT(u) "
+              + "FROM Usr u "
+              + "WHERE u.id IN (SELECT t.id "
+              + "               FROM Usr t "
+              + "               JOIN t.nameTrigrams g "
+              + "               WHERE g IN :trigrams "
+              + "               GROUP BY t.id "
+              + "               HAVING COUNT(DISTINCT g) = :trigramsCount) "
+              + "AND LOWER(u.name) LIKE CONCAT('%', :name, '%')")
 })
 @Table(name = "usr")
+@EntityListeners(UserImpl.SyncSearchTrigramsOnUpdateAndPersistEventListener.class)
 public class UserImpl implements User {
   @Id
   @Column(name = "id")
@@ -80,6 +134,24 @@ public class UserImpl implements User {
       joinColumns = @JoinColumn(name = "user_id"))
   private List<String> aliases;
 
+  /**
+   * Search trigrams of the name, see {@link UserSearchTrigrams}. Synchronized with the name by
+   * {@link SyncSearchTrigramsOnUpdateAndPersistEventListener}.
+   */
+  @ElementCollection(fetch = FetchType.LAZY)
+  @Column(name = "trigram", nullable = false)
+  @CollectionTable(name = "usr_name_trigram", joinColumns = @JoinColumn(name = "user_id"))
+  private Set<String> nameTrigrams;
+
+  /**
+   * Search trigrams of the email, see {@link UserSearchTrigrams}. Synchronized with the email by
+   * {@link SyncSearchTrigramsOnUpdateAndPersistEventListener}.
+   */
+  @ElementCollection(fetch = FetchType.LAZY)
+  @Column(name = "trigram", nullable = false)
+  @CollectionTable(name = "usr_email_trigram", joinColumns = @JoinColumn(name = "user_id"))
+  private Set<String> emailTrigrams;
+
   public UserImpl() {}
 
   public UserImpl(String id, String email, String name) {
@@ -195,4 +267,38 @@ public class UserImpl implements User {
         + aliases
         + '}';
   }
+
+  /**
+   * Computes the search trigrams of the current name and email. They are not stored on PostgreSQL,
+   * where search by name and email part is served by pg_trgm indexes.
+   */
+  private void syncSearchTrigrams(DescriptorEvent event) {
+    if (event.getSession().getPlatform().isPostgreSQL()) {
+      return;
+    }
+    nameTrigrams = UserSearchTrigrams.of(name);
+    emailTrigrams = UserSearchTrigrams.of(email);
+  }
+
+  /**
+   * Synchronizes search trigrams with the name and email of the user before it is persisted or
+   * updated, so they are kept whichever way the user is stored.
+   */
+  public static class SyncSearchTrigramsOnUpdateAndPersistEventListener
+      extends DescriptorEventAdapter {
+    @Override
+    public void preUpdate(DescriptorEvent event) {
+      ((UserImpl) event.getObject()).syncSearchTrigrams(event);
+    }
+
+    @Override
+    public void prePersist(DescriptorEvent event) {
+      ((UserImpl) event.getObject()).syncSearchTrigrams(event);
+    }
+
+    @Override
+    public void preUpdateWithChanges(DescriptorEvent event) {
+      ((UserImpl) event.getObject()).syncSearchTrigrams(event);
+    }
+  }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.user.server.model.impl;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits user names and emails into lower case trigrams, which are kept in the search tables along
+ * with the user, so the substring search is done as an intersection of indexed trigrams instead of
+ * the scan of all the users.
+ */
+public final class UserSearchTrigrams {
+
+  /** Length of a trigram in code points. */
+  public static final int LENGTH = 3;
+
+  /**
+   * Returns distinct lower case trigrams of the given value.
+   *
+   * @param value name or email of the user, or a part of it
+   * @return trigrams of the value, empty set if the value is null or shorter than {@link #LENGTH}
+   */
+  public static Set<String> of(String value) {
+    Set<String> trigrams = new HashSet<>();
+    if (value == null) {
+      return trigrams;
+    }
+    int[] codePoints = value.toLowerCase(Locale.ROOT).codePoints().toArray();
+    for (int i = 0; i + LENGTH <= codePoints.length; i++) {
+      trigrams.add(new String(codePoints, i, LENGTH));
+    }
+    return trigrams;
+  }
+
+  private UserSearchTrigrams() {}
+}
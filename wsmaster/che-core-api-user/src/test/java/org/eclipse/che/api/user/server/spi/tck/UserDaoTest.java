@@ -13,6 +13,7 @@ package org.eclipse.che.api.user.server.spi.tck;
 
 import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toSet;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doCallRealMethod;
@@ -510,6 +511,59 @@ public class UserDaoTest {
     assertEquals(actual, expect);
   }
 
+  @Test
+  public void getsUsersByNamePartIgnoringCase() throws Exception {
+    Page<UserImpl> page = userDao.getByNamePart("AME-3", users.length, 0);
+
+    assertEquals(page.getItems(), singletonList(withoutPassword(users[3])));
+    assertEquals(page.getTotalItemsCount(), 1);
+  }
+
+  @Test
+  public void getsUsersByNamePartShorterThanTrigram() throws Exception {
+    Page<UserImpl> page = userDao.getByNamePart("e-", users.length, 0);
+
+    assertEquals(page.getItems().size(), users.length);
+    assertEquals(page.getTotalItemsCount(), users.length);
+  }
+
+  @Test
+  public void getsUsersByNamePartWithRepeatedTrigrams() throws Exception {
+    final UserImpl user = users[0];
+    userDao.update(
+        new UserImpl(user.getId(), user.getEmail(), "abcabcabc", null, user.getAliases()));
+
+    assertEquals(userDao.getByNamePart("cabca", users.length, 0).getTotalItemsCount(), 1);
+    assertEquals(userDao.getByNamePart("abcb", users.length, 0).getTotalItemsCount(), 0);
+  }
+
+  @Test
+  public void searchesUsersByUpdatedNameAndEmail() throws Exception {
+    final UserImpl user = users[0];
+    userDao.update(
+        new UserImpl(user.getId(), "renamed@eclipse.org", "renamed", null, user.getAliases()));
+
+    assertEquals(
+        userDao.getByNamePart("ename", users.length, 0).getItems(),
+        singletonList(userDao.getById(user.getId())));
+    assertEquals(
+        userDao.getByEmailPart("named@ecl", users.length, 0).getItems(),
+        singletonList(userDao.getById(user.getId())));
+    assertEquals(userDao.getByNamePart("name-0", users.length, 0).getTotalItemsCount(), 0);
+    assertEquals(userDao.getByEmailPart("name-0@", users.length, 0).getTotalItemsCount(), 0);
+  }
+
+  @Test
+  public void doesNotFindRemovedUsersByNamePart() throws Exception {
+    userDao.remove(users[2].getId());
+
+    assertEquals(userDao.getByNamePart("name-2", users.length, 0).getTotalItemsCount(), 0);
+  }
+
+  private static UserImpl withoutPassword(UserImpl user) {
+    return new UserImpl(user.getId(), user.getEmail(), user.getName(), null, user.getAliases());
+  }
+
   private static void assertEqualsNoPassword(User actual, User expected) {
     assertNotNull(actual, "Expected not-null user");
     assertEquals(actual.getId(), expected.getId());
@@ -13,6 +13,8 @@ package org.eclipse.che.api.workspace.activity;
 
 import static java.util.stream.Collectors.toList;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -42,6 +44,11 @@ public class InmemoryWorkspaceActivityDao implements WorkspaceActivityDao {
     findActivity(workspaceId).setExpiration(null);
   }
 
+  @Override
+  public void removeExpirations(Collection<String> workspaceIds) {
+    workspaceIds.forEach(this::removeExpiration);
+  }
+
   /**
    * Finds any workspaces that have expired.
    *
@@ -165,6 +172,19 @@ public class InmemoryWorkspaceActivityDao implements WorkspaceActivityDao {
         workspaceActivities.size());
   }
 
+  @Override
+  public List<WorkspaceActivity> findInStatusAfter(
+      WorkspaceStatus status, String afterWorkspaceId, int maxItems) {
+    return workspaceActivities
+        .values()
+        .stream()
+        .filter(a -> a.getStatus() == status)
+        .filter(a -> afterWorkspaceId == null || a.getWorkspaceId().compareTo(afterWorkspaceId) > 0)
+        .sorted(Comparator.comparing(WorkspaceActivity::getWorkspaceId))
+        .limit(maxItems)
+        .collect(toList());
+  }
+
   private boolean isGreater(Long value, long threshold) {
     return value != null && value > threshold;
   }
@@ -14,6 +14,7 @@ package org.eclipse.che.api.workspace.activity;
 import static java.util.Objects.requireNonNull;
 
 import com.google.inject.persist.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -21,6 +22,7 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.ServerException;
@@ -50,6 +52,28 @@ public class JpaWorkspaceActivityDao implements WorkspaceActivityDao {
     doUpdateOptionally(workspaceId, a -> a.setExpiration(null));
   }
 
+  @Override
+  public void removeExpirations(Collection<String> workspaceIds) throws ServerException {
+    requireNonNull(workspaceIds, "Required non-null workspace ids");
+    if (workspaceIds.isEmpty()) {
+      return;
+    }
+    try {
+      doRemoveExpirations(workspaceIds);
+    } catch (RuntimeException x) {
+      throw new ServerException(x.getMessage(), x);
+    }
+  }
+
+  @Transactional
+  void doRemoveExpirations(Collection<String> workspaceIds) {
+    managerProvider
+        .get()
+        .createNamedQuery("WorkspaceActivity.removeExpirations")
+        .setParameter("workspaceIds", workspaceIds)
+        .executeUpdate();
+  }
+
   /**
    * Finds any workspaces that have expired.
    *
@@ -253,6 +277,27 @@ public class JpaWorkspaceActivityDao implements WorkspaceActivityDao {
     }
   }
 
+  @Override
+  @Transactional(rollbackOn = ServerException.class)
+  public List<WorkspaceActivity> findInStatusAfter(
+      WorkspaceStatus status, String afterWorkspaceId, int maxItems) throws ServerException {
+    requireNonNull(status, "Required non-null status");
+    try {
+      EntityManager em = managerProvider.get();
+      TypedQuery<WorkspaceActivity> query;
+      if (afterWorkspaceId == null) {
+        query = em.createNamedQuery("WorkspaceActivity.getInStatus", WorkspaceActivity.class);
+      } else {
+        query =
+            em.createNamedQuery("WorkspaceActivity.getInStatusAfter", WorkspaceActivity.class)
+                .setParameter("workspaceId", afterWorkspaceId);
+      }
+      return query.setParameter("status", status).setMaxResults(maxItems).getResultList();
+    } catch (RuntimeException e) {
+      throw new ServerException(e.getMessage(), e);
+    }
+  }
+
   @Override
   public void createActivity(WorkspaceActivity activity) throws ConflictException, ServerException {
     try {
@@ -86,6 +86,20 @@ import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
   @NamedQuery(
       name = "WorkspaceActivity.getAllCount",
       query = "SELECT COUNT(a) FROM WorkspaceActivity a"),
+  @NamedQuery(
+      name = "WorkspaceActivity.getInStatus",
+      query = "SELECT a FROM WorkspaceActivity a WHERE a.status = :status ORDER BY a.workspaceId"),
+  @NamedQuery(
+      name = "WorkspaceActivity.getInStatusAfter",
+      query =
+          "SELECT a FROM WorkspaceActivity a"
+              + " WHERE a.status = :status AND a.workspaceId > :workspaceId"
+              + " ORDER BY a.workspaceId"),
+  @NamedQuery(
+      name = "WorkspaceActivity.removeExpirations",
+      query =
+          "UPDATE WorkspaceActivity a SET a.expiration = NULL"
+              + " WHERE a.workspaceId IN :workspaceIds"),
 })
 public class WorkspaceActivity {
 
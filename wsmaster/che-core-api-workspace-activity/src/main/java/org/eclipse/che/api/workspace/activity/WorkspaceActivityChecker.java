@@ -19,9 +19,12 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import java.time.Clock;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
-import org.eclipse.che.api.core.Pages;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.Workspace;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
@@ -46,6 +49,9 @@ public class WorkspaceActivityChecker {
   private static final Logger LOG = LoggerFactory.getLogger(WorkspaceActivityChecker.class);
   private static final String ACTIVITY_CHECKER = "activity-checker";
 
+  /** Max number of activity records loaded at once to reconcile their statuses. */
+  private static final int RECONCILE_PAGE_SIZE = 200;
+
   private final String WORKSPACE_IDLE_TIMEOUT_EXCEEDED = "Workspace idle timeout exceeded";
   private final String WORKSPACE_RUN_TIMEOUT_EXCEEDED = "Workspace run timeout exceeded";
 
@@ -103,21 +109,31 @@ public class WorkspaceActivityChecker {
   }
 
   private void stopAllExpired() {
+    // expiration times of the handled workspaces are removed at once after all of them are stopped
+    Set<String> handled = new LinkedHashSet<>();
     try {
-      activityDao
-          .findExpiredIdle(clock.millis())
-          .forEach(wsId -> stopExpiredQuietly(wsId, WORKSPACE_IDLE_TIMEOUT_EXCEEDED));
+      for (String wsId : activityDao.findExpiredIdle(clock.millis())) {
+        stopExpiredQuietly(wsId, WORKSPACE_IDLE_TIMEOUT_EXCEEDED);
+        handled.add(wsId);
+      }
       if (workspaceActivityManager.getRunTimeout() > 0) {
-        activityDao
-            .findExpiredRunTimeout(clock.millis(), workspaceActivityManager.getRunTimeout())
-            .forEach(
-                wsId -> {
-                  LOG.info("{} for workspace {}", WORKSPACE_RUN_TIMEOUT_EXCEEDED, wsId);
-                  stopExpiredQuietly(wsId, WORKSPACE_RUN_TIMEOUT_EXCEEDED);
-                });
+        for (String wsId :
+            activityDao.findExpiredRunTimeout(
+                clock.millis(), workspaceActivityManager.getRunTimeout())) {
+          if (handled.add(wsId)) {
+            LOG.info("{} for workspace {}", WORKSPACE_RUN_TIMEOUT_EXCEEDED, wsId);
+            stopExpiredQuietly(wsId, WORKSPACE_RUN_TIMEOUT_EXCEEDED);
+          }
+        }
       }
     } catch (ServerException e) {
       LOG.error("Failed to list all expired to perform stop. Cause: {}", e.getMessage(), e);
+    } finally {
+      try {
+        activityDao.removeExpirations(handled);
+      } catch (ServerException e) {
+        LOG.error(e.getMessage(), e);
+      }
     }
   }
 
@@ -134,12 +150,6 @@ public class WorkspaceActivityChecker {
     } catch (Exception ex) {
       LOG.error(ex.getMessage());
       LOG.debug(ex.getMessage(), ex);
-    } finally {
-      try {
-        activityDao.removeExpiration(workspaceId);
-      } catch (ServerException e) {
-        LOG.error(e.getMessage(), e);
-      }
     }
   }
 
@@ -187,22 +197,63 @@ public class WorkspaceActivityChecker {
   /**
    * Makes sure that any activity records are rectified if they do not reflect the true state of the
    * workspace anymore.
+   *
+   * <p>Records of stopped workspaces, which are the vast majority of the records, can't be wrong
+   * unless the workspace is active. So only the records in the other statuses are iterated, page by
+   * page using the index of the status and workspace id, and the records of the active workspaces
+   * are checked separately.
    */
   private void reconcileActivityStatuses() {
-    try {
-      for (WorkspaceActivity a : Pages.iterateLazily(activityDao::getAll, 200)) {
-        try {
-          reconcileOne(a);
-        } catch (Exception e) {
-          LOG.error(
-              "Failed to reconcile activity for workspace {}. Cause: {}",
-              a.getWorkspaceId(),
-              e.getMessage(),
-              e);
+    Set<String> reconciled = new HashSet<>();
+    for (WorkspaceStatus status : WorkspaceStatus.values()) {
+      if (status == WorkspaceStatus.STOPPED) {
+        continue;
+      }
+      try {
+        String afterWorkspaceId = null;
+        List<WorkspaceActivity> page;
+        do {
+          page = activityDao.findInStatusAfter(status, afterWorkspaceId, RECONCILE_PAGE_SIZE);
+          for (WorkspaceActivity a : page) {
+            reconcileQuietly(a);
+            reconciled.add(a.getWorkspaceId());
+            afterWorkspaceId = a.getWorkspaceId();
+          }
+        } while (page.size() == RECONCILE_PAGE_SIZE);
+      } catch (ServerException | RuntimeException e) {
+        LOG.error(
+            "Failed to load {} activities to reconcile them. Cause: {}", status, e.getMessage(), e);
+      }
+    }
+
+    for (String activeWsId : workspaceRuntimes.getActive()) {
+      if (reconciled.contains(activeWsId)) {
+        continue;
+      }
+      try {
+        WorkspaceActivity activity = activityDao.findActivity(activeWsId);
+        if (activity != null) {
+          reconcileQuietly(activity);
         }
+      } catch (ServerException e) {
+        LOG.error(
+            "Failed to load activity of workspace {} to reconcile it. Cause: {}",
+            activeWsId,
+            e.getMessage(),
+            e);
       }
-    } catch (RuntimeException e) {
-      LOG.error("Failed to load all activites to reconcile them. Cause: {}", e.getMessage(), e);
+    }
+  }
+
+  private void reconcileQuietly(WorkspaceActivity a) {
+    try {
+      reconcileOne(a);
+    } catch (Exception e) {
+      LOG.error(
+          "Failed to reconcile activity for workspace {}. Cause: {}",
+          a.getWorkspaceId(),
+          e.getMessage(),
+          e);
     }
   }
 
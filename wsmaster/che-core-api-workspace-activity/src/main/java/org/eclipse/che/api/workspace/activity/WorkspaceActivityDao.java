@@ -11,6 +11,7 @@
  */
 package org.eclipse.che.api.workspace.activity;
 
+import java.util.Collection;
 import java.util.List;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.Page;
@@ -42,6 +43,14 @@ public interface WorkspaceActivityDao {
    */
   void removeExpiration(String workspaceId) throws ServerException;
 
+  /**
+   * Removes expiration times of the given workspaces at once.
+   *
+   * @param workspaceIds ids of the workspaces to remove expiration
+   * @throws ServerException when operation failed
+   */
+  void removeExpirations(Collection<String> workspaceIds) throws ServerException;
+
   /**
    * Finds workspaces which are passed given run timeout and must be stopped.
    *
@@ -133,4 +142,20 @@ public interface WorkspaceActivityDao {
    * @return the workspace activities for all workspaces
    */
   Page<WorkspaceActivity> getAll(int maxItems, long skipCount) throws ServerException;
+
+  /**
+   * Returns activities of the workspaces in the given status ordered by the workspace id. The page
+   * starts right after the workspace with the given id, so unlike {@link #getAll(int, long)} the
+   * page is found by the status and workspace id instead of skipping the records of the previous
+   * pages.
+   *
+   * @param status the status of the workspaces
+   * @param afterWorkspaceId the id of the last workspace of the previous page, or null to get the
+   *     first page
+   * @param maxItems the page size
+   * @return the workspace activities of the page
+   * @throws ServerException on error
+   */
+  List<WorkspaceActivity> findInStatusAfter(
+      WorkspaceStatus status, String afterWorkspaceId, int maxItems) throws ServerException;
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.activity;
+
+import static java.util.Collections.singletonMap;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.workspace.activity.jpa.WorkspaceActivityTckModule;
+import org.eclipse.che.api.workspace.server.WorkspaceManager;
+import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.commons.test.db.StatementCountingCustomizer;
+import org.eclipse.che.commons.test.tck.TckResourcesCleaner;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the number of statements and rows read by {@link WorkspaceActivityChecker} runs over a
+ * large number of activity records, most of which belong to stopped workspaces.
+ */
+public class WorkspaceActivityCheckerQueriesTest {
+
+  private static final int WORKSPACES_COUNT = 200_000;
+  private static final long NOW = 1_000_000_000L;
+  private static final long IDLE_TIMEOUT = 60_000L;
+
+  /** Records in STARTING status of the workspaces which are stopped in reality. */
+  private static final int STALE_STARTING_COUNT = 20;
+  /** Records of running workspaces, the first ones have expired. */
+  private static final int RUNNING_COUNT = 30;
+
+  private static final int EXPIRED_COUNT = 10;
+  /** Records in STOPPED status of the workspaces which are running in reality. */
+  private static final int STALE_STOPPED_COUNT = 5;
+
+  private EntityManager manager;
+  private TckResourcesCleaner tckResourcesCleaner;
+  private WorkspaceManager workspaceManager;
+  private WorkspaceRuntimes workspaceRuntimes;
+  private WorkspaceActivityChecker checker;
+
+  @BeforeClass
+  public void setUp() throws Exception {
+    Injector injector =
+        Guice.createInjector(
+            new WorkspaceActivityTckModule(
+                singletonMap(
+                    PersistenceUnitProperties.SESSION_CUSTOMIZER,
+                    StatementCountingCustomizer.class.getName())));
+    manager = injector.getInstance(EntityManager.class);
+    tckResourcesCleaner = injector.getInstance(TckResourcesCleaner.class);
+    WorkspaceActivityDao activityDao = injector.getInstance(WorkspaceActivityDao.class);
+
+    execute(
+        "INSERT INTO account (id, name, type) VALUES ('account', 'account', 'personal')",
+        "INSERT INTO workspace (id, name, accountid)"
+            + " SELECT 'ws' || LPAD(X, 6, '0'), 'ws' || X, 'account'"
+            + " FROM SYSTEM_RANGE(1, "
+            + WORKSPACES_COUNT
+            + ")",
+        "INSERT INTO che_workspace_activity (workspace_id, status, created, last_stopped)"
+            + " SELECT id, 'STOPPED', 0, 0 FROM workspace",
+        "UPDATE che_workspace_activity SET status = 'STARTING', last_starting = 0"
+            + " WHERE workspace_id <= '"
+            + workspaceId(STALE_STARTING_COUNT)
+            + "'",
+        "UPDATE che_workspace_activity SET status = 'RUNNING', last_running = 0,"
+            + " expiration = CASE WHEN workspace_id <= '"
+            + workspaceId(STALE_STARTING_COUNT + EXPIRED_COUNT)
+            + "' THEN 0 ELSE "
+            + (NOW + IDLE_TIMEOUT)
+            + " END"
+            + " WHERE workspace_id > '"
+            + workspaceId(STALE_STARTING_COUNT)
+            + "' AND workspace_id <= '"
+            + workspaceId(STALE_STARTING_COUNT + RUNNING_COUNT)
+            + "'");
+
+    Set<String> active = new HashSet<>();
+    for (int i = STALE_STARTING_COUNT + 1; i <= STALE_STARTING_COUNT + RUNNING_COUNT; i++) {
+      active.add(workspaceId(i));
+    }
+    for (int i = 1; i <= STALE_STOPPED_COUNT; i++) {
+      active.add(workspaceId(WORKSPACES_COUNT - i + 1));
+    }
+    workspaceRuntimes = mock(WorkspaceRuntimes.class);
+    when(workspaceRuntimes.getActive()).thenReturn(active);
+    when(workspaceRuntimes.getStatus(anyString()))
+        .thenAnswer(
+            inv ->
+                active.contains(inv.<String>getArgument(0))
+                    ? WorkspaceStatus.RUNNING
+                    : WorkspaceStatus.STOPPED);
+
+    workspaceManager = mock(WorkspaceManager.class);
+    when(workspaceManager.getWorkspace(anyString()))
+        .thenAnswer(inv -> WorkspaceImpl.builder().setId(inv.getArgument(0)).build());
+
+    Clock clock = Clock.fixed(Instant.ofEpochMilli(NOW), ZoneId.systemDefault());
+    WorkspaceActivityManager activityManager =
+        new WorkspaceActivityManager(
+            workspaceManager, activityDao, mock(EventService.class), IDLE_TIMEOUT, 0, clock);
+    checker =
+        new WorkspaceActivityChecker(
+            activityDao, workspaceManager, workspaceRuntimes, activityManager, clock);
+  }
+
+  @AfterClass
+  public void cleanup() {
+    // the in-memory database is dropped on shutdown, removing the records one by one takes long
+    tckResourcesCleaner.clean();
+  }
+
+  @BeforeMethod
+  public void resetCounters() {
+    manager.clear();
+    StatementCountingCustomizer.reset();
+  }
+
+  @Test
+  public void shouldReadOnlyExpiredRecordsAndRemoveTheirExpirationAtOnce() throws Exception {
+    checker.expire();
+
+    // a query of the expired and an update of their expiration
+    assertEquals(StatementCountingCustomizer.getStatements(), 2);
+    assertEquals(StatementCountingCustomizer.getRows(), EXPIRED_COUNT);
+    verify(workspaceManager, times(EXPIRED_COUNT)).stopWorkspace(anyString(), any());
+    assertEquals(count("expiration IS NOT NULL"), RUNNING_COUNT - EXPIRED_COUNT);
+  }
+
+  @Test
+  public void shouldReadOnlyRecordsOfNotStoppedAndActiveWorkspacesOnReconcile() {
+    checker.cleanup();
+
+    // a page per status not being stopped, a lookup per active workspace with stopped record
+    // and at most a lookup and an update per reconciled record
+    int reconciled = STALE_STARTING_COUNT + STALE_STOPPED_COUNT;
+    int calls = StatementCountingCustomizer.getStatements();
+    assertTrue(calls <= 3 + STALE_STOPPED_COUNT + 2 * reconciled, calls + " statements executed");
+    int rows = StatementCountingCustomizer.getRows();
+    assertTrue(
+        rows >= STALE_STARTING_COUNT + RUNNING_COUNT + STALE_STOPPED_COUNT
+            && rows <= STALE_STARTING_COUNT + RUNNING_COUNT + STALE_STOPPED_COUNT + reconciled,
+        rows + " rows read");
+    assertEquals(count("status = 'STARTING'"), 0);
+    assertEquals(count("status = 'RUNNING'"), RUNNING_COUNT + STALE_STOPPED_COUNT);
+    assertEquals(
+        count("status = 'STOPPED'"), WORKSPACES_COUNT - RUNNING_COUNT - STALE_STOPPED_COUNT);
+  }
+
+  private static String workspaceId(int i) {
+    return String.format("ws%06d", i);
+  }
+
+  private long count(String condition) {
+    return ((Number)
+            manager
+                .createNativeQuery("SELECT COUNT(*) FROM che_workspace_activity WHERE " + condition)
+                .getSingleResult())
+        .longValue();
+  }
+
+  private void execute(String... statements) {
+    manager.getTransaction().begin();
+    for (String statement : statements) {
+      manager.createNativeQuery(statement).executeUpdate();
+    }
+    manager.getTransaction().commit();
+  }
+}
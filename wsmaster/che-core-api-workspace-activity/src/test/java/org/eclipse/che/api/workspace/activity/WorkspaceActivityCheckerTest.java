@@ -14,12 +14,13 @@ package org.eclipse.che.api.workspace.activity;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doAnswer;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
@@ -37,7 +38,8 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
-import org.eclipse.che.api.core.Page;
+import java.util.ArrayList;
+import java.util.List;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.notification.EventService;
@@ -78,14 +80,8 @@ public class WorkspaceActivityCheckerTest {
             clock);
 
     lenient()
-        .when(workspaceActivityDao.getAll(anyInt(), anyLong()))
-        .thenAnswer(
-            inv -> {
-              int maxItems = inv.getArgument(0);
-              long skipCount = inv.getArgument(1);
-
-              return new Page<WorkspaceActivity>(emptyList(), skipCount, maxItems, 0);
-            });
+        .when(workspaceActivityDao.findInStatusAfter(any(), any(), anyInt()))
+        .thenReturn(emptyList());
 
     checker =
         new WorkspaceActivityChecker(
@@ -95,13 +91,36 @@ public class WorkspaceActivityCheckerTest {
   @Test
   public void shouldStopAllExpiredWorkspaces() throws Exception {
     when(workspaceActivityDao.findExpiredIdle(anyLong())).thenReturn(asList("1", "2", "3"));
+    when(workspaceManager.getWorkspace(anyString()))
+        .thenAnswer(inv -> WorkspaceImpl.builder().setId(inv.getArgument(0)).build());
+
+    checker.expire();
+
+    verify(workspaceManager, times(3)).stopWorkspace(anyString(), any());
+    verify(workspaceActivityDao).removeExpirations(eq(ImmutableSet.of("1", "2", "3")));
+    verify(workspaceActivityDao, never()).removeExpiration(anyString());
+  }
+
+  @Test
+  public void shouldStopWorkspaceExpiredByIdleAndRunTimeoutsOnce() throws Exception {
+    WorkspaceActivityManager activityManager =
+        new WorkspaceActivityManager(
+            workspaceManager, workspaceActivityDao, eventService, DEFAULT_TIMEOUT, 1000L, clock);
+    checker =
+        new WorkspaceActivityChecker(
+            workspaceActivityDao, workspaceManager, workspaceRuntimes, activityManager, clock);
+    when(workspaceActivityDao.findExpiredIdle(anyLong())).thenReturn(asList("1", "2"));
+    when(workspaceActivityDao.findExpiredRunTimeout(anyLong(), anyLong()))
+        .thenReturn(asList("2", "3"));
+    when(workspaceManager.getWorkspace(anyString()))
+        .thenAnswer(inv -> WorkspaceImpl.builder().setId(inv.getArgument(0)).build());
 
     checker.expire();
 
-    verify(workspaceActivityDao, times(3)).removeExpiration(anyString());
-    verify(workspaceActivityDao).removeExpiration(eq("1"));
-    verify(workspaceActivityDao).removeExpiration(eq("2"));
-    verify(workspaceActivityDao).removeExpiration(eq("3"));
+    verify(workspaceManager).stopWorkspace(eq("1"), any());
+    verify(workspaceManager).stopWorkspace(eq("2"), any());
+    verify(workspaceManager).stopWorkspace(eq("3"), any());
+    verify(workspaceActivityDao).removeExpirations(eq(ImmutableSet.of("1", "2", "3")));
   }
 
   @Test
@@ -276,19 +295,8 @@ public class WorkspaceActivityCheckerTest {
     activity.setWorkspaceId(wsId);
     activity.setStatus(WorkspaceStatus.STARTING);
     activity.setLastStarting(clock.millis());
-    doAnswer(
-            inv -> {
-              int maxItems = inv.getArgument(0);
-              long skipCount = inv.getArgument(1);
-
-              if (skipCount < 1) {
-                return new Page<>(singleton(activity), skipCount, maxItems, 1);
-              } else {
-                return new Page<>(emptyList(), skipCount, maxItems, 1);
-              }
-            })
-        .when(workspaceActivityDao)
-        .getAll(anyInt(), anyLong());
+    when(workspaceActivityDao.findInStatusAfter(eq(WorkspaceStatus.STARTING), isNull(), anyInt()))
+        .thenReturn(singletonList(activity));
 
     when(workspaceRuntimes.getStatus(eq(wsId))).thenReturn(WorkspaceStatus.STOPPED);
 
@@ -316,22 +324,8 @@ public class WorkspaceActivityCheckerTest {
     activity2.setWorkspaceId(wsId2);
     activity2.setStatus(WorkspaceStatus.STARTING);
     activity2.setLastStarting(clock.millis());
-    doAnswer(
-            inv -> {
-              int maxItems = inv.getArgument(0);
-              long skipCount = inv.getArgument(1);
-
-              switch ((int) skipCount) {
-                case 0:
-                  return new Page<>(singleton(activity1), 0, 1, 2);
-                case 1:
-                  return new Page<>(singleton(activity2), 1, 1, 2);
-                default:
-                  return new Page<>(emptyList(), skipCount, maxItems, 2);
-              }
-            })
-        .when(workspaceActivityDao)
-        .getAll(anyInt(), anyLong());
+    when(workspaceActivityDao.findInStatusAfter(eq(WorkspaceStatus.STARTING), isNull(), anyInt()))
+        .thenReturn(asList(activity1, activity2));
 
     doReturn(WorkspaceStatus.STOPPED).when(workspaceRuntimes).getStatus(any());
     doThrow(new ServerException("Error"))
@@ -350,10 +344,62 @@ public class WorkspaceActivityCheckerTest {
   public void shouldNotThrowExceptionWhenErrorOccurredDuringActivitiesListingOnReconciling()
       throws Exception {
     // given
-    doThrow(new ServerException("error")).when(workspaceActivityDao).getAll(anyInt(), anyLong());
+    doThrow(new ServerException("error"))
+        .when(workspaceActivityDao)
+        .findInStatusAfter(any(), any(), anyInt());
+
+    // when
+    checker.cleanup();
+  }
+
+  @Test
+  public void shouldLoadNextPageOfActivitiesAfterLastWorkspaceOfPreviousPage() throws Exception {
+    // given
+    List<WorkspaceActivity> firstPage = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      WorkspaceActivity activity = new WorkspaceActivity();
+      activity.setWorkspaceId(String.format("ws%03d", i));
+      activity.setStatus(WorkspaceStatus.RUNNING);
+      firstPage.add(activity);
+    }
+    WorkspaceActivity last = new WorkspaceActivity();
+    last.setWorkspaceId("ws200");
+    last.setStatus(WorkspaceStatus.RUNNING);
+    when(workspaceActivityDao.findInStatusAfter(eq(WorkspaceStatus.RUNNING), isNull(), anyInt()))
+        .thenReturn(firstPage);
+    when(workspaceActivityDao.findInStatusAfter(eq(WorkspaceStatus.RUNNING), eq("ws199"), anyInt()))
+        .thenReturn(singletonList(last));
+    doReturn(WorkspaceStatus.RUNNING).when(workspaceRuntimes).getStatus(any());
+    doReturn(WorkspaceStatus.STOPPED).when(workspaceRuntimes).getStatus(eq("ws200"));
+
+    // when
+    checker.cleanup();
+
+    // then
+    verify(workspaceActivityDao, times(2))
+        .findInStatusAfter(eq(WorkspaceStatus.RUNNING), any(), anyInt());
+    verify(workspaceActivityDao)
+        .setStatusChangeTime(eq("ws200"), eq(WorkspaceStatus.STOPPED), eq(clock.millis()));
+    verify(workspaceActivityDao, never()).getAll(anyInt(), anyLong());
+  }
+
+  @Test
+  public void shouldReconcileActivityOfActiveWorkspaceRecordedAsStopped() throws Exception {
+    // given
+    String wsId = "1";
+    WorkspaceActivity activity = new WorkspaceActivity();
+    activity.setWorkspaceId(wsId);
+    activity.setStatus(WorkspaceStatus.STOPPED);
+    when(workspaceRuntimes.getActive()).thenReturn(singleton(wsId));
+    when(workspaceActivityDao.findActivity(eq(wsId))).thenReturn(activity);
+    when(workspaceRuntimes.getStatus(eq(wsId))).thenReturn(WorkspaceStatus.RUNNING);
 
     // when
     checker.cleanup();
+
+    // then
+    verify(workspaceActivityDao)
+        .setStatusChangeTime(eq(wsId), eq(WorkspaceStatus.RUNNING), eq(clock.millis()));
   }
 
   private static final class ManualClock extends Clock {
@@ -14,6 +14,8 @@ package org.eclipse.che.api.workspace.activity.jpa;
 import com.google.inject.TypeLiteral;
 import java.sql.Driver;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import org.eclipse.che.account.spi.AccountImpl;
 import org.eclipse.che.api.workspace.activity.JpaWorkspaceActivityDao;
 import org.eclipse.che.api.workspace.activity.WorkspaceActivity;
@@ -53,11 +55,24 @@ import org.eclipse.che.core.db.schema.impl.flyway.FlywaySchemaInitializer;
 /** @author Max Shaposhnik (mshaposh@redhat.com) */
 public class WorkspaceActivityTckModule extends TckModule {
 
+  private final Map<String, String> persistenceProperties;
+
+  public WorkspaceActivityTckModule() {
+    this(Collections.emptyMap());
+  }
+
+  /** Creates module which adds the given properties to the persistence unit. */
+  public WorkspaceActivityTckModule(Map<String, String> persistenceProperties) {
+    this.persistenceProperties = persistenceProperties;
+  }
+
   @Override
   protected void configure() {
     H2DBTestServer server = H2DBTestServer.startDefault();
+    PersistTestModuleBuilder persistModuleBuilder = new PersistTestModuleBuilder();
+    persistenceProperties.forEach(persistModuleBuilder::setProperty);
     install(
-        new PersistTestModuleBuilder()
+        persistModuleBuilder
             .setDriver(Driver.class)
             .runningOn(server)
             .addEntityClasses(
@@ -12,8 +12,10 @@
 package org.eclipse.che.api.workspace.activity.spi.tck;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
 import static org.testng.Assert.assertEquals;
@@ -128,6 +130,32 @@ public class WorkspaceActivityDaoTest {
     assertEquals(found, expected);
   }
 
+  @Test(dependsOnMethods = "shouldFindExpirationsByTimestamp")
+  public void shouldRemoveExpirationsOfSeveralWorkspaces() throws Exception {
+    workspaceActivityDao.removeExpirations(
+        asList(activities[0].getWorkspaceId(), activities[2].getWorkspaceId()));
+
+    List<String> found = workspaceActivityDao.findExpiredIdle(Long.MAX_VALUE);
+    assertEquals(found, singletonList(activities[1].getWorkspaceId()));
+  }
+
+  @Test
+  public void shouldFindActivitiesInStatusAfterGivenWorkspace() throws Exception {
+    workspaceActivityDao.setStatusChangeTime("ws2", RUNNING, 1);
+    workspaceActivityDao.setStatusChangeTime("ws1", STOPPED, 1);
+    workspaceActivityDao.setStatusChangeTime("ws0", RUNNING, 1);
+
+    List<WorkspaceActivity> first = workspaceActivityDao.findInStatusAfter(RUNNING, null, 1);
+    List<WorkspaceActivity> second = workspaceActivityDao.findInStatusAfter(RUNNING, "ws0", 1);
+    List<WorkspaceActivity> third = workspaceActivityDao.findInStatusAfter(RUNNING, "ws2", 1);
+
+    assertEquals(first.size(), 1);
+    assertEquals(first.get(0).getWorkspaceId(), "ws0");
+    assertEquals(second.size(), 1);
+    assertEquals(second.get(0).getWorkspaceId(), "ws2");
+    assertEquals(third, emptyList());
+  }
+
   @Test(dependsOnMethods = "shouldFindExpirationsByTimestamp")
   public void shouldExpireWorkspaceThatExceedsRunTimeout() throws Exception {
     List<String> expected = singletonList(activities[0].getWorkspaceId());
@@ -11,16 +11,16 @@
  */
 package org.eclipse.che.api.workspace.server;
 
+import static java.util.stream.Collectors.toList;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import org.eclipse.che.api.core.Pages;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
-import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
 import org.eclipse.che.commons.schedule.ScheduleDelay;
 import org.slf4j.Logger;
@@ -35,6 +35,9 @@ public class TemporaryWorkspaceRemover {
 
   private static final Logger LOG = getLogger(TemporaryWorkspaceRemover.class);
 
+  /** The number of temporary workspaces removed within a single transaction. */
+  @VisibleForTesting static final int BATCH_SIZE = 100;
+
   private final WorkspaceDao workspaceDao;
   private final WorkspaceRuntimes runtimes;
 
@@ -66,18 +69,40 @@ public class TemporaryWorkspaceRemover {
 
   @VisibleForTesting
   void removeTemporaryWs() throws ServerException {
-    for (WorkspaceImpl workspace :
-        Pages.iterate(
-            (maxItems, skipCount) -> workspaceDao.getWorkspaces(true, maxItems, skipCount))) {
-      WorkspaceStatus status = runtimes.getStatus(workspace.getId());
-      if (status == WorkspaceStatus.STOPPED) {
+    String lastId = null;
+    List<String> ids;
+    do {
+      ids = workspaceDao.getWorkspaceIds(true, lastId, BATCH_SIZE);
+      if (!ids.isEmpty()) {
+        lastId = ids.get(ids.size() - 1);
+        removeStopped(ids);
+      }
+    } while (ids.size() == BATCH_SIZE);
+  }
+
+  /**
+   * Removes the stopped workspaces of the batch at once, falls back to removing them one by one
+   * when the batch can't be removed, so a single failing workspace doesn't keep the rest.
+   */
+  private void removeStopped(List<String> ids) {
+    List<String> stopped =
+        ids.stream()
+            .filter(id -> runtimes.getStatus(id) == WorkspaceStatus.STOPPED)
+            .collect(toList());
+    if (stopped.isEmpty()) {
+      return;
+    }
+    try {
+      workspaceDao.removeAll(stopped);
+    } catch (ServerException e) {
+      LOG.warn(
+          "Unable to cleanup temporary workspaces in batch, removing one by one. Reason is {}",
+          e.getMessage());
+      for (String id : stopped) {
         try {
-          workspaceDao.remove(workspace.getId());
-        } catch (ServerException e) {
-          LOG.error(
-              "Unable to cleanup temporary workspace {}. Reason is {}",
-              workspace.getId(),
-              e.getMessage());
+          workspaceDao.remove(id);
+        } catch (ServerException x) {
+          LOG.error("Unable to cleanup temporary workspace {}. Reason is {}", id, x.getMessage());
         }
       }
     }
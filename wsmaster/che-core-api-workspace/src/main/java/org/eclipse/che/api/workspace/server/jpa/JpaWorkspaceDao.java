@@ -13,11 +13,13 @@ package org.eclipse.che.api.workspace.server.jpa;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 import static org.eclipse.che.api.core.Pages.iterate;
 
 import com.google.inject.persist.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -28,6 +30,7 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
+import javax.persistence.TypedQuery;
 import org.eclipse.che.account.event.BeforeAccountRemovedEvent;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -100,6 +103,22 @@ public class JpaWorkspaceDao implements WorkspaceDao {
     return workspaceOpt;
   }
 
+  @Override
+  public List<WorkspaceImpl> removeAll(Collection<String> ids) throws ServerException {
+    requireNonNull(ids, "Required non-null ids");
+    if (ids.isEmpty()) {
+      return emptyList();
+    }
+    List<WorkspaceImpl> removed;
+    try {
+      removed = doRemoveAll(ids);
+      removed.forEach(workspace -> eventService.publish(new WorkspaceRemovedEvent(workspace)));
+    } catch (RuntimeException x) {
+      throw new ServerException(x.getLocalizedMessage(), x);
+    }
+    return removed;
+  }
+
   @Override
   @Transactional
   public WorkspaceImpl get(String id) throws NotFoundException, ServerException {
@@ -248,6 +267,26 @@ public class JpaWorkspaceDao implements WorkspaceDao {
     return Optional.of(workspace);
   }
 
+  @Transactional(rollbackOn = {RuntimeException.class, ServerException.class})
+  protected List<WorkspaceImpl> doRemoveAll(Collection<String> ids) throws ServerException {
+    final EntityManager manager = managerProvider.get();
+    final List<WorkspaceImpl> workspaces =
+        manager
+            .createNamedQuery("Workspace.getByIds", WorkspaceImpl.class)
+            .setParameter("ids", ids)
+            .getResultList();
+    for (WorkspaceImpl workspace : workspaces) {
+      eventService
+          .publish(new BeforeWorkspaceRemovedEvent(new WorkspaceImpl(workspace)))
+          .propagateException();
+    }
+    for (WorkspaceImpl workspace : workspaces) {
+      manager.remove(workspace);
+    }
+    manager.flush();
+    return workspaces;
+  }
+
   @Transactional
   protected WorkspaceImpl doUpdate(WorkspaceImpl update) throws NotFoundException {
     EntityManager manager = managerProvider.get();
@@ -262,6 +301,28 @@ public class JpaWorkspaceDao implements WorkspaceDao {
     return merged;
   }
 
+  @Override
+  @Transactional
+  public List<String> getWorkspaceIds(boolean isTemporary, String afterId, int maxItems)
+      throws ServerException {
+    checkArgument(maxItems >= 0, "The number of items to return can't be negative.");
+    try {
+      final EntityManager manager = managerProvider.get();
+      final TypedQuery<String> query;
+      if (afterId == null) {
+        query = manager.createNamedQuery("Workspace.getIdsByTemporary", String.class);
+      } else {
+        query =
+            manager
+                .createNamedQuery("Workspace.getIdsByTemporaryAfter", String.class)
+                .setParameter("afterId", afterId);
+      }
+      return query.setParameter("temporary", isTemporary).setMaxResults(maxItems).getResultList();
+    } catch (RuntimeException x) {
+      throw new ServerException(x.getLocalizedMessage(), x);
+    }
+  }
+
   @Override
   @Transactional
   public long getWorkspacesTotalCount() throws ServerException {
@@ -30,6 +30,7 @@ import javax.persistence.NamedQuery;
 import javax.persistence.OneToOne;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import org.eclipse.che.account.shared.model.Account;
@@ -72,7 +73,35 @@ import org.eclipse.persistence.descriptors.DescriptorEventAdapter;
       query = "SELECT COUNT(w) FROM Workspace w"),
   @NamedQuery(
       name = "Workspace.getByTemporaryCount",
-      query = "SELECT COUNT(w) " + "FROM Workspace w " + "WHERE w.isTemporary = :temporary ")
+      query = "SELECT COUNT(w) " + "FROM Workspace w " + "WHERE w.isTemporary = :temporary "),
+  @NamedQuery(
+      name = "Workspace.getIdsByTemporary",
+      query = "SELECT w.id FROM Workspace w WHERE w.isTemporary = :temporary ORDER BY w.id"),
+  @NamedQuery(
+      name = "Workspace.getIdsByTemporaryAfter",
+      query =
+          "SELECT w.id "
+              + "FROM Workspace w "
+              + "WHERE w.isTemporary = :temporary "
+              + "AND w.id > :afterId "
+              + "ORDER BY w.id"),
+  @NamedQuery(
+      name = "Workspace.getByIds",
+      query = "SELECT w FROM Workspace w WHERE w.id IN :ids",
+      hints = {
+        @QueryHint(name = "eclipselink.batch.type", value = "IN"),
+        @QueryHint(name = "eclipselink.batch", value = "w.attributes"),
+        @QueryHint(name = "eclipselink.batch", value = "w.config"),
+        @QueryHint(name = "eclipselink.batch", value = "w.config.attributes"),
+        @QueryHint(name = "eclipselink.batch", value = "w.config.commands"),
+        @QueryHint(name = "eclipselink.batch", value = "w.config.environments"),
+        @QueryHint(name = "eclipselink.batch", value = "w.config.projects"),
+        @QueryHint(name = "eclipselink.batch", value = "w.devfile"),
+        @QueryHint(name = "eclipselink.batch", value = "w.devfile.attributes"),
+        @QueryHint(name = "eclipselink.batch", value = "w.devfile.commands"),
+        @QueryHint(name = "eclipselink.batch", value = "w.devfile.components"),
+        @QueryHint(name = "eclipselink.batch", value = "w.devfile.projects")
+      })
 })
 @EntityListeners(WorkspaceImpl.SyncNameOnUpdateAndPersistEventListener.class)
 public class WorkspaceImpl implements Workspace {
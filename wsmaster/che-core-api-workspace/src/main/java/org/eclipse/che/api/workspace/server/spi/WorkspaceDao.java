@@ -11,12 +11,15 @@
  */
 package org.eclipse.che.api.workspace.server.spi;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.commons.annotation.Nullable;
 
 /**
  * Defines data access object contract for {@link WorkspaceImpl}.
@@ -76,6 +79,22 @@ public interface WorkspaceDao {
    */
   Optional<WorkspaceImpl> remove(String id) throws ServerException;
 
+  /**
+   * Removes workspaces within a single transaction.
+   *
+   * <p>Does the same cascade removing and fires the same events for each of the workspaces as
+   * {@link #remove(String)} does. When any of the workspaces can't be removed none of them is
+   * removed.
+   *
+   * <p>Doesn't throw an exception when workspaces with some of given {@code ids} do not exist
+   *
+   * @param ids workspace identifiers
+   * @return removed workspaces, or empty list when none of the workspaces exists
+   * @throws NullPointerException when {@code ids} is null
+   * @throws ServerException when any other error occurs during workspaces removing
+   */
+  List<WorkspaceImpl> removeAll(Collection<String> ids) throws ServerException;
+
   /**
    * Gets workspace by identifier.
    *
@@ -135,6 +154,24 @@ public interface WorkspaceDao {
   Page<WorkspaceImpl> getWorkspaces(boolean isTemporary, int maxItems, long skipCount)
       throws ServerException;
 
+  /**
+   * Gets identifiers of workspaces by temporary attribute ordered by identifier.
+   *
+   * <p>Pages start right after the last identifier of the previous page, so removing the workspaces
+   * of a page doesn't shift the next one.
+   *
+   * @param isTemporary When {@code true}, only identifiers of temporary workspaces should be
+   *     retrieved. When {@code false}, only identifiers of non-temporary workspaces should be
+   *     retrieved.
+   * @param afterId identifier after which the page starts, or null to start from the first one
+   * @param maxItems the maximum number of identifiers to return
+   * @return list of identifiers or empty list if no workspaces were found
+   * @throws ServerException when any other error occurs during identifiers fetching
+   * @throws IllegalArgumentException when {@code maxItems} is negative
+   */
+  List<String> getWorkspaceIds(boolean isTemporary, @Nullable String afterId, int maxItems)
+      throws ServerException;
+
   /**
    * Get the count of all workspaces from the persistent layer.
    *
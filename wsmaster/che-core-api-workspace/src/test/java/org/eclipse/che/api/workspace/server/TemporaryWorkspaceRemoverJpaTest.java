@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.workspace.server.event.BeforeWorkspaceRemovedEvent;
+import org.eclipse.che.api.workspace.server.jpa.WorkspaceTckModule;
+import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
+import org.eclipse.che.commons.test.tck.TckResourcesCleaner;
+import org.eclipse.che.core.db.cascade.CascadeEventSubscriber;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Checks removal of a large number of temporary workspaces by {@link TemporaryWorkspaceRemover} on
+ * top of the JPA based {@link WorkspaceDao}.
+ */
+public class TemporaryWorkspaceRemoverJpaTest {
+
+  private static final int TEMPORARY_COUNT = 50_000;
+  /** Temporary workspaces which are still running, the last ones. */
+  private static final int RUNNING_COUNT = 10;
+
+  private static final int NON_TEMPORARY_COUNT = 100;
+  private static final long MAX_REMOVAL_TIME_MS = TimeUnit.MINUTES.toMillis(2);
+
+  private EntityManager manager;
+  private TckResourcesCleaner tckResourcesCleaner;
+  private EventService eventService;
+  private TemporaryWorkspaceRemover remover;
+
+  @BeforeMethod
+  public void setUp() {
+    Injector injector = Guice.createInjector(new WorkspaceTckModule());
+    manager = injector.getInstance(EntityManager.class);
+    tckResourcesCleaner = injector.getInstance(TckResourcesCleaner.class);
+    eventService = injector.getInstance(EventService.class);
+
+    int total = TEMPORARY_COUNT + NON_TEMPORARY_COUNT;
+    execute(
+        "INSERT INTO account (id, name, type) VALUES ('account', 'account', 'personal')",
+        "INSERT INTO devfile (id, api_version, meta_name)"
+            + " SELECT X, '1.0.0', 'ws' || X FROM SYSTEM_RANGE(1, "
+            + total
+            + ")",
+        "INSERT INTO devfile_attributes (devfile_id, name, value)"
+            + " SELECT id, 'persistVolumes', 'false' FROM devfile",
+        "INSERT INTO workspace (id, name, accountid, istemporary, devfile_id)"
+            + " SELECT 'ws' || LPAD(id, 6, '0'), meta_name, 'account', id <= "
+            + TEMPORARY_COUNT
+            + ", id FROM devfile",
+        "INSERT INTO workspace_attributes (workspace_id, attributes_key, attributes)"
+            + " SELECT id, 'created', '0' FROM workspace");
+
+    String lastStoppedId = workspaceId(TEMPORARY_COUNT - RUNNING_COUNT);
+    WorkspaceRuntimes runtimes = mock(WorkspaceRuntimes.class);
+    when(runtimes.getStatus(anyString()))
+        .thenAnswer(
+            inv ->
+                inv.<String>getArgument(0).compareTo(lastStoppedId) > 0
+                    ? WorkspaceStatus.RUNNING
+                    : WorkspaceStatus.STOPPED);
+    remover = new TemporaryWorkspaceRemover(injector.getInstance(WorkspaceDao.class), runtimes);
+  }
+
+  @AfterMethod
+  public void cleanup() {
+    execute(
+        "DELETE FROM workspace_attributes",
+        "DELETE FROM workspace",
+        "DELETE FROM devfile_attributes",
+        "DELETE FROM devfile",
+        "DELETE FROM account");
+    tckResourcesCleaner.clean();
+  }
+
+  @Test
+  public void shouldRemoveStoppedTemporaryWorkspacesWithoutLeavingOrphans() throws Exception {
+    AtomicInteger cascadeEvents = new AtomicInteger();
+    eventService.subscribe(
+        new CascadeEventSubscriber<BeforeWorkspaceRemovedEvent>() {
+          @Override
+          public void onCascadeEvent(BeforeWorkspaceRemovedEvent event) {
+            cascadeEvents.incrementAndGet();
+          }
+        },
+        BeforeWorkspaceRemovedEvent.class);
+
+    long start = System.currentTimeMillis();
+    remover.removeTemporaryWs();
+    long elapsed = System.currentTimeMillis() - start;
+
+    assertTrue(elapsed < MAX_REMOVAL_TIME_MS, "Removal took " + elapsed + "ms");
+    assertEquals(cascadeEvents.get(), TEMPORARY_COUNT - RUNNING_COUNT);
+    assertEquals(count("SELECT COUNT(*) FROM workspace WHERE istemporary"), RUNNING_COUNT);
+    assertEquals(
+        count("SELECT COUNT(*) FROM workspace WHERE NOT istemporary"), NON_TEMPORARY_COUNT);
+    assertEquals(
+        count(
+            "SELECT COUNT(*) FROM workspace_attributes a"
+                + " WHERE NOT EXISTS (SELECT 1 FROM workspace w WHERE w.id = a.workspace_id)"),
+        0);
+    assertEquals(
+        count(
+            "SELECT COUNT(*) FROM devfile d"
+                + " WHERE NOT EXISTS (SELECT 1 FROM workspace w WHERE w.devfile_id = d.id)"),
+        0);
+    assertEquals(
+        count(
+            "SELECT COUNT(*) FROM devfile_attributes a"
+                + " WHERE NOT EXISTS (SELECT 1 FROM devfile d WHERE d.id = a.devfile_id)"),
+        0);
+  }
+
+  private static String workspaceId(int i) {
+    return String.format("ws%06d", i);
+  }
+
+  private long count(String query) {
+    return ((Number) manager.createNativeQuery(query).getSingleResult()).longValue();
+  }
+
+  private void execute(String... statements) {
+    manager.getTransaction().begin();
+    for (String statement : statements) {
+      manager.createNativeQuery(statement).executeUpdate();
+    }
+    manager.getTransaction().commit();
+  }
+}
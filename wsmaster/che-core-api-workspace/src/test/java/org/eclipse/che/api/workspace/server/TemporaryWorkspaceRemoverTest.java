@@ -11,14 +11,18 @@
  */
 package org.eclipse.che.api.workspace.server;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
-import static org.eclipse.che.api.core.Pages.DEFAULT_PAGE_SIZE;
+import static org.eclipse.che.api.workspace.server.TemporaryWorkspaceRemover.BATCH_SIZE;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -26,9 +30,9 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
-import org.eclipse.che.api.core.Page;
+import java.util.Optional;
+import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
-import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -41,7 +45,7 @@ import org.testng.annotations.Test;
 @Listeners(MockitoTestNGListener.class)
 public class TemporaryWorkspaceRemoverTest {
 
-  private static final int COUNT_OF_WORKSPACES = 150;
+  private static final int COUNT_OF_WORKSPACES = 250;
 
   @Mock private WorkspaceDao workspaceDao;
   @Mock private WorkspaceRuntimes runtimes;
@@ -49,44 +53,92 @@ public class TemporaryWorkspaceRemoverTest {
   @InjectMocks private TemporaryWorkspaceRemover remover;
 
   @Test
-  public void shouldRemoveStoppedTemporaryWorkspaces() throws Exception {
+  public void shouldRemoveStoppedTemporaryWorkspacesInBatches() throws Exception {
     doReturn(WorkspaceStatus.STOPPED).when(runtimes).getStatus(any());
-    when(workspaceDao.getWorkspaces(eq(true), anyInt(), anyLong()))
-        .thenReturn(
-            new Page<>(
-                createStoppedWorkspaces(DEFAULT_PAGE_SIZE),
-                0,
-                DEFAULT_PAGE_SIZE,
-                COUNT_OF_WORKSPACES))
-        .thenReturn(
-            new Page<>(
-                createStoppedWorkspaces(DEFAULT_PAGE_SIZE),
-                DEFAULT_PAGE_SIZE,
-                DEFAULT_PAGE_SIZE,
-                COUNT_OF_WORKSPACES))
-        .thenReturn(
-            new Page<>(
-                createStoppedWorkspaces(DEFAULT_PAGE_SIZE),
-                DEFAULT_PAGE_SIZE * 2,
-                DEFAULT_PAGE_SIZE,
-                COUNT_OF_WORKSPACES));
+    List<String> ids = createIds(COUNT_OF_WORKSPACES);
+    doReturn(ids.subList(0, BATCH_SIZE))
+        .when(workspaceDao)
+        .getWorkspaceIds(eq(true), isNull(), eq(BATCH_SIZE));
+    doReturn(ids.subList(BATCH_SIZE, BATCH_SIZE * 2))
+        .when(workspaceDao)
+        .getWorkspaceIds(eq(true), eq(ids.get(BATCH_SIZE - 1)), eq(BATCH_SIZE));
+    doReturn(ids.subList(BATCH_SIZE * 2, COUNT_OF_WORKSPACES))
+        .when(workspaceDao)
+        .getWorkspaceIds(eq(true), eq(ids.get(BATCH_SIZE * 2 - 1)), eq(BATCH_SIZE));
+
+    remover.removeTemporaryWs();
+
+    verify(workspaceDao).removeAll(ids.subList(0, BATCH_SIZE));
+    verify(workspaceDao).removeAll(ids.subList(BATCH_SIZE, BATCH_SIZE * 2));
+    verify(workspaceDao).removeAll(ids.subList(BATCH_SIZE * 2, COUNT_OF_WORKSPACES));
+    verify(workspaceDao, never()).remove(anyString());
+  }
+
+  @Test
+  public void shouldStopIteratingWhenNoMoreTemporaryWorkspaces() throws Exception {
+    doReturn(WorkspaceStatus.STOPPED).when(runtimes).getStatus(any());
+    List<String> ids = createIds(BATCH_SIZE);
+    doReturn(ids).when(workspaceDao).getWorkspaceIds(eq(true), isNull(), eq(BATCH_SIZE));
+    doReturn(emptyList())
+        .when(workspaceDao)
+        .getWorkspaceIds(eq(true), eq(ids.get(BATCH_SIZE - 1)), eq(BATCH_SIZE));
+
+    remover.removeTemporaryWs();
+
+    verify(workspaceDao).removeAll(ids);
+    verify(workspaceDao, times(2)).getWorkspaceIds(eq(true), any(), anyInt());
+  }
+
+  @Test
+  public void shouldRemoveWorkspacesOneByOneWhenBatchCannotBeRemoved() throws Exception {
+    doReturn(WorkspaceStatus.STOPPED).when(runtimes).getStatus(any());
+    doReturn(asList("ws1", "ws2", "ws3"))
+        .when(workspaceDao)
+        .getWorkspaceIds(eq(true), isNull(), eq(BATCH_SIZE));
+    doThrow(new ServerException("failed")).when(workspaceDao).removeAll(anyCollection());
+    when(workspaceDao.remove(anyString()))
+        .thenAnswer(
+            inv -> {
+              if ("ws2".equals(inv.getArgument(0))) {
+                throw new ServerException("failed");
+              }
+              return Optional.empty();
+            });
+
     remover.removeTemporaryWs();
 
-    verify(workspaceDao, times(COUNT_OF_WORKSPACES)).remove(anyString());
+    verify(workspaceDao).remove("ws1");
+    verify(workspaceDao).remove("ws2");
+    verify(workspaceDao).remove("ws3");
   }
 
   @Test(dataProvider = "activeWorkspaceStatuses")
   public void shouldNotRemoveActiveWorkspace(WorkspaceStatus status) throws Exception {
-    WorkspaceImpl workspace = WorkspaceImpl.builder().setId("ws123").build();
-    when(workspaceDao.getWorkspaces(eq(true), anyInt(), anyLong()))
-        .thenReturn(new Page<>(singletonList(workspace), 0, 1, 1));
+    doReturn(singletonList("ws123"))
+        .when(workspaceDao)
+        .getWorkspaceIds(eq(true), isNull(), eq(BATCH_SIZE));
     doReturn(status).when(runtimes).getStatus("ws123");
 
     remover.removeTemporaryWs();
 
+    verify(workspaceDao, never()).removeAll(anyCollection());
     verify(workspaceDao, never()).remove(anyString());
   }
 
+  @Test
+  public void shouldRemoveOnlyStoppedWorkspacesOfBatch() throws Exception {
+    doReturn(asList("ws1", "ws2", "ws3"))
+        .when(workspaceDao)
+        .getWorkspaceIds(eq(true), isNull(), eq(BATCH_SIZE));
+    doReturn(WorkspaceStatus.STOPPED).when(runtimes).getStatus("ws1");
+    doReturn(WorkspaceStatus.RUNNING).when(runtimes).getStatus("ws2");
+    doReturn(WorkspaceStatus.STOPPED).when(runtimes).getStatus("ws3");
+
+    remover.removeTemporaryWs();
+
+    verify(workspaceDao).removeAll(asList("ws1", "ws3"));
+  }
+
   @DataProvider
   public Object[][] activeWorkspaceStatuses() {
     return new Object[][] {
@@ -94,12 +146,11 @@ public class TemporaryWorkspaceRemoverTest {
     };
   }
 
-  private List<WorkspaceImpl> createStoppedWorkspaces(int number) {
-    List<WorkspaceImpl> wsList = new ArrayList<>();
+  private List<String> createIds(int number) {
+    List<String> ids = new ArrayList<>();
     for (int i = 0; i < number; i++) {
-      String wsId = "id" + i;
-      wsList.add(WorkspaceImpl.builder().setId(wsId).build());
+      ids.add(String.format("id%04d", i));
     }
-    return wsList;
+    return ids;
   }
 }
@@ -12,9 +12,11 @@
 package org.eclipse.che.api.workspace.server.spi.tck;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doThrow;
@@ -26,6 +28,7 @@ import static org.testng.Assert.fail;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -340,6 +343,94 @@ public class WorkspaceDaoTest {
     workspaceDao.remove(null);
   }
 
+  @Test(dependsOnMethods = "shouldThrowNotFoundExceptionWhenGettingNonExistingWorkspaceById")
+  public void shouldRemoveWorkspaces() throws Exception {
+    List<WorkspaceImpl> removed =
+        workspaceDao.removeAll(
+            asList(workspaces[0].getId(), workspaces[4].getId(), "non-existing-id"));
+
+    assertEquals(
+        removed.stream().map(WorkspaceImpl::getId).collect(toSet()),
+        ImmutableSet.of(workspaces[0].getId(), workspaces[4].getId()));
+    assertEquals(workspaceDao.getWorkspacesTotalCount(), COUNT_OF_WORKSPACES - 2);
+    for (WorkspaceImpl workspace : asList(workspaces[0], workspaces[4])) {
+      try {
+        workspaceDao.get(workspace.getId());
+        fail("Workspace " + workspace.getId() + " had to be removed");
+      } catch (NotFoundException ignored) {
+      }
+    }
+  }
+
+  @Test(dependsOnMethods = "shouldGetWorkspaceById")
+  public void shouldNotRemoveAnyOfWorkspacesWhenSubscriberThrowsExceptionOnWorkspaceRemoving()
+      throws Exception {
+    CascadeEventSubscriber<BeforeWorkspaceRemovedEvent> subscriber = mockCascadeEventSubscriber();
+    doThrow(new ServerException("error")).when(subscriber).onCascadeEvent(any());
+    eventService.subscribe(subscriber, BeforeWorkspaceRemovedEvent.class);
+
+    try {
+      workspaceDao.removeAll(asList(workspaces[0].getId(), workspaces[1].getId()));
+      fail("WorkspaceDao#removeAll had to throw server exception");
+    } catch (ServerException ignored) {
+    }
+
+    assertEquals(workspaceDao.get(workspaces[0].getId()), workspaces[0]);
+    assertEquals(workspaceDao.get(workspaces[1].getId()), workspaces[1]);
+    eventService.unsubscribe(subscriber, BeforeWorkspaceRemovedEvent.class);
+  }
+
+  @Test
+  public void shouldPublishRemoveWorkspaceEventsAfterRemoveWorkspaces() throws Exception {
+    final List<String> notified = new ArrayList<>();
+    eventService.subscribe(
+        event -> notified.add(event.getWorkspace().getId()), WorkspaceRemovedEvent.class);
+
+    workspaceDao.removeAll(asList(workspaces[0].getId(), workspaces[1].getId()));
+
+    assertEquals(
+        new HashSet<>(notified), ImmutableSet.of(workspaces[0].getId(), workspaces[1].getId()));
+  }
+
+  @Test
+  public void shouldReturnEmptyListWhenRemovingNoWorkspaces() throws Exception {
+    assertTrue(workspaceDao.removeAll(emptyList()).isEmpty());
+  }
+
+  @Test(expectedExceptions = NullPointerException.class)
+  public void shouldThrowNpeWhenRemovingNullIds() throws Exception {
+    workspaceDao.removeAll(null);
+  }
+
+  @Test
+  public void shouldGetIdsOfTemporaryWorkspacesPageByPage() throws Exception {
+    for (WorkspaceImpl workspace : asList(workspaces[0], workspaces[2], workspaces[4])) {
+      workspace.setTemporary(true);
+      workspaceDao.update(workspace);
+    }
+
+    List<String> firstPage = workspaceDao.getWorkspaceIds(true, null, 2);
+    List<String> secondPage = workspaceDao.getWorkspaceIds(true, firstPage.get(1), 2);
+
+    assertEquals(firstPage, asList(workspaces[0].getId(), workspaces[2].getId()));
+    assertEquals(secondPage, singletonList(workspaces[4].getId()));
+  }
+
+  @Test
+  public void shouldGetIdsOfNonTemporaryWorkspacesAfterGivenId() throws Exception {
+    workspaces[1].setTemporary(true);
+    workspaceDao.update(workspaces[1]);
+
+    List<String> ids = workspaceDao.getWorkspaceIds(false, workspaces[0].getId(), 30);
+
+    assertEquals(ids, asList(workspaces[2].getId(), workspaces[3].getId(), workspaces[4].getId()));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void shouldThrowIllegalArgumentExceptionOnNegativeLimitOfIds() throws Exception {
+    workspaceDao.getWorkspaceIds(true, null, -1);
+  }
+
   @Test(dependsOnMethods = "shouldGetWorkspaceById")
   public void shouldCreateWorkspaceWithConfig() throws Exception {
     final WorkspaceImpl workspace =
@@ -0,0 +1,14 @@
+--
+-- Copyright (c) 2012-2020 Red Hat, Inc.
+-- This program and the accompanying materials are made
+-- available under the terms of the Eclipse Public License 2.0
+-- which is available at https://www.eclipse.org/legal/epl-2.0/
+--
+-- SPDX-License-Identifier: EPL-2.0
+--
+-- Contributors:
+--   Red Hat, Inc. - initial API and implementation
+--
+
+-- Workspace activity status index ---------------------------------------------
+CREATE INDEX che_index_ws_activity_status_workspace_id ON che_workspace_activity (status, workspace_id);
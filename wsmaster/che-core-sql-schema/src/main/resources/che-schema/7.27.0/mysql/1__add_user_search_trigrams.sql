@@ -0,0 +1,56 @@
+--
+-- Copyright (c) 2012-2020 Red Hat, Inc.
+-- This program and the accompanying materials are made
+-- available under the terms of the Eclipse Public License 2.0
+-- which is available at https://www.eclipse.org/legal/epl-2.0/
+--
+-- SPDX-License-Identifier: EPL-2.0
+--
+-- Contributors:
+--   Red Hat, Inc. - initial API and implementation
+--
+
+-- User search trigrams --------------------------------------------------------
+CREATE TABLE usr_name_trigram (
+    user_id     VARCHAR(255)    NOT NULL,
+    trigram     VARCHAR(12)     NOT NULL
+);
+-- indexes
+CREATE INDEX index_usr_name_trigram_trigram ON usr_name_trigram (trigram, user_id);
+CREATE INDEX index_usr_name_trigram_user_id ON usr_name_trigram (user_id);
+-- constraints
+ALTER TABLE usr_name_trigram ADD CONSTRAINT fk_usr_name_trigram_user_id FOREIGN KEY (user_id) REFERENCES usr (id);
+
+CREATE TABLE usr_email_trigram (
+    user_id     VARCHAR(255)    NOT NULL,
+    trigram     VARCHAR(12)     NOT NULL
+);
+-- indexes
+CREATE INDEX index_usr_email_trigram_trigram ON usr_email_trigram (trigram, user_id);
+CREATE INDEX index_usr_email_trigram_user_id ON usr_email_trigram (user_id);
+-- constraints
+ALTER TABLE usr_email_trigram ADD CONSTRAINT fk_usr_email_trigram_user_id FOREIGN KEY (user_id) REFERENCES usr (id);
+--------------------------------------------------------------------------------
+
+-- Backfill of the trigrams of existing users
+INSERT INTO usr_name_trigram (user_id, trigram)
+SELECT DISTINCT u.id, SUBSTRING(LOWER(u.name), n.i, 3)
+FROM usr u
+JOIN (SELECT h.d * 100 + t.d * 10 + o.d + 1 AS i
+      FROM (SELECT 0 AS d UNION ALL SELECT 1 UNION ALL SELECT 2) h,
+           (SELECT 0 AS d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+            UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) t,
+           (SELECT 0 AS d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+            UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) o
+     ) n ON n.i <= CHAR_LENGTH(u.name) - 2;
+
+INSERT INTO usr_email_trigram (user_id, trigram)
+SELECT DISTINCT u.id, SUBSTRING(LOWER(u.email), n.i, 3)
+FROM usr u
+JOIN (SELECT h.d * 100 + t.d * 10 + o.d + 1 AS i
+      FROM (SELECT 0 AS d UNION ALL SELECT 1 UNION ALL SELECT 2) h,
+           (SELECT 0 AS d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+            UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) t,
+           (SELECT 0 AS d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+            UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) o
+     ) n ON n.i <= CHAR_LENGTH(u.email) - 2;
@@ -0,0 +1,35 @@
+--
+-- Copyright (c) 2012-2020 Red Hat, Inc.
+-- This program and the accompanying materials are made
+-- available under the terms of the Eclipse Public License 2.0
+-- which is available at https://www.eclipse.org/legal/epl-2.0/
+--
+-- SPDX-License-Identifier: EPL-2.0
+--
+-- Contributors:
+--   Red Hat, Inc. - initial API and implementation
+--
+
+-- User search trigrams --------------------------------------------------------
+-- the tables are left empty, search by name and email part is served by pg_trgm indexes
+CREATE TABLE usr_name_trigram (
+    user_id     VARCHAR(255)    NOT NULL,
+    trigram     VARCHAR(12)     NOT NULL
+);
+-- indexes
+CREATE INDEX index_usr_name_trigram_trigram ON usr_name_trigram (trigram, user_id);
+CREATE INDEX index_usr_name_trigram_user_id ON usr_name_trigram (user_id);
+-- constraints
+ALTER TABLE usr_name_trigram ADD CONSTRAINT fk_usr_name_trigram_user_id FOREIGN KEY (user_id) REFERENCES usr (id);
+
+CREATE TABLE usr_email_trigram (
+    user_id     VARCHAR(255)    NOT NULL,
+    trigram     VARCHAR(12)     NOT NULL
+);
+-- indexes
+CREATE INDEX index_usr_email_trigram_trigram ON usr_email_trigram (trigram, user_id);
+CREATE INDEX index_usr_email_trigram_user_id ON usr_email_trigram (user_id);
+-- constraints
+ALTER TABLE usr_email_trigram ADD CONSTRAINT fk_usr_email_trigram_user_id FOREIGN KEY (user_id) REFERENCES usr (id);
+--------------------------------------------------------------------------------
+
@@ -244,6 +244,11 @@ public class CascadeRemovalTest {
                     .annotatedWith(Names.named("che.limits.workspace.run.timeout"))
                     .toInstance(0L);
 
+                bind(Long.class)
+                    .annotatedWith(
+                        Names.named("che.infra.kubernetes.machine_status_flush_window_ms"))
+                    .toInstance(0L);
+
                 bind(UserManager.class);
                 bind(AccountManager.class);
 
@@ -11,6 +11,7 @@
  */
 
 import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
 import com.google.inject.persist.Transactional;
 import java.sql.Connection;
 import java.sql.DriverManager;
@@ -207,6 +208,9 @@ public class PostgreSqlTckModule extends TckModule {
 
     bind(KubernetesRuntimeStateCache.class).to(JpaKubernetesRuntimeStateCache.class);
     bind(KubernetesMachineCache.class).to(JpaKubernetesMachineCache.class);
+    bind(Long.class)
+        .annotatedWith(Names.named("che.infra.kubernetes.machine_status_flush_window_ms"))
+        .toInstance(0L);
     bind(JpaKubernetesRuntimeStateCache.RemoveKubernetesRuntimeBeforeWorkspaceRemoved.class)
         .asEagerSingleton();
     bind(JpaKubernetesMachineCache.RemoveKubernetesMachinesBeforeRuntimesRemoved.class)